@@ -1,38 +1,52 @@
 package com.fastcode.dvdrental.addons.reporting;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
 import javax.persistence.AttributeConverter;
 import javax.persistence.Converter;
 import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
 
+/**
+ * Maps report queries to their jsonb column. Every conversion shares one {@link ObjectMapper}, whose readers
+ * and writers are thread safe, instead of creating a parser per value.
+ */
 @Converter
 public class JSONObjectConverter implements AttributeConverter<JSONObject, String> {
 
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader READER = MAPPER.readerFor(JSONObject.class);
+    private static final ObjectWriter WRITER = MAPPER.writer();
+
     @Override
     public String convertToDatabaseColumn(JSONObject jsonData) {
-        String json;
+        if (jsonData == null) {
+            return null;
+        }
         try {
-            json = jsonData.toString();
-        } catch (NullPointerException ex) {
-            //extend error handling here if you want
-            json = "";
+            return WRITER.writeValueAsString(jsonData);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Query is not valid JSON", e);
         }
-        return json;
     }
 
     @Override
     public JSONObject convertToEntityAttribute(String jsonDataAsJson) {
-        JSONParser parser = new JSONParser();
+        return parse(jsonDataAsJson);
+    }
 
-        Object obj;
+    /**
+     * Parses a JSON object, returning null when the text is empty or is not a JSON object.
+     */
+    public static JSONObject parse(String json) {
+        if (json == null || json.isEmpty()) {
+            return null;
+        }
         try {
-            obj = parser.parse(jsonDataAsJson);
-            JSONObject jsonData = (JSONObject) obj;
-            return jsonData;
-        } catch (ParseException e) {
-            // TODO Auto-generated catch block
-            //	e.printStackTrace();
+            return READER.readValue(json);
+        } catch (IOException e) {
             return null;
         }
     }
@@ -0,0 +1,95 @@
+package com.fastcode.dvdrental.addons.reporting;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.json.simple.JSONObject;
+import org.springframework.stereotype.Component;
+
+/**
+ * Parsed report queries, keyed by the report version and its row version, so that listing reports parses
+ * each query once instead of once per row and request.
+ *
+ * A new row version is written with every update of the report version, so a changed query is parsed again
+ * under a new key and the old entry simply ages out. The cached queries are read only: each caller gets a
+ * copy of the top level object, whose nested objects and arrays cannot be modified.
+ */
+@Component
+public class ParsedQueryCache {
+
+    public static final long MAXIMUM_SIZE = 10_000;
+
+    private final Cache<Key, Map<String, Object>> queries = Caffeine.newBuilder().maximumSize(MAXIMUM_SIZE).build();
+
+    public JSONObject get(Long userId, Long reportId, String reportVersion, Long versiono, String json) {
+        if (json == null) {
+            return null;
+        }
+        Map<String, Object> query = queries.get(
+            new Key(userId, reportId, reportVersion, versiono),
+            key -> freeze(JSONObjectConverter.parse(json))
+        );
+        return query != null ? new JSONObject(query) : null;
+    }
+
+    private static Map<String, Object> freeze(Map<String, Object> map) {
+        if (map == null) {
+            return null;
+        }
+        Map<String, Object> frozen = new LinkedHashMap<>(map.size());
+        map.forEach((name, value) -> frozen.put(name, freezeValue(value)));
+        return Collections.unmodifiableMap(frozen);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object freezeValue(Object value) {
+        if (value instanceof Map) {
+            return freeze((Map<String, Object>) value);
+        }
+        if (value instanceof List) {
+            List<Object> frozen = new ArrayList<>(((List<Object>) value).size());
+            ((List<Object>) value).forEach(element -> frozen.add(freezeValue(element)));
+            return Collections.unmodifiableList(frozen);
+        }
+        return value;
+    }
+
+    private static final class Key {
+
+        private final Long userId;
+        private final Long reportId;
+        private final String reportVersion;
+        private final Long versiono;
+
+        private Key(Long userId, Long reportId, String reportVersion, Long versiono) {
+            this.userId = userId;
+            this.reportId = reportId;
+            this.reportVersion = reportVersion;
+            this.versiono = versiono;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return (
+                Objects.equals(userId, other.userId) &&
+                Objects.equals(reportId, other.reportId) &&
+                Objects.equals(reportVersion, other.reportVersion) &&
+                Objects.equals(versiono, other.versiono)
+            );
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, reportId, reportVersion, versiono);
+        }
+    }
+}
@@ -13,6 +13,7 @@ import com.fastcode.dvdrental.addons.reporting.application.report.IReportMapper;
 import com.fastcode.dvdrental.addons.reporting.application.report.dto.CreateReportInput;
 import com.fastcode.dvdrental.addons.reporting.application.report.dto.CreateReportOutput;
 import com.fastcode.dvdrental.addons.reporting.application.report.dto.FindReportByIdOutput;
+import com.fastcode.dvdrental.addons.reporting.application.report.dto.ReportDataOutput;
 import com.fastcode.dvdrental.addons.reporting.application.report.dto.UpdateReportInput;
 import com.fastcode.dvdrental.addons.reporting.domain.dashboard.DashboardEntity;
 import com.fastcode.dvdrental.addons.reporting.domain.dashboard.IDashboardRepository;
@@ -28,6 +29,7 @@ import com.fastcode.dvdrental.addons.reporting.domain.report.ReportEntity;
 import com.fastcode.dvdrental.addons.reporting.domain.reportversion.IReportversionRepository;
 import com.fastcode.dvdrental.addons.reporting.domain.reportversion.ReportversionEntity;
 import com.fastcode.dvdrental.addons.reporting.domain.reportversion.ReportversionId;
+import com.fastcode.dvdrental.addons.reporting.query.ReportQueryEngine;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.commons.search.*;
 import com.fastcode.dvdrental.domain.core.authorization.user.UserEntity;
@@ -35,12 +37,15 @@ import com.fastcode.dvdrental.domain.extended.authorization.user.IUserRepository
 import com.querydsl.core.BooleanBuilder;
 import java.time.*;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -103,6 +108,12 @@ public class DashboardAppService implements IDashboardAppService {
     @Autowired
     protected LoggingHelper logHelper;
 
+    @Autowired
+    protected ReportQueryEngine reportQueryEngine;
+
+    @Value("${fastCode.reporting.dashboard.reportTimeoutSeconds:30}")
+    protected int reportTimeoutSeconds;
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreateDashboardOutput create(CreateDashboardInput input) {
         DashboardEntity dashboard = mapper.createDashboardInputToDashboardEntity(input);
@@ -147,21 +158,13 @@ public class DashboardAppService implements IDashboardAppService {
             foundDashboard = _dashboardRepository.save(foundDashboard);
         }
 
-        Long count = 0L;
+        List<Long> reportIds = new ArrayList<>(input.getReportDetails().size());
+        List<String> reportWidths = new ArrayList<>(input.getReportDetails().size());
         for (UpdateReportInput reportInput : input.getReportDetails()) {
-            DashboardversionreportEntity dashboardreport = _reportDashboardRepository
-                .findById(new DashboardversionreportId(dashboardId, input.getUserId(), "running", reportInput.getId()))
-                .orElse(null);
-            if (reportInput.getReportWidth() != null) {
-                dashboardreport.setReportWidth(reportInput.getReportWidth());
-            } else {
-                dashboardreport.setReportWidth("mediumchart");
-            }
-            dashboardreport.setOrderId(count);
-            count++;
-
-            DashboardversionreportEntity dashboardVersionReport = _reportDashboardRepository.save(dashboardreport);
+            reportIds.add(reportInput.getId());
+            reportWidths.add(reportInput.getReportWidth());
         }
+        _dashboardRepository.updateReportLayout(dashboardId, input.getUserId(), reportIds, reportWidths);
 
         return mapper.dashboardEntityAndUpdateDashboardversionOutputToUpdateDashboardOutput(
             foundDashboard,
@@ -199,32 +202,50 @@ public class DashboardAppService implements IDashboardAppService {
     }
 
     public List<FindReportByIdOutput> setReportsList(Long dashboardId, Long userId, String version) {
-        List<DashboardversionreportEntity> reportDashboardList = _reportDashboardRepository.findByDashboardIdAndVersionAndUserId(
-            dashboardId,
-            version,
-            userId
-        );
+        return _dashboardRepository.getDashboardReports(dashboardId, userId, version);
+    }
 
-        List<FindReportByIdOutput> reportDetails = new ArrayList<>();
-        for (DashboardversionreportEntity rd : reportDashboardList) {
-            ReportversionEntity reportversion = _reportversionRepository
-                .findById(new ReportversionId(rd.getUserId(), rd.getReportId(), version))
-                .orElse(null);
-            FindReportByIdOutput output = reportMapper.reportEntitiesToFindReportByIdOutput(
-                rd.getReport(),
-                reportversion
-            );
-            output.setOrderId(rd.getOrderId());
-            output.setReportWidth(rd.getReportWidth());
-            reportDetails.add(output);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void getDashboardData(
+        Long dashboardId,
+        Long userId,
+        String version,
+        Consumer<DashboardReportDataOutput> consumer
+    ) {
+        Map<Long, Map<String, Object>> queries = new LinkedHashMap<>();
+        for (FindReportByIdOutput report : _dashboardRepository.getDashboardReports(dashboardId, userId, version)) {
+            if (report.getQuery() == null) {
+                consumer.accept(reportData(report.getId(), null, "Report has no query"));
+            } else {
+                queries.put(report.getId(), report.getQuery());
+            }
         }
 
-        List<FindReportByIdOutput> sortedReports = reportDetails
-            .stream()
-            .sorted(Comparator.comparing(FindReportByIdOutput::getOrderId))
-            .collect(Collectors.toList());
+        reportQueryEngine.executeAll(
+            queries,
+            reportTimeoutSeconds * 1000L,
+            (reportId, data) -> consumer.accept(reportData(reportId, data, null)),
+            (reportId, e) -> {
+                String error;
+                if (e instanceof IllegalArgumentException) {
+                    error = e.getMessage();
+                } else if (e instanceof TimeoutException) {
+                    error = "Report timed out";
+                } else {
+                    logHelper.getLogger().error("Query of report " + reportId + " failed", e);
+                    error = "Report query failed";
+                }
+                consumer.accept(reportData(reportId, null, error));
+            }
+        );
+    }
 
-        return sortedReports;
+    private static DashboardReportDataOutput reportData(Long reportId, ReportDataOutput data, String error) {
+        DashboardReportDataOutput output = new DashboardReportDataOutput();
+        output.setReportId(reportId);
+        output.setData(data);
+        output.setError(error);
+        return output;
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
@@ -232,11 +253,12 @@ public class DashboardAppService implements IDashboardAppService {
         DashboardEntity foundDashboard = _dashboardRepository.findByDashboardIdAndUserId(dashboardId, userId);
         if (foundDashboard == null) return null;
 
-        DashboardversionEntity dashboardVersion, publishedversion;
-        publishedversion =
-            _dashboardversionRepository.findById(new DashboardversionId(userId, dashboardId, "published")).orElse(null);
+        DashboardversionEntity dashboardVersion;
         if (StringUtils.isNotBlank(version) && version.equalsIgnoreCase("published")) {
-            dashboardVersion = publishedversion;
+            dashboardVersion =
+                _dashboardversionRepository
+                    .findById(new DashboardversionId(userId, dashboardId, "published"))
+                    .orElse(null);
         } else {
             dashboardVersion =
                 _dashboardversionRepository
@@ -252,110 +274,44 @@ public class DashboardAppService implements IDashboardAppService {
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public List<DashboardDetailsOutput> getDashboards(Long userId, String search, Pageable pageable) throws Exception {
-        Page<DashboardDetailsOutput> foundDashboard = _dashboardRepository.getAllDashboardsByUserId(
-            userId,
-            search,
-            pageable
-        );
-        List<DashboardDetailsOutput> dashboardList = foundDashboard.getContent();
+    public Slice<DashboardDetailsOutput> getDashboards(
+        Long userId,
+        String search,
+        KeysetCursor after,
+        Pageable pageable
+    ) throws Exception {
+        return _dashboardRepository.getAllDashboardsByUserId(userId, search, after, pageable);
+    }
 
-        return dashboardList;
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long countDashboards(Long userId, String search) {
+        return _dashboardRepository.countDashboardsByUserId(userId, search);
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public List<DashboardDetailsOutput> getAvailableDashboards(
+    public Slice<DashboardDetailsOutput> getAvailableDashboards(
         Long userId,
         Long reportId,
         String search,
+        KeysetCursor after,
         Pageable pageable
     ) throws Exception {
-        Page<DashboardDetailsOutput> foundDashboard = _dashboardRepository.getAvailableDashboardsByUserId(
-            userId,
-            reportId,
-            search,
-            pageable
-        );
-        List<DashboardDetailsOutput> dashboardList = foundDashboard.getContent();
+        return _dashboardRepository.getAvailableDashboardsByUserId(userId, reportId, search, after, pageable);
+    }
 
-        return dashboardList;
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long countAvailableDashboards(Long userId, Long reportId, String search) {
+        return _dashboardRepository.countAvailableDashboardsByUserId(userId, reportId, search);
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
     public FindDashboardByIdOutput publishDashboard(Long userId, Long dashboardId) {
-        DashboardEntity foundDashboard = _dashboardRepository.findById(dashboardId).orElse(null);
-        foundDashboard.setIsPublished(true);
-        foundDashboard = _dashboardRepository.save(foundDashboard);
+        _dashboardRepository.publishDashboard(dashboardId, userId);
 
+        DashboardEntity foundDashboard = _dashboardRepository.findById(dashboardId).orElse(null);
         DashboardversionEntity foundDashboardversion = _dashboardversionRepository
             .findById(new DashboardversionId(userId, dashboardId, "running"))
             .orElse(null);
-        DashboardversionEntity foundPublishedversion = _dashboardversionRepository
-            .findById(new DashboardversionId(userId, dashboardId, "published"))
-            .orElse(null);
-        DashboardversionEntity publishedVersion = dashboardversionMapper.dashboardversionEntityToDashboardversionEntity(
-            foundDashboardversion,
-            userId,
-            "published"
-        );
-
-        if (foundPublishedversion != null) {
-            publishedVersion.setVersiono(foundPublishedversion.getVersiono());
-        } else publishedVersion.setVersiono(0L);
-
-        _dashboardversionRepository.save(publishedVersion);
-        foundDashboardversion.setIsRefreshed(true);
-        _dashboardversionRepository.save(foundDashboardversion);
-
-        //check if report is added in running version
-        List<DashboardversionreportEntity> dashboardreportList = _reportDashboardRepository.findByDashboardIdAndVersionAndUserId(
-            dashboardId,
-            "running",
-            userId
-        );
-
-        for (DashboardversionreportEntity dashboardreport : dashboardreportList) {
-            DashboardversionreportEntity publishedDashboardreport = _reportDashboardRepository
-                .findById(new DashboardversionreportId(dashboardId, userId, "published", dashboardreport.getReportId()))
-                .orElse(null);
-            if (publishedDashboardreport != null) {
-                publishedDashboardreport.setOrderId(dashboardreport.getOrderId());
-                publishedDashboardreport.setReportWidth(dashboardreport.getReportWidth());
-                _reportDashboardRepository.save(publishedDashboardreport);
-            } else {
-                publishedDashboardreport =
-                    dashboardversionMapper.dashboardversionreportEntityToDashboardversionreportEntity(
-                        dashboardreport,
-                        userId,
-                        "published"
-                    );
-                _reportDashboardRepository.save(publishedDashboardreport);
-            }
-
-            _reportAppService.publishReport(dashboardreport.getUserId(), dashboardreport.getReportId());
-        }
-
-        //check if report is removed from running version
-        List<DashboardversionreportEntity> dashboardPublishedreportList = _reportDashboardRepository.findByDashboardIdAndVersionAndUserId(
-            dashboardId,
-            "published",
-            userId
-        );
-
-        for (DashboardversionreportEntity dashboardeport : dashboardPublishedreportList) {
-            DashboardversionreportEntity runningDashboardreport = _reportDashboardRepository
-                .findById(new DashboardversionreportId(dashboardId, userId, "running", dashboardeport.getReportId()))
-                .orElse(null);
-            if (runningDashboardreport == null) {
-                runningDashboardreport =
-                    dashboardversionMapper.dashboardversionreportEntityToDashboardversionreportEntity(
-                        dashboardeport,
-                        userId,
-                        "published"
-                    );
-                _reportDashboardRepository.delete(runningDashboardreport);
-            }
-        }
 
         return mapper.dashboardEntitiesToFindDashboardByIdOutput(foundDashboard, foundDashboardversion);
     }
@@ -365,39 +321,7 @@ public class DashboardAppService implements IDashboardAppService {
         DashboardEntity foundDashboard = _dashboardRepository.findById(dashboardId).orElse(null);
 
         if (foundDashboard != null && foundDashboard.getUser() != null && foundDashboard.getUser().getId() == userId) {
-            DashboardversionEntity ownerPublishedversion = _dashboardversionRepository
-                .findById(new DashboardversionId(userId, dashboardId, "published"))
-                .orElse(null);
-            DashboardversionEntity ownerRunningversion = _dashboardversionRepository
-                .findById(new DashboardversionId(userId, dashboardId, "running"))
-                .orElse(null);
-
-            UserEntity foundUser = _userRepository.findById(userId).orElse(null);
-
-            DashboardversionEntity updatedVersion = dashboardversionMapper.dashboardversionEntityToDashboardversionEntity(
-                ownerPublishedversion,
-                userId,
-                "running"
-            );
-            updatedVersion.setUser(foundUser);
-            updatedVersion.setVersiono(ownerRunningversion.getVersiono());
-            updatedVersion.setIsRefreshed(true);
-            _dashboardversionRepository.save(updatedVersion);
-
-            List<DashboardversionreportEntity> dvrList = _reportDashboardRepository.findByDashboardIdAndVersionAndUserId(
-                dashboardId,
-                "published",
-                userId
-            );
-            for (DashboardversionreportEntity dvr : dvrList) {
-                DashboardversionreportEntity updateDashboardreport = dashboardversionMapper.dashboardversionreportEntityToDashboardversionreportEntity(
-                    dvr,
-                    userId,
-                    "running"
-                );
-                _reportDashboardRepository.save(updateDashboardreport);
-                _reportAppService.refreshReport(userId, dvr.getReportId());
-            }
+            _dashboardRepository.refreshDashboard(dashboardId, userId);
 
             DashboardversionEntity runningversion = _dashboardversionRepository
                 .findById(new DashboardversionId(userId, dashboardId, "running"))
@@ -2,11 +2,14 @@ package com.fastcode.dvdrental.addons.reporting.application.dashboard;
 
 import com.fastcode.dvdrental.addons.reporting.application.dashboard.dto.*;
 import com.fastcode.dvdrental.addons.reporting.application.report.dto.FindReportByIdOutput;
+import com.fastcode.dvdrental.commons.search.KeysetCursor;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
 import java.time.*;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface IDashboardAppService {
     CreateDashboardOutput create(CreateDashboardInput dashboard);
@@ -23,13 +26,29 @@ public interface IDashboardAppService {
 
     List<FindReportByIdOutput> setReportsList(Long dashboardId, Long userId, String version);
 
-    FindDashboardByIdOutput findByDashboardIdAndUserId(Long dashboardId, Long userId, String version);
+    /**
+     * Executes the queries of the reports of a dashboard version at once, and hands the data or the error of
+     * each report over as soon as it is ready.
+     */
+    void getDashboardData(Long dashboardId, Long userId, String version, Consumer<DashboardReportDataOutput> consumer);
 
-    List<DashboardDetailsOutput> getDashboards(Long userId, String search, Pageable pageable) throws Exception;
+    FindDashboardByIdOutput findByDashboardIdAndUserId(Long dashboardId, Long userId, String version);
 
-    List<DashboardDetailsOutput> getAvailableDashboards(Long userId, Long reportId, String search, Pageable pageable)
+    Slice<DashboardDetailsOutput> getDashboards(Long userId, String search, KeysetCursor after, Pageable pageable)
         throws Exception;
 
+    long countDashboards(Long userId, String search);
+
+    Slice<DashboardDetailsOutput> getAvailableDashboards(
+        Long userId,
+        Long reportId,
+        String search,
+        KeysetCursor after,
+        Pageable pageable
+    ) throws Exception;
+
+    long countAvailableDashboards(Long userId, Long reportId, String search);
+
     FindDashboardByIdOutput publishDashboard(Long userId, Long dashboardId);
 
     FindDashboardByIdOutput refreshDashboard(Long userId, Long dashboardId);
@@ -0,0 +1,14 @@
+package com.fastcode.dvdrental.addons.reporting.application.dashboard.dto;
+
+import com.fastcode.dvdrental.addons.reporting.application.report.dto.ReportDataOutput;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class DashboardReportDataOutput {
+
+    private Long reportId;
+    private ReportDataOutput data;
+    private String error;
+}
@@ -1,11 +1,13 @@
 package com.fastcode.dvdrental.addons.reporting.application.report;
 
 import com.fastcode.dvdrental.addons.reporting.application.report.dto.*;
+import com.fastcode.dvdrental.commons.search.KeysetCursor;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
 import java.time.*;
 import java.util.List;
 import java.util.Map;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface IReportAppService {
     CreateReportOutput create(CreateReportInput report);
@@ -18,7 +20,10 @@ public interface IReportAppService {
 
     List<FindReportByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
 
-    List<ReportDetailsOutput> getReports(Long userId, String search, Pageable pageable) throws Exception;
+    Slice<ReportDetailsOutput> getReports(Long userId, String search, KeysetCursor after, Pageable pageable)
+        throws Exception;
+
+    long countReports(Long userId, String search);
 
     FindReportByIdOutput findByReportIdAndUserId(Long reportId, Long userId, String version);
 
@@ -26,5 +31,7 @@ public interface IReportAppService {
 
     ReportDetailsOutput refreshReport(Long userId, Long reportId);
 
+    ReportDataOutput getReportData(Long reportId, Long userId, String version);
+
     Map<String, String> parseReportdashboardJoinColumn(String keysString);
 }
@@ -15,6 +15,7 @@ import com.fastcode.dvdrental.addons.reporting.domain.report.ReportEntity;
 import com.fastcode.dvdrental.addons.reporting.domain.reportversion.IReportversionRepository;
 import com.fastcode.dvdrental.addons.reporting.domain.reportversion.ReportversionEntity;
 import com.fastcode.dvdrental.addons.reporting.domain.reportversion.ReportversionId;
+import com.fastcode.dvdrental.addons.reporting.query.ReportQueryEngine;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.commons.search.*;
 import com.fastcode.dvdrental.domain.core.authorization.user.UserEntity;
@@ -27,6 +28,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -66,6 +68,9 @@ public class ReportAppService implements IReportAppService {
     @Qualifier("IReportversionMapperImpl")
     protected IReportversionMapper reportversionMapper;
 
+    @Autowired
+    protected ReportQueryEngine reportQueryEngine;
+
     @Autowired
     protected LoggingHelper logHelper;
 
@@ -223,12 +228,34 @@ public class ReportAppService implements IReportAppService {
         return null;
     }
 
+    /**
+     * Executes the query of a version of a report of the user, or returns null when the user has no such
+     * version of the report.
+     */
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public List<ReportDetailsOutput> getReports(Long userId, String search, Pageable pageable) throws Exception {
-        Page<ReportDetailsOutput> foundReport = _reportRepository.getAllReportsByUserId(userId, search, pageable);
-        List<ReportDetailsOutput> reportList = foundReport.getContent();
+    public ReportDataOutput getReportData(Long reportId, Long userId, String version) {
+        ReportversionEntity reportversion = _reportversionRepository
+            .findById(new ReportversionId(userId, reportId, version))
+            .orElse(null);
+        if (reportversion == null) {
+            return null;
+        }
+        if (reportversion.getQuery() == null) {
+            throw new IllegalArgumentException("Report has no query");
+        }
 
-        return reportList;
+        return reportQueryEngine.execute(reportversion.getQuery());
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Slice<ReportDetailsOutput> getReports(Long userId, String search, KeysetCursor after, Pageable pageable)
+        throws Exception {
+        return _reportRepository.getAllReportsByUserId(userId, search, after, pageable);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long countReports(Long userId, String search) {
+        return _reportRepository.countReportsByUserId(userId, search);
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
@@ -0,0 +1,15 @@
+package com.fastcode.dvdrental.addons.reporting.application.report.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ReportDataColumn {
+
+    private String member;
+    private String type;
+    private List<Object> values = new ArrayList<>();
+}
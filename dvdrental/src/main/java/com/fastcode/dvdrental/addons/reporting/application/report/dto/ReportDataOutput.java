@@ -0,0 +1,16 @@
+package com.fastcode.dvdrental.addons.reporting.application.report.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ReportDataOutput {
+
+    private List<ReportDataColumn> columns = new ArrayList<>();
+    private int rowCount;
+    private boolean truncated;
+    private String rollup;
+}
@@ -11,6 +11,7 @@ public class ReportDetailsOutput {
 
     private Long id;
     private Boolean isPublished;
+    private Boolean isRefreshed;
     private String ctype;
     private String description;
     private JSONObject query;
@@ -0,0 +1,196 @@
+package com.fastcode.dvdrental.addons.reporting.domain;
+
+import com.fastcode.dvdrental.commons.search.KeysetCursor;
+import com.fastcode.dvdrental.commons.search.OffsetBasedPageRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Paged read path of the report and dashboard listings, which read the versions of a user with native
+ * queries.
+ *
+ * A listing query has to end with its {@code WHERE} clause. The page is read by the listing query itself:
+ * the predicate of a {@link KeysetCursor} is added to its conditions and it is ordered by the title and id
+ * columns and limited to the page, so that the {@code (user_id, version, title, id)} indexes of the version
+ * tables serve it and a page after a cursor starts at the cursor in the index. The id always closes the
+ * order. The total of a listing is only counted when asked for, with a separate {@code COUNT(*)}.
+ */
+public final class ListingQuery {
+
+    public static final String TITLE = "title";
+    public static final String ID = "id";
+
+    private final String titleColumn;
+    private final String idColumn;
+
+    /**
+     * @param titleColumn the title column of the listing query, e.g. {@code rv.title}
+     * @param idColumn the id column of the listing query, e.g. {@code rv.report_id}
+     */
+    public ListingQuery(String titleColumn, String idColumn) {
+        this.titleColumn = titleColumn;
+        this.idColumn = idColumn;
+    }
+
+    /**
+     * Returns the LIKE pattern of a search of the lower cased titles, which the trigram indexes serve, or
+     * null when there is nothing to search for.
+     */
+    public static String searchPattern(String search) {
+        if (search == null || search.trim().isEmpty()) {
+            return null;
+        }
+        String escaped = search.trim().toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    /**
+     * Reads the slice of the listing given by the pageable, or the slice after the cursor when one is given.
+     * Orders on other properties than the title and the id are ignored.
+     *
+     * @throws IllegalArgumentException when the cursor was not created by a listing
+     */
+    public <T> Slice<T> fetch(
+        EntityManager entityManager,
+        String listingSql,
+        Map<String, Object> parameters,
+        KeysetCursor after,
+        Pageable pageable,
+        Function<Object[], T> mapper
+    ) {
+        Sort sort = after != null ? cursorSort(after) : listingSort(pageable.getSort());
+        int offset = after != null ? 0 : (int) pageable.getOffset();
+        Pageable page = new OffsetBasedPageRequest(offset, pageable.getPageSize(), sort);
+
+        StringBuilder sql = new StringBuilder(listingSql);
+        if (after != null) {
+            sql.append(" AND ").append(keysetPredicate(sort));
+        }
+        sql.append(" ORDER BY ").append(orderBy(sort));
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        parameters.forEach(query::setParameter);
+        if (after != null) {
+            bindKeyset(query, after);
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = query
+            .setFirstResult((int) page.getOffset())
+            .setMaxResults(page.getPageSize() + 1)
+            .getResultList();
+
+        boolean hasNext = rows.size() > page.getPageSize();
+        List<T> content = new ArrayList<>(Math.min(rows.size(), page.getPageSize()));
+        for (Object[] row : hasNext ? rows.subList(0, page.getPageSize()) : rows) {
+            content.add(mapper.apply(row));
+        }
+        return new SliceImpl<>(content, page, hasNext);
+    }
+
+    /**
+     * Counts the rows of the listing.
+     */
+    public long count(EntityManager entityManager, String listingSql, Map<String, Object> parameters) {
+        Query count = entityManager.createNativeQuery("SELECT COUNT(*) FROM (" + listingSql + ") listing");
+        parameters.forEach(count::setParameter);
+        return ((Number) count.getSingleResult()).longValue();
+    }
+
+    private static Sort listingSort(Sort sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        if (sort != null) {
+            for (Sort.Order order : sort) {
+                if (TITLE.equals(order.getProperty()) || ID.equals(order.getProperty())) {
+                    orders.add(order);
+                }
+            }
+        }
+        if (orders.isEmpty()) {
+            orders.add(Sort.Order.asc(TITLE));
+        }
+        return KeysetCursor.keysetSort(Sort.by(orders), ID);
+    }
+
+    private static Sort cursorSort(KeysetCursor after) {
+        for (Sort.Order order : after.getOrders()) {
+            if (!TITLE.equals(order.getProperty()) && !ID.equals(order.getProperty())) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+        if (!ID.equals(after.getOrders().get(after.getOrders().size() - 1).getProperty())) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return after.getSort();
+    }
+
+    private String column(Sort.Order order) {
+        return TITLE.equals(order.getProperty()) ? titleColumn : idColumn;
+    }
+
+    private String orderBy(Sort sort) {
+        List<String> columns = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            columns.add(column(order) + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        return String.join(", ", columns);
+    }
+
+    /**
+     * Returns the predicate of the rows after the cursor. When every order has the same direction it is the
+     * row comparison {@code (a, b) > (:after0, :after1)}, which Postgres seeks to in the listing index;
+     * otherwise it is {@code (a > :after0) OR (a = :after0 AND b > :after1)}, with the comparison of each
+     * order following its direction.
+     */
+    private String keysetPredicate(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        boolean ascending = orders.get(0).isAscending();
+        boolean uniform = orders.stream().allMatch(order -> order.isAscending() == ascending);
+        if (uniform) {
+            List<String> columns = new ArrayList<>();
+            List<String> values = new ArrayList<>();
+            for (int i = 0; i < orders.size(); i++) {
+                columns.add(column(orders.get(i)));
+                values.add(":after" + i);
+            }
+            String comparison = ascending ? " > " : " < ";
+            return "(" + String.join(", ", columns) + ")" + comparison + "(" + String.join(", ", values) + ")";
+        }
+
+        List<String> disjuncts = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            List<String> conjuncts = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                conjuncts.add(column(orders.get(j)) + " = :after" + j);
+            }
+            Sort.Order order = orders.get(i);
+            conjuncts.add(column(order) + (order.isAscending() ? " > " : " < ") + ":after" + i);
+            disjuncts.add("(" + String.join(" AND ", conjuncts) + ")");
+        }
+        return "(" + String.join(" OR ", disjuncts) + ")";
+    }
+
+    private static void bindKeyset(Query query, KeysetCursor after) {
+        for (int i = 0; i < after.getOrders().size(); i++) {
+            String value = after.getValues().get(i);
+            if (value == null) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            try {
+                query.setParameter(
+                    "after" + i,
+                    ID.equals(after.getOrders().get(i).getProperty()) ? (Object) Long.valueOf(value) : value
+                );
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
+}
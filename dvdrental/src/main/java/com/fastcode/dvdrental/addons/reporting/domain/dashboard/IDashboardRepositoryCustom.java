@@ -1,17 +1,38 @@
 package com.fastcode.dvdrental.addons.reporting.domain.dashboard;
 
 import com.fastcode.dvdrental.addons.reporting.application.dashboard.dto.DashboardDetailsOutput;
+import com.fastcode.dvdrental.addons.reporting.application.report.dto.FindReportByIdOutput;
+import com.fastcode.dvdrental.commons.search.KeysetCursor;
 import java.time.*;
-import org.springframework.data.domain.Page;
+import java.util.List;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface IDashboardRepositoryCustom {
-    Page<DashboardDetailsOutput> getAllDashboardsByUserId(Long userId, String search, Pageable pageable);
+    Slice<DashboardDetailsOutput> getAllDashboardsByUserId(
+        Long userId,
+        String search,
+        KeysetCursor after,
+        Pageable pageable
+    );
+
+    long countDashboardsByUserId(Long userId, String search);
 
-    Page<DashboardDetailsOutput> getAvailableDashboardsByUserId(
+    Slice<DashboardDetailsOutput> getAvailableDashboardsByUserId(
         Long userId,
         Long reportId,
         String search,
+        KeysetCursor after,
         Pageable pageable
     );
+
+    long countAvailableDashboardsByUserId(Long userId, Long reportId, String search);
+
+    List<FindReportByIdOutput> getDashboardReports(Long dashboardId, Long userId, String version);
+
+    void publishDashboard(Long dashboardId, Long userId);
+
+    void refreshDashboard(Long dashboardId, Long userId);
+
+    void updateReportLayout(Long dashboardId, Long userId, List<Long> reportIds, List<String> reportWidths);
 }
@@ -1,95 +1,161 @@
 package com.fastcode.dvdrental.addons.reporting.domain.dashboard;
 
+import com.fastcode.dvdrental.addons.reporting.ParsedQueryCache;
 import com.fastcode.dvdrental.addons.reporting.application.dashboard.dto.DashboardDetailsOutput;
+import com.fastcode.dvdrental.addons.reporting.application.report.dto.FindReportByIdOutput;
+import com.fastcode.dvdrental.addons.reporting.domain.ListingQuery;
+import com.fastcode.dvdrental.commons.search.KeysetCursor;
 import java.time.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import javax.persistence.EntityManager;
+import javax.persistence.Parameter;
 import javax.persistence.PersistenceContext;
 import javax.persistence.Query;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Repository;
 
 @Repository("dashboardRepositoryCustomImpl")
 @SuppressWarnings({ "unchecked" })
 public class IDashboardRepositoryCustomImpl implements IDashboardRepositoryCustom {
 
+    private static final ListingQuery LISTING = new ListingQuery("dv.title", "dv.dashboard_id");
+
+    private static final String RUNNING_REPORTS =
+        "SELECT dvr.report_id FROM %1$s.dashboardversionreport dvr " +
+        " WHERE dvr.dashboard_id = :dashboardId AND dvr.user_id = :userId AND dvr.dashboard_version = 'running'";
+
+    private static final String PUBLISHED_REPORTS =
+        "SELECT dvr.report_id FROM %1$s.dashboardversionreport dvr " +
+        " WHERE dvr.dashboard_id = :dashboardId AND dvr.user_id = :userId AND dvr.dashboard_version = 'published'";
+
     @PersistenceContext
     private EntityManager entityManager;
 
     @Autowired
     private Environment env;
 
+    @Autowired
+    private ParsedQueryCache parsedQueryCache;
+
     @Override
-    public Page<DashboardDetailsOutput> getAllDashboardsByUserId(Long userId, String search, Pageable pageable) {
+    public Slice<DashboardDetailsOutput> getAllDashboardsByUserId(
+        Long userId,
+        String search,
+        KeysetCursor after,
+        Pageable pageable
+    ) {
+        Map<String, Object> parameters = new HashMap<>();
+        String qlString = dashboardsSql(userId, search, parameters);
+        return LISTING.fetch(
+            entityManager,
+            qlString,
+            parameters,
+            after,
+            pageable,
+            obj -> {
+                DashboardDetailsOutput dashboardDetails = new DashboardDetailsOutput();
+
+                // Here you manually obtain value from object and map to your pojo setters
+                dashboardDetails.setId(Long.parseLong(obj[0].toString()));
+                dashboardDetails.setDashboardVersion(obj[1] != null ? (obj[1].toString()) : null);
+                dashboardDetails.setDescription(obj[2] != null ? (obj[2].toString()) : null);
+                dashboardDetails.setTitle(obj[3] != null ? (obj[3].toString()) : null);
+
+                dashboardDetails.setIsPublished(obj[4] != null && obj[4].toString().equals("true"));
+                dashboardDetails.setIsRefreshed(obj[5] != null && obj[5].toString().equals("true"));
+                dashboardDetails.setOwnerDescriptiveField(obj[6] != null ? (obj[6].toString()) : null);
+                dashboardDetails.setUserId(obj[7] != null ? Long.parseLong(obj[7].toString()) : null);
+                return dashboardDetails;
+            }
+        );
+    }
+
+    @Override
+    public long countDashboardsByUserId(Long userId, String search) {
+        Map<String, Object> parameters = new HashMap<>();
+        String qlString = dashboardsSql(userId, search, parameters);
+        return LISTING.count(entityManager, qlString, parameters);
+    }
+
+    private String dashboardsSql(Long userId, String search, Map<String, Object> parameters) {
         String schema = env.getProperty("spring.jpa.properties.hibernate.default_schema");
+        String searchPattern = ListingQuery.searchPattern(search);
+        parameters.put("userId", userId);
+
         String qlString = String.format(
             "" +
-            "SELECT d.id, rep.dashboard_version, rep.description, rep.title, d.is_published, rep.is_refreshed, " +
-            " us.user_name," +
-            "rep.user_id" +
-            " FROM ((%s.dashboard d " +
-            " RIGHT OUTER JOIN " +
-            "  (SELECT dv.* " +
-            "   FROM " +
-            "        %s.dashboardversion dv " +
-            "   WHERE " +
-            "   dv.user_id = :userId " +
-            "     AND (:search is null OR dv.title like :search) " +
-            "     AND dv.dashboard_version = 'running' ) AS rep ON rep.dashboard_id = d.id " +
-            " AND d.owner_id = rep.user_id )" +
-            " JOIN  ( " +
-            "SELECT id,user_name FROM %s.f_user where id = :userId) AS us ON us.id = rep.user_id)",
+            "SELECT dv.dashboard_id AS listing_id, dv.dashboard_version, dv.description, dv.title AS title, " +
+            " d.is_published, dv.is_refreshed, us.user_name, dv.user_id " +
+            " FROM %s.dashboardversion dv " +
+            " JOIN %s.f_user us ON us.id = dv.user_id " +
+            " LEFT OUTER JOIN %s.dashboard d ON d.id = dv.dashboard_id AND d.owner_id = dv.user_id " +
+            " WHERE dv.user_id = :userId " +
+            "   AND dv.dashboard_version = 'running'",
             schema,
             schema,
             schema
         );
-        Query query = entityManager
-            .createNativeQuery(qlString)
-            .setParameter("userId", userId)
-            .setParameter("search", "%" + search + "%")
-            .setFirstResult(pageable.getPageNumber() * pageable.getPageSize())
-            .setMaxResults(pageable.getPageSize());
-        List<Object[]> results = query.getResultList();
-        List<DashboardDetailsOutput> finalResults = new ArrayList<>();
-
-        for (Object[] obj : results) {
-            DashboardDetailsOutput dashboardDetails = new DashboardDetailsOutput();
-
-            // Here you manually obtain value from object and map to your pojo setters
-            dashboardDetails.setId(obj[0] != null ? Long.parseLong(obj[0].toString()) : null);
-            dashboardDetails.setDashboardVersion(obj[1] != null ? (obj[1].toString()) : null);
-            dashboardDetails.setDescription(obj[2] != null ? (obj[2].toString()) : null);
-            dashboardDetails.setTitle(obj[3] != null ? (obj[3].toString()) : null);
-
-            dashboardDetails.setIsPublished(obj[4] != null && obj[4].toString().equals("true"));
-            dashboardDetails.setIsRefreshed(obj[5] != null && obj[5].toString().equals("true"));
-            dashboardDetails.setOwnerDescriptiveField(obj[6] != null ? (obj[6].toString()) : null);
-            dashboardDetails.setUserId(obj[7] != null ? Long.parseLong(obj[7].toString()) : null);
-            finalResults.add(dashboardDetails);
+        if (searchPattern != null) {
+            qlString += " AND lower(dv.title) LIKE :search";
+            parameters.put("search", searchPattern);
         }
-        int totalRows = results.size();
-
-        Page<DashboardDetailsOutput> result = new PageImpl<DashboardDetailsOutput>(finalResults, pageable, totalRows);
-
-        return result;
+        return qlString;
     }
 
     @Override
-    public Page<DashboardDetailsOutput> getAvailableDashboardsByUserId(
+    public Slice<DashboardDetailsOutput> getAvailableDashboardsByUserId(
         Long userId,
         Long reportId,
         String search,
+        KeysetCursor after,
         Pageable pageable
     ) {
+        Map<String, Object> parameters = new HashMap<>();
+        String qlString = availableDashboardsSql(userId, reportId, search, parameters);
+        return LISTING.fetch(
+            entityManager,
+            qlString,
+            parameters,
+            after,
+            pageable,
+            obj -> {
+                DashboardDetailsOutput dashboardDetails = new DashboardDetailsOutput();
+
+                // Here you manually obtain value from object and map to your pojo setters
+                dashboardDetails.setId(Long.parseLong(obj[0].toString()));
+                dashboardDetails.setDashboardVersion(obj[1] != null ? (obj[1].toString()) : null);
+                dashboardDetails.setDescription(obj[2] != null ? (obj[2].toString()) : null);
+                dashboardDetails.setTitle(obj[3] != null ? (obj[3].toString()) : null);
+
+                dashboardDetails.setIsPublished(obj[4] != null && obj[4].toString().equals("true"));
+                dashboardDetails.setUserId(obj[5] != null ? Long.parseLong(obj[5].toString()) : null);
+                return dashboardDetails;
+            }
+        );
+    }
+
+    @Override
+    public long countAvailableDashboardsByUserId(Long userId, Long reportId, String search) {
+        Map<String, Object> parameters = new HashMap<>();
+        String qlString = availableDashboardsSql(userId, reportId, search, parameters);
+        return LISTING.count(entityManager, qlString, parameters);
+    }
+
+    private String availableDashboardsSql(Long userId, Long reportId, String search, Map<String, Object> parameters) {
         String schema = env.getProperty("spring.jpa.properties.hibernate.default_schema");
+        String searchPattern = ListingQuery.searchPattern(search);
+        parameters.put("userId", userId);
+        parameters.put("reportId", reportId);
+
         String qlString =
             "" +
-            "SELECT d.id, dv.dashboard_version, dv.description, dv.title , d.is_published, " +
+            "SELECT d.id AS listing_id, dv.dashboard_version, dv.description, dv.title AS title, d.is_published, " +
             " dv.user_id " +
             " FROM " +
             schema +
@@ -98,42 +164,255 @@ public class IDashboardRepositoryCustomImpl implements IDashboardRepositoryCusto
             ".dashboardversion dv " +
             "	WHERE dv.dashboard_id = d.id " +
             " AND dv.user_id = :userId " +
-            "	 AND dv.dashboard_id NOT IN " +
-            "	(SELECT dashboard_id AS id " +
+            "	 AND NOT EXISTS " +
+            "	(SELECT 1 " +
             "	FROM " +
             schema +
-            ".dashboardversionreport " +
-            "	WHERE report_id = :reportId " +
-            "	GROUP BY (report_id, dashboard_id)) " +
-            "	AND dv.dashboard_version = 'running' " +
-            "	   AND (:search is null OR dv.title like :search)";
-        Query query = entityManager
+            ".dashboardversionreport dvr " +
+            "	WHERE dvr.report_id = :reportId " +
+            "	AND dvr.dashboard_id = dv.dashboard_id) " +
+            "	AND dv.dashboard_version = 'running'";
+        if (searchPattern != null) {
+            qlString += " AND lower(dv.title) LIKE :search";
+            parameters.put("search", searchPattern);
+        }
+        return qlString;
+    }
+
+    /**
+     * Reads the reports of a dashboard version, in their order on the dashboard, with their report
+     * versions of the same version in one statement, however many reports the dashboard has. A report
+     * without a report version of that version is read with the fields of its report only.
+     */
+    @Override
+    public List<FindReportByIdOutput> getDashboardReports(Long dashboardId, Long userId, String version) {
+        String schema = env.getProperty("spring.jpa.properties.hibernate.default_schema");
+        String qlString = String.format(
+            "" +
+            "SELECT rv.report_id, r.is_published, rv.ctype, rv.description, CAST(rv.query AS VARCHAR) AS query, " +
+            " rv.report_type, rv.title, rv.report_version, dvr.report_width, rv.is_refreshed, r.owner_id, " +
+            " rv.user_id, dvr.order_id, r.versiono, rv.versiono AS reportversion_versiono " +
+            " FROM %s.dashboardversionreport dvr " +
+            " JOIN %s.report r ON r.id = dvr.report_id " +
+            " LEFT OUTER JOIN %s.reportversion rv ON rv.user_id = dvr.user_id AND rv.report_id = dvr.report_id " +
+            "   AND rv.report_version = dvr.dashboard_version " +
+            " WHERE dvr.dashboard_id = :dashboardId " +
+            "   AND dvr.user_id = :userId " +
+            "   AND dvr.dashboard_version = :version " +
+            " ORDER BY dvr.order_id",
+            schema,
+            schema,
+            schema
+        );
+        List<Object[]> results = entityManager
             .createNativeQuery(qlString)
+            .setParameter("dashboardId", dashboardId)
             .setParameter("userId", userId)
-            .setParameter("reportId", reportId)
-            .setParameter("search", "%" + search + "%")
-            .setFirstResult(pageable.getPageNumber() * pageable.getPageSize())
-            .setMaxResults(pageable.getPageSize());
-        List<Object[]> results = query.getResultList();
-        List<DashboardDetailsOutput> finalResults = new ArrayList<>();
+            .setParameter("version", version)
+            .getResultList();
+        List<FindReportByIdOutput> finalResults = new ArrayList<>(results.size());
 
         for (Object[] obj : results) {
-            DashboardDetailsOutput dashboardDetails = new DashboardDetailsOutput();
+            FindReportByIdOutput report = new FindReportByIdOutput();
 
             // Here you manually obtain value from object and map to your pojo setters
-            dashboardDetails.setId(obj[0] != null ? Long.parseLong(obj[0].toString()) : null);
-            dashboardDetails.setDashboardVersion(obj[1] != null ? (obj[1].toString()) : null);
-            dashboardDetails.setDescription(obj[2] != null ? (obj[2].toString()) : null);
-            dashboardDetails.setTitle(obj[3] != null ? (obj[3].toString()) : null);
-
-            dashboardDetails.setIsPublished(obj[4].toString().equals("true"));
-            dashboardDetails.setUserId(obj[5] != null ? Long.parseLong(obj[5].toString()) : null);
-            finalResults.add(dashboardDetails);
+            report.setId(obj[0] != null ? Long.parseLong(obj[0].toString()) : null);
+            report.setIsPublished(obj[1] != null ? obj[1].toString().equals("true") : null);
+            report.setCtype(obj[2] != null ? (obj[2].toString()) : null);
+            report.setDescription(obj[3] != null ? (obj[3].toString()) : null);
+            report.setReportType(obj[5] != null ? (obj[5].toString()) : null);
+            report.setTitle(obj[6] != null ? (obj[6].toString()) : null);
+            report.setReportVersion(obj[7] != null ? (obj[7].toString()) : null);
+            report.setReportWidth(obj[8] != null ? (obj[8].toString()) : null);
+            report.setIsRefreshed(obj[9] != null ? obj[9].toString().equals("true") : null);
+            report.setOwnerId(obj[10] != null ? Long.parseLong(obj[10].toString()) : null);
+            report.setUserId(obj[11] != null ? Long.parseLong(obj[11].toString()) : null);
+            report.setOrderId(obj[12] != null ? Long.parseLong(obj[12].toString()) : null);
+            report.setVersiono(obj[13] != null ? Long.parseLong(obj[13].toString()) : null);
+
+            // Queries are parsed once per report version and row version
+            if (obj[4] != null) {
+                report.setQuery(
+                    parsedQueryCache.get(
+                        report.getUserId(),
+                        report.getId(),
+                        report.getReportVersion(),
+                        Long.parseLong(obj[14].toString()),
+                        obj[4].toString()
+                    )
+                );
+            }
+            finalResults.add(report);
         }
+        return finalResults;
+    }
 
-        int totalRows = results.size();
-        Page<DashboardDetailsOutput> result = new PageImpl<DashboardDetailsOutput>(finalResults, pageable, totalRows);
+    /**
+     * Publishes the running version of a dashboard of a user, with its report layout and the running versions
+     * of its reports, in the same few statements however many reports the dashboard has. Published rows are
+     * updated from their running rows or inserted when they do not exist yet, and reports removed from the
+     * running layout are removed from the published one.
+     */
+    @Override
+    public void publishDashboard(Long dashboardId, Long userId) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("dashboardId", dashboardId);
+        parameters.put("userId", userId);
 
-        return result;
+        executeUpdates(
+            parameters,
+            "UPDATE %1$s.dashboard SET is_published = true, versiono = versiono + 1 WHERE id = :dashboardId",
+            // The published version copies the running one before the running one is marked as refreshed
+            "UPDATE %1$s.dashboardversion p " +
+            " SET (title, description, is_refreshed) = (SELECT r.title, r.description, r.is_refreshed " +
+            "   FROM %1$s.dashboardversion r WHERE r.dashboard_id = p.dashboard_id AND r.user_id = p.user_id " +
+            "   AND r.dashboard_version = 'running'), versiono = p.versiono + 1 " +
+            " WHERE p.dashboard_id = :dashboardId AND p.user_id = :userId AND p.dashboard_version = 'published' " +
+            "   AND EXISTS (SELECT 1 FROM %1$s.dashboardversion r WHERE r.dashboard_id = p.dashboard_id " +
+            "   AND r.user_id = p.user_id AND r.dashboard_version = 'running')",
+            "INSERT INTO %1$s.dashboardversion " +
+            " (dashboard_id, user_id, dashboard_version, title, description, is_refreshed, versiono) " +
+            " SELECT r.dashboard_id, r.user_id, 'published', r.title, r.description, r.is_refreshed, 0 " +
+            " FROM %1$s.dashboardversion r " +
+            " WHERE r.dashboard_id = :dashboardId AND r.user_id = :userId AND r.dashboard_version = 'running' " +
+            "   AND NOT EXISTS (SELECT 1 FROM %1$s.dashboardversion p WHERE p.dashboard_id = r.dashboard_id " +
+            "   AND p.user_id = r.user_id AND p.dashboard_version = 'published')",
+            "UPDATE %1$s.dashboardversion SET is_refreshed = true, versiono = versiono + 1 " +
+            " WHERE dashboard_id = :dashboardId AND user_id = :userId AND dashboard_version = 'running'",
+            "UPDATE %1$s.dashboardversionreport p " +
+            " SET (report_width, order_id) = (SELECT r.report_width, r.order_id " +
+            "   FROM %1$s.dashboardversionreport r WHERE r.dashboard_id = p.dashboard_id AND r.user_id = p.user_id " +
+            "   AND r.report_id = p.report_id AND r.dashboard_version = 'running'), versiono = p.versiono + 1 " +
+            " WHERE p.dashboard_id = :dashboardId AND p.user_id = :userId AND p.dashboard_version = 'published' " +
+            "   AND EXISTS (SELECT 1 FROM %1$s.dashboardversionreport r WHERE r.dashboard_id = p.dashboard_id " +
+            "   AND r.user_id = p.user_id AND r.report_id = p.report_id AND r.dashboard_version = 'running')",
+            "INSERT INTO %1$s.dashboardversionreport " +
+            " (dashboard_id, user_id, dashboard_version, report_id, report_width, order_id, versiono) " +
+            " SELECT r.dashboard_id, r.user_id, 'published', r.report_id, r.report_width, r.order_id, 0 " +
+            " FROM %1$s.dashboardversionreport r " +
+            " WHERE r.dashboard_id = :dashboardId AND r.user_id = :userId AND r.dashboard_version = 'running' " +
+            "   AND NOT EXISTS (SELECT 1 FROM %1$s.dashboardversionreport p WHERE p.dashboard_id = r.dashboard_id " +
+            "   AND p.user_id = r.user_id AND p.report_id = r.report_id AND p.dashboard_version = 'published')",
+            "DELETE FROM %1$s.dashboardversionreport p " +
+            " WHERE p.dashboard_id = :dashboardId AND p.user_id = :userId AND p.dashboard_version = 'published' " +
+            "   AND NOT EXISTS (SELECT 1 FROM %1$s.dashboardversionreport r WHERE r.dashboard_id = p.dashboard_id " +
+            "   AND r.user_id = p.user_id AND r.report_id = p.report_id AND r.dashboard_version = 'running')",
+            "UPDATE %1$s.report SET is_published = true, versiono = versiono + 1 WHERE id IN (" + RUNNING_REPORTS + ")",
+            "UPDATE %1$s.reportversion p " +
+            " SET (ctype, description, query, report_type, title, is_refreshed) = (SELECT r.ctype, r.description, " +
+            "   r.query, r.report_type, r.title, r.is_refreshed FROM %1$s.reportversion r " +
+            "   WHERE r.user_id = p.user_id AND r.report_id = p.report_id AND r.report_version = 'running'), " +
+            "   versiono = p.versiono + 1 " +
+            " WHERE p.user_id = :userId AND p.report_version = 'published' AND p.report_id IN (" + RUNNING_REPORTS + ") " +
+            "   AND EXISTS (SELECT 1 FROM %1$s.reportversion r WHERE r.user_id = p.user_id " +
+            "   AND r.report_id = p.report_id AND r.report_version = 'running')",
+            "INSERT INTO %1$s.reportversion " +
+            " (user_id, report_id, report_version, ctype, description, query, report_type, title, is_refreshed, versiono) " +
+            " SELECT r.user_id, r.report_id, 'published', r.ctype, r.description, r.query, r.report_type, r.title, " +
+            "   r.is_refreshed, 0 FROM %1$s.reportversion r " +
+            " WHERE r.user_id = :userId AND r.report_version = 'running' AND r.report_id IN (" + RUNNING_REPORTS + ") " +
+            "   AND NOT EXISTS (SELECT 1 FROM %1$s.reportversion p WHERE p.user_id = r.user_id " +
+            "   AND p.report_id = r.report_id AND p.report_version = 'published')",
+            "UPDATE %1$s.reportversion SET is_refreshed = true, versiono = versiono + 1 " +
+            " WHERE user_id = :userId AND report_version = 'running' AND report_id IN (" + RUNNING_REPORTS + ")"
+        );
+    }
+
+    /**
+     * Resets the running version of a dashboard of a user, with its report layout, to the published version,
+     * and the running versions of the reports of the published layout that the user owns to their published
+     * versions, in the same few statements however many reports the dashboard has.
+     */
+    @Override
+    public void refreshDashboard(Long dashboardId, Long userId) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("dashboardId", dashboardId);
+        parameters.put("userId", userId);
+
+        executeUpdates(
+            parameters,
+            "UPDATE %1$s.dashboardversion r " +
+            " SET (title, description) = (SELECT p.title, p.description FROM %1$s.dashboardversion p " +
+            "   WHERE p.dashboard_id = r.dashboard_id AND p.user_id = r.user_id AND p.dashboard_version = 'published'), " +
+            "   is_refreshed = true, versiono = r.versiono + 1 " +
+            " WHERE r.dashboard_id = :dashboardId AND r.user_id = :userId AND r.dashboard_version = 'running' " +
+            "   AND EXISTS (SELECT 1 FROM %1$s.dashboardversion p WHERE p.dashboard_id = r.dashboard_id " +
+            "   AND p.user_id = r.user_id AND p.dashboard_version = 'published')",
+            "UPDATE %1$s.dashboardversionreport r " +
+            " SET (report_width, order_id) = (SELECT p.report_width, p.order_id " +
+            "   FROM %1$s.dashboardversionreport p WHERE p.dashboard_id = r.dashboard_id AND p.user_id = r.user_id " +
+            "   AND p.report_id = r.report_id AND p.dashboard_version = 'published'), versiono = r.versiono + 1 " +
+            " WHERE r.dashboard_id = :dashboardId AND r.user_id = :userId AND r.dashboard_version = 'running' " +
+            "   AND EXISTS (SELECT 1 FROM %1$s.dashboardversionreport p WHERE p.dashboard_id = r.dashboard_id " +
+            "   AND p.user_id = r.user_id AND p.report_id = r.report_id AND p.dashboard_version = 'published')",
+            "INSERT INTO %1$s.dashboardversionreport " +
+            " (dashboard_id, user_id, dashboard_version, report_id, report_width, order_id, versiono) " +
+            " SELECT p.dashboard_id, p.user_id, 'running', p.report_id, p.report_width, p.order_id, 0 " +
+            " FROM %1$s.dashboardversionreport p " +
+            " WHERE p.dashboard_id = :dashboardId AND p.user_id = :userId AND p.dashboard_version = 'published' " +
+            "   AND NOT EXISTS (SELECT 1 FROM %1$s.dashboardversionreport r WHERE r.dashboard_id = p.dashboard_id " +
+            "   AND r.user_id = p.user_id AND r.report_id = p.report_id AND r.dashboard_version = 'running')",
+            "UPDATE %1$s.reportversion r " +
+            " SET (ctype, description, query, report_type, title) = (SELECT p.ctype, p.description, p.query, " +
+            "   p.report_type, p.title FROM %1$s.reportversion p WHERE p.user_id = r.user_id " +
+            "   AND p.report_id = r.report_id AND p.report_version = 'published'), " +
+            "   is_refreshed = true, versiono = r.versiono + 1 " +
+            " WHERE r.user_id = :userId AND r.report_version = 'running' AND r.report_id IN (" + PUBLISHED_REPORTS + ") " +
+            "   AND r.report_id IN (SELECT o.id FROM %1$s.report o WHERE o.owner_id = :userId) " +
+            "   AND EXISTS (SELECT 1 FROM %1$s.reportversion p WHERE p.user_id = r.user_id " +
+            "   AND p.report_id = r.report_id AND p.report_version = 'published')"
+        );
+    }
+
+    /**
+     * Sets the width and the order of the reports of the running version of a dashboard in one statement.
+     * The reports are ordered as given, and a report without a width gets the medium width.
+     */
+    @Override
+    public void updateReportLayout(Long dashboardId, Long userId, List<Long> reportIds, List<String> reportWidths) {
+        if (reportIds.isEmpty()) {
+            return;
+        }
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("dashboardId", dashboardId);
+        parameters.put("userId", userId);
+        parameters.put("reportIds", reportIds);
+
+        StringBuilder widths = new StringBuilder("CASE report_id");
+        StringBuilder orders = new StringBuilder("CASE report_id");
+        for (int i = 0; i < reportIds.size(); i++) {
+            widths.append(" WHEN :report").append(i).append(" THEN CAST(:width").append(i).append(" AS VARCHAR(255))");
+            orders.append(" WHEN :report").append(i).append(" THEN ").append(i);
+            parameters.put("report" + i, reportIds.get(i));
+            parameters.put("width" + i, reportWidths.get(i) != null ? reportWidths.get(i) : "mediumchart");
+        }
+        widths.append(" END");
+        orders.append(" END");
+
+        executeUpdates(
+            parameters,
+            "UPDATE %1$s.dashboardversionreport " +
+            " SET report_width = " + widths + ", order_id = " + orders + ", versiono = versiono + 1 " +
+            " WHERE dashboard_id = :dashboardId AND user_id = :userId AND dashboard_version = 'running' " +
+            "   AND report_id IN (:reportIds)"
+        );
+    }
+
+    /**
+     * Executes statements in the schema of the reporting tables, binding the parameters each one uses. Every
+     * updated row gets a new row version, so that optimistic locks and the {@link ParsedQueryCache} see the
+     * change. The statements bypass the persistence context, which is flushed before and cleared after them.
+     */
+    private void executeUpdates(Map<String, Object> parameters, String... statements) {
+        String schema = env.getProperty("spring.jpa.properties.hibernate.default_schema");
+        entityManager.flush();
+        for (String statement : statements) {
+            Query query = entityManager.createNativeQuery(String.format(statement, schema));
+            for (Parameter<?> parameter : query.getParameters()) {
+                query.setParameter(parameter.getName(), parameters.get(parameter.getName()));
+            }
+            query.executeUpdate();
+        }
+        entityManager.clear();
     }
 }
@@ -1,10 +1,14 @@
 package com.fastcode.dvdrental.addons.reporting.domain.report;
 
 import com.fastcode.dvdrental.addons.reporting.application.report.dto.ReportDetailsOutput;
+import com.fastcode.dvdrental.commons.search.KeysetCursor;
 import java.time.*;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface IReportRepositoryCustom {
-    Page<ReportDetailsOutput> getAllReportsByUserId(Long userId, String search, Pageable pageable) throws Exception;
+    Slice<ReportDetailsOutput> getAllReportsByUserId(Long userId, String search, KeysetCursor after, Pageable pageable)
+        throws Exception;
+
+    long countReportsByUserId(Long userId, String search);
 }
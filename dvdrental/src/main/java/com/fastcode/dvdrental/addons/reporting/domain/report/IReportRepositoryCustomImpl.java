@@ -1,103 +1,116 @@
 package com.fastcode.dvdrental.addons.reporting.domain.report;
 
+import com.fastcode.dvdrental.addons.reporting.ParsedQueryCache;
 import com.fastcode.dvdrental.addons.reporting.application.report.dto.ReportDetailsOutput;
+import com.fastcode.dvdrental.addons.reporting.domain.ListingQuery;
+import com.fastcode.dvdrental.commons.search.KeysetCursor;
 import java.time.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
-import javax.persistence.Query;
-import org.json.simple.JSONObject;
-import org.json.simple.parser.JSONParser;
-import org.json.simple.parser.ParseException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Repository;
 
 @Repository("reportRepositoryCustomImpl")
 @SuppressWarnings({ "unchecked" })
 public class IReportRepositoryCustomImpl implements IReportRepositoryCustom {
 
+    private static final ListingQuery LISTING = new ListingQuery("rv.title", "rv.report_id");
+
     @PersistenceContext
     private EntityManager entityManager;
 
     @Autowired
     private Environment env;
 
+    @Autowired
+    private ParsedQueryCache parsedQueryCache;
+
+    @Override
+    public Slice<ReportDetailsOutput> getAllReportsByUserId(
+        Long userId,
+        String search,
+        KeysetCursor after,
+        Pageable pageable
+    ) throws Exception {
+        Map<String, Object> parameters = new HashMap<>();
+        String qlString = listingSql(userId, search, parameters);
+        return LISTING.fetch(entityManager, qlString, parameters, after, pageable, this::toReportDetails);
+    }
+
     @Override
-    public Page<ReportDetailsOutput> getAllReportsByUserId(Long userId, String search, Pageable pageable)
-        throws Exception {
+    public long countReportsByUserId(Long userId, String search) {
+        Map<String, Object> parameters = new HashMap<>();
+        String qlString = listingSql(userId, search, parameters);
+        return LISTING.count(entityManager, qlString, parameters);
+    }
+
+    private String listingSql(Long userId, String search, Map<String, Object> parameters) {
         String schema = env.getProperty("spring.jpa.properties.hibernate.default_schema");
+        String searchPattern = ListingQuery.searchPattern(search);
+        parameters.put("userId", userId);
 
         String qlString =
             "" +
-            "SELECT r.id, rep.report_version, rep.ctype," +
-            "   rep.description," +
-            "   rep.query, rep.report_type, rep.title,  r.is_published, rep.is_refreshed," +
+            "SELECT rv.report_id AS listing_id, rv.report_version, rv.ctype," +
+            "   rv.description," +
+            "   CAST(rv.query AS VARCHAR) AS query, rv.report_type, rv.title AS title, r.is_published, rv.is_refreshed," +
             "   us.user_name, " +
-            " rep.user_id " +
-            "   FROM (( " +
-            schema +
-            ".report r " +
-            "      RIGHT OUTER JOIN " +
-            "         (SELECT rv.* FROM " +
+            " rv.user_id, rv.versiono " +
+            "   FROM " +
             schema +
             ".reportversion rv " +
-            "            WHERE " +
-            "          rv.user_id = :userId " +
-            "               AND rv.report_version = 'running'" +
-            "     AND (:search is null OR rv.title like :search) ) AS rep " +
-            "         ON r.id = rep.report_id " +
-            "         AND r.owner_id = rep.user_id ) " +
-            "      JOIN (" +
-            "  SELECT id,user_name FROM " +
+            "      JOIN " +
+            schema +
+            ".f_user us ON us.id = rv.user_id " +
+            "      LEFT OUTER JOIN " +
             schema +
-            ".f_user where id = :userId) AS us ON us.id = rep.user_id) ";
-        Query query = entityManager
-            .createNativeQuery(qlString)
-            .setParameter("userId", userId)
-            .setParameter("search", "%" + search + "%")
-            .setFirstResult(pageable.getPageNumber() * pageable.getPageSize())
-            .setMaxResults(pageable.getPageSize());
-        List<Object[]> results = query.getResultList();
-        List<ReportDetailsOutput> finalResults = new ArrayList<>();
+            ".report r ON r.id = rv.report_id AND r.owner_id = rv.user_id " +
+            "   WHERE rv.user_id = :userId " +
+            "      AND rv.report_version = 'running'";
+        if (searchPattern != null) {
+            qlString += " AND lower(rv.title) LIKE :search";
+            parameters.put("search", searchPattern);
+        }
+        return qlString;
+    }
 
-        for (Object[] obj : results) {
-            ReportDetailsOutput reportDetails = new ReportDetailsOutput();
+    private ReportDetailsOutput toReportDetails(Object[] obj) {
+        ReportDetailsOutput reportDetails = new ReportDetailsOutput();
 
-            // Here you manually obtain value from object and map to your pojo setters
-            reportDetails.setId(obj[0] != null ? Long.parseLong(obj[0].toString()) : null);
-            reportDetails.setReportVersion(obj[1] != null ? (obj[1].toString()) : null);
-            reportDetails.setCtype(obj[2] != null ? (obj[2].toString()) : null);
-            reportDetails.setDescription(obj[3] != null ? (obj[3].toString()) : null);
+        // Here you manually obtain value from object and map to your pojo setters
+        reportDetails.setId(Long.parseLong(obj[0].toString()));
+        reportDetails.setReportVersion(obj[1] != null ? (obj[1].toString()) : null);
+        reportDetails.setCtype(obj[2] != null ? (obj[2].toString()) : null);
+        reportDetails.setDescription(obj[3] != null ? (obj[3].toString()) : null);
 
-            JSONParser parser = new JSONParser();
-            JSONObject json;
-            try {
-                json = (JSONObject) parser.parse(obj[4].toString());
-                reportDetails.setQuery(json);
-            } catch (ParseException e) {
-                e.printStackTrace();
-                throw new Exception("Error occured while parsing query");
+        // Queries are parsed once per report version and row version
+        if (obj[4] != null) {
+            reportDetails.setQuery(
+                parsedQueryCache.get(
+                    Long.parseLong(obj[10].toString()),
+                    reportDetails.getId(),
+                    reportDetails.getReportVersion(),
+                    Long.parseLong(obj[11].toString()),
+                    obj[4].toString()
+                )
+            );
+            if (reportDetails.getQuery() == null) {
+                throw new IllegalStateException("Error occured while parsing query");
             }
-
-            reportDetails.setReportType(obj[5] != null ? (obj[5].toString()) : null);
-            reportDetails.setTitle(obj[6] != null ? (obj[6].toString()) : null);
-
-            reportDetails.setIsPublished(obj[7] != null && obj[7].toString().equals("true"));
-            reportDetails.setIsPublished(obj[8] != null && obj[8].toString().equals("true"));
-            reportDetails.setOwnerDescriptiveField(obj[9] != null ? (obj[9].toString()) : null);
-            reportDetails.setUserId(obj[10] != null ? Long.parseLong(obj[10].toString()) : null);
-
-            finalResults.add(reportDetails);
         }
 
-        int totalRows = results.size();
-        Page<ReportDetailsOutput> result = new PageImpl<ReportDetailsOutput>(finalResults, pageable, totalRows);
+        reportDetails.setReportType(obj[5] != null ? (obj[5].toString()) : null);
+        reportDetails.setTitle(obj[6] != null ? (obj[6].toString()) : null);
 
-        return result;
+        reportDetails.setIsPublished(obj[7] != null && obj[7].toString().equals("true"));
+        reportDetails.setIsRefreshed(obj[8] != null && obj[8].toString().equals("true"));
+        reportDetails.setOwnerDescriptiveField(obj[9] != null ? (obj[9].toString()) : null);
+        reportDetails.setUserId(obj[10] != null ? Long.parseLong(obj[10].toString()) : null);
+        return reportDetails;
     }
 }
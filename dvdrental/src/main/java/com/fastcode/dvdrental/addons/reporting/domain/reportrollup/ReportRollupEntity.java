@@ -0,0 +1,38 @@
+package com.fastcode.dvdrental.addons.reporting.domain.reportrollup;
+
+import java.util.Date;
+import javax.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * State of a stored rollup: the definition its table was built with and its high water mark. The rows are
+ * read and written by the ReportRollupStore with JDBC, in the transaction of a refresh.
+ */
+@Entity
+@Table(name = "report_rollup")
+@Getter
+@Setter
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@NoArgsConstructor
+public class ReportRollupEntity {
+
+    @Id
+    @EqualsAndHashCode.Include
+    @Column(name = "name", nullable = false, length = 64)
+    private String name;
+
+    @Basic
+    @Column(name = "definition", nullable = false, length = 4000)
+    private String definition;
+
+    @Basic
+    @Column(name = "high_water_mark", nullable = false)
+    private Long highWaterMark;
+
+    @Basic
+    @Column(name = "refreshed_at")
+    private Date refreshedAt;
+}
@@ -10,6 +10,7 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnTransformer;
 import org.json.simple.JSONObject;
 
 @Getter
@@ -43,6 +44,7 @@ public class ReportversionEntity extends AbstractEntity {
 
     @Column(columnDefinition = "TEXT", name = "query", nullable = true, length = 255)
     @Convert(converter = JSONObjectConverter.class)
+    @ColumnTransformer(write = "CAST(? AS jsonb)")
     private JSONObject query;
 
     @Basic
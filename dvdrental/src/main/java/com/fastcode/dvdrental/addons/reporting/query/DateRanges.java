@@ -0,0 +1,136 @@
+package com.fastcode.dvdrental.addons.reporting.query;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves the date ranges of report queries to half open ranges of date times, {@code [from, to)}. A range
+ * is either a pair of dates or date times, whose end is included, or one of the relative ranges of the report
+ * builder, e.g. {@code This month} or {@code Last 7 days}, which ends before today.
+ */
+final class DateRanges {
+
+    private static final Pattern LAST_UNITS = Pattern.compile("last (\\d+) (day|week|month|quarter|year)s?");
+    private static final Pattern RELATIVE = Pattern.compile("(this|last) (week|month|quarter|year)");
+
+    private DateRanges() {}
+
+    /**
+     * Returns the start and the end of the range, or null when the range is all time.
+     *
+     * @throws IllegalArgumentException when the range can not be parsed
+     */
+    static LocalDateTime[] parse(Object range, LocalDateTime now) {
+        if (range instanceof List) {
+            List<?> bounds = (List<?>) range;
+            if (bounds.isEmpty() || bounds.size() > 2) {
+                throw new IllegalArgumentException("Invalid date range " + range);
+            }
+            return new LocalDateTime[] {
+                start(String.valueOf(bounds.get(0))),
+                end(String.valueOf(bounds.get(bounds.size() - 1))),
+            };
+        }
+        if (!(range instanceof String)) {
+            throw new IllegalArgumentException("Invalid date range " + range);
+        }
+
+        String relative = ((String) range).trim().toLowerCase(Locale.ROOT);
+        LocalDate today = now.toLocalDate();
+        if (relative.equals("all time")) {
+            return null;
+        }
+        if (relative.equals("today")) {
+            return days(today, today.plusDays(1));
+        }
+        if (relative.equals("yesterday")) {
+            return days(today.minusDays(1), today);
+        }
+        Matcher last = LAST_UNITS.matcher(relative);
+        if (last.matches()) {
+            return days(plus(last.group(2), today, -Long.parseLong(last.group(1))), today);
+        }
+        Matcher matcher = RELATIVE.matcher(relative);
+        if (matcher.matches()) {
+            LocalDate start = startOf(matcher.group(2), today);
+            LocalDate next = plus(matcher.group(2), start, 1);
+            return matcher.group(1).equals("this") ? days(start, next) : days(plus(matcher.group(2), start, -1), start);
+        }
+        return new LocalDateTime[] { start((String) range), end((String) range) };
+    }
+
+    /**
+     * Parses a date or a date time, a date being the start of its day.
+     *
+     * @throws IllegalArgumentException when the value is neither
+     */
+    static LocalDateTime start(String value) {
+        String trimmed = trimZone(value);
+        try {
+            return trimmed.length() <= 10 ? LocalDate.parse(trimmed).atStartOfDay() : LocalDateTime.parse(trimmed);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date " + value, e);
+        }
+    }
+
+    /**
+     * Returns the first date time after the date or the date time, so that a range ending with it includes it.
+     */
+    static LocalDateTime end(String value) {
+        LocalDateTime start = start(value);
+        return trimZone(value).length() <= 10 ? start.plusDays(1) : start.plus(1, ChronoUnit.MICROS);
+    }
+
+    private static String trimZone(String value) {
+        String trimmed = value.trim();
+        return trimmed.endsWith("Z") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    private static LocalDateTime[] days(LocalDate from, LocalDate to) {
+        return new LocalDateTime[] { from.atStartOfDay(), to.atStartOfDay() };
+    }
+
+    /**
+     * Returns the unit of the name, or null for quarters, which are counted in months.
+     */
+    private static ChronoUnit unit(String name) {
+        switch (name) {
+            case "day":
+                return ChronoUnit.DAYS;
+            case "week":
+                return ChronoUnit.WEEKS;
+            case "month":
+                return ChronoUnit.MONTHS;
+            case "year":
+                return ChronoUnit.YEARS;
+            default:
+                return null;
+        }
+    }
+
+    private static LocalDate startOf(String unit, LocalDate date) {
+        switch (unit) {
+            case "week":
+                return date.with(DayOfWeek.MONDAY);
+            case "month":
+                return date.withDayOfMonth(1);
+            case "quarter":
+                return date.with(IsoFields.DAY_OF_QUARTER, 1);
+            default:
+                return date.withDayOfYear(1);
+        }
+    }
+
+    private static LocalDate plus(String unit, LocalDate date, long amount) {
+        ChronoUnit chronoUnit = unit(unit);
+        return chronoUnit == null ? date.plusMonths(amount * 3) : date.plus(amount, chronoUnit);
+    }
+}
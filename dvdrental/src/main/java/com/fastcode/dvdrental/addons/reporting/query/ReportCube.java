@@ -0,0 +1,214 @@
+package com.fastcode.dvdrental.addons.reporting.query;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cube of the report queries: a table of the dvdrental schema with the dimensions that can be selected,
+ * filtered and aggregated, and the tables it belongs to or has many rows of. The measures of a cube are named
+ * after the aggregation and the column of one of its dimensions, e.g. {@code sum_amount}, as in the cube
+ * schema of the report builder.
+ */
+public final class ReportCube {
+
+    public enum Type {
+        STRING,
+        NUMBER,
+        TIME,
+        BOOLEAN,
+    }
+
+    public enum Aggregation {
+        SUM("sum", "SUM(%s)"),
+        AVG("avg", "AVG(%s)"),
+        MIN("min", "MIN(%s)"),
+        MAX("max", "MAX(%s)"),
+        RUNNING_TOTAL("runningTotal", "SUM(%s)"),
+        COUNT("count", "COUNT(%s)"),
+        COUNT_DISTINCT("countDistinct", "COUNT(DISTINCT %s)"),
+        COUNT_DISTINCT_APPROX("countDistinctApprox", "COUNT(DISTINCT %s)");
+
+        private final String name;
+        private final String sql;
+
+        Aggregation(String name, String sql) {
+            this.name = name;
+            this.sql = sql;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String sql(String column) {
+            return String.format(sql, column);
+        }
+
+        /**
+         * Returns whether the aggregation changes when rows are repeated, as they are by the join of a table
+         * having many rows for each of them; minimums, maximums and distinct counts do not.
+         */
+        public boolean countsRepeatedRows() {
+            return this == SUM || this == AVG || this == RUNNING_TOTAL || this == COUNT;
+        }
+
+        /**
+         * Returns whether the aggregation applies to dimensions of the type; strings and booleans can only be
+         * counted, times can also be compared.
+         */
+        public boolean appliesTo(Type type) {
+            switch (type) {
+                case STRING:
+                case BOOLEAN:
+                    return this == COUNT || this == COUNT_DISTINCT || this == COUNT_DISTINCT_APPROX;
+                case TIME:
+                    return this != SUM && this != AVG && this != RUNNING_TOTAL;
+                default:
+                    return true;
+            }
+        }
+
+        static Aggregation named(String name) {
+            for (Aggregation aggregation : values()) {
+                if (aggregation.name.equals(name)) {
+                    return aggregation;
+                }
+            }
+            return null;
+        }
+    }
+
+    public static final class Dimension {
+
+        private final String column;
+        private final Type type;
+
+        private Dimension(String column, Type type) {
+            this.column = column;
+            this.type = type;
+        }
+
+        public String getColumn() {
+            return column;
+        }
+
+        public Type getType() {
+            return type;
+        }
+    }
+
+    public static final class Measure {
+
+        private final Aggregation aggregation;
+        private final Dimension dimension;
+
+        private Measure(Aggregation aggregation, Dimension dimension) {
+            this.aggregation = aggregation;
+            this.dimension = dimension;
+        }
+
+        public Aggregation getAggregation() {
+            return aggregation;
+        }
+
+        public String getColumn() {
+            return dimension.getColumn();
+        }
+
+        /**
+         * Counts are numbers and the other aggregations keep the type of their column.
+         */
+        public Type getType() {
+            return aggregation.appliesTo(Type.STRING) ? Type.NUMBER : dimension.getType();
+        }
+    }
+
+    private final String name;
+    private final String table;
+    private final Map<String, Dimension> dimensions = new LinkedHashMap<>();
+    private final Map<String, Dimension> columns = new LinkedHashMap<>();
+    private final Map<String, String[]> joins = new LinkedHashMap<>();
+    private final Map<String, List<String>> many = new HashMap<>();
+
+    ReportCube(String name, String table) {
+        this.name = name;
+        this.table = table;
+    }
+
+    ReportCube dimension(String name, String column, Type type) {
+        Dimension dimension = new Dimension(column, type);
+        dimensions.put(name, dimension);
+        columns.put(column, dimension);
+        return this;
+    }
+
+    ReportCube belongsTo(String cube, String column) {
+        joins.put(cube, new String[] { column, column });
+        return this;
+    }
+
+    /**
+     * Joins the table holding any number of rows for each row of this cube, e.g. the categories of a film,
+     * on a column of the same name. The keys are the members telling apart the rows of the other cube of one
+     * row of this cube, e.g. the id and the name of a category.
+     */
+    ReportCube hasMany(String cube, String column, String... keys) {
+        joins.put(cube, new String[] { column, column });
+        many.put(cube, Arrays.asList(keys));
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public Dimension getDimension(String name) {
+        return dimensions.get(name);
+    }
+
+    /**
+     * Returns the measure named {@code <aggregation>_<column>}, or null when the cube has no such measure.
+     */
+    public Measure getMeasure(String name) {
+        int separator = name.indexOf('_');
+        if (separator < 0) {
+            return null;
+        }
+        Aggregation aggregation = Aggregation.named(name.substring(0, separator));
+        Dimension dimension = columns.get(name.substring(separator + 1));
+        if (aggregation == null || dimension == null || !aggregation.appliesTo(dimension.getType())) {
+            return null;
+        }
+        return new Measure(aggregation, dimension);
+    }
+
+    /**
+     * Returns whether the cube has any number of rows of the other cube for each of its rows.
+     */
+    public boolean hasMany(String cube) {
+        return many.containsKey(cube);
+    }
+
+    /**
+     * Returns the members telling apart the rows of the other cube this cube has many of.
+     */
+    public List<String> getManyKeys(String cube) {
+        return many.getOrDefault(cube, Collections.emptyList());
+    }
+
+    /**
+     * Returns the cubes this cube belongs to or has many of, with the column of this cube and the column of
+     * the other cube they are joined on.
+     */
+    public Map<String, String[]> getJoins() {
+        return Collections.unmodifiableMap(joins);
+    }
+}
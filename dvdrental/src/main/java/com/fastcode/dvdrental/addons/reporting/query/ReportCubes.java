@@ -0,0 +1,171 @@
+package com.fastcode.dvdrental.addons.reporting.query;
+
+import com.fastcode.dvdrental.addons.reporting.query.ReportCube.Type;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The cubes of the dvdrental schema that report queries can use, matching the cube schema of the report
+ * builder, so that stored report queries run unchanged.
+ */
+public final class ReportCubes {
+
+    private static final Map<String, ReportCube> CUBES = new HashMap<>();
+
+    static {
+        register(
+            new ReportCube("Actor", "actor")
+                .dimension("firstName", "first_name", Type.STRING)
+                .dimension("lastName", "last_name", Type.STRING)
+                .dimension("lastUpdate", "last_update", Type.TIME)
+                .dimension("actor_id", "actor_id", Type.NUMBER)
+        );
+        register(
+            new ReportCube("Address", "address")
+                .belongsTo("City", "city_id")
+                .dimension("address", "address", Type.STRING)
+                .dimension("address2", "address2", Type.STRING)
+                .dimension("district", "district", Type.STRING)
+                .dimension("postalCode", "postal_code", Type.STRING)
+                .dimension("phone", "phone", Type.STRING)
+                .dimension("lastUpdate", "last_update", Type.TIME)
+                .dimension("addressId", "address_id", Type.NUMBER)
+        );
+        register(
+            new ReportCube("Category", "category")
+                .dimension("name", "name", Type.STRING)
+                .dimension("lastUpdate", "last_update", Type.TIME)
+                .dimension("category_id", "category_id", Type.NUMBER)
+        );
+        register(
+            new ReportCube("City", "city")
+                .belongsTo("Country", "country_id")
+                .dimension("city", "city", Type.STRING)
+                .dimension("lastUpdate", "last_update", Type.TIME)
+                .dimension("city_id", "city_id", Type.NUMBER)
+        );
+        register(
+            new ReportCube("Country", "country")
+                .dimension("country", "country", Type.STRING)
+                .dimension("lastUpdate", "last_update", Type.TIME)
+                .dimension("country_id", "country_id", Type.NUMBER)
+        );
+        register(
+            new ReportCube("Customer", "customer")
+                .belongsTo("Address", "address_id")
+                .belongsTo("Store", "store_id")
+                .dimension("firstName", "first_name", Type.STRING)
+                .dimension("lastName", "last_name", Type.STRING)
+                .dimension("email", "email", Type.STRING)
+                .dimension("activebool", "activebool", Type.BOOLEAN)
+                .dimension("createDate", "create_date", Type.TIME)
+                .dimension("lastUpdate", "last_update", Type.TIME)
+                .dimension("customer_id", "customer_id", Type.NUMBER)
+        );
+        register(
+            new ReportCube("Film", "film")
+                .belongsTo("Language", "language_id")
+                .hasMany("FilmCategory", "film_id", "Category.category_id", "Category.name")
+                .dimension("description", "description", Type.STRING)
+                .dimension("title", "title", Type.STRING)
+                .dimension("rating", "rating", Type.STRING)
+                .dimension("lastUpdate", "last_update", Type.TIME)
+                .dimension("filmId", "film_id", Type.NUMBER)
+                .dimension("releaseYear", "release_year", Type.NUMBER)
+                .dimension("rentalDuration", "rental_duration", Type.NUMBER)
+                .dimension("rentalRate", "rental_rate", Type.NUMBER)
+                .dimension("replacementCost", "replacement_cost", Type.NUMBER)
+                .dimension("length", "length", Type.NUMBER)
+        );
+        register(
+            new ReportCube("FilmActor", "film_actor")
+                .belongsTo("Actor", "actor_id")
+                .belongsTo("Film", "film_id")
+                .dimension("lastUpdate", "last_update", Type.TIME)
+        );
+        register(
+            new ReportCube("FilmCategory", "film_category")
+                .belongsTo("Film", "film_id")
+                .belongsTo("Category", "category_id")
+                .dimension("lastUpdate", "last_update", Type.TIME)
+        );
+        register(
+            new ReportCube("Inventory", "inventory")
+                .belongsTo("Film", "film_id")
+                .belongsTo("Store", "store_id")
+                .dimension("lastUpdate", "last_update", Type.TIME)
+                .dimension("inventory_id", "inventory_id", Type.NUMBER)
+        );
+        register(
+            new ReportCube("Language", "language")
+                .dimension("name", "name", Type.STRING)
+                .dimension("lastUpdate", "last_update", Type.TIME)
+                .dimension("language_id", "language_id", Type.NUMBER)
+        );
+        register(
+            new ReportCube("Payment", "payment")
+                .belongsTo("Customer", "customer_id")
+                .belongsTo("Staff", "staff_id")
+                .belongsTo("Rental", "rental_id")
+                .dimension("paymentDate", "payment_date", Type.TIME)
+                .dimension("amount", "amount", Type.NUMBER)
+                .dimension("payment_id", "payment_id", Type.NUMBER)
+        );
+        register(
+            new ReportCube("Rental", "rental")
+                .belongsTo("Inventory", "inventory_id")
+                .belongsTo("Customer", "customer_id")
+                .belongsTo("Staff", "staff_id")
+                .dimension("lastUpdate", "last_update", Type.TIME)
+                .dimension("rentalDate", "rental_date", Type.TIME)
+                .dimension("returnDate", "return_date", Type.TIME)
+                .dimension("rental_id", "rental_id", Type.NUMBER)
+        );
+        register(
+            new ReportCube("Staff", "staff")
+                .belongsTo("Store", "store_id")
+                .belongsTo("Address", "address_id")
+                .dimension("active", "active", Type.BOOLEAN)
+                .dimension("lastName", "last_name", Type.STRING)
+                .dimension("email", "email", Type.STRING)
+                .dimension("firstName", "first_name", Type.STRING)
+                .dimension("username", "username", Type.STRING)
+                .dimension("lastUpdate", "last_update", Type.TIME)
+                .dimension("staff_id", "staff_id", Type.NUMBER)
+        );
+        register(
+            new ReportCube("Store", "store")
+                .belongsTo("Address", "address_id")
+                .dimension("lastUpdate", "last_update", Type.TIME)
+                .dimension("store_id", "store_id", Type.NUMBER)
+        );
+    }
+
+    private ReportCubes() {}
+
+    private static void register(ReportCube cube) {
+        CUBES.put(cube.getName(), cube);
+    }
+
+    /**
+     * Returns whether the member tells apart the rows of a table a cube has many of, e.g. the name of a
+     * category of a film.
+     */
+    public static boolean isManyKey(String member) {
+        for (ReportCube cube : CUBES.values()) {
+            for (String joined : cube.getJoins().keySet()) {
+                if (cube.getManyKeys(joined).contains(member)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the cube of the name, or null when there is no such cube.
+     */
+    public static ReportCube get(String name) {
+        return CUBES.get(name);
+    }
+}
@@ -0,0 +1,217 @@
+package com.fastcode.dvdrental.addons.reporting.query;
+
+import com.fastcode.dvdrental.addons.reporting.application.report.dto.ReportDataColumn;
+import com.fastcode.dvdrental.addons.reporting.application.report.dto.ReportDataOutput;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Executes stored report queries against the dvdrental tables and returns their results by column.
+ *
+ * Each query runs as one statement built by {@link ReportQuerySql}, in a read only transaction of its own so
+ * that the connection rejects any write, with a statement timeout and at most the maximum number of rows.
+ * A query is read from a stored rollup holding its result, unless it asks to be renewed. Results are kept by
+ * the {@link ReportResultCache} until the data they were read from changes, and a query asking to be renewed
+ * runs anyway and replaces its cached result. Several queries, e.g. those of a dashboard, run at once on a
+ * bounded pool of threads.
+ */
+@Component
+public class ReportQueryEngine {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReportRollupStore rollupStore;
+    private final ReportResultCache resultCache;
+    private final ThreadPoolTaskExecutor executor;
+    private final String schema;
+    private final int maxRows;
+
+    public ReportQueryEngine(
+        DataSource dataSource,
+        PlatformTransactionManager transactionManager,
+        Environment env,
+        ReportRollupStore rollupStore,
+        ReportResultCache resultCache,
+        @Value("${fastCode.reporting.query.maxRows:10000}") int maxRows,
+        @Value("${fastCode.reporting.query.timeoutSeconds:30}") int timeoutSeconds,
+        @Value("${fastCode.reporting.query.threads:8}") int threads,
+        @Value("${fastCode.reporting.query.queueCapacity:100}") int queueCapacity
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setQueryTimeout(timeoutSeconds);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.rollupStore = rollupStore;
+        this.resultCache = resultCache;
+        this.schema = env.getProperty("spring.jpa.properties.hibernate.default_schema");
+        this.maxRows = maxRows;
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(threads);
+        this.executor.setMaxPoolSize(threads);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("report-query-");
+        this.executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Executes a report query.
+     *
+     * @throws IllegalArgumentException when the query is invalid, see {@link ReportQuerySql#build}
+     */
+    public ReportDataOutput execute(Map<String, Object> query) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean renew = Boolean.TRUE.equals(query.get("renewQuery"));
+        ReportRollup rollup = renew ? null : rollupStore.match(query, now);
+        ReportQuerySql statement = ReportQuerySql.build(query, schema, maxRows, now, rollup);
+        List<Object> key = resultCache.key(statement);
+        if (!renew) {
+            ReportDataOutput cached = resultCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        int width = statement.getColumns().size();
+
+        List<Object[]> rows = transactionTemplate.execute(
+            status ->
+                jdbcTemplate.query(
+                    statement.getSql(),
+                    statement.getParameters().toArray(),
+                    (resultSet, rowNum) -> row(resultSet, width)
+                )
+        );
+
+        ReportDataOutput output = new ReportDataOutput();
+        output.setRollup(rollup != null ? rollup.getName() : null);
+        output.setTruncated(rows.size() > statement.getLimit());
+        output.setRowCount(Math.min(rows.size(), statement.getLimit()));
+        for (int index = 0; index < width; index++) {
+            ReportQuerySql.Column column = statement.getColumns().get(index);
+            ReportDataColumn dataColumn = new ReportDataColumn();
+            dataColumn.setMember(column.getMember());
+            dataColumn.setType(column.getType().name().toLowerCase(Locale.ROOT));
+            List<Object> values = new ArrayList<>(output.getRowCount());
+            for (int row = 0; row < output.getRowCount(); row++) {
+                values.add(rows.get(row)[index]);
+            }
+            dataColumn.setValues(values);
+            output.getColumns().add(dataColumn);
+        }
+        resultCache.put(key, output);
+        return output;
+    }
+
+    /**
+     * Executes the queries at once and hands each result, or the exception of its query, over on the calling
+     * thread as soon as it is ready. A query without a result once the timeout has passed since the queries
+     * were submitted is cancelled and fails with a {@link TimeoutException}, and a query refused by the full
+     * pool fails with a {@link RejectedExecutionException}. Each query is handed over once. When a callback
+     * throws, e.g. because the client went away, the queries left are cancelled without being handed over
+     * and the exception is rethrown.
+     */
+    public <K> void executeAll(
+        Map<K, Map<String, Object>> queries,
+        long timeoutMillis,
+        BiConsumer<K, ReportDataOutput> completed,
+        BiConsumer<K, Exception> failed
+    ) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        CompletionService<ReportDataOutput> completionService = new ExecutorCompletionService<>(
+            executor.getThreadPoolExecutor()
+        );
+        // The queries submitted and not handed over yet
+        Map<Future<ReportDataOutput>, K> pending = new HashMap<>();
+        try {
+            for (Map.Entry<K, Map<String, Object>> query : queries.entrySet()) {
+                try {
+                    pending.put(completionService.submit(() -> execute(query.getValue())), query.getKey());
+                } catch (RejectedExecutionException e) {
+                    failed.accept(query.getKey(), e);
+                }
+            }
+
+            try {
+                while (!pending.isEmpty()) {
+                    Future<ReportDataOutput> future = completionService.poll(
+                        deadline - System.nanoTime(),
+                        TimeUnit.NANOSECONDS
+                    );
+                    if (future == null) {
+                        break;
+                    }
+                    K key = pending.remove(future);
+                    ReportDataOutput output;
+                    try {
+                        output = future.get();
+                    } catch (ExecutionException e) {
+                        failed.accept(key, e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+                        continue;
+                    }
+                    completed.accept(key, output);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            Iterator<Map.Entry<Future<ReportDataOutput>, K>> timedOut = pending.entrySet().iterator();
+            while (timedOut.hasNext()) {
+                Map.Entry<Future<ReportDataOutput>, K> query = timedOut.next();
+                timedOut.remove();
+                query.getKey().cancel(true);
+                failed.accept(query.getValue(), new TimeoutException("Query timed out"));
+            }
+        } finally {
+            for (Future<ReportDataOutput> future : pending.keySet()) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static Object[] row(ResultSet resultSet, int width) throws SQLException {
+        Object[] row = new Object[width];
+        for (int index = 0; index < width; index++) {
+            Object value = resultSet.getObject(index + 1);
+            // Times are returned as local date times, as the report builder shows them
+            if (value instanceof Timestamp) {
+                value = ((Timestamp) value).toLocalDateTime();
+            } else if (value instanceof Date) {
+                value = ((Date) value).toLocalDate();
+            }
+            row[index] = value;
+        }
+        return row;
+    }
+}
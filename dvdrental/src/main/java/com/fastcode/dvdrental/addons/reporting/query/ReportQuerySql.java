@@ -0,0 +1,719 @@
+package com.fastcode.dvdrental.addons.reporting.query;
+
+import com.fastcode.dvdrental.addons.reporting.query.ReportCube.Aggregation;
+import com.fastcode.dvdrental.addons.reporting.query.ReportCube.Dimension;
+import com.fastcode.dvdrental.addons.reporting.query.ReportCube.Measure;
+import com.fastcode.dvdrental.addons.reporting.query.ReportCube.Type;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Translates a stored report query, with its measures, dimensions, time dimensions with their granularity and
+ * date range, filters, order and limit, into one SQL statement over the cubes of {@link ReportCubes}.
+ *
+ * Members are only ever resolved against the cubes, so the statement contains no text of the query other
+ * than through its parameters. The cubes of the members are left joined to the cube of the first member
+ * along the tables they belong to or have many rows of. A table having many rows for each row, e.g. the
+ * categories of a film, repeats the rows joined before it. Measures counting repeated rows, e.g. a count of
+ * rentals, are therefore refused across it unless the query is grouped by or filtered to one value of a key
+ * of that table, e.g. by category or of one category, which leaves each row once per group. Filters on
+ * dimensions go to the WHERE clause and filters on measures to the HAVING clause. One row more than the
+ * limit is selected, to tell whether the result was truncated.
+ *
+ * A query can also be read from a {@link ReportRollup} holding its result, whose stored measures are then
+ * aggregated again.
+ */
+public final class ReportQuerySql {
+
+    private static final List<String> GRANULARITIES = Arrays.asList(
+        "second",
+        "minute",
+        "hour",
+        "day",
+        "week",
+        "month",
+        "quarter",
+        "year"
+    );
+
+    public static final class Column {
+
+        private final String member;
+        private final Type type;
+
+        private Column(String member, Type type) {
+            this.member = member;
+            this.type = type;
+        }
+
+        public String getMember() {
+            return member;
+        }
+
+        public Type getType() {
+            return type;
+        }
+    }
+
+    private final String schema;
+    private final LocalDateTime now;
+    private final ReportRollup rollup;
+    private final boolean bounded;
+    private ReportCube root;
+    private final Map<String, String> aliases = new LinkedHashMap<>();
+    private final StringBuilder joins = new StringBuilder();
+    private final Map<String, String> manyJoins = new LinkedHashMap<>();
+    private final Set<String> joinedAfterMany = new HashSet<>();
+    private final Set<String> narrowed = new HashSet<>();
+    private final List<String> countingMeasures = new ArrayList<>();
+    private final List<String> selects = new ArrayList<>();
+    private final List<String> groupBys = new ArrayList<>();
+    private final List<String> timeOrder = new ArrayList<>();
+    private String timeLabel;
+    private final List<Column> columns = new ArrayList<>();
+    private final Map<String, String> labels = new HashMap<>();
+    private final List<String> wheres = new ArrayList<>();
+    private final List<Object> whereParameters = new ArrayList<>();
+    private final List<String> havings = new ArrayList<>();
+    private final List<Object> havingParameters = new ArrayList<>();
+    private final List<Object> parameters = new ArrayList<>();
+    private String sql;
+    private int limit;
+
+    private ReportQuerySql(String schema, LocalDateTime now, ReportRollup rollup, boolean bounded) {
+        this.schema = schema;
+        this.now = now;
+        this.rollup = rollup;
+        this.bounded = bounded;
+    }
+
+    /**
+     * Builds the statement of a report query, with a limit of at most the maximum number of rows.
+     *
+     * @param schema the schema of the dvdrental tables, or null for the default schema
+     * @param now    the time relative date ranges are resolved against
+     * @throws IllegalArgumentException when the query has no members or refers to an unknown member, or when
+     *                                  a granularity, date range, filter or order is invalid
+     */
+    public static ReportQuerySql build(Map<String, Object> query, String schema, int maxRows, LocalDateTime now) {
+        return build(query, schema, maxRows, now, null);
+    }
+
+    /**
+     * Builds the statement of a report query reading the rollup, which must match the query, or the cubes
+     * when the rollup is null.
+     *
+     * @see #build(Map, String, int, LocalDateTime)
+     */
+    public static ReportQuerySql build(
+        Map<String, Object> query,
+        String schema,
+        int maxRows,
+        LocalDateTime now,
+        ReportRollup rollup
+    ) {
+        ReportQuerySql statement = new ReportQuerySql(schema, now, rollup, true);
+        statement.translate(query, maxRows);
+        return statement;
+    }
+
+    /**
+     * Builds the statement of a query over the cubes without an order or a limit, to store its result.
+     */
+    static ReportQuerySql aggregate(Map<String, Object> query, String schema, LocalDateTime now) {
+        ReportQuerySql statement = new ReportQuerySql(schema, now, null, false);
+        statement.translate(query, 0);
+        return statement;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public List<Object> getParameters() {
+        return Collections.unmodifiableList(parameters);
+    }
+
+    public List<Column> getColumns() {
+        return Collections.unmodifiableList(columns);
+    }
+
+    /**
+     * Returns the tables the statement reads, without the schema: the rollup table, or the tables of the
+     * cubes it joins.
+     */
+    public List<String> getTables() {
+        if (rollup != null) {
+            return Collections.singletonList(rollup.getTable());
+        }
+        List<String> tables = new ArrayList<>();
+        for (String cube : aliases.keySet()) {
+            tables.add(ReportCubes.get(cube).getTable());
+        }
+        return tables;
+    }
+
+    /**
+     * Returns the number of rows the result is limited to; the statement selects one more.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    private void translate(Map<String, Object> query, int maxRows) {
+        List<String> measures = strings(query.get("measures"));
+        List<String> dimensions = strings(query.get("dimensions"));
+        List<Map<String, Object>> timeDimensions = maps(query.get("timeDimensions"));
+        List<Map<String, Object>> filters = maps(query.get("filters"));
+
+        String first = !measures.isEmpty()
+            ? measures.get(0)
+            : !dimensions.isEmpty()
+                ? dimensions.get(0)
+                : !timeDimensions.isEmpty() ? String.valueOf(timeDimensions.get(0).get("dimension")) : null;
+        if (first == null) {
+            throw new IllegalArgumentException("Query has no measures or dimensions");
+        }
+        root = cube(first);
+        aliases.put(root.getName(), alias(root));
+
+        for (String member : dimensions) {
+            Dimension dimension = dimension(member);
+            select(member, qualified(member, dimension.getColumn()), dimension.getType(), true);
+            narrowed.add(member);
+        }
+        for (Map<String, Object> timeDimension : timeDimensions) {
+            timeDimension(timeDimension);
+        }
+        for (String member : measures) {
+            measure(member);
+        }
+        for (Map<String, Object> filter : filters) {
+            filter(filter);
+            narrow(filter);
+        }
+        if (selects.isEmpty()) {
+            throw new IllegalArgumentException("Query selects no members");
+        }
+        for (Map.Entry<String, String> many : manyJoins.entrySet()) {
+            List<String> keys = ReportCubes.get(many.getValue()).getManyKeys(many.getKey());
+            if (!Collections.disjoint(keys, narrowed)) {
+                continue;
+            }
+            for (String member : countingMeasures) {
+                if (!joinedAfterMany.contains(cube(member).getName())) {
+                    throw new IllegalArgumentException(
+                        member +
+                        " can not be aggregated across " +
+                        many.getKey() +
+                        ", of which a " +
+                        many.getValue() +
+                        " has many, unless grouped by or filtered to one value of " +
+                        String.join(" or ", keys)
+                    );
+                }
+            }
+        }
+
+        StringBuilder statement = new StringBuilder("SELECT ").append(String.join(", ", selects)).append(" FROM ");
+        if (rollup != null) {
+            statement.append(table(rollup.getTable())).append(" r");
+        } else {
+            statement.append(table(root.getTable())).append(" ").append(aliases.get(root.getName())).append(joins);
+        }
+        if (!wheres.isEmpty()) {
+            statement.append(" WHERE ").append(String.join(" AND ", wheres));
+        }
+        if (!groupBys.isEmpty()) {
+            statement.append(" GROUP BY ").append(String.join(", ", groupBys));
+        }
+        if (!havings.isEmpty()) {
+            statement.append(" HAVING ").append(String.join(" AND ", havings));
+        }
+        parameters.addAll(whereParameters);
+        parameters.addAll(havingParameters);
+
+        if (bounded) {
+            limit = Math.min(query.get("limit") != null ? integer(query.get("limit")) : maxRows, maxRows);
+            int offset = query.get("offset") != null ? integer(query.get("offset")) : 0;
+            if (limit < 0 || offset < 0) {
+                throw new IllegalArgumentException("Invalid limit or offset");
+            }
+            String orderBy = orderBy(query.get("order"), measures, dimensions);
+            if (!orderBy.isEmpty()) {
+                statement.append(" ORDER BY ").append(orderBy);
+            }
+            statement.append(" LIMIT ? OFFSET ?");
+            parameters.add(limit + 1);
+            parameters.add(offset);
+        }
+        sql = statement.toString();
+    }
+
+    private void timeDimension(Map<String, Object> timeDimension) {
+        String member = String.valueOf(timeDimension.get("dimension"));
+        Dimension dimension = dimension(member);
+        if (dimension.getType() != Type.TIME) {
+            throw new IllegalArgumentException(member + " is not a time dimension");
+        }
+        String column = qualified(member, dimension.getColumn());
+
+        Object granularity = timeDimension.get("granularity");
+        if (granularity != null) {
+            if (!GRANULARITIES.contains(granularity)) {
+                throw new IllegalArgumentException("Invalid granularity " + granularity);
+            }
+            String truncated = "DATE_TRUNC('" + granularity + "', " + column + ")";
+            select(member + "." + granularity, truncated, Type.TIME, true);
+            if (timeOrder.isEmpty()) {
+                timeLabel = labels.get(member + "." + granularity);
+            }
+            timeOrder.add(truncated);
+        }
+
+        Object dateRange = timeDimension.get("dateRange");
+        if (dateRange != null) {
+            LocalDateTime[] range = DateRanges.parse(dateRange, now);
+            if (range != null) {
+                wheres.add(column + " >= ? AND " + column + " < ?");
+                whereParameters.add(Timestamp.valueOf(range[0]));
+                whereParameters.add(Timestamp.valueOf(range[1]));
+            }
+        }
+    }
+
+    private void measure(String member) {
+        Measure measure = measureOrNull(member);
+        if (measure == null) {
+            throw new IllegalArgumentException("Unknown measure " + member);
+        }
+        String expression = aggregated(member, measure);
+        // A running total sums the totals of the time buckets up to each bucket
+        if (measure.getAggregation() == Aggregation.RUNNING_TOTAL && !timeOrder.isEmpty()) {
+            expression = "SUM(" + expression + ") OVER (ORDER BY " + String.join(", ", timeOrder) + ")";
+        }
+        select(member, expression, measure.getType(), false);
+    }
+
+    private void select(String member, String expression, Type type, boolean grouped) {
+        String label = "c" + columns.size();
+        selects.add(expression + " AS " + label);
+        if (grouped) {
+            groupBys.add(expression);
+        }
+        columns.add(new Column(member, type));
+        labels.put(member, label);
+    }
+
+    /**
+     * Adds a top level filter, which is either a filter of a member or an {@code and} or {@code or} of
+     * filters, to the WHERE clause when it filters dimensions or to the HAVING clause when it filters
+     * measures.
+     */
+    private void filter(Map<String, Object> filter) {
+        List<Object> filterParameters = new ArrayList<>();
+        boolean[] onMeasures = new boolean[2];
+        String condition = condition(filter, filterParameters, onMeasures);
+        if (onMeasures[0] && onMeasures[1]) {
+            throw new IllegalArgumentException("A filter can not combine dimensions and measures");
+        }
+        if (onMeasures[1]) {
+            havings.add(condition);
+            havingParameters.addAll(filterParameters);
+        } else {
+            wheres.add(condition);
+            whereParameters.addAll(filterParameters);
+        }
+    }
+
+    /**
+     * Marks the members a top level filter narrows to one value, i.e. those it requires to equal a single
+     * value, alone or in an {@code and} of filters.
+     */
+    private void narrow(Map<String, Object> filter) {
+        if (filter.containsKey("and")) {
+            for (Map<String, Object> operand : maps(filter.get("and"))) {
+                narrow(operand);
+            }
+            return;
+        }
+        Object member = filter.get("member") != null ? filter.get("member") : filter.get("dimension");
+        Object values = filter.get("values");
+        boolean oneValue = values instanceof List && ((List<?>) values).size() == 1;
+        if (member != null && "equals".equals(filter.get("operator")) && oneValue) {
+            narrowed.add(member.toString());
+        }
+    }
+
+    /**
+     * Returns the condition of a filter, marking in {@code kinds} whether it filters dimensions, at index 0,
+     * or measures, at index 1.
+     */
+    private String condition(Map<String, Object> filter, List<Object> filterParameters, boolean[] kinds) {
+        for (String logical : new String[] { "and", "or" }) {
+            if (filter.containsKey(logical)) {
+                List<String> conditions = new ArrayList<>();
+                for (Map<String, Object> operand : maps(filter.get(logical))) {
+                    conditions.add(condition(operand, filterParameters, kinds));
+                }
+                if (conditions.isEmpty()) {
+                    throw new IllegalArgumentException("Empty " + logical + " filter");
+                }
+                return "(" + String.join(" " + logical.toUpperCase(Locale.ROOT) + " ", conditions) + ")";
+            }
+        }
+
+        Object memberName = filter.get("member") != null ? filter.get("member") : filter.get("dimension");
+        if (memberName == null) {
+            throw new IllegalArgumentException("Filter has no member");
+        }
+        String member = memberName.toString();
+        String expression;
+        Type type;
+        Measure measure = measureOrNull(member);
+        if (measure != null) {
+            if (measure.getAggregation() == Aggregation.RUNNING_TOTAL) {
+                throw new IllegalArgumentException("Running totals can not be filtered");
+            }
+            expression = aggregated(member, measure);
+            type = measure.getType();
+            kinds[1] = true;
+        } else {
+            Dimension dimension = dimension(member);
+            expression = qualified(member, dimension.getColumn());
+            type = dimension.getType();
+            kinds[0] = true;
+        }
+        return operator(expression, type, String.valueOf(filter.get("operator")), filter.get("values"), filterParameters);
+    }
+
+    private String operator(String expression, Type type, String operator, Object values, List<Object> parameters) {
+        List<Object> operands = values instanceof List ? new ArrayList<>((List<?>) values) : new ArrayList<>();
+        switch (operator) {
+            case "set":
+                return expression + " IS NOT NULL";
+            case "notSet":
+                return expression + " IS NULL";
+            case "equals":
+            case "notEquals":
+                {
+                    List<String> placeholders = new ArrayList<>();
+                    for (Object operand : nonEmpty(operands, operator)) {
+                        placeholders.add("?");
+                        parameters.add(value(operand, type));
+                    }
+                    String in = expression + " IN (" + String.join(", ", placeholders) + ")";
+                    return operator.equals("equals") ? in : "(NOT " + in + " OR " + expression + " IS NULL)";
+                }
+            case "contains":
+            case "notContains":
+            case "startsWith":
+            case "endsWith":
+                {
+                    if (type != Type.STRING && type != Type.BOOLEAN) {
+                        throw new IllegalArgumentException(operator + " only applies to strings");
+                    }
+                    // Booleans are matched as the text the report builder shows them as, true or false
+                    String text = type == Type.BOOLEAN ? "CAST(" + expression + " AS VARCHAR)" : expression;
+                    List<String> likes = new ArrayList<>();
+                    for (Object operand : nonEmpty(operands, operator)) {
+                        likes.add("LOWER(" + text + ") LIKE ?");
+                        String escaped = operand
+                            .toString()
+                            .toLowerCase(Locale.ROOT)
+                            .replace("\\", "\\\\")
+                            .replace("%", "\\%")
+                            .replace("_", "\\_");
+                        parameters.add(
+                            (operator.equals("startsWith") ? "" : "%") + escaped + (operator.equals("endsWith") ? "" : "%")
+                        );
+                    }
+                    String any = "(" + String.join(" OR ", likes) + ")";
+                    return operator.equals("notContains") ? "(" + expression + " IS NULL OR NOT " + any + ")" : any;
+                }
+            case "gt":
+            case "gte":
+            case "lt":
+            case "lte":
+                {
+                    String comparison = operator.equals("gt")
+                        ? " > ?"
+                        : operator.equals("gte") ? " >= ?" : operator.equals("lt") ? " < ?" : " <= ?";
+                    parameters.add(value(nonEmpty(operands, operator).get(0), type));
+                    return expression + comparison;
+                }
+            case "inDateRange":
+            case "notInDateRange":
+                {
+                    // The range is either a pair of dates or a relative range, given alone or as the only value
+                    Object dateRange = values instanceof String ? values : timeOperands(type, operands, operator);
+                    if (type != Type.TIME) {
+                        throw new IllegalArgumentException(operator + " only applies to times");
+                    }
+                    if (dateRange instanceof List && ((List<?>) dateRange).size() == 1) {
+                        dateRange = ((List<?>) dateRange).get(0);
+                    }
+                    LocalDateTime[] range = DateRanges.parse(dateRange, now);
+                    if (range == null) {
+                        return operator.equals("inDateRange") ? expression + " IS NOT NULL" : "1 = 0";
+                    }
+                    parameters.add(Timestamp.valueOf(range[0]));
+                    parameters.add(Timestamp.valueOf(range[1]));
+                    return operator.equals("inDateRange")
+                        ? "(" + expression + " >= ? AND " + expression + " < ?)"
+                        : "(" + expression + " < ? OR " + expression + " >= ?)";
+                }
+            case "beforeDate":
+                parameters.add(Timestamp.valueOf(DateRanges.start(timeOperands(type, operands, operator).get(0).toString())));
+                return expression + " < ?";
+            case "afterDate":
+                parameters.add(Timestamp.valueOf(DateRanges.end(timeOperands(type, operands, operator).get(0).toString())));
+                return expression + " >= ?";
+            default:
+                throw new IllegalArgumentException("Unsupported filter operator " + operator);
+        }
+    }
+
+    private static List<Object> timeOperands(Type type, List<Object> operands, String operator) {
+        if (type != Type.TIME) {
+            throw new IllegalArgumentException(operator + " only applies to times");
+        }
+        return nonEmpty(operands, operator);
+    }
+
+    private static List<Object> nonEmpty(List<Object> operands, String operator) {
+        if (operands.isEmpty()) {
+            throw new IllegalArgumentException("Filter " + operator + " has no values");
+        }
+        return operands;
+    }
+
+    private static Object value(Object operand, Type type) {
+        if (operand == null) {
+            throw new IllegalArgumentException("Filter value is null");
+        }
+        switch (type) {
+            case NUMBER:
+                try {
+                    return new BigDecimal(operand.toString());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Invalid number " + operand, e);
+                }
+            case TIME:
+                return Timestamp.valueOf(DateRanges.start(operand.toString()));
+            case BOOLEAN:
+                if (!"true".equalsIgnoreCase(operand.toString()) && !"false".equalsIgnoreCase(operand.toString())) {
+                    throw new IllegalArgumentException("Invalid boolean " + operand);
+                }
+                return Boolean.valueOf(operand.toString());
+            default:
+                return operand.toString();
+        }
+    }
+
+    /**
+     * Returns the order of the query, given either as an object of members and directions or as a list of
+     * pairs of them, or else the default order of the report builder: by the first time dimension, by the
+     * first measure descending, or by the first dimension.
+     */
+    private String orderBy(Object order, List<String> measures, List<String> dimensions) {
+        Map<String, String> directions = new LinkedHashMap<>();
+        if (order instanceof Map) {
+            ((Map<?, ?>) order).forEach((member, direction) -> directions.put(member.toString(), String.valueOf(direction)));
+        } else if (order instanceof List) {
+            for (Object pair : (List<?>) order) {
+                if (!(pair instanceof List) || ((List<?>) pair).size() != 2) {
+                    throw new IllegalArgumentException("Invalid order " + order);
+                }
+                directions.put(String.valueOf(((List<?>) pair).get(0)), String.valueOf(((List<?>) pair).get(1)));
+            }
+        } else if (order != null) {
+            throw new IllegalArgumentException("Invalid order " + order);
+        }
+
+        if (directions.isEmpty() && order == null) {
+            if (!timeOrder.isEmpty()) {
+                return timeLabel + " ASC";
+            }
+            if (!measures.isEmpty()) {
+                return labels.get(measures.get(0)) + " DESC";
+            }
+            return dimensions.isEmpty() ? "" : labels.get(dimensions.get(0)) + " ASC";
+        }
+
+        List<String> orders = new ArrayList<>();
+        for (Map.Entry<String, String> direction : directions.entrySet()) {
+            String label = labels.get(direction.getKey());
+            if (label == null) {
+                throw new IllegalArgumentException("Order by " + direction.getKey() + " which is not selected");
+            }
+            if (!direction.getValue().equalsIgnoreCase("asc") && !direction.getValue().equalsIgnoreCase("desc")) {
+                throw new IllegalArgumentException("Invalid order direction " + direction.getValue());
+            }
+            orders.add(label + " " + direction.getValue().toUpperCase(Locale.ROOT));
+        }
+        return String.join(", ", orders);
+    }
+
+    private Dimension dimension(String member) {
+        Dimension dimension = cube(member).getDimension(name(member));
+        if (dimension == null) {
+            throw new IllegalArgumentException("Unknown dimension " + member);
+        }
+        return dimension;
+    }
+
+    private Measure measureOrNull(String member) {
+        return cube(member).getMeasure(name(member));
+    }
+
+    private static ReportCube cube(String member) {
+        int separator = member.indexOf('.');
+        ReportCube cube = separator > 0 ? ReportCubes.get(member.substring(0, separator)) : null;
+        if (cube == null) {
+            throw new IllegalArgumentException("Unknown member " + member);
+        }
+        return cube;
+    }
+
+    private static String name(String member) {
+        return member.substring(member.indexOf('.') + 1);
+    }
+
+    /**
+     * Returns the column of a member qualified by the alias of its cube, joining the cube first when it is
+     * not joined yet, or the column of the member in the rollup. The cube is joined for a rollup as well, to
+     * tell which tables of many rows the query goes across.
+     */
+    private String qualified(String member, String column) {
+        String alias = join(cube(member));
+        return rollup != null ? "r." + rollup.column(member) : alias + "." + column;
+    }
+
+    private String aggregated(String member, Measure measure) {
+        if (measure.getAggregation().countsRepeatedRows()) {
+            countingMeasures.add(member);
+        }
+        return rollup != null
+            ? rollup.reaggregate(member, "r")
+            : measure.getAggregation().sql(qualified(member, measure.getColumn()));
+    }
+
+    /**
+     * Joins a cube to the cube of the first member along the shortest path of tables they belong to or have
+     * many rows of, and returns its alias.
+     */
+    private String join(ReportCube cube) {
+        if (aliases.containsKey(cube.getName())) {
+            return aliases.get(cube.getName());
+        }
+
+        Map<String, String> parents = new HashMap<>();
+        Deque<String> queue = new ArrayDeque<>(Collections.singleton(root.getName()));
+        parents.put(root.getName(), null);
+        while (!queue.isEmpty() && !parents.containsKey(cube.getName())) {
+            String current = queue.poll();
+            for (String next : ReportCubes.get(current).getJoins().keySet()) {
+                if (!parents.containsKey(next)) {
+                    parents.put(next, current);
+                    queue.add(next);
+                }
+            }
+        }
+        if (!parents.containsKey(cube.getName())) {
+            throw new IllegalArgumentException("Cube " + cube.getName() + " can not be joined to " + root.getName());
+        }
+
+        List<String> path = new ArrayList<>();
+        for (String current = cube.getName(); parents.get(current) != null; current = parents.get(current)) {
+            path.add(0, current);
+        }
+        String parent = root.getName();
+        for (String current : path) {
+            if (!aliases.containsKey(current)) {
+                ReportCube joined = ReportCubes.get(current);
+                String[] columns = ReportCubes.get(parent).getJoins().get(current);
+                aliases.put(current, alias(joined));
+                boolean many = ReportCubes.get(parent).hasMany(current);
+                if (many) {
+                    manyJoins.put(current, parent);
+                }
+                if (many || joinedAfterMany.contains(parent)) {
+                    joinedAfterMany.add(current);
+                }
+                joins
+                    .append(" LEFT JOIN ")
+                    .append(table(joined.getTable()))
+                    .append(" ")
+                    .append(alias(joined))
+                    .append(" ON ")
+                    .append(aliases.get(parent))
+                    .append(".")
+                    .append(columns[0])
+                    .append(" = ")
+                    .append(alias(joined))
+                    .append(".")
+                    .append(columns[1]);
+            }
+            parent = current;
+        }
+        return aliases.get(cube.getName());
+    }
+
+    private static String alias(ReportCube cube) {
+        return "c_" + cube.getName().toLowerCase(Locale.ROOT);
+    }
+
+    private String table(String table) {
+        return schema != null ? schema + "." + table : table;
+    }
+
+    static List<String> strings(Object value) {
+        List<String> strings = new ArrayList<>();
+        if (value instanceof List) {
+            for (Object element : (List<?>) value) {
+                strings.add(String.valueOf(element));
+            }
+        } else if (value != null) {
+            throw new IllegalArgumentException("Expected a list of members but got " + value);
+        }
+        return strings;
+    }
+
+    @SuppressWarnings("unchecked")
+    static List<Map<String, Object>> maps(Object value) {
+        List<Map<String, Object>> maps = new ArrayList<>();
+        if (value instanceof List) {
+            for (Object element : (List<?>) value) {
+                if (!(element instanceof Map)) {
+                    throw new IllegalArgumentException("Expected an object but got " + element);
+                }
+                maps.add((Map<String, Object>) element);
+            }
+        } else if (value != null) {
+            throw new IllegalArgumentException("Expected a list of objects but got " + value);
+        }
+        return maps;
+    }
+
+    private static int integer(Object value) {
+        try {
+            return Integer.parseInt(value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number " + value, e);
+        }
+    }
+}
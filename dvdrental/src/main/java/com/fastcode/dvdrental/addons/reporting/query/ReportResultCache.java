@@ -0,0 +1,81 @@
+package com.fastcode.dvdrental.addons.reporting.query;
+
+import com.fastcode.dvdrental.addons.reporting.application.report.dto.ReportDataOutput;
+import com.fastcode.dvdrental.commons.cache.DataVersions;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caches the results of the report queries by their statement and the versions of the data of the tables it
+ * reads, see {@link DataVersions}.
+ *
+ * The statement stands for the query normalized: its members resolved against the cubes, whatever their
+ * order in the JSON, and its relative date ranges resolved against the time it runs at. The key is taken
+ * before the statement runs, so a result read while a write commits is cached under the versions before the
+ * write. Tables that are not written through the services bumping their version, e.g. the reference data,
+ * are only renewed when their results expire. The size is bounded by the number of values of the results.
+ * The hits and misses are published as the {@code cache.gets} metric of the {@value #NAME} cache.
+ *
+ * The results are shared by the readers of the cache, so they must not be changed.
+ */
+@Component
+public class ReportResultCache {
+
+    public static final String NAME = "report.results";
+
+    private final DataVersions dataVersions;
+    private final Cache<List<Object>, ReportDataOutput> results;
+
+    public ReportResultCache(
+        DataVersions dataVersions,
+        MeterRegistry meterRegistry,
+        @Value("${fastCode.reporting.cache.maxValues:1000000}") long maxValues,
+        @Value("${fastCode.reporting.cache.ttlSeconds:300}") long ttlSeconds
+    ) {
+        this.dataVersions = dataVersions;
+        this.results =
+            Caffeine
+                .newBuilder()
+                .maximumWeight(maxValues)
+                .weigher((List<Object> key, ReportDataOutput output) -> weight(output))
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, NAME);
+    }
+
+    /**
+     * Returns the key of the result of the statement with the data as it is now.
+     */
+    public List<Object> key(ReportQuerySql statement) {
+        List<Object> key = new ArrayList<>();
+        key.add(statement.getSql());
+        key.add(new ArrayList<>(statement.getParameters()));
+        for (String table : statement.getTables()) {
+            key.add(dataVersions.get(table));
+        }
+        return key;
+    }
+
+    /**
+     * Returns the cached result, or null when there is none.
+     */
+    public ReportDataOutput get(List<Object> key) {
+        return results.getIfPresent(key);
+    }
+
+    public void put(List<Object> key, ReportDataOutput output) {
+        results.put(key, output);
+    }
+
+    private static int weight(ReportDataOutput output) {
+        return (int) Math.min(Integer.MAX_VALUE, 1L + (long) output.getRowCount() * output.getColumns().size());
+    }
+}
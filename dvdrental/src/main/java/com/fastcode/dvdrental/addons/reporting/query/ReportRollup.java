@@ -0,0 +1,357 @@
+package com.fastcode.dvdrental.addons.reporting.query;
+
+import com.fastcode.dvdrental.addons.reporting.query.ReportCube.Aggregation;
+import com.fastcode.dvdrental.addons.reporting.query.ReportCube.Dimension;
+import com.fastcode.dvdrental.addons.reporting.query.ReportCube.Measure;
+import com.fastcode.dvdrental.addons.reporting.query.ReportCube.Type;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A pre-aggregation of a cube: the measures of its rows by day and by some dimensions, stored in a table of
+ * its own by the {@link ReportRollupStore}.
+ *
+ * Only measures that can be aggregated again are stored, i.e. sums, counts, minimums and maximums, so that
+ * a query of a coarser grain, e.g. by month or by fewer dimensions, reads the rollup instead of the cube.
+ * The rows of the cube are told apart by an increasing key, which marks how far the rollup is refreshed.
+ */
+public final class ReportRollup {
+
+    public static final String GRANULARITY = "day";
+
+    private static final List<String> GRANULARITIES = Arrays.asList("day", "week", "month", "quarter", "year");
+
+    private final String name;
+    private final ReportCube cube;
+    private final String key;
+    private String timeDimension;
+    private final List<String> dimensions = new ArrayList<>();
+    private final List<String> measures = new ArrayList<>();
+    private final Map<String, String> columns = new LinkedHashMap<>();
+    private final Map<String, String> types = new HashMap<>();
+
+    /**
+     * @param key the dimension of the cube that increases with each row, usually its id
+     */
+    ReportRollup(String name, String cube, String key) {
+        this.name = name;
+        this.cube = ReportCubes.get(cube);
+        this.key = cube + "." + key;
+    }
+
+    ReportRollup timeDimension(String member) {
+        timeDimension = member;
+        return this;
+    }
+
+    ReportRollup dimension(String member) {
+        dimensions.add(member);
+        return this;
+    }
+
+    ReportRollup measure(String member) {
+        if (stored(member) == null || !stored(member).equals(member)) {
+            throw new IllegalArgumentException(member + " can not be aggregated again");
+        }
+        measures.add(member);
+        return this;
+    }
+
+    /**
+     * Names the columns of the rollup table after the members, in the order the statement of the
+     * {@link #refreshQuery} selects them: the dimensions, the day and the measures.
+     */
+    ReportRollup build() {
+        for (String member : dimensions) {
+            column(member, type(dimensionOf(member).getType()));
+        }
+        column(timeDimension, "TIMESTAMP");
+        for (String member : measures) {
+            Measure measure = measureOf(member);
+            column(member, measure.getAggregation() == Aggregation.COUNT ? "BIGINT" : type(measure.getType()));
+        }
+        return this;
+    }
+
+    private void column(String member, String type) {
+        String column = member.replace('.', '_').toLowerCase(Locale.ROOT);
+        columns.put(member, column);
+        types.put(member, type);
+    }
+
+    private static String type(Type type) {
+        switch (type) {
+            case STRING:
+                return "VARCHAR";
+            case TIME:
+                return "TIMESTAMP";
+            case BOOLEAN:
+                return "BOOLEAN";
+            default:
+                return "NUMERIC";
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTable() {
+        return "rollup_" + name;
+    }
+
+    public ReportCube getCube() {
+        return cube;
+    }
+
+    /**
+     * Returns the column of the increasing key in the table of the cube.
+     */
+    public String getKeyColumn() {
+        return dimensionOf(key).getColumn();
+    }
+
+    /**
+     * Returns the column of the time dimension in the table of the cube.
+     */
+    public String getTimeColumn() {
+        return dimensionOf(timeDimension).getColumn();
+    }
+
+    /**
+     * Returns the column of the day in the rollup table.
+     */
+    public String getDayColumn() {
+        return columns.get(timeDimension);
+    }
+
+    /**
+     * Returns the columns of the rollup table by member, in the order they are selected.
+     */
+    public Map<String, String> getColumns() {
+        return Collections.unmodifiableMap(columns);
+    }
+
+    /**
+     * Returns the column definitions of the rollup table, which also tell whether a stored rollup was built
+     * with the current definition.
+     */
+    public String getDefinition() {
+        List<String> definitions = new ArrayList<>();
+        columns.forEach((member, column) -> definitions.add(column + " " + types.get(member)));
+        return String.join(", ", definitions);
+    }
+
+    /**
+     * Returns the column of a dimension, of the time dimension or of a stored measure of the rollup.
+     */
+    String column(String member) {
+        String column = columns.get(member);
+        if (column == null) {
+            throw new IllegalArgumentException(member + " is not stored in rollup " + name);
+        }
+        return column;
+    }
+
+    /**
+     * Returns the expression aggregating again the stored measure a measure of the query is read from.
+     */
+    String reaggregate(String member, String alias) {
+        String column = alias + "." + column(stored(member));
+        switch (measureOf(member).getAggregation()) {
+            case COUNT:
+                return "CAST(SUM(" + column + ") AS BIGINT)";
+            case MIN:
+                return "MIN(" + column + ")";
+            case MAX:
+                return "MAX(" + column + ")";
+            default:
+                return "SUM(" + column + ")";
+        }
+    }
+
+    /**
+     * Returns the query aggregating by day the rows of the cube up to the mark, either of the days from
+     * {@code from} to {@code to} or without a day, or of both.
+     */
+    Map<String, Object> refreshQuery(LocalDate from, LocalDate to, boolean withoutDay, long mark) {
+        Map<String, Object> timeDimension = new HashMap<>();
+        timeDimension.put("dimension", this.timeDimension);
+        timeDimension.put("granularity", GRANULARITY);
+
+        List<Object> days = new ArrayList<>();
+        if (from != null) {
+            days.add(filter(this.timeDimension, "inDateRange", Arrays.asList(from.toString(), to.toString())));
+        }
+        if (withoutDay) {
+            days.add(filter(this.timeDimension, "notSet", Collections.emptyList()));
+        }
+        Map<String, Object> anyDay = new HashMap<>();
+        anyDay.put("or", days);
+
+        Map<String, Object> query = new HashMap<>();
+        query.put("dimensions", dimensions);
+        query.put("timeDimensions", Collections.singletonList(timeDimension));
+        query.put("measures", measures);
+        query.put("filters", Arrays.asList(filter(key, "lte", Collections.singletonList(mark)), anyDay));
+        return query;
+    }
+
+    private static Map<String, Object> filter(String member, String operator, List<Object> values) {
+        Map<String, Object> filter = new HashMap<>();
+        filter.put("member", member);
+        filter.put("operator", operator);
+        filter.put("values", values);
+        return filter;
+    }
+
+    /**
+     * Returns whether the rollup holds the result of a query: its members are of the cube of the rollup
+     * or joined to it, they are all stored, it is by day or coarser, its date ranges are whole days and it
+     * filters on no time. A rollup split by the rows of a table a cube has many of, e.g. by category, holds
+     * repeated rows, so it only holds the result of queries grouped or filtered by the same member.
+     */
+    boolean matches(Map<String, Object> query, LocalDateTime now) {
+        try {
+            List<String> queryMeasures = ReportQuerySql.strings(query.get("measures"));
+            List<String> queryDimensions = ReportQuerySql.strings(query.get("dimensions"));
+            List<Map<String, Object>> timeDimensions = ReportQuerySql.maps(query.get("timeDimensions"));
+            String first = !queryMeasures.isEmpty()
+                ? queryMeasures.get(0)
+                : !queryDimensions.isEmpty()
+                    ? queryDimensions.get(0)
+                    : !timeDimensions.isEmpty() ? String.valueOf(timeDimensions.get(0).get("dimension")) : null;
+            if (first == null || !first.startsWith(cube.getName() + ".")) {
+                return false;
+            }
+            for (String member : queryMeasures) {
+                if (!isMeasure(member)) {
+                    return false;
+                }
+            }
+            if (!dimensions.containsAll(queryDimensions)) {
+                return false;
+            }
+            List<Map<String, Object>> queryFilters = ReportQuerySql.maps(query.get("filters"));
+            for (String member : dimensions) {
+                boolean split = queryDimensions.contains(member) || mentions(queryFilters, member);
+                if (!split && ReportCubes.isManyKey(member)) {
+                    return false;
+                }
+            }
+            for (Map<String, Object> time : timeDimensions) {
+                Object granularity = time.get("granularity");
+                if (!timeDimension.equals(time.get("dimension")) || (granularity != null && !GRANULARITIES.contains(granularity))) {
+                    return false;
+                }
+                Object dateRange = time.get("dateRange");
+                LocalDateTime[] range = dateRange != null ? DateRanges.parse(dateRange, now) : null;
+                if (range != null && (!isDay(range[0]) || !isDay(range[1]))) {
+                    return false;
+                }
+            }
+            for (Map<String, Object> filter : queryFilters) {
+                if (!filters(filter)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (IllegalArgumentException e) {
+            // An invalid query is left to fail on the cube, with its own message
+            return false;
+        }
+    }
+
+    private boolean filters(Map<String, Object> filter) {
+        for (String logical : new String[] { "and", "or" }) {
+            if (filter.containsKey(logical)) {
+                for (Map<String, Object> operand : ReportQuerySql.maps(filter.get(logical))) {
+                    if (!filters(operand)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        Object member = filter.get("member") != null ? filter.get("member") : filter.get("dimension");
+        return member != null && (dimensions.contains(member.toString()) || isMeasure(member.toString()));
+    }
+
+    private static boolean mentions(List<Map<String, Object>> filters, String member) {
+        for (Map<String, Object> filter : filters) {
+            for (String logical : new String[] { "and", "or" }) {
+                if (filter.containsKey(logical) && mentions(ReportQuerySql.maps(filter.get(logical)), member)) {
+                    return true;
+                }
+            }
+            if (member.equals(filter.get("member")) || member.equals(filter.get("dimension"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isMeasure(String member) {
+        String stored = stored(member);
+        return stored != null && measures.contains(stored);
+    }
+
+    private static boolean isDay(LocalDateTime time) {
+        return time.equals(time.toLocalDate().atStartOfDay());
+    }
+
+    /**
+     * Returns the measure a measure of a query is aggregated again from, e.g. the sum for a running total,
+     * or null when it can not be.
+     */
+    private String stored(String member) {
+        Measure measure = measureOrNull(member);
+        if (measure == null) {
+            return null;
+        }
+        String cubeName = member.substring(0, member.indexOf('.'));
+        switch (measure.getAggregation()) {
+            case SUM:
+            case RUNNING_TOTAL:
+                return cubeName + ".sum_" + measure.getColumn();
+            case COUNT:
+            case MIN:
+            case MAX:
+                return cubeName + "." + measure.getAggregation().getName() + "_" + measure.getColumn();
+            default:
+                return null;
+        }
+    }
+
+    private static Measure measureOrNull(String member) {
+        int separator = member.indexOf('.');
+        ReportCube memberCube = separator > 0 ? ReportCubes.get(member.substring(0, separator)) : null;
+        return memberCube != null ? memberCube.getMeasure(member.substring(separator + 1)) : null;
+    }
+
+    private static Measure measureOf(String member) {
+        Measure measure = measureOrNull(member);
+        if (measure == null) {
+            throw new IllegalArgumentException("Unknown measure " + member);
+        }
+        return measure;
+    }
+
+    private static Dimension dimensionOf(String member) {
+        int separator = member.indexOf('.');
+        ReportCube memberCube = separator > 0 ? ReportCubes.get(member.substring(0, separator)) : null;
+        Dimension dimension = memberCube != null ? memberCube.getDimension(member.substring(separator + 1)) : null;
+        if (dimension == null) {
+            throw new IllegalArgumentException("Unknown dimension " + member);
+        }
+        return dimension;
+    }
+}
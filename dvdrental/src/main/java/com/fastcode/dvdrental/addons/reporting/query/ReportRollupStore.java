@@ -0,0 +1,224 @@
+package com.fastcode.dvdrental.addons.reporting.query;
+
+import com.fastcode.dvdrental.commons.cache.DataVersions;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Stores the {@link ReportRollups} in tables of their own and tells which one holds the result of a query.
+ *
+ * The {@code report_rollup} table, created by the change log, keeps the definition each rollup was built
+ * with and its high water mark, the greatest key of the rows of the cube it holds. The rollup tables are
+ * derived from the definitions of the rollups, so they are created here, only when a rollup is first built,
+ * rebuilt or its definition changed; the database user of the application therefore needs the CREATE
+ * privilege on the schema.
+ *
+ * A refresh aggregates again the days of the rows added since the mark, with all their rows up to the new
+ * mark, so each day is stored once. The keys are taken from pooled sequences, so rows do not commit in the
+ * order of their keys: a row with a key below the mark may commit after a refresh. A refresh therefore also
+ * aggregates again the days of the rows whose keys are within the key lag below the mark, which must exceed
+ * the keys allocated to the transactions running at once. Rows changed or deleted after they were aggregated
+ * are only seen by a rebuild, which the rebuild trigger of the refresh job runs nightly and which also
+ * follows a change of definition. Each refresh bumps the data version of the rollup table, which renews the
+ * cached results read from it.
+ */
+@Component
+public class ReportRollupStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DataVersions dataVersions;
+    private final String schema;
+    private final long keyLag;
+    private final Cache<String, Boolean> available = Caffeine
+        .newBuilder()
+        .expireAfterWrite(1, TimeUnit.MINUTES)
+        .build();
+
+    public ReportRollupStore(
+        DataSource dataSource,
+        PlatformTransactionManager transactionManager,
+        DataVersions dataVersions,
+        Environment env,
+        @Value("${fastCode.reporting.rollups.keyLag:1000}") long keyLag
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dataVersions = dataVersions;
+        this.schema = env.getProperty("spring.jpa.properties.hibernate.default_schema");
+        this.keyLag = keyLag;
+    }
+
+    /**
+     * Returns the first stored rollup holding the result of the query, or null when there is none.
+     */
+    public ReportRollup match(Map<String, Object> query, LocalDateTime now) {
+        for (ReportRollup rollup : ReportRollups.all()) {
+            if (rollup.matches(query, now) && isAvailable(rollup)) {
+                return rollup;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns whether the rollup is stored with its current definition; the answer is kept for a minute.
+     */
+    private boolean isAvailable(ReportRollup rollup) {
+        return available.get(
+            rollup.getName(),
+            name -> {
+                List<String> definitions = jdbcTemplate.queryForList(
+                    "SELECT definition FROM " + table("report_rollup") + " WHERE name = ?",
+                    String.class,
+                    name
+                );
+                return definitions.size() == 1 && definitions.get(0).equals(rollup.getDefinition());
+            }
+        );
+    }
+
+    /**
+     * Adds the rows of the cube since the last refresh to the rollup, in one transaction, or aggregates all
+     * of them again when asked to rebuild or when the rollup is not stored with its current definition.
+     *
+     * @return the number of rollup rows written
+     */
+    public int refresh(ReportRollup rollup, boolean rebuild) {
+        Integer written = transactionTemplate.execute(status -> refreshInTransaction(rollup, rebuild));
+        available.put(rollup.getName(), true);
+        dataVersions.bump(rollup.getTable());
+        return written;
+    }
+
+    private int refreshInTransaction(ReportRollup rollup, boolean rebuild) {
+        String rollupTable = table(rollup.getTable());
+        List<Map<String, Object>> states = jdbcTemplate.queryForList(
+            "SELECT definition, high_water_mark FROM " + table("report_rollup") + " WHERE name = ? FOR UPDATE",
+            rollup.getName()
+        );
+
+        long mark = 0;
+        if (states.isEmpty() || rebuild || !rollup.getDefinition().equals(states.get(0).get("definition"))) {
+            jdbcTemplate.update("DELETE FROM " + table("report_rollup") + " WHERE name = ?", rollup.getName());
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + rollupTable);
+            jdbcTemplate.execute("CREATE TABLE " + rollupTable + " (" + rollup.getDefinition() + ")");
+            jdbcTemplate.execute(
+                "CREATE INDEX " +
+                rollup.getTable() +
+                "_day_idx ON " +
+                rollupTable +
+                " (" +
+                rollup.getDayColumn() +
+                ")"
+            );
+            jdbcTemplate.update(
+                "INSERT INTO " + table("report_rollup") + " (name, definition, high_water_mark) VALUES (?, ?, 0)",
+                rollup.getName(),
+                rollup.getDefinition()
+            );
+        } else {
+            mark = ((Number) states.get(0).get("high_water_mark")).longValue();
+        }
+
+        String cubeTable = table(rollup.getCube().getTable());
+        Long newMark = jdbcTemplate.queryForObject(
+            "SELECT MAX(" + rollup.getKeyColumn() + ") FROM " + cubeTable,
+            Long.class
+        );
+        int written = 0;
+        long since = Math.max(0, mark - keyLag);
+        if (newMark != null && newMark > since) {
+            // The days of the rows added since the last refresh or committed late, and whether some have no day
+            Map<String, Object> days = jdbcTemplate.queryForMap(
+                "SELECT MIN(" +
+                rollup.getTimeColumn() +
+                ") AS first_day, MAX(" +
+                rollup.getTimeColumn() +
+                ") AS last_day, COUNT(*) - COUNT(" +
+                rollup.getTimeColumn() +
+                ") AS without_day FROM " +
+                cubeTable +
+                " WHERE " +
+                rollup.getKeyColumn() +
+                " > ? AND " +
+                rollup.getKeyColumn() +
+                " <= ?",
+                since,
+                newMark
+            );
+            LocalDate from = day(days.get("first_day"));
+            LocalDate to = day(days.get("last_day"));
+            boolean withoutDay = ((Number) days.get("without_day")).longValue() > 0;
+
+            String dayColumn = rollup.getDayColumn();
+            List<String> deleted = new ArrayList<>();
+            List<Object> parameters = new ArrayList<>();
+            if (from != null) {
+                deleted.add("(" + dayColumn + " >= ? AND " + dayColumn + " < ?)");
+                parameters.add(Timestamp.valueOf(from.atStartOfDay()));
+                parameters.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+            }
+            if (withoutDay) {
+                deleted.add(dayColumn + " IS NULL");
+            }
+            if (!deleted.isEmpty()) {
+                jdbcTemplate.update(
+                    "DELETE FROM " + rollupTable + " WHERE " + String.join(" OR ", deleted),
+                    parameters.toArray()
+                );
+                ReportQuerySql statement = ReportQuerySql.aggregate(
+                    rollup.refreshQuery(from, to, withoutDay, newMark),
+                    schema,
+                    LocalDateTime.now()
+                );
+                written =
+                    jdbcTemplate.update(
+                        "INSERT INTO " +
+                        rollupTable +
+                        " (" +
+                        String.join(", ", rollup.getColumns().values()) +
+                        ") " +
+                        statement.getSql(),
+                        statement.getParameters().toArray()
+                    );
+            }
+        }
+
+        jdbcTemplate.update(
+            "UPDATE " + table("report_rollup") + " SET high_water_mark = ?, refreshed_at = ? WHERE name = ?",
+            newMark != null ? Math.max(newMark, mark) : mark,
+            Timestamp.valueOf(LocalDateTime.now()),
+            rollup.getName()
+        );
+        return written;
+    }
+
+    private static LocalDate day(Object value) {
+        if (value instanceof Timestamp) {
+            return ((Timestamp) value).toLocalDateTime().toLocalDate();
+        }
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        }
+        return null;
+    }
+
+    private String table(String table) {
+        return schema != null ? schema + "." + table : table;
+    }
+}
@@ -0,0 +1,56 @@
+package com.fastcode.dvdrental.addons.reporting.query;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The rollups of the rentals and payments, which the dashboards aggregate by day, store, staff and film
+ * category. A query is read from the first rollup holding its result, so a coarser rollup goes before a
+ * finer one of the same cube.
+ */
+public final class ReportRollups {
+
+    private static final List<ReportRollup> ROLLUPS = new ArrayList<>();
+
+    static {
+        register(
+            new ReportRollup("payments_by_store_staff_day", "Payment", "payment_id")
+                .timeDimension("Payment.paymentDate")
+                .dimension("Store.store_id")
+                .dimension("Staff.staff_id")
+                .measure("Payment.sum_amount")
+                .measure("Payment.count_payment_id")
+        );
+        register(
+            new ReportRollup("payments_by_category_day", "Payment", "payment_id")
+                .timeDimension("Payment.paymentDate")
+                .dimension("Category.name")
+                .measure("Payment.sum_amount")
+                .measure("Payment.count_payment_id")
+        );
+        register(
+            new ReportRollup("rentals_by_store_staff_day", "Rental", "rental_id")
+                .timeDimension("Rental.rentalDate")
+                .dimension("Store.store_id")
+                .dimension("Staff.staff_id")
+                .measure("Rental.count_rental_id")
+        );
+        register(
+            new ReportRollup("rentals_by_category_day", "Rental", "rental_id")
+                .timeDimension("Rental.rentalDate")
+                .dimension("Category.name")
+                .measure("Rental.count_rental_id")
+        );
+    }
+
+    private ReportRollups() {}
+
+    private static void register(ReportRollup rollup) {
+        ROLLUPS.add(rollup.build());
+    }
+
+    public static List<ReportRollup> all() {
+        return Collections.unmodifiableList(ROLLUPS);
+    }
+}
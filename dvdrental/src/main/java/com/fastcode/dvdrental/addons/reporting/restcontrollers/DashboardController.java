@@ -7,7 +7,10 @@ import com.fastcode.dvdrental.addons.reporting.application.dashboardversionrepor
 import com.fastcode.dvdrental.addons.reporting.application.report.IReportAppService;
 import com.fastcode.dvdrental.addons.reporting.application.report.dto.FindReportByIdOutput;
 import com.fastcode.dvdrental.application.extended.authorization.user.IUserAppServiceExtended;
+import com.fastcode.dvdrental.commons.export.ExportFormat;
+import com.fastcode.dvdrental.commons.export.ExportWriter;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
+import com.fastcode.dvdrental.commons.search.KeysetCursor;
 import com.fastcode.dvdrental.commons.search.OffsetBasedPageRequest;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
 import com.fastcode.dvdrental.commons.search.SearchUtils;
@@ -18,12 +21,15 @@ import java.util.Map;
 import java.util.Optional;
 import javax.persistence.EntityExistsException;
 import javax.persistence.EntityNotFoundException;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.env.Environment;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -215,6 +221,45 @@ public class DashboardController {
         return new ResponseEntity(output, HttpStatus.OK);
     }
 
+    /**
+     * Streams the data of the reports of a dashboard as newline delimited JSON, one line per report as soon
+     * as its query has run, so that the dashboard takes as long as its slowest report.
+     */
+    @PreAuthorize("hasAnyAuthority('DASHBOARDENTITY_READ')")
+    @RequestMapping(value = "/{id}/data", method = RequestMethod.GET)
+    public void getDashboardData(
+        @PathVariable String id,
+        @RequestParam(value = "version", required = false, defaultValue = "running") String version,
+        HttpServletResponse response
+    ) throws Exception {
+        UserEntity user = _userAppService.getUser();
+        if (!version.equals("running") && !version.equals("published")) {
+            throw new IllegalArgumentException("Invalid version " + version);
+        }
+        FindDashboardByIdOutput output = _dashboardAppService.findByDashboardIdAndUserId(
+            Long.valueOf(id),
+            user.getId(),
+            version
+        );
+        Optional
+            .ofNullable(output)
+            .orElseThrow(() -> new EntityNotFoundException(String.format("Dashboard with id=%s not found.", id)));
+
+        response.setContentType(ExportFormat.NDJSON.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        try (ExportWriter writer = new ExportWriter(ExportFormat.NDJSON, response.getOutputStream())) {
+            _dashboardAppService.getDashboardData(
+                Long.valueOf(id),
+                user.getId(),
+                version,
+                reportData -> {
+                    writer.write(reportData);
+                    writer.flush();
+                }
+            );
+        }
+    }
+
     @PreAuthorize("hasAnyAuthority('DASHBOARDENTITY_CREATE')")
     @RequestMapping(
         value = "/addNewReportToNewDashboard",
@@ -404,6 +449,8 @@ public class DashboardController {
         @RequestParam(value = "search", required = false) String search,
         @RequestParam(value = "offset", required = false) String offset,
         @RequestParam(value = "limit", required = false) String limit,
+        @RequestParam(value = "withTotal", required = false) String withTotal,
+        @RequestParam(value = "after", required = false) String after,
         Sort sort
     ) throws Exception {
         UserEntity user = _userAppService.getUser();
@@ -416,9 +463,20 @@ public class DashboardController {
         }
 
         Pageable pageable = new OffsetBasedPageRequest(Integer.parseInt(offset), Integer.parseInt(limit), sort);
-        List<DashboardDetailsOutput> output = _dashboardAppService.getDashboards(user.getId(), search, pageable);
+        Slice<DashboardDetailsOutput> output = _dashboardAppService.getDashboards(
+            user.getId(),
+            search,
+            after != null ? KeysetCursor.decode(after) : null,
+            pageable
+        );
 
-        return new ResponseEntity(output, HttpStatus.OK);
+        HttpHeaders headers = ListingHeaders.of(
+            output,
+            withTotal,
+            after,
+            () -> _dashboardAppService.countDashboards(user.getId(), search)
+        );
+        return ResponseEntity.ok().headers(headers).body(output.getContent());
     }
 
     @PreAuthorize("hasAnyAuthority('DASHBOARDENTITY_READ')")
@@ -433,6 +491,8 @@ public class DashboardController {
         @RequestParam(value = "search", required = false) String search,
         @RequestParam(value = "offset", required = false) String offset,
         @RequestParam(value = "limit", required = false) String limit,
+        @RequestParam(value = "withTotal", required = false) String withTotal,
+        @RequestParam(value = "after", required = false) String after,
         Sort sort
     ) throws Exception {
         UserEntity user = _userAppService.getUser();
@@ -445,14 +505,21 @@ public class DashboardController {
         }
 
         Pageable pageable = new OffsetBasedPageRequest(Integer.parseInt(offset), Integer.parseInt(limit), sort);
-        List<DashboardDetailsOutput> output = _dashboardAppService.getAvailableDashboards(
+        Slice<DashboardDetailsOutput> output = _dashboardAppService.getAvailableDashboards(
             user.getId(),
             Long.valueOf(reportId),
             search,
+            after != null ? KeysetCursor.decode(after) : null,
             pageable
         );
 
-        return new ResponseEntity(output, HttpStatus.OK);
+        HttpHeaders headers = ListingHeaders.of(
+            output,
+            withTotal,
+            after,
+            () -> _dashboardAppService.countAvailableDashboards(user.getId(), Long.valueOf(reportId), search)
+        );
+        return ResponseEntity.ok().headers(headers).body(output.getContent());
     }
 
     @PreAuthorize("hasAnyAuthority('DASHBOARDENTITY_UPDATE')")
@@ -0,0 +1,36 @@
+package com.fastcode.dvdrental.addons.reporting.restcontrollers;
+
+import com.fastcode.dvdrental.commons.search.KeysetCursor;
+import com.fastcode.dvdrental.commons.search.TotalCount;
+import java.util.function.LongSupplier;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Headers of the report and dashboard listings: the cursor of the next page and, on the first page or when asked
+ * for with {@code ?withTotal}, the total of the listing.
+ */
+final class ListingHeaders {
+
+    private ListingHeaders() {}
+
+    static HttpHeaders of(Slice<?> output, String withTotal, String after, LongSupplier count) throws Exception {
+        HttpHeaders headers = KeysetCursor.nextCursorHeaders(output);
+        TotalCount totalCount = totalCount(withTotal, after == null && output.getPageable().getOffset() == 0);
+        if (totalCount != null) {
+            headers.set(TotalCount.HEADER, String.valueOf(count.getAsLong()));
+        }
+        return headers;
+    }
+
+    /**
+     * Returns the total asked for, the exact one on the first page, or null when the page carries no total.
+     * Listings are filtered by their user, so an estimate is counted exactly as it is for any filtered list.
+     */
+    static TotalCount totalCount(String withTotal, boolean firstPage) throws Exception {
+        if (withTotal != null) {
+            return TotalCount.fromString(withTotal);
+        }
+        return firstPage ? TotalCount.EXACT : null;
+    }
+}
@@ -6,6 +6,7 @@ import com.fastcode.dvdrental.addons.reporting.application.report.IReportAppServ
 import com.fastcode.dvdrental.addons.reporting.application.report.dto.*;
 import com.fastcode.dvdrental.application.extended.authorization.user.IUserAppServiceExtended;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
+import com.fastcode.dvdrental.commons.search.KeysetCursor;
 import com.fastcode.dvdrental.commons.search.OffsetBasedPageRequest;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
 import com.fastcode.dvdrental.commons.search.SearchUtils;
@@ -21,7 +22,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.env.Environment;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -176,6 +179,23 @@ public class ReportController {
         return new ResponseEntity(output, HttpStatus.OK);
     }
 
+    @PreAuthorize("hasAnyAuthority('REPORTENTITY_READ')")
+    @RequestMapping(value = "/{id}/data", method = RequestMethod.GET, produces = { "application/json" })
+    public ResponseEntity<ReportDataOutput> getReportData(
+        @PathVariable String id,
+        @RequestParam(value = "version", required = false, defaultValue = "running") String version
+    ) {
+        UserEntity user = _userAppService.getUser();
+        if (!version.equals("running") && !version.equals("published")) {
+            throw new IllegalArgumentException("Invalid version " + version);
+        }
+
+        ReportDataOutput output = _reportAppService.getReportData(Long.valueOf(id), user.getId(), version);
+        Optional.ofNullable(output).orElseThrow(() -> new EntityNotFoundException(String.format("Not found")));
+
+        return new ResponseEntity(output, HttpStatus.OK);
+    }
+
     @PreAuthorize("hasAnyAuthority('REPORTENTITY_READ')")
     @RequestMapping(
         value = "/{id}/reportdashboard",
@@ -219,6 +239,8 @@ public class ReportController {
         @RequestParam(value = "search", required = false) String search,
         @RequestParam(value = "offset", required = false) String offset,
         @RequestParam(value = "limit", required = false) String limit,
+        @RequestParam(value = "withTotal", required = false) String withTotal,
+        @RequestParam(value = "after", required = false) String after,
         Sort sort
     ) throws Exception {
         UserEntity user = _userAppService.getUser();
@@ -231,9 +253,20 @@ public class ReportController {
         }
 
         Pageable pageable = new OffsetBasedPageRequest(Integer.parseInt(offset), Integer.parseInt(limit), sort);
-        List<ReportDetailsOutput> output = _reportAppService.getReports(user.getId(), search, pageable);
+        Slice<ReportDetailsOutput> output = _reportAppService.getReports(
+            user.getId(),
+            search,
+            after != null ? KeysetCursor.decode(after) : null,
+            pageable
+        );
 
-        return new ResponseEntity(output, HttpStatus.OK);
+        HttpHeaders headers = ListingHeaders.of(
+            output,
+            withTotal,
+            after,
+            () -> _reportAppService.countReports(user.getId(), search)
+        );
+        return ResponseEntity.ok().headers(headers).body(output.getContent());
     }
 
     @PreAuthorize("hasAnyAuthority('REPORTENTITY_UPDATE')")
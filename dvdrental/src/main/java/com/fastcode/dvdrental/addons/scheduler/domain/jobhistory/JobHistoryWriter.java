@@ -0,0 +1,225 @@
+package com.fastcode.dvdrental.addons.scheduler.domain.jobhistory;
+
+import com.fastcode.dvdrental.commons.logging.LoggingHelper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes the history of the job executions off the threads of the scheduler.
+ *
+ * The executions are queued in a bounded queue and a thread of its own inserts them in batches of what has
+ * been queued while it wrote the previous one, with one JDBC batch as the ids are generated by the database.
+ * A batch is written in a transaction, and when it fails its rows are written again one by one, so that a
+ * single bad row, e.g. with a job data map too long for its column, does not cost the rest of its batch. A
+ * batch whose transaction cannot be begun or committed, e.g. while the database is unreachable, is counted
+ * as failed and the writer goes on with the next one.
+ * When the queue is full, an execution waits at most the offer timeout for room and is then dropped rather
+ * than holding up its job.
+ *
+ * The writer starts with the application context and stops after the scheduler, so the executions of the
+ * last jobs are queued before the queue is drained. The number of queued executions is published as the
+ * {@value #QUEUED} gauge, and the executions dropped or failing to be written as the {@value #DROPPED} and
+ * {@value #FAILED} counters.
+ */
+@Component
+public class JobHistoryWriter implements SmartLifecycle {
+
+    public static final String QUEUED = "jobs.history.queued";
+    public static final String DROPPED = "jobs.history.dropped";
+    public static final String FAILED = "jobs.history.failed";
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LoggingHelper logHelper;
+    private final String insert;
+    private final BlockingQueue<JobHistoryEntity> queue;
+    private final int batchSize;
+    private final long offerTimeoutMillis;
+    private final Counter dropped;
+    private final Counter failed;
+    private Thread writer;
+    private volatile boolean running;
+    private volatile boolean stopped;
+
+    public JobHistoryWriter(
+        DataSource dataSource,
+        PlatformTransactionManager transactionManager,
+        Environment env,
+        MeterRegistry meterRegistry,
+        LoggingHelper logHelper,
+        @Value("${fastCode.jobs.history.queueCapacity:10000}") int queueCapacity,
+        @Value("${fastCode.jobs.history.batchSize:500}") int batchSize,
+        @Value("${fastCode.jobs.history.offerTimeoutMillis:100}") long offerTimeoutMillis
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.logHelper = logHelper;
+        String schema = env.getProperty("spring.jpa.properties.hibernate.default_schema");
+        this.insert =
+            "INSERT INTO " +
+            (schema != null ? schema + ".job_history" : "job_history") +
+            " (job_name, job_description, job_group, job_class, fired_time, finished_time, trigger_name," +
+            " trigger_group, duration, job_status, job_map_data) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        Gauge.builder(QUEUED, queue, BlockingQueue::size).description("Queued job executions").register(meterRegistry);
+        this.dropped =
+            Counter.builder(DROPPED).description("Job executions dropped from the history").register(meterRegistry);
+        this.failed =
+            Counter.builder(FAILED).description("Job executions failing to be written").register(meterRegistry);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running || stopped) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::drain, "job-history-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues the execution to be written, waiting at most the offer timeout for room in the queue. Executions
+     * queued before the writer starts are written once it has started.
+     *
+     * @return whether the execution was queued rather than dropped
+     */
+    public boolean write(JobHistoryEntity history) {
+        boolean queued = false;
+        try {
+            queued = !stopped && queue.offer(history, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queued) {
+            dropped.increment();
+        }
+        return queued;
+    }
+
+    /**
+     * Stops queueing executions and waits for the writer to write the queued ones.
+     */
+    @Override
+    public synchronized void stop() {
+        stopped = true;
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(SHUTDOWN_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logHelper.getLogger().warn("Job history writer stopped with {} executions not written", queue.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Starts before and stops after the scheduler, which runs in the last phase.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 1;
+    }
+
+    private void drain() {
+        List<JobHistoryEntity> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                JobHistoryEntity first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                insert(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (RuntimeException e) {
+                // E.g. the database is unreachable; the batch is lost, but the writer goes on with the next one
+                failed.increment(batch.size());
+                logHelper.getLogger().error("Failed to write the history of " + batch.size() + " job executions", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void insert(List<JobHistoryEntity> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (JobHistoryEntity history : batch) {
+            rows.add(row(history));
+        }
+        try {
+            transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(insert, rows));
+            return;
+        } catch (RuntimeException batchFailure) {
+            if (rows.size() == 1) {
+                failed.increment();
+                logHelper
+                    .getLogger()
+                    .error("Failed to write the history of job " + batch.get(0).getJobName(), batchFailure);
+                return;
+            }
+            // Only a bad row is worth writing the others one by one; a failing transaction fails them all
+            if (!(batchFailure instanceof DataAccessException)) {
+                throw batchFailure;
+            }
+        }
+
+        for (JobHistoryEntity history : batch) {
+            insert(Collections.singletonList(history));
+        }
+    }
+
+    private static Object[] row(JobHistoryEntity history) {
+        return new Object[] {
+            history.getJobName(),
+            history.getJobDescription(),
+            history.getJobGroup(),
+            history.getJobClass(),
+            timestamp(history.getFiredTime()),
+            timestamp(history.getFinishedTime()),
+            history.getTriggerName(),
+            history.getTriggerGroup(),
+            history.getDuration(),
+            history.getJobStatus(),
+            history.getJobMapData(),
+        };
+    }
+
+    private static Timestamp timestamp(Date date) {
+        return date != null ? new Timestamp(date.getTime()) : null;
+    }
+}
@@ -1,6 +1,5 @@
 package com.fastcode.dvdrental.addons.scheduler.domain.jobhistory;
 
-import com.fastcode.dvdrental.addons.scheduler.BeanUtil;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.Date;
@@ -15,6 +14,14 @@ import org.springframework.stereotype.Component;
 @Component
 public class JobsListener implements JobListener {
 
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final JobHistoryWriter jobHistoryWriter;
+
+    public JobsListener(JobHistoryWriter jobHistoryWriter) {
+        this.jobHistoryWriter = jobHistoryWriter;
+    }
+
     @Override
     public String getName() {
         return "TEST-JOBS";
@@ -42,7 +49,7 @@ public class JobsListener implements JobListener {
 
         String mapDataJson = null;
         try {
-            mapDataJson = new ObjectMapper().writeValueAsString(map);
+            mapDataJson = objectMapper.writeValueAsString(map);
         } catch (JsonProcessingException e) {
             // TODO Auto-generated catch block
             e.printStackTrace();
@@ -62,8 +69,8 @@ public class JobsListener implements JobListener {
             jobentity.setJobStatus("Success");
         } else jobentity.setJobStatus("Failure");
 
-        IJobHistoryRepository jobHistoryRepository = BeanUtil.getBean(IJobHistoryRepository.class);
-        jobHistoryRepository.save(jobentity);
+        // Written in batches off the thread of the job
+        jobHistoryWriter.write(jobentity);
     }
 
     public static String timeDifference(long durationInMillis) {
@@ -0,0 +1,49 @@
+package com.fastcode.dvdrental.addons.scheduler.jobs;
+
+import com.fastcode.dvdrental.security.JWTAppService;
+import com.fastcode.dvdrental.security.StatelessTokenService;
+import com.fastcode.dvdrental.security.TokenStoreMetrics;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Deletes the expired tokens, then the expired refresh tokens, in batches sized by the {@value #BATCH_SIZE}
+ * entry of the job data, until a batch comes back short, and records the purge of each store in the
+ * {@link TokenStoreMetrics}.
+ */
+@DisallowConcurrentExecution
+public class PurgeExpiredTokensJob implements Job {
+
+    public static final String BATCH_SIZE = "batchSize";
+
+    @Autowired
+    private JWTAppService jwtAppService;
+
+    @Autowired
+    private StatelessTokenService statelessTokenService;
+
+    @Autowired
+    private TokenStoreMetrics tokenStoreMetrics;
+
+    @Override
+    public void execute(JobExecutionContext context) {
+        int batchSize = context.getMergedJobDataMap().getInt(BATCH_SIZE);
+
+        long purged = 0;
+        int batch;
+        do {
+            batch = jwtAppService.purgeExpiredTokens(batchSize);
+            purged += batch;
+        } while (batch == batchSize);
+        tokenStoreMetrics.recordAccessPurge(purged, jwtAppService.countTokens());
+
+        purged = 0;
+        do {
+            batch = statelessTokenService.purgeExpiredRefreshTokens(batchSize);
+            purged += batch;
+        } while (batch == batchSize);
+        tokenStoreMetrics.recordRefreshPurge(purged, statelessTokenService.countRefreshTokens());
+    }
+}
@@ -0,0 +1,89 @@
+package com.fastcode.dvdrental.addons.scheduler.jobs;
+
+import org.quartz.CronScheduleBuilder;
+import org.quartz.CronTrigger;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.TriggerKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.quartz.SchedulerFactoryBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers the {@link PurgeExpiredTokensJob} with its cron trigger. The job and trigger stored by an earlier
+ * run are replaced when the configured batch size or cron expression has changed since, and left alone
+ * otherwise, so that the next fire time of an unchanged trigger is kept across restarts.
+ */
+@Component
+@ConditionalOnProperty(name = "quartz.enabled")
+public class PurgeExpiredTokensJobRegistrar {
+
+    public static final String JOB_NAME = "purgeExpiredTokens";
+    public static final String JOB_GROUP = "system";
+
+    private final SchedulerFactoryBean schedulerFactoryBean;
+    private final String cron;
+    private final int batchSize;
+
+    public PurgeExpiredTokensJobRegistrar(
+        SchedulerFactoryBean schedulerFactoryBean,
+        @Value("${fastCode.jobs.purgeExpiredTokens.cron:0 0 * * * ?}") String cron,
+        @Value("${fastCode.jobs.purgeExpiredTokens.batchSize:1000}") int batchSize
+    ) {
+        this.schedulerFactoryBean = schedulerFactoryBean;
+        this.cron = cron;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void register() throws SchedulerException {
+        register(schedulerFactoryBean.getScheduler());
+    }
+
+    void register(Scheduler scheduler) throws SchedulerException {
+        JobDetail stored = scheduler.getJobDetail(new JobKey(JOB_NAME, JOB_GROUP));
+        if (
+            stored == null ||
+            !stored.getJobDataMap().containsKey(PurgeExpiredTokensJob.BATCH_SIZE) ||
+            stored.getJobDataMap().getInt(PurgeExpiredTokensJob.BATCH_SIZE) != batchSize
+        ) {
+            scheduler.addJob(job(), true);
+        }
+
+        Trigger storedTrigger = scheduler.getTrigger(new TriggerKey(JOB_NAME, JOB_GROUP));
+        if (storedTrigger == null) {
+            scheduler.scheduleJob(trigger());
+        } else if (
+            !(storedTrigger instanceof CronTrigger) || !cron.equals(((CronTrigger) storedTrigger).getCronExpression())
+        ) {
+            scheduler.rescheduleJob(storedTrigger.getKey(), trigger());
+        }
+    }
+
+    private JobDetail job() {
+        return JobBuilder
+            .newJob(PurgeExpiredTokensJob.class)
+            .withIdentity(JOB_NAME, JOB_GROUP)
+            .withDescription("Deletes expired tokens in bounded batches")
+            .usingJobData(PurgeExpiredTokensJob.BATCH_SIZE, batchSize)
+            .storeDurably()
+            .build();
+    }
+
+    private Trigger trigger() {
+        return TriggerBuilder
+            .newTrigger()
+            .forJob(JOB_NAME, JOB_GROUP)
+            .withIdentity(JOB_NAME, JOB_GROUP)
+            .withSchedule(CronScheduleBuilder.cronSchedule(cron).withMisfireHandlingInstructionDoNothing())
+            .build();
+    }
+}
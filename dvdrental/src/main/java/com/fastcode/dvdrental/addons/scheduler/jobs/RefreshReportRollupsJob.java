@@ -0,0 +1,30 @@
+package com.fastcode.dvdrental.addons.scheduler.jobs;
+
+import com.fastcode.dvdrental.addons.reporting.query.ReportRollup;
+import com.fastcode.dvdrental.addons.reporting.query.ReportRollupStore;
+import com.fastcode.dvdrental.addons.reporting.query.ReportRollups;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Refreshes the {@link ReportRollups} with the rentals and payments added since the last run, or rebuilds
+ * them when the {@value #REBUILD} entry of the data of the job or its trigger is {@code true}.
+ */
+@DisallowConcurrentExecution
+public class RefreshReportRollupsJob implements Job {
+
+    public static final String REBUILD = "rebuild";
+
+    @Autowired
+    private ReportRollupStore reportRollupStore;
+
+    @Override
+    public void execute(JobExecutionContext context) {
+        boolean rebuild = Boolean.parseBoolean(context.getMergedJobDataMap().getString(REBUILD));
+        for (ReportRollup rollup : ReportRollups.all()) {
+            reportRollupStore.refresh(rollup, rebuild);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.fastcode.dvdrental.addons.scheduler.jobs;
+
+import com.fastcode.dvdrental.addons.scheduler.application.job.JobAppService;
+import com.fastcode.dvdrental.addons.scheduler.application.job.dto.CreateJobInput;
+import com.fastcode.dvdrental.addons.scheduler.application.trigger.ITriggerAppService;
+import com.fastcode.dvdrental.addons.scheduler.application.trigger.dto.CreateTriggerInput;
+import java.util.ArrayList;
+import java.util.Collections;
+import org.quartz.JobKey;
+import org.quartz.SchedulerException;
+import org.quartz.TriggerKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Registers the {@link RefreshReportRollupsJob} with a cron trigger adding the new rows to the rollups and a
+ * second, nightly by default, rebuilding them, each when the scheduler has no such job or trigger yet. A
+ * refresh only aggregates the days of the rows added since the last one, so the rebuild is what brings the
+ * rows changed or deleted since into the rollups. The job and its triggers are created through the job and
+ * trigger services, as from the scheduler screens, so that they can be changed or paused there and are kept
+ * across restarts.
+ */
+@Component
+@ConditionalOnProperty(name = "quartz.enabled")
+public class ReportRollupsJobRegistrar {
+
+    public static final String JOB_NAME = "refreshReportRollups";
+    public static final String JOB_GROUP = "system";
+    public static final String REBUILD_TRIGGER_NAME = "rebuildReportRollups";
+
+    @Autowired
+    private JobAppService jobAppService;
+
+    @Autowired
+    private ITriggerAppService triggerAppService;
+
+    @Value("${fastCode.jobs.refreshReportRollups.cron:0 */15 * * * ?}")
+    private String cron;
+
+    @Value("${fastCode.jobs.rebuildReportRollups.cron:0 30 3 * * ?}")
+    private String rebuildCron;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void register() throws SchedulerException, ClassNotFoundException {
+        if (!jobAppService.getScheduler().checkExists(new JobKey(JOB_NAME, JOB_GROUP))) {
+            createJob();
+        }
+        if (!jobAppService.getScheduler().checkExists(new TriggerKey(REBUILD_TRIGGER_NAME, JOB_GROUP))) {
+            createTrigger(REBUILD_TRIGGER_NAME, rebuildCron, true, "Rebuilds the report rollups");
+        }
+    }
+
+    private void createJob() throws SchedulerException, ClassNotFoundException {
+        CreateJobInput job = new CreateJobInput(
+            JOB_NAME,
+            JOB_GROUP,
+            RefreshReportRollupsJob.class.getName(),
+            "Adds the rentals and payments added since the last run to the report rollups, or rebuilds them",
+            Collections.singletonMap(RefreshReportRollupsJob.REBUILD, "false"),
+            new ArrayList<>(),
+            true,
+            null
+        );
+        jobAppService.createJob(job);
+        createTrigger(JOB_NAME, cron, false, "Refreshes the report rollups");
+    }
+
+    private void createTrigger(String name, String cronExpression, boolean rebuild, String description)
+        throws SchedulerException {
+        CreateTriggerInput trigger = new CreateTriggerInput();
+        trigger.setTriggerName(name);
+        trigger.setTriggerGroup(JOB_GROUP);
+        trigger.setTriggerType("Cron");
+        trigger.setCronExpression(cronExpression);
+        trigger.setJobName(JOB_NAME);
+        trigger.setJobGroup(JOB_GROUP);
+        trigger.setTriggerDescription(description);
+        trigger.getTriggerMapData().put(RefreshReportRollupsJob.REBUILD, String.valueOf(rebuild));
+        triggerAppService.createTrigger(trigger);
+    }
+}
@@ -1,6 +1,7 @@
 package com.fastcode.dvdrental.application.core.actor;
 
 import com.fastcode.dvdrental.application.core.actor.dto.*;
+import com.fastcode.dvdrental.commons.cache.ReferenceDataCaches;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.commons.search.*;
 import com.fastcode.dvdrental.domain.core.actor.ActorEntity;
@@ -9,12 +10,16 @@ import com.fastcode.dvdrental.domain.core.actor.QActorEntity;
 import com.querydsl.core.BooleanBuilder;
 import java.time.*;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,6 +39,8 @@ public class ActorAppService implements IActorAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QActorEntity.actorEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreateActorOutput create(CreateActorInput input) {
         ActorEntity actor = mapper.createActorInputToActorEntity(input);
@@ -43,6 +50,7 @@ public class ActorAppService implements IActorAppService {
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
+    @CacheEvict(cacheNames = ReferenceDataCaches.ACTOR, key = "#p0")
     public UpdateActorOutput update(Integer actorId, UpdateActorInput input) {
         ActorEntity actor = mapper.updateActorInputToActorEntity(input);
 
@@ -51,115 +59,65 @@ public class ActorAppService implements IActorAppService {
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
+    @CacheEvict(cacheNames = ReferenceDataCaches.ACTOR, key = "#p0")
     public void delete(Integer actorId) {
         ActorEntity existing = _actorRepository.findById(actorId).orElse(null);
         _actorRepository.delete(existing);
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Cacheable(cacheNames = ReferenceDataCaches.ACTOR, key = "#p0", unless = "#result == null")
     public FindActorByIdOutput findById(Integer actorId) {
-        ActorEntity foundActor = _actorRepository.findById(actorId).orElse(null);
-        if (foundActor == null) return null;
-
-        return mapper.actorEntityToFindActorByIdOutput(foundActor);
+        return _actorRepository.findProjectedById(actorId);
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public List<FindActorByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<ActorEntity> foundActor = _actorRepository.findAll(search(search), pageable);
-        List<ActorEntity> actorList = foundActor.getContent();
-        Iterator<ActorEntity> actorIterator = actorList.iterator();
-        List<FindActorByIdOutput> output = new ArrayList<>();
-
-        while (actorIterator.hasNext()) {
-            ActorEntity actor = actorIterator.next();
-            output.add(mapper.actorEntityToFindActorByIdOutput(actor));
+    public Map<Integer, FindActorByIdOutput> findByIds(Collection<Integer> actorIds) throws Exception {
+        BatchIds.checkSize(actorIds);
+        if (actorIds.isEmpty()) {
+            return new LinkedHashMap<>();
         }
-        return output;
+        return BatchIds.keyById(
+            actorIds,
+            _actorRepository.findProjectedByIds(actorIds),
+            FindActorByIdOutput::getActorId
+        );
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QActorEntity actor = QActorEntity.actorEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(actor, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Slice<FindActorByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
+        return _actorRepository.findAllProjected(search(search), searchCompiler.rank(search), pageable);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _actorRepository.estimateCount(search(search));
         }
-        return null;
+        return _actorRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    list.get(i).replace("%20", "").trim().equals("actorId") ||
-                    list.get(i).replace("%20", "").trim().equals("firstName") ||
-                    list.get(i).replace("%20", "").trim().equals("lastName")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void export(SearchCriteria search, Sort sort, Consumer<FindActorByIdOutput> consumer) throws Exception {
+        try (Stream<FindActorByIdOutput> rows = _actorRepository.streamProjected(search(search), sort)) {
+            rows.forEach(consumer);
         }
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QActorEntity actor,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("actorId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(actor.actorId.eq(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(actor.actorId.ne(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        actor.actorId.between(
-                            Integer.valueOf(details.getValue().getStartingValue()),
-                            Integer.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        actor.actorId.goe(Integer.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        actor.actorId.loe(Integer.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("firstName")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    actor.firstName.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    actor.firstName.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    actor.firstName.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("lastName")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    actor.lastName.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    actor.lastName.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    actor.lastName.ne(details.getValue().getSearchValue())
-                );
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
+    }
 
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QActorEntity actor) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("actorId", actor.actorId)
+            .field("firstName", actor.firstName)
+            .field("lastName", actor.lastName)
+            .build();
     }
 
     public Map<String, String> parseFilmActorsJoinColumn(String keysString) {
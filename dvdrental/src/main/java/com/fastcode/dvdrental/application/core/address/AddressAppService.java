@@ -11,12 +11,14 @@ import com.fastcode.dvdrental.domain.core.city.ICityRepository;
 import com.querydsl.core.BooleanBuilder;
 import java.time.*;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -40,6 +42,8 @@ public class AddressAppService implements IAddressAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QAddressEntity.addressEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreateAddressOutput create(CreateAddressInput input) {
         AddressEntity address = mapper.createAddressInputToAddressEntity(input);
@@ -89,10 +93,20 @@ public class AddressAppService implements IAddressAppService {
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public FindAddressByIdOutput findById(Integer addressId) {
-        AddressEntity foundAddress = _addressRepository.findById(addressId).orElse(null);
-        if (foundAddress == null) return null;
+        return _addressRepository.findProjectedById(addressId);
+    }
 
-        return mapper.addressEntityToFindAddressByIdOutput(foundAddress);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<Integer, FindAddressByIdOutput> findByIds(Collection<Integer> addressIds) throws Exception {
+        BatchIds.checkSize(addressIds);
+        if (addressIds.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        return BatchIds.keyById(
+            addressIds,
+            _addressRepository.findProjectedByIds(addressIds),
+            FindAddressByIdOutput::getAddressId
+        );
     }
 
     //City
@@ -109,137 +123,44 @@ public class AddressAppService implements IAddressAppService {
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public List<FindAddressByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<AddressEntity> foundAddress = _addressRepository.findAll(search(search), pageable);
-        List<AddressEntity> addressList = foundAddress.getContent();
-        Iterator<AddressEntity> addressIterator = addressList.iterator();
-        List<FindAddressByIdOutput> output = new ArrayList<>();
-
-        while (addressIterator.hasNext()) {
-            AddressEntity address = addressIterator.next();
-            output.add(mapper.addressEntityToFindAddressByIdOutput(address));
-        }
-        return output;
+    public Slice<FindAddressByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
+        return _addressRepository.findAllProjected(search(search), pageable);
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QAddressEntity address = QAddressEntity.addressEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(address, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _addressRepository.estimateCount(search(search));
         }
-        return null;
+        return _addressRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    list.get(i).replace("%20", "").trim().equals("cityId") ||
-                    list.get(i).replace("%20", "").trim().equals("address") ||
-                    list.get(i).replace("%20", "").trim().equals("address2") ||
-                    list.get(i).replace("%20", "").trim().equals("addressId") ||
-                    list.get(i).replace("%20", "").trim().equals("district") ||
-                    list.get(i).replace("%20", "").trim().equals("phone") ||
-                    list.get(i).replace("%20", "").trim().equals("postalCode")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void export(SearchCriteria search, Sort sort, Consumer<FindAddressByIdOutput> consumer) throws Exception {
+        try (Stream<FindAddressByIdOutput> rows = _addressRepository.streamProjected(search(search), sort)) {
+            rows.forEach(consumer);
         }
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QAddressEntity address,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("address")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    address.address.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    address.address.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    address.address.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("address2")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    address.address2.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    address.address2.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    address.address2.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("addressId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(address.addressId.eq(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(address.addressId.ne(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        address.addressId.between(
-                            Integer.valueOf(details.getValue().getStartingValue()),
-                            Integer.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        address.addressId.goe(Integer.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        address.addressId.loe(Integer.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("district")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    address.district.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    address.district.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    address.district.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("phone")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    address.phone.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    address.phone.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    address.phone.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("postalCode")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    address.postalCode.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    address.postalCode.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    address.postalCode.ne(details.getValue().getSearchValue())
-                );
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
+    }
 
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("cityId")) {
-                builder.and(address.city.cityId.eq(Integer.parseInt(joinCol.getValue())));
-            }
-        }
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QAddressEntity address) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("cityId", address.city.cityId)
+            .field("address", address.address)
+            .field("address2", address.address2)
+            .field("addressId", address.addressId)
+            .field("district", address.district)
+            .field("phone", address.phone)
+            .field("postalCode", address.postalCode)
+            .joinColumn("cityId", address.city.cityId)
+            .build();
     }
 
     public Map<String, String> parseCustomersJoinColumn(String keysString) {
@@ -2,8 +2,12 @@ package com.fastcode.dvdrental.application.core.address;
 
 import com.fastcode.dvdrental.application.core.address.dto.*;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import java.util.*;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 public interface IAddressAppService {
     //CRUD Operations
@@ -16,7 +20,13 @@ public interface IAddressAppService {
 
     FindAddressByIdOutput findById(Integer id);
 
-    List<FindAddressByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+    Map<Integer, FindAddressByIdOutput> findByIds(Collection<Integer> ids) throws Exception;
+
+    Slice<FindAddressByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+
+    long count(SearchCriteria search, TotalCount totalCount) throws Exception;
+
+    void export(SearchCriteria search, Sort sort, Consumer<FindAddressByIdOutput> consumer) throws Exception;
     //Relationship Operations
 
     GetCityOutput getCity(Integer addressid);
@@ -2,8 +2,10 @@ package com.fastcode.dvdrental.application.core.authorization.permission;
 
 import com.fastcode.dvdrental.application.core.authorization.permission.dto.*;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import java.util.*;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface IPermissionAppService {
     //CRUD Operations
@@ -16,7 +18,9 @@ public interface IPermissionAppService {
 
     FindPermissionByIdOutput findById(Long id);
 
-    List<FindPermissionByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+    Slice<FindPermissionByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+
+    long count(SearchCriteria search, TotalCount totalCount) throws Exception;
 
     FindPermissionByNameOutput findByPermissionName(String permissionName);
 
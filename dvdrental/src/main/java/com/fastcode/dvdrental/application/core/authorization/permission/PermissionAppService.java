@@ -6,15 +6,16 @@ import com.fastcode.dvdrental.commons.search.*;
 import com.fastcode.dvdrental.domain.core.authorization.permission.IPermissionRepository;
 import com.fastcode.dvdrental.domain.core.authorization.permission.PermissionEntity;
 import com.fastcode.dvdrental.domain.core.authorization.permission.QPermissionEntity;
+import com.fastcode.dvdrental.security.PermissionResolver;
 import com.querydsl.core.BooleanBuilder;
 import java.time.*;
 import java.util.*;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +28,9 @@ public class PermissionAppService implements IPermissionAppService {
     @NonNull
     protected final IPermissionRepository _permissionRepository;
 
+    @NonNull
+    protected final PermissionResolver _permissionResolver;
+
     @Qualifier("IPermissionMapperImpl")
     @NonNull
     protected final IPermissionMapper mapper;
@@ -34,6 +38,8 @@ public class PermissionAppService implements IPermissionAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QPermissionEntity.permissionEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreatePermissionOutput create(CreatePermissionInput input) {
         PermissionEntity permission = mapper.createPermissionInputToPermissionEntity(input);
@@ -47,6 +53,7 @@ public class PermissionAppService implements IPermissionAppService {
         PermissionEntity permission = mapper.updatePermissionInputToPermissionEntity(input);
 
         PermissionEntity updatedPermission = _permissionRepository.save(permission);
+        _permissionResolver.evictAll();
         return mapper.permissionEntityToUpdatePermissionOutput(updatedPermission);
     }
 
@@ -54,6 +61,7 @@ public class PermissionAppService implements IPermissionAppService {
     public void delete(Long permissionId) {
         PermissionEntity existing = _permissionRepository.findById(permissionId).orElse(null);
         _permissionRepository.delete(existing);
+        _permissionResolver.evictAll();
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
@@ -75,8 +83,8 @@ public class PermissionAppService implements IPermissionAppService {
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public List<FindPermissionByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<PermissionEntity> foundPermission = _permissionRepository.findAll(search(search), pageable);
+    public Slice<FindPermissionByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
+        Slice<PermissionEntity> foundPermission = _permissionRepository.findSlice(search(search), pageable);
         List<PermissionEntity> permissionList = foundPermission.getContent();
         Iterator<PermissionEntity> permissionIterator = permissionList.iterator();
         List<FindPermissionByIdOutput> output = new ArrayList<>();
@@ -85,91 +93,31 @@ public class PermissionAppService implements IPermissionAppService {
             PermissionEntity permission = permissionIterator.next();
             output.add(mapper.permissionEntityToFindPermissionByIdOutput(permission));
         }
-        return output;
+        return new SliceImpl<>(output, foundPermission.getPageable(), foundPermission.hasNext());
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QPermissionEntity permission = QPermissionEntity.permissionEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(permission, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _permissionRepository.estimateCount(search(search));
         }
-        return null;
+        return _permissionRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    list.get(i).replace("%20", "").trim().equals("displayName") ||
-                    list.get(i).replace("%20", "").trim().equals("id") ||
-                    list.get(i).replace("%20", "").trim().equals("name")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QPermissionEntity permission,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("displayName")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    permission.displayName.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    permission.displayName.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    permission.displayName.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("id")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(permission.id.eq(Long.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(permission.id.ne(Long.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        permission.id.between(
-                            Long.valueOf(details.getValue().getStartingValue()),
-                            Long.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        permission.id.goe(Long.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        permission.id.loe(Long.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("name")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    permission.name.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    permission.name.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    permission.name.ne(details.getValue().getSearchValue())
-                );
-            }
-        }
-
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QPermissionEntity permission) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("displayName", permission.displayName)
+            .field("id", permission.id)
+            .field("name", permission.name)
+            .build();
     }
 
     public Map<String, String> parseRolepermissionsJoinColumn(String keysString) {
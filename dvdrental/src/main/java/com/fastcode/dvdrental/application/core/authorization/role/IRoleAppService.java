@@ -2,8 +2,10 @@ package com.fastcode.dvdrental.application.core.authorization.role;
 
 import com.fastcode.dvdrental.application.core.authorization.role.dto.*;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import java.util.*;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface IRoleAppService {
     //CRUD Operations
@@ -16,7 +18,9 @@ public interface IRoleAppService {
 
     FindRoleByIdOutput findById(Long id);
 
-    List<FindRoleByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+    Slice<FindRoleByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+
+    long count(SearchCriteria search, TotalCount totalCount) throws Exception;
 
     FindRoleByNameOutput findByRoleName(String roleName);
 
@@ -6,15 +6,16 @@ import com.fastcode.dvdrental.commons.search.*;
 import com.fastcode.dvdrental.domain.core.authorization.role.IRoleRepository;
 import com.fastcode.dvdrental.domain.core.authorization.role.QRoleEntity;
 import com.fastcode.dvdrental.domain.core.authorization.role.RoleEntity;
+import com.fastcode.dvdrental.security.PermissionResolver;
 import com.querydsl.core.BooleanBuilder;
 import java.time.*;
 import java.util.*;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,6 +28,9 @@ public class RoleAppService implements IRoleAppService {
     @NonNull
     protected final IRoleRepository _roleRepository;
 
+    @NonNull
+    protected final PermissionResolver _permissionResolver;
+
     @Qualifier("IRoleMapperImpl")
     @NonNull
     protected final IRoleMapper mapper;
@@ -34,6 +38,8 @@ public class RoleAppService implements IRoleAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QRoleEntity.roleEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreateRoleOutput create(CreateRoleInput input) {
         RoleEntity role = mapper.createRoleInputToRoleEntity(input);
@@ -47,13 +53,16 @@ public class RoleAppService implements IRoleAppService {
         RoleEntity role = mapper.updateRoleInputToRoleEntity(input);
 
         RoleEntity updatedRole = _roleRepository.save(role);
+        _permissionResolver.evictAll();
         return mapper.roleEntityToUpdateRoleOutput(updatedRole);
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
     public void delete(Long roleId) {
         RoleEntity existing = _roleRepository.findById(roleId).orElse(null);
+        // The user roles and role permissions of the role are deleted with it
         _roleRepository.delete(existing);
+        _permissionResolver.evictAll();
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
@@ -75,8 +84,8 @@ public class RoleAppService implements IRoleAppService {
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public List<FindRoleByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<RoleEntity> foundRole = _roleRepository.findAll(search(search), pageable);
+    public Slice<FindRoleByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
+        Slice<RoleEntity> foundRole = _roleRepository.findSlice(search(search), pageable);
         List<RoleEntity> roleList = foundRole.getContent();
         Iterator<RoleEntity> roleIterator = roleList.iterator();
         List<FindRoleByIdOutput> output = new ArrayList<>();
@@ -85,91 +94,31 @@ public class RoleAppService implements IRoleAppService {
             RoleEntity role = roleIterator.next();
             output.add(mapper.roleEntityToFindRoleByIdOutput(role));
         }
-        return output;
+        return new SliceImpl<>(output, foundRole.getPageable(), foundRole.hasNext());
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QRoleEntity role = QRoleEntity.roleEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(role, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _roleRepository.estimateCount(search(search));
         }
-        return null;
+        return _roleRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    list.get(i).replace("%20", "").trim().equals("displayName") ||
-                    list.get(i).replace("%20", "").trim().equals("id") ||
-                    list.get(i).replace("%20", "").trim().equals("name")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QRoleEntity role,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("displayName")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    role.displayName.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    role.displayName.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    role.displayName.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("id")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(role.id.eq(Long.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(role.id.ne(Long.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        role.id.between(
-                            Long.valueOf(details.getValue().getStartingValue()),
-                            Long.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        role.id.goe(Long.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        role.id.loe(Long.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("name")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    role.name.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    role.name.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    role.name.ne(details.getValue().getSearchValue())
-                );
-            }
-        }
-
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QRoleEntity role) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("displayName", role.displayName)
+            .field("id", role.id)
+            .field("name", role.name)
+            .build();
     }
 
     public Map<String, String> parseRolepermissionsJoinColumn(String keysString) {
@@ -2,6 +2,7 @@ package com.fastcode.dvdrental.application.core.authorization.rolepermission;
 
 import com.fastcode.dvdrental.application.core.authorization.rolepermission.dto.*;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import com.fastcode.dvdrental.domain.core.authorization.rolepermission.RolepermissionId;
 import java.util.*;
 import org.springframework.data.domain.Pageable;
@@ -19,6 +20,8 @@ public interface IRolepermissionAppService {
 
     List<FindRolepermissionByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
 
+    long count(SearchCriteria search, TotalCount totalCount) throws Exception;
+
     void deleteUserTokens(Long roleId);
     //Relationship Operations
     //Relationship Operations
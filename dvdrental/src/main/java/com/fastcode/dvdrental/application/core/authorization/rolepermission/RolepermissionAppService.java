@@ -14,15 +14,15 @@ import com.fastcode.dvdrental.domain.core.authorization.rolepermission.Rolepermi
 import com.fastcode.dvdrental.domain.core.authorization.userrole.IUserroleRepository;
 import com.fastcode.dvdrental.domain.core.authorization.userrole.UserroleEntity;
 import com.fastcode.dvdrental.security.JWTAppService;
+import com.fastcode.dvdrental.security.PermissionResolver;
 import com.querydsl.core.BooleanBuilder;
 import java.time.*;
 import java.util.*;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -50,6 +50,9 @@ public class RolepermissionAppService implements IRolepermissionAppService {
     @NonNull
     protected final IRoleRepository _roleRepository;
 
+    @NonNull
+    protected final PermissionResolver _permissionResolver;
+
     @Qualifier("IRolepermissionMapperImpl")
     @NonNull
     protected final IRolepermissionMapper mapper;
@@ -57,6 +60,8 @@ public class RolepermissionAppService implements IRolepermissionAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QRolepermissionEntity.rolepermissionEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreateRolepermissionOutput create(CreateRolepermissionInput input) {
         RolepermissionEntity rolepermission = mapper.createRolepermissionInputToRolepermissionEntity(input);
@@ -83,6 +88,7 @@ public class RolepermissionAppService implements IRolepermissionAppService {
         }
 
         RolepermissionEntity createdRolepermission = _rolepermissionRepository.save(rolepermission);
+        _permissionResolver.evictAll();
         return mapper.rolepermissionEntityToCreateRolepermissionOutput(createdRolepermission);
     }
 
@@ -114,6 +120,7 @@ public class RolepermissionAppService implements IRolepermissionAppService {
         }
 
         RolepermissionEntity updatedRolepermission = _rolepermissionRepository.save(rolepermission);
+        _permissionResolver.evictAll();
         return mapper.rolepermissionEntityToUpdateRolepermissionOutput(updatedRolepermission);
     }
 
@@ -135,6 +142,7 @@ public class RolepermissionAppService implements IRolepermissionAppService {
     public void delete(RolepermissionId rolepermissionId) {
         RolepermissionEntity existing = _rolepermissionRepository.findById(rolepermissionId).orElse(null);
         _rolepermissionRepository.delete(existing);
+        _permissionResolver.evictAll();
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
@@ -182,7 +190,7 @@ public class RolepermissionAppService implements IRolepermissionAppService {
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<FindRolepermissionByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<RolepermissionEntity> foundRolepermission = _rolepermissionRepository.findAll(search(search), pageable);
+        Slice<RolepermissionEntity> foundRolepermission = _rolepermissionRepository.findSlice(search(search), pageable);
         List<RolepermissionEntity> rolepermissionList = foundRolepermission.getContent();
         Iterator<RolepermissionEntity> rolepermissionIterator = rolepermissionList.iterator();
         List<FindRolepermissionByIdOutput> output = new ArrayList<>();
@@ -194,137 +202,31 @@ public class RolepermissionAppService implements IRolepermissionAppService {
         return output;
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QRolepermissionEntity rolepermission = QRolepermissionEntity.rolepermissionEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(rolepermission, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _rolepermissionRepository.estimateCount(search(search));
         }
-        return null;
+        return _rolepermissionRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    //       list.get(i).replace("%20","").trim().equals("displayName") ||
-                    //       list.get(i).replace("%20","").trim().equals("displayName") ||
-                    list.get(i).replace("%20", "").trim().equals("permissionId") ||
-                    list.get(i).replace("%20", "").trim().equals("roleId")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QRolepermissionEntity rolepermission,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("permissionId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(
-                    rolepermission.permissionId.eq(Long.valueOf(details.getValue().getSearchValue()))
-                ); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(
-                    rolepermission.permissionId.ne(Long.valueOf(details.getValue().getSearchValue()))
-                ); else if (details.getValue().getOperator().equals("range")) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        rolepermission.permissionId.between(
-                            Long.valueOf(details.getValue().getStartingValue()),
-                            Long.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        rolepermission.permissionId.goe(Long.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        rolepermission.permissionId.loe(Long.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("roleId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(rolepermission.roleId.eq(Long.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(rolepermission.roleId.ne(Long.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        rolepermission.roleId.between(
-                            Long.valueOf(details.getValue().getStartingValue()),
-                            Long.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        rolepermission.roleId.goe(Long.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        rolepermission.roleId.loe(Long.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-
-            if (details.getKey().replace("%20", "").trim().equals("permission")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    rolepermission.permission.displayName.likeIgnoreCase(
-                        "%" + details.getValue().getSearchValue() + "%"
-                    )
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    rolepermission.permission.displayName.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    rolepermission.permission.displayName.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("role")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    rolepermission.role.displayName.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    rolepermission.role.displayName.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    rolepermission.role.displayName.ne(details.getValue().getSearchValue())
-                );
-            }
-        }
-
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("permissionId")) {
-                builder.and(rolepermission.permission.id.eq(Long.parseLong(joinCol.getValue())));
-            }
-
-            if (joinCol != null && joinCol.getKey().equals("permission")) {
-                builder.and(rolepermission.permission.displayName.eq(joinCol.getValue()));
-            }
-        }
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("roleId")) {
-                builder.and(rolepermission.role.id.eq(Long.parseLong(joinCol.getValue())));
-            }
-
-            if (joinCol != null && joinCol.getKey().equals("role")) {
-                builder.and(rolepermission.role.displayName.eq(joinCol.getValue()));
-            }
-        }
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QRolepermissionEntity rolepermission) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("permissionId", rolepermission.permissionId)
+            .field("roleId", rolepermission.roleId)
+            .joinColumn("permissionId", rolepermission.permission.id)
+            .joinColumn("permission", rolepermission.permission.displayName)
+            .joinColumn("roleId", rolepermission.role.id)
+            .joinColumn("role", rolepermission.role.displayName)
+            .build();
     }
 
     public RolepermissionId parseRolepermissionKey(String keysString) {
@@ -2,10 +2,12 @@ package com.fastcode.dvdrental.application.core.authorization.user;
 
 import com.fastcode.dvdrental.application.core.authorization.user.dto.*;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import com.fastcode.dvdrental.domain.core.authorization.user.UserEntity;
 import com.fastcode.dvdrental.domain.core.authorization.userpreference.UserpreferenceEntity;
 import java.util.*;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 public interface IUserAppService {
     //CRUD Operations
@@ -18,7 +20,9 @@ public interface IUserAppService {
 
     FindUserByIdOutput findById(Long id);
 
-    List<FindUserByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+    Slice<FindUserByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+
+    long count(SearchCriteria search, TotalCount totalCount) throws Exception;
 
     UserpreferenceEntity createDefaultUserPreference(UserEntity user);
 
@@ -17,10 +17,10 @@ import java.time.*;
 import java.util.*;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -58,6 +58,8 @@ public class UserAppService implements IUserAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QUserEntity.userEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreateUserOutput create(CreateUserInput input) {
         UserEntity user = mapper.createUserInputToUserEntity(input);
@@ -190,8 +192,8 @@ public class UserAppService implements IUserAppService {
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public List<FindUserByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<UserEntity> foundUser = _userRepository.findAll(search(search), pageable);
+    public Slice<FindUserByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
+        Slice<UserEntity> foundUser = _userRepository.findSlice(search(search), pageable);
         List<UserEntity> userList = foundUser.getContent();
         Iterator<UserEntity> userIterator = userList.iterator();
         List<FindUserByIdOutput> output = new ArrayList<>();
@@ -201,165 +203,37 @@ public class UserAppService implements IUserAppService {
             UserpreferenceEntity userPreference = _userpreferenceRepository.findById(user.getId()).orElse(null);
             output.add(mapper.userEntityToFindUserByIdOutput(user, userPreference));
         }
-        return output;
+        return new SliceImpl<>(output, foundUser.getPageable(), foundUser.hasNext());
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QUserEntity user = QUserEntity.userEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(user, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _userRepository.estimateCount(search(search));
         }
-        return null;
+        return _userRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    list.get(i).replace("%20", "").trim().equals("emailAddress") ||
-                    list.get(i).replace("%20", "").trim().equals("firstName") ||
-                    list.get(i).replace("%20", "").trim().equals("id") ||
-                    list.get(i).replace("%20", "").trim().equals("isActive") ||
-                    list.get(i).replace("%20", "").trim().equals("isEmailConfirmed") ||
-                    list.get(i).replace("%20", "").trim().equals("lastName") ||
-                    list.get(i).replace("%20", "").trim().equals("password") ||
-                    list.get(i).replace("%20", "").trim().equals("phoneNumber") ||
-                    list.get(i).replace("%20", "").trim().equals("userName")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QUserEntity user,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("emailAddress")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    user.emailAddress.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    user.emailAddress.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    user.emailAddress.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("firstName")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    user.firstName.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    user.firstName.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    user.firstName.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("id")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(user.id.eq(Long.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(user.id.ne(Long.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        user.id.between(
-                            Long.valueOf(details.getValue().getStartingValue()),
-                            Long.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        user.id.goe(Long.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        user.id.loe(Long.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("isActive")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    (
-                        details.getValue().getSearchValue().equalsIgnoreCase("true") ||
-                        details.getValue().getSearchValue().equalsIgnoreCase("false")
-                    )
-                ) builder.and(user.isActive.eq(Boolean.parseBoolean(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    (
-                        details.getValue().getSearchValue().equalsIgnoreCase("true") ||
-                        details.getValue().getSearchValue().equalsIgnoreCase("false")
-                    )
-                ) builder.and(user.isActive.ne(Boolean.parseBoolean(details.getValue().getSearchValue())));
-            }
-            if (details.getKey().replace("%20", "").trim().equals("isEmailConfirmed")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    (
-                        details.getValue().getSearchValue().equalsIgnoreCase("true") ||
-                        details.getValue().getSearchValue().equalsIgnoreCase("false")
-                    )
-                ) builder.and(
-                    user.isEmailConfirmed.eq(Boolean.parseBoolean(details.getValue().getSearchValue()))
-                ); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    (
-                        details.getValue().getSearchValue().equalsIgnoreCase("true") ||
-                        details.getValue().getSearchValue().equalsIgnoreCase("false")
-                    )
-                ) builder.and(user.isEmailConfirmed.ne(Boolean.parseBoolean(details.getValue().getSearchValue())));
-            }
-            if (details.getKey().replace("%20", "").trim().equals("lastName")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    user.lastName.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    user.lastName.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    user.lastName.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("password")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    user.password.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    user.password.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    user.password.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("phoneNumber")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    user.phoneNumber.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    user.phoneNumber.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    user.phoneNumber.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("userName")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    user.userName.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    user.userName.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    user.userName.ne(details.getValue().getSearchValue())
-                );
-            }
-        }
-
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QUserEntity user) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("emailAddress", user.emailAddress)
+            .field("firstName", user.firstName)
+            .field("id", user.id)
+            .field("isActive", user.isActive)
+            .field("isEmailConfirmed", user.isEmailConfirmed)
+            .field("lastName", user.lastName)
+            .field("password", user.password)
+            .field("phoneNumber", user.phoneNumber)
+            .field("userName", user.userName)
+            .build();
     }
 
     public Map<String, String> parseDashboardsJoinColumn(String keysString) {
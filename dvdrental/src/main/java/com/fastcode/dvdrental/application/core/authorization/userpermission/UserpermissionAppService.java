@@ -11,15 +11,15 @@ import com.fastcode.dvdrental.domain.core.authorization.userpermission.IUserperm
 import com.fastcode.dvdrental.domain.core.authorization.userpermission.QUserpermissionEntity;
 import com.fastcode.dvdrental.domain.core.authorization.userpermission.UserpermissionEntity;
 import com.fastcode.dvdrental.domain.core.authorization.userpermission.UserpermissionId;
+import com.fastcode.dvdrental.security.PermissionResolver;
 import com.querydsl.core.BooleanBuilder;
 import java.time.*;
 import java.util.*;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -40,6 +40,9 @@ public class UserpermissionAppService implements IUserpermissionAppService {
     @NonNull
     protected final IUserRepository _userRepository;
 
+    @NonNull
+    protected final PermissionResolver _permissionResolver;
+
     @Qualifier("IUserpermissionMapperImpl")
     @NonNull
     protected final IUserpermissionMapper mapper;
@@ -47,6 +50,8 @@ public class UserpermissionAppService implements IUserpermissionAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QUserpermissionEntity.userpermissionEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreateUserpermissionOutput create(CreateUserpermissionInput input) {
         UserpermissionEntity userpermission = mapper.createUserpermissionInputToUserpermissionEntity(input);
@@ -72,6 +77,7 @@ public class UserpermissionAppService implements IUserpermissionAppService {
         }
 
         UserpermissionEntity createdUserpermission = _userpermissionRepository.save(userpermission);
+        _permissionResolver.evictUser(input.getUserId());
         CreateUserpermissionOutput output = mapper.userpermissionEntityToCreateUserpermissionOutput(
             createdUserpermission
         );
@@ -107,6 +113,7 @@ public class UserpermissionAppService implements IUserpermissionAppService {
             return null;
         }
         UserpermissionEntity updatedUserpermission = _userpermissionRepository.save(userpermission);
+        _permissionResolver.evictUser(userpermissionId.getUserId());
         return mapper.userpermissionEntityToUpdateUserpermissionOutput(updatedUserpermission);
     }
 
@@ -128,6 +135,7 @@ public class UserpermissionAppService implements IUserpermissionAppService {
     public void delete(UserpermissionId userpermissionId) {
         UserpermissionEntity existing = _userpermissionRepository.findById(userpermissionId).orElse(null);
         _userpermissionRepository.delete(existing);
+        _permissionResolver.evictUser(userpermissionId.getUserId());
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
@@ -166,7 +174,7 @@ public class UserpermissionAppService implements IUserpermissionAppService {
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<FindUserpermissionByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<UserpermissionEntity> foundUserpermission = _userpermissionRepository.findAll(search(search), pageable);
+        Slice<UserpermissionEntity> foundUserpermission = _userpermissionRepository.findSlice(search(search), pageable);
         List<UserpermissionEntity> userpermissionList = foundUserpermission.getContent();
         Iterator<UserpermissionEntity> userpermissionIterator = userpermissionList.iterator();
         List<FindUserpermissionByIdOutput> output = new ArrayList<>();
@@ -178,155 +186,32 @@ public class UserpermissionAppService implements IUserpermissionAppService {
         return output;
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QUserpermissionEntity userpermission = QUserpermissionEntity.userpermissionEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(userpermission, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _userpermissionRepository.estimateCount(search(search));
         }
-        return null;
+        return _userpermissionRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    //       list.get(i).replace("%20","").trim().equals("displayName") ||
-                    //       list.get(i).replace("%20","").trim().equals("userName") ||
-                    list.get(i).replace("%20", "").trim().equals("permissionId") ||
-                    list.get(i).replace("%20", "").trim().equals("revoked") ||
-                    list.get(i).replace("%20", "").trim().equals("userId")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QUserpermissionEntity userpermission,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("permissionId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(
-                    userpermission.permissionId.eq(Long.valueOf(details.getValue().getSearchValue()))
-                ); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(
-                    userpermission.permissionId.ne(Long.valueOf(details.getValue().getSearchValue()))
-                ); else if (details.getValue().getOperator().equals("range")) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        userpermission.permissionId.between(
-                            Long.valueOf(details.getValue().getStartingValue()),
-                            Long.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        userpermission.permissionId.goe(Long.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        userpermission.permissionId.loe(Long.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("revoked")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    (
-                        details.getValue().getSearchValue().equalsIgnoreCase("true") ||
-                        details.getValue().getSearchValue().equalsIgnoreCase("false")
-                    )
-                ) builder.and(
-                    userpermission.revoked.eq(Boolean.parseBoolean(details.getValue().getSearchValue()))
-                ); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    (
-                        details.getValue().getSearchValue().equalsIgnoreCase("true") ||
-                        details.getValue().getSearchValue().equalsIgnoreCase("false")
-                    )
-                ) builder.and(userpermission.revoked.ne(Boolean.parseBoolean(details.getValue().getSearchValue())));
-            }
-            if (details.getKey().replace("%20", "").trim().equals("userId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(userpermission.userId.eq(Long.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(userpermission.userId.ne(Long.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        userpermission.userId.between(
-                            Long.valueOf(details.getValue().getStartingValue()),
-                            Long.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        userpermission.userId.goe(Long.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        userpermission.userId.loe(Long.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-
-            if (details.getKey().replace("%20", "").trim().equals("permission")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    userpermission.permission.displayName.likeIgnoreCase(
-                        "%" + details.getValue().getSearchValue() + "%"
-                    )
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    userpermission.permission.displayName.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    userpermission.permission.displayName.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("user")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    userpermission.user.userName.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    userpermission.user.userName.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    userpermission.user.userName.ne(details.getValue().getSearchValue())
-                );
-            }
-        }
-
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("permissionId")) {
-                builder.and(userpermission.permission.id.eq(Long.parseLong(joinCol.getValue())));
-            }
-
-            if (joinCol != null && joinCol.getKey().equals("permission")) {
-                builder.and(userpermission.permission.displayName.eq(joinCol.getValue()));
-            }
-        }
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("userId")) {
-                builder.and(userpermission.user.id.eq(Long.parseLong(joinCol.getValue())));
-            }
-
-            if (joinCol != null && joinCol.getKey().equals("user")) {
-                builder.and(userpermission.user.userName.eq(joinCol.getValue()));
-            }
-        }
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QUserpermissionEntity userpermission) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("permissionId", userpermission.permissionId)
+            .field("revoked", userpermission.revoked)
+            .field("userId", userpermission.userId)
+            .joinColumn("permissionId", userpermission.permission.id)
+            .joinColumn("permission", userpermission.permission.displayName)
+            .joinColumn("userId", userpermission.user.id)
+            .joinColumn("user", userpermission.user.userName)
+            .build();
     }
 
     public UserpermissionId parseUserpermissionKey(String keysString) {
@@ -2,6 +2,7 @@ package com.fastcode.dvdrental.application.core.authorization.userrole;
 
 import com.fastcode.dvdrental.application.core.authorization.userrole.dto.*;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import com.fastcode.dvdrental.domain.core.authorization.userrole.UserroleId;
 import java.util.*;
 import org.springframework.data.domain.Pageable;
@@ -18,6 +19,8 @@ public interface IUserroleAppService {
     FindUserroleByIdOutput findById(UserroleId userroleId);
 
     List<FindUserroleByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+
+    long count(SearchCriteria search, TotalCount totalCount) throws Exception;
     //Relationship Operations
     //Relationship Operations
 
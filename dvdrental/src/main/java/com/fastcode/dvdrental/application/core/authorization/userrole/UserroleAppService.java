@@ -11,15 +11,15 @@ import com.fastcode.dvdrental.domain.core.authorization.userrole.IUserroleReposi
 import com.fastcode.dvdrental.domain.core.authorization.userrole.QUserroleEntity;
 import com.fastcode.dvdrental.domain.core.authorization.userrole.UserroleEntity;
 import com.fastcode.dvdrental.domain.core.authorization.userrole.UserroleId;
+import com.fastcode.dvdrental.security.PermissionResolver;
 import com.querydsl.core.BooleanBuilder;
 import java.time.*;
 import java.util.*;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -40,6 +40,9 @@ public class UserroleAppService implements IUserroleAppService {
     @NonNull
     protected final IUserRepository _userRepository;
 
+    @NonNull
+    protected final PermissionResolver _permissionResolver;
+
     @Qualifier("IUserroleMapperImpl")
     @NonNull
     protected final IUserroleMapper mapper;
@@ -47,6 +50,8 @@ public class UserroleAppService implements IUserroleAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QUserroleEntity.userroleEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreateUserroleOutput create(CreateUserroleInput input) {
         UserroleEntity userrole = mapper.createUserroleInputToUserroleEntity(input);
@@ -72,6 +77,7 @@ public class UserroleAppService implements IUserroleAppService {
         }
 
         UserroleEntity createdUserrole = _userroleRepository.save(userrole);
+        _permissionResolver.evictUser(input.getUserId());
         return mapper.userroleEntityToCreateUserroleOutput(createdUserrole);
     }
 
@@ -102,6 +108,7 @@ public class UserroleAppService implements IUserroleAppService {
         }
 
         UserroleEntity updatedUserrole = _userroleRepository.save(userrole);
+        _permissionResolver.evictUser(userroleId.getUserId());
         return mapper.userroleEntityToUpdateUserroleOutput(updatedUserrole);
     }
 
@@ -123,6 +130,7 @@ public class UserroleAppService implements IUserroleAppService {
     public void delete(UserroleId userroleId) {
         UserroleEntity existing = _userroleRepository.findById(userroleId).orElse(null);
         _userroleRepository.delete(existing);
+        _permissionResolver.evictUser(userroleId.getUserId());
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
@@ -161,7 +169,7 @@ public class UserroleAppService implements IUserroleAppService {
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<FindUserroleByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<UserroleEntity> foundUserrole = _userroleRepository.findAll(search(search), pageable);
+        Slice<UserroleEntity> foundUserrole = _userroleRepository.findSlice(search(search), pageable);
         List<UserroleEntity> userroleList = foundUserrole.getContent();
         Iterator<UserroleEntity> userroleIterator = userroleList.iterator();
         List<FindUserroleByIdOutput> output = new ArrayList<>();
@@ -173,133 +181,31 @@ public class UserroleAppService implements IUserroleAppService {
         return output;
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QUserroleEntity userrole = QUserroleEntity.userroleEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(userrole, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _userroleRepository.estimateCount(search(search));
         }
-        return null;
+        return _userroleRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    //       list.get(i).replace("%20","").trim().equals("displayName") ||
-                    //       list.get(i).replace("%20","").trim().equals("userName") ||
-                    list.get(i).replace("%20", "").trim().equals("roleId") ||
-                    list.get(i).replace("%20", "").trim().equals("userId")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QUserroleEntity userrole,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("roleId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(userrole.roleId.eq(Long.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(userrole.roleId.ne(Long.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        userrole.roleId.between(
-                            Long.valueOf(details.getValue().getStartingValue()),
-                            Long.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        userrole.roleId.goe(Long.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        userrole.roleId.loe(Long.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("userId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(userrole.userId.eq(Long.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(userrole.userId.ne(Long.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        userrole.userId.between(
-                            Long.valueOf(details.getValue().getStartingValue()),
-                            Long.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        userrole.userId.goe(Long.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        userrole.userId.loe(Long.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-
-            if (details.getKey().replace("%20", "").trim().equals("role")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    userrole.role.displayName.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    userrole.role.displayName.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    userrole.role.displayName.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("user")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    userrole.user.userName.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    userrole.user.userName.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    userrole.user.userName.ne(details.getValue().getSearchValue())
-                );
-            }
-        }
-
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("roleId")) {
-                builder.and(userrole.role.id.eq(Long.parseLong(joinCol.getValue())));
-            }
-
-            if (joinCol != null && joinCol.getKey().equals("role")) {
-                builder.and(userrole.role.displayName.eq(joinCol.getValue()));
-            }
-        }
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("userId")) {
-                builder.and(userrole.user.id.eq(Long.parseLong(joinCol.getValue())));
-            }
-
-            if (joinCol != null && joinCol.getKey().equals("user")) {
-                builder.and(userrole.user.userName.eq(joinCol.getValue()));
-            }
-        }
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QUserroleEntity userrole) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("roleId", userrole.roleId)
+            .field("userId", userrole.userId)
+            .joinColumn("roleId", userrole.role.id)
+            .joinColumn("role", userrole.role.displayName)
+            .joinColumn("userId", userrole.user.id)
+            .joinColumn("user", userrole.user.userName)
+            .build();
     }
 
     public UserroleId parseUserroleKey(String keysString) {
@@ -1,6 +1,7 @@
 package com.fastcode.dvdrental.application.core.category;
 
 import com.fastcode.dvdrental.application.core.category.dto.*;
+import com.fastcode.dvdrental.commons.cache.ReferenceDataCaches;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.commons.search.*;
 import com.fastcode.dvdrental.domain.core.category.CategoryEntity;
@@ -9,12 +10,16 @@ import com.fastcode.dvdrental.domain.core.category.QCategoryEntity;
 import com.querydsl.core.BooleanBuilder;
 import java.time.*;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,6 +39,8 @@ public class CategoryAppService implements ICategoryAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QCategoryEntity.categoryEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreateCategoryOutput create(CreateCategoryInput input) {
         CategoryEntity category = mapper.createCategoryInputToCategoryEntity(input);
@@ -43,6 +50,7 @@ public class CategoryAppService implements ICategoryAppService {
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
+    @CacheEvict(cacheNames = ReferenceDataCaches.CATEGORY, key = "#p0")
     public UpdateCategoryOutput update(Integer categoryId, UpdateCategoryInput input) {
         CategoryEntity category = mapper.updateCategoryInputToCategoryEntity(input);
 
@@ -51,105 +59,64 @@ public class CategoryAppService implements ICategoryAppService {
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
+    @CacheEvict(cacheNames = ReferenceDataCaches.CATEGORY, key = "#p0")
     public void delete(Integer categoryId) {
         CategoryEntity existing = _categoryRepository.findById(categoryId).orElse(null);
         _categoryRepository.delete(existing);
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Cacheable(cacheNames = ReferenceDataCaches.CATEGORY, key = "#p0", unless = "#result == null")
     public FindCategoryByIdOutput findById(Integer categoryId) {
-        CategoryEntity foundCategory = _categoryRepository.findById(categoryId).orElse(null);
-        if (foundCategory == null) return null;
-
-        return mapper.categoryEntityToFindCategoryByIdOutput(foundCategory);
+        return _categoryRepository.findProjectedById(categoryId);
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public List<FindCategoryByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<CategoryEntity> foundCategory = _categoryRepository.findAll(search(search), pageable);
-        List<CategoryEntity> categoryList = foundCategory.getContent();
-        Iterator<CategoryEntity> categoryIterator = categoryList.iterator();
-        List<FindCategoryByIdOutput> output = new ArrayList<>();
-
-        while (categoryIterator.hasNext()) {
-            CategoryEntity category = categoryIterator.next();
-            output.add(mapper.categoryEntityToFindCategoryByIdOutput(category));
+    public Map<Integer, FindCategoryByIdOutput> findByIds(Collection<Integer> categoryIds) throws Exception {
+        BatchIds.checkSize(categoryIds);
+        if (categoryIds.isEmpty()) {
+            return new LinkedHashMap<>();
         }
-        return output;
+        return BatchIds.keyById(
+            categoryIds,
+            _categoryRepository.findProjectedByIds(categoryIds),
+            FindCategoryByIdOutput::getCategoryId
+        );
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QCategoryEntity category = QCategoryEntity.categoryEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(category, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Slice<FindCategoryByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
+        return _categoryRepository.findAllProjected(search(search), pageable);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _categoryRepository.estimateCount(search(search));
         }
-        return null;
+        return _categoryRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    list.get(i).replace("%20", "").trim().equals("categoryId") ||
-                    list.get(i).replace("%20", "").trim().equals("name")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void export(SearchCriteria search, Sort sort, Consumer<FindCategoryByIdOutput> consumer) throws Exception {
+        try (Stream<FindCategoryByIdOutput> rows = _categoryRepository.streamProjected(search(search), sort)) {
+            rows.forEach(consumer);
         }
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QCategoryEntity category,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("categoryId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(category.categoryId.eq(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(category.categoryId.ne(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        category.categoryId.between(
-                            Integer.valueOf(details.getValue().getStartingValue()),
-                            Integer.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        category.categoryId.goe(Integer.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        category.categoryId.loe(Integer.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("name")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    category.name.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    category.name.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    category.name.ne(details.getValue().getSearchValue())
-                );
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
+    }
 
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QCategoryEntity category) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("categoryId", category.categoryId)
+            .field("name", category.name)
+            .build();
     }
 
     public Map<String, String> parseFilmCategorysJoinColumn(String keysString) {
@@ -2,8 +2,12 @@ package com.fastcode.dvdrental.application.core.category;
 
 import com.fastcode.dvdrental.application.core.category.dto.*;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import java.util.*;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 public interface ICategoryAppService {
     //CRUD Operations
@@ -16,7 +20,13 @@ public interface ICategoryAppService {
 
     FindCategoryByIdOutput findById(Integer id);
 
-    List<FindCategoryByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+    Map<Integer, FindCategoryByIdOutput> findByIds(Collection<Integer> ids) throws Exception;
+
+    Slice<FindCategoryByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+
+    long count(SearchCriteria search, TotalCount totalCount) throws Exception;
+
+    void export(SearchCriteria search, Sort sort, Consumer<FindCategoryByIdOutput> consumer) throws Exception;
 
     //Join Column Parsers
 
@@ -1,6 +1,7 @@
 package com.fastcode.dvdrental.application.core.city;
 
 import com.fastcode.dvdrental.application.core.city.dto.*;
+import com.fastcode.dvdrental.commons.cache.ReferenceDataCaches;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.commons.search.*;
 import com.fastcode.dvdrental.domain.core.city.CityEntity;
@@ -11,12 +12,16 @@ import com.fastcode.dvdrental.domain.core.country.ICountryRepository;
 import com.querydsl.core.BooleanBuilder;
 import java.time.*;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -40,6 +45,8 @@ public class CityAppService implements ICityAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QCityEntity.cityEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreateCityOutput create(CreateCityInput input) {
         CityEntity city = mapper.createCityInputToCityEntity(input);
@@ -61,6 +68,7 @@ public class CityAppService implements ICityAppService {
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
+    @CacheEvict(cacheNames = ReferenceDataCaches.CITY, key = "#p0")
     public UpdateCityOutput update(Integer cityId, UpdateCityInput input) {
         CityEntity city = mapper.updateCityInputToCityEntity(input);
         CountryEntity foundCountry = null;
@@ -82,17 +90,25 @@ public class CityAppService implements ICityAppService {
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
+    @CacheEvict(cacheNames = ReferenceDataCaches.CITY, key = "#p0")
     public void delete(Integer cityId) {
         CityEntity existing = _cityRepository.findById(cityId).orElse(null);
         _cityRepository.delete(existing);
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Cacheable(cacheNames = ReferenceDataCaches.CITY, key = "#p0", unless = "#result == null")
     public FindCityByIdOutput findById(Integer cityId) {
-        CityEntity foundCity = _cityRepository.findById(cityId).orElse(null);
-        if (foundCity == null) return null;
+        return _cityRepository.findProjectedById(cityId);
+    }
 
-        return mapper.cityEntityToFindCityByIdOutput(foundCity);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<Integer, FindCityByIdOutput> findByIds(Collection<Integer> cityIds) throws Exception {
+        BatchIds.checkSize(cityIds);
+        if (cityIds.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        return BatchIds.keyById(cityIds, _cityRepository.findProjectedByIds(cityIds), FindCityByIdOutput::getCityId);
     }
 
     //Country
@@ -109,97 +125,40 @@ public class CityAppService implements ICityAppService {
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public List<FindCityByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<CityEntity> foundCity = _cityRepository.findAll(search(search), pageable);
-        List<CityEntity> cityList = foundCity.getContent();
-        Iterator<CityEntity> cityIterator = cityList.iterator();
-        List<FindCityByIdOutput> output = new ArrayList<>();
-
-        while (cityIterator.hasNext()) {
-            CityEntity city = cityIterator.next();
-            output.add(mapper.cityEntityToFindCityByIdOutput(city));
-        }
-        return output;
+    public Slice<FindCityByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
+        return _cityRepository.findAllProjected(search(search), pageable);
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QCityEntity city = QCityEntity.cityEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(city, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _cityRepository.estimateCount(search(search));
         }
-        return null;
+        return _cityRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    list.get(i).replace("%20", "").trim().equals("countryId") ||
-                    list.get(i).replace("%20", "").trim().equals("city") ||
-                    list.get(i).replace("%20", "").trim().equals("cityId")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void export(SearchCriteria search, Sort sort, Consumer<FindCityByIdOutput> consumer) throws Exception {
+        try (Stream<FindCityByIdOutput> rows = _cityRepository.streamProjected(search(search), sort)) {
+            rows.forEach(consumer);
         }
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QCityEntity city,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("city")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    city.city.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    city.city.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    city.city.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("cityId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(city.cityId.eq(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(city.cityId.ne(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        city.cityId.between(
-                            Integer.valueOf(details.getValue().getStartingValue()),
-                            Integer.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        city.cityId.goe(Integer.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        city.cityId.loe(Integer.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
+    }
 
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("countryId")) {
-                builder.and(city.country.countryId.eq(Integer.parseInt(joinCol.getValue())));
-            }
-        }
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QCityEntity city) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("countryId", city.country.countryId)
+            .field("city", city.city)
+            .field("cityId", city.cityId)
+            .joinColumn("countryId", city.country.countryId)
+            .build();
     }
 
     public Map<String, String> parseAddressJoinColumn(String keysString) {
@@ -2,8 +2,12 @@ package com.fastcode.dvdrental.application.core.city;
 
 import com.fastcode.dvdrental.application.core.city.dto.*;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import java.util.*;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 public interface ICityAppService {
     //CRUD Operations
@@ -16,7 +20,13 @@ public interface ICityAppService {
 
     FindCityByIdOutput findById(Integer id);
 
-    List<FindCityByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+    Map<Integer, FindCityByIdOutput> findByIds(Collection<Integer> ids) throws Exception;
+
+    Slice<FindCityByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+
+    long count(SearchCriteria search, TotalCount totalCount) throws Exception;
+
+    void export(SearchCriteria search, Sort sort, Consumer<FindCityByIdOutput> consumer) throws Exception;
     //Relationship Operations
 
     GetCountryOutput getCountry(Integer cityid);
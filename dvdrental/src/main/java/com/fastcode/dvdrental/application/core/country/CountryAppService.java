@@ -1,6 +1,7 @@
 package com.fastcode.dvdrental.application.core.country;
 
 import com.fastcode.dvdrental.application.core.country.dto.*;
+import com.fastcode.dvdrental.commons.cache.ReferenceDataCaches;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.commons.search.*;
 import com.fastcode.dvdrental.domain.core.country.CountryEntity;
@@ -9,12 +10,16 @@ import com.fastcode.dvdrental.domain.core.country.QCountryEntity;
 import com.querydsl.core.BooleanBuilder;
 import java.time.*;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,6 +39,8 @@ public class CountryAppService implements ICountryAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QCountryEntity.countryEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreateCountryOutput create(CreateCountryInput input) {
         CountryEntity country = mapper.createCountryInputToCountryEntity(input);
@@ -43,6 +50,7 @@ public class CountryAppService implements ICountryAppService {
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
+    @CacheEvict(cacheNames = ReferenceDataCaches.COUNTRY, key = "#p0")
     public UpdateCountryOutput update(Integer countryId, UpdateCountryInput input) {
         CountryEntity country = mapper.updateCountryInputToCountryEntity(input);
 
@@ -51,105 +59,64 @@ public class CountryAppService implements ICountryAppService {
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
+    @CacheEvict(cacheNames = ReferenceDataCaches.COUNTRY, key = "#p0")
     public void delete(Integer countryId) {
         CountryEntity existing = _countryRepository.findById(countryId).orElse(null);
         _countryRepository.delete(existing);
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Cacheable(cacheNames = ReferenceDataCaches.COUNTRY, key = "#p0", unless = "#result == null")
     public FindCountryByIdOutput findById(Integer countryId) {
-        CountryEntity foundCountry = _countryRepository.findById(countryId).orElse(null);
-        if (foundCountry == null) return null;
-
-        return mapper.countryEntityToFindCountryByIdOutput(foundCountry);
+        return _countryRepository.findProjectedById(countryId);
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public List<FindCountryByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<CountryEntity> foundCountry = _countryRepository.findAll(search(search), pageable);
-        List<CountryEntity> countryList = foundCountry.getContent();
-        Iterator<CountryEntity> countryIterator = countryList.iterator();
-        List<FindCountryByIdOutput> output = new ArrayList<>();
-
-        while (countryIterator.hasNext()) {
-            CountryEntity country = countryIterator.next();
-            output.add(mapper.countryEntityToFindCountryByIdOutput(country));
+    public Map<Integer, FindCountryByIdOutput> findByIds(Collection<Integer> countryIds) throws Exception {
+        BatchIds.checkSize(countryIds);
+        if (countryIds.isEmpty()) {
+            return new LinkedHashMap<>();
         }
-        return output;
+        return BatchIds.keyById(
+            countryIds,
+            _countryRepository.findProjectedByIds(countryIds),
+            FindCountryByIdOutput::getCountryId
+        );
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QCountryEntity country = QCountryEntity.countryEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(country, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Slice<FindCountryByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
+        return _countryRepository.findAllProjected(search(search), pageable);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _countryRepository.estimateCount(search(search));
         }
-        return null;
+        return _countryRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    list.get(i).replace("%20", "").trim().equals("country") ||
-                    list.get(i).replace("%20", "").trim().equals("countryId")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void export(SearchCriteria search, Sort sort, Consumer<FindCountryByIdOutput> consumer) throws Exception {
+        try (Stream<FindCountryByIdOutput> rows = _countryRepository.streamProjected(search(search), sort)) {
+            rows.forEach(consumer);
         }
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QCountryEntity country,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("country")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    country.country.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    country.country.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    country.country.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("countryId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(country.countryId.eq(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(country.countryId.ne(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        country.countryId.between(
-                            Integer.valueOf(details.getValue().getStartingValue()),
-                            Integer.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        country.countryId.goe(Integer.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        country.countryId.loe(Integer.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
+    }
 
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QCountryEntity country) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("country", country.country)
+            .field("countryId", country.countryId)
+            .build();
     }
 
     public Map<String, String> parseCitysJoinColumn(String keysString) {
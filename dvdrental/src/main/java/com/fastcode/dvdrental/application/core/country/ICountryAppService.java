@@ -2,8 +2,12 @@ package com.fastcode.dvdrental.application.core.country;
 
 import com.fastcode.dvdrental.application.core.country.dto.*;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import java.util.*;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 public interface ICountryAppService {
     //CRUD Operations
@@ -16,7 +20,13 @@ public interface ICountryAppService {
 
     FindCountryByIdOutput findById(Integer id);
 
-    List<FindCountryByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+    Map<Integer, FindCountryByIdOutput> findByIds(Collection<Integer> ids) throws Exception;
+
+    Slice<FindCountryByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+
+    long count(SearchCriteria search, TotalCount totalCount) throws Exception;
+
+    void export(SearchCriteria search, Sort sort, Consumer<FindCountryByIdOutput> consumer) throws Exception;
 
     //Join Column Parsers
 
@@ -13,12 +13,14 @@ import com.fastcode.dvdrental.domain.core.store.StoreEntity;
 import com.querydsl.core.BooleanBuilder;
 import java.time.*;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -46,6 +48,8 @@ public class CustomerAppService implements ICustomerAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QCustomerEntity.customerEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreateCustomerOutput create(CreateCustomerInput input) {
         CustomerEntity customer = mapper.createCustomerInputToCustomerEntity(input);
@@ -120,10 +124,20 @@ public class CustomerAppService implements ICustomerAppService {
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public FindCustomerByIdOutput findById(Integer customerId) {
-        CustomerEntity foundCustomer = _customerRepository.findById(customerId).orElse(null);
-        if (foundCustomer == null) return null;
+        return _customerRepository.findProjectedById(customerId);
+    }
 
-        return mapper.customerEntityToFindCustomerByIdOutput(foundCustomer);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<Integer, FindCustomerByIdOutput> findByIds(Collection<Integer> customerIds) throws Exception {
+        BatchIds.checkSize(customerIds);
+        if (customerIds.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        return BatchIds.keyById(
+            customerIds,
+            _customerRepository.findProjectedByIds(customerIds),
+            FindCustomerByIdOutput::getCustomerId
+        );
     }
 
     //Address
@@ -153,139 +167,45 @@ public class CustomerAppService implements ICustomerAppService {
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public List<FindCustomerByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<CustomerEntity> foundCustomer = _customerRepository.findAll(search(search), pageable);
-        List<CustomerEntity> customerList = foundCustomer.getContent();
-        Iterator<CustomerEntity> customerIterator = customerList.iterator();
-        List<FindCustomerByIdOutput> output = new ArrayList<>();
-
-        while (customerIterator.hasNext()) {
-            CustomerEntity customer = customerIterator.next();
-            output.add(mapper.customerEntityToFindCustomerByIdOutput(customer));
-        }
-        return output;
+    public Slice<FindCustomerByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
+        return _customerRepository.findAllProjected(search(search), searchCompiler.rank(search), pageable);
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QCustomerEntity customer = QCustomerEntity.customerEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(customer, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _customerRepository.estimateCount(search(search));
         }
-        return null;
+        return _customerRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    list.get(i).replace("%20", "").trim().equals("addressId") ||
-                    list.get(i).replace("%20", "").trim().equals("storeId") ||
-                    list.get(i).replace("%20", "").trim().equals("active") ||
-                    list.get(i).replace("%20", "").trim().equals("customerId") ||
-                    list.get(i).replace("%20", "").trim().equals("email") ||
-                    list.get(i).replace("%20", "").trim().equals("firstName") ||
-                    list.get(i).replace("%20", "").trim().equals("lastName")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void export(SearchCriteria search, Sort sort, Consumer<FindCustomerByIdOutput> consumer) throws Exception {
+        try (Stream<FindCustomerByIdOutput> rows = _customerRepository.streamProjected(search(search), sort)) {
+            rows.forEach(consumer);
         }
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QCustomerEntity customer,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("active")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    (
-                        details.getValue().getSearchValue().equalsIgnoreCase("true") ||
-                        details.getValue().getSearchValue().equalsIgnoreCase("false")
-                    )
-                ) builder.and(customer.active.eq(Boolean.parseBoolean(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    (
-                        details.getValue().getSearchValue().equalsIgnoreCase("true") ||
-                        details.getValue().getSearchValue().equalsIgnoreCase("false")
-                    )
-                ) builder.and(customer.active.ne(Boolean.parseBoolean(details.getValue().getSearchValue())));
-            }
-            if (details.getKey().replace("%20", "").trim().equals("customerId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(customer.customerId.eq(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(customer.customerId.ne(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        customer.customerId.between(
-                            Integer.valueOf(details.getValue().getStartingValue()),
-                            Integer.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        customer.customerId.goe(Integer.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        customer.customerId.loe(Integer.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("email")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    customer.email.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    customer.email.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    customer.email.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("firstName")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    customer.firstName.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    customer.firstName.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    customer.firstName.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("lastName")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    customer.lastName.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    customer.lastName.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    customer.lastName.ne(details.getValue().getSearchValue())
-                );
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
+    }
 
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("addressId")) {
-                builder.and(customer.address.addressId.eq(Integer.parseInt(joinCol.getValue())));
-            }
-        }
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("storeId")) {
-                builder.and(customer.store.storeId.eq(Integer.parseInt(joinCol.getValue())));
-            }
-        }
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QCustomerEntity customer) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("addressId", customer.address.addressId)
+            .field("storeId", customer.store.storeId)
+            .field("active", customer.active)
+            .field("customerId", customer.customerId)
+            .field("email", customer.email)
+            .field("firstName", customer.firstName)
+            .field("lastName", customer.lastName)
+            .joinColumn("addressId", customer.address.addressId)
+            .joinColumn("storeId", customer.store.storeId)
+            .build();
     }
 
     public Map<String, String> parsePaymentsJoinColumn(String keysString) {
@@ -2,8 +2,12 @@ package com.fastcode.dvdrental.application.core.customer;
 
 import com.fastcode.dvdrental.application.core.customer.dto.*;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import java.util.*;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 public interface ICustomerAppService {
     //CRUD Operations
@@ -16,7 +20,13 @@ public interface ICustomerAppService {
 
     FindCustomerByIdOutput findById(Integer id);
 
-    List<FindCustomerByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+    Map<Integer, FindCustomerByIdOutput> findByIds(Collection<Integer> ids) throws Exception;
+
+    Slice<FindCustomerByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+
+    long count(SearchCriteria search, TotalCount totalCount) throws Exception;
+
+    void export(SearchCriteria search, Sort sort, Consumer<FindCustomerByIdOutput> consumer) throws Exception;
     //Relationship Operations
     //Relationship Operations
 
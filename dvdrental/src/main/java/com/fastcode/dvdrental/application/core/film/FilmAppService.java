@@ -11,13 +11,14 @@ import com.fastcode.dvdrental.domain.core.language.LanguageEntity;
 import com.querydsl.core.BooleanBuilder;
 import java.time.*;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.math.NumberUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -41,6 +42,8 @@ public class FilmAppService implements IFilmAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QFilmEntity.filmEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreateFilmOutput create(CreateFilmInput input) {
         FilmEntity film = mapper.createFilmInputToFilmEntity(input);
@@ -90,10 +93,16 @@ public class FilmAppService implements IFilmAppService {
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public FindFilmByIdOutput findById(Integer filmId) {
-        FilmEntity foundFilm = _filmRepository.findById(filmId).orElse(null);
-        if (foundFilm == null) return null;
+        return _filmRepository.findProjectedById(filmId);
+    }
 
-        return mapper.filmEntityToFindFilmByIdOutput(foundFilm);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<Integer, FindFilmByIdOutput> findByIds(Collection<Integer> filmIds) throws Exception {
+        BatchIds.checkSize(filmIds);
+        if (filmIds.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        return BatchIds.keyById(filmIds, _filmRepository.findProjectedByIds(filmIds), FindFilmByIdOutput::getFilmId);
     }
 
     //Language
@@ -110,247 +119,48 @@ public class FilmAppService implements IFilmAppService {
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public List<FindFilmByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<FilmEntity> foundFilm = _filmRepository.findAll(search(search), pageable);
-        List<FilmEntity> filmList = foundFilm.getContent();
-        Iterator<FilmEntity> filmIterator = filmList.iterator();
-        List<FindFilmByIdOutput> output = new ArrayList<>();
-
-        while (filmIterator.hasNext()) {
-            FilmEntity film = filmIterator.next();
-            output.add(mapper.filmEntityToFindFilmByIdOutput(film));
-        }
-        return output;
+    public Slice<FindFilmByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
+        return _filmRepository.findAllProjected(search(search), searchCompiler.rank(search), pageable);
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QFilmEntity film = QFilmEntity.filmEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(film, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _filmRepository.estimateCount(search(search));
         }
-        return null;
+        return _filmRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    list.get(i).replace("%20", "").trim().equals("languageId") ||
-                    list.get(i).replace("%20", "").trim().equals("description") ||
-                    list.get(i).replace("%20", "").trim().equals("filmId") ||
-                    list.get(i).replace("%20", "").trim().equals("length") ||
-                    list.get(i).replace("%20", "").trim().equals("rating") ||
-                    list.get(i).replace("%20", "").trim().equals("releaseYear") ||
-                    list.get(i).replace("%20", "").trim().equals("rentalDuration") ||
-                    list.get(i).replace("%20", "").trim().equals("rentalRate") ||
-                    list.get(i).replace("%20", "").trim().equals("replacementCost") ||
-                    list.get(i).replace("%20", "").trim().equals("title")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void export(SearchCriteria search, Sort sort, Consumer<FindFilmByIdOutput> consumer) throws Exception {
+        try (Stream<FindFilmByIdOutput> rows = _filmRepository.streamProjected(search(search), sort)) {
+            rows.forEach(consumer);
         }
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QFilmEntity film,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("description")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    film.description.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    film.description.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    film.description.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("filmId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(film.filmId.eq(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(film.filmId.ne(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        film.filmId.between(
-                            Integer.valueOf(details.getValue().getStartingValue()),
-                            Integer.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        film.filmId.goe(Integer.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        film.filmId.loe(Integer.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("length")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(film.length.eq(Short.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(film.length.ne(Short.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        film.length.between(
-                            Short.valueOf(details.getValue().getStartingValue()),
-                            Short.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        film.length.goe(Short.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        film.length.loe(Short.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("rating")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    film.rating.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    film.rating.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    film.rating.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("releaseYear")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(film.releaseYear.eq(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(film.releaseYear.ne(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        film.releaseYear.between(
-                            Integer.valueOf(details.getValue().getStartingValue()),
-                            Integer.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        film.releaseYear.goe(Integer.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        film.releaseYear.loe(Integer.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("rentalDuration")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(film.rentalDuration.eq(Short.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(film.rentalDuration.ne(Short.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        film.rentalDuration.between(
-                            Short.valueOf(details.getValue().getStartingValue()),
-                            Short.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        film.rentalDuration.goe(Short.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        film.rentalDuration.loe(Short.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("rentalRate")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    NumberUtils.isCreatable(details.getValue().getSearchValue())
-                ) builder.and(film.rentalRate.eq(Double.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    NumberUtils.isCreatable(details.getValue().getSearchValue())
-                ) builder.and(film.rentalRate.ne(Double.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        NumberUtils.isCreatable(details.getValue().getStartingValue()) &&
-                        NumberUtils.isCreatable(details.getValue().getEndingValue())
-                    ) builder.and(
-                        film.rentalRate.between(
-                            Double.valueOf(details.getValue().getStartingValue()),
-                            Double.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (NumberUtils.isCreatable(details.getValue().getStartingValue())) builder.and(
-                        film.rentalRate.goe(Double.valueOf(details.getValue().getStartingValue()))
-                    ); else if (NumberUtils.isCreatable(details.getValue().getEndingValue())) builder.and(
-                        film.rentalRate.loe(Double.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("replacementCost")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    NumberUtils.isCreatable(details.getValue().getSearchValue())
-                ) builder.and(film.replacementCost.eq(Double.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    NumberUtils.isCreatable(details.getValue().getSearchValue())
-                ) builder.and(film.replacementCost.ne(Double.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        NumberUtils.isCreatable(details.getValue().getStartingValue()) &&
-                        NumberUtils.isCreatable(details.getValue().getEndingValue())
-                    ) builder.and(
-                        film.replacementCost.between(
-                            Double.valueOf(details.getValue().getStartingValue()),
-                            Double.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (NumberUtils.isCreatable(details.getValue().getStartingValue())) builder.and(
-                        film.replacementCost.goe(Double.valueOf(details.getValue().getStartingValue()))
-                    ); else if (NumberUtils.isCreatable(details.getValue().getEndingValue())) builder.and(
-                        film.replacementCost.loe(Double.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("title")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    film.title.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    film.title.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    film.title.ne(details.getValue().getSearchValue())
-                );
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
+    }
 
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("languageId")) {
-                builder.and(film.language.languageId.eq(Integer.parseInt(joinCol.getValue())));
-            }
-        }
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QFilmEntity film) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("languageId", film.language.languageId)
+            .field("description", film.description)
+            .field("filmId", film.filmId)
+            .fullTextField("fulltext", film.fulltext)
+            .field("length", film.length)
+            .field("rating", film.rating)
+            .field("releaseYear", film.releaseYear)
+            .field("rentalDuration", film.rentalDuration)
+            .field("rentalRate", film.rentalRate)
+            .field("replacementCost", film.replacementCost)
+            .field("title", film.title)
+            .joinColumn("languageId", film.language.languageId)
+            .build();
     }
 
     public Map<String, String> parseFilmActorsJoinColumn(String keysString) {
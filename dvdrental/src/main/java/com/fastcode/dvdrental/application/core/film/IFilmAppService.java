@@ -2,8 +2,12 @@ package com.fastcode.dvdrental.application.core.film;
 
 import com.fastcode.dvdrental.application.core.film.dto.*;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import java.util.*;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 public interface IFilmAppService {
     //CRUD Operations
@@ -16,7 +20,13 @@ public interface IFilmAppService {
 
     FindFilmByIdOutput findById(Integer id);
 
-    List<FindFilmByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+    Map<Integer, FindFilmByIdOutput> findByIds(Collection<Integer> ids) throws Exception;
+
+    Slice<FindFilmByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+
+    long count(SearchCriteria search, TotalCount totalCount) throws Exception;
+
+    void export(SearchCriteria search, Sort sort, Consumer<FindFilmByIdOutput> consumer) throws Exception;
     //Relationship Operations
 
     GetLanguageOutput getLanguage(Integer filmid);
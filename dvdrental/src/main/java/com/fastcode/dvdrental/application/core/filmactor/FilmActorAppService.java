@@ -16,10 +16,9 @@ import java.time.*;
 import java.util.*;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -47,6 +46,8 @@ public class FilmActorAppService implements IFilmActorAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QFilmActorEntity.filmActorEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreateFilmActorOutput create(CreateFilmActorInput input) {
         FilmActorEntity filmActor = mapper.createFilmActorInputToFilmActorEntity(input);
@@ -139,7 +140,7 @@ public class FilmActorAppService implements IFilmActorAppService {
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<FindFilmActorByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<FilmActorEntity> foundFilmActor = _filmActorRepository.findAll(search(search), pageable);
+        Slice<FilmActorEntity> foundFilmActor = _filmActorRepository.findSlice(search(search), pageable);
         List<FilmActorEntity> filmActorList = foundFilmActor.getContent();
         Iterator<FilmActorEntity> filmActorIterator = filmActorList.iterator();
         List<FindFilmActorByIdOutput> output = new ArrayList<>();
@@ -151,104 +152,29 @@ public class FilmActorAppService implements IFilmActorAppService {
         return output;
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QFilmActorEntity filmActor = QFilmActorEntity.filmActorEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(filmActor, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _filmActorRepository.estimateCount(search(search));
         }
-        return null;
+        return _filmActorRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    list.get(i).replace("%20", "").trim().equals("actorId") ||
-                    list.get(i).replace("%20", "").trim().equals("filmId")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QFilmActorEntity filmActor,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("actorId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(filmActor.actorId.eq(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(filmActor.actorId.ne(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        filmActor.actorId.between(
-                            Integer.valueOf(details.getValue().getStartingValue()),
-                            Integer.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        filmActor.actorId.goe(Integer.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        filmActor.actorId.loe(Integer.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("filmId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(filmActor.filmId.eq(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(filmActor.filmId.ne(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        filmActor.filmId.between(
-                            Integer.valueOf(details.getValue().getStartingValue()),
-                            Integer.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        filmActor.filmId.goe(Integer.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        filmActor.filmId.loe(Integer.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-        }
-
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("actorId")) {
-                builder.and(filmActor.actor.actorId.eq(Integer.parseInt(joinCol.getValue())));
-            }
-        }
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("filmId")) {
-                builder.and(filmActor.film.filmId.eq(Integer.parseInt(joinCol.getValue())));
-            }
-        }
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QFilmActorEntity filmActor) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("actorId", filmActor.actorId)
+            .field("filmId", filmActor.filmId)
+            .joinColumn("actorId", filmActor.actor.actorId)
+            .joinColumn("filmId", filmActor.film.filmId)
+            .build();
     }
 
     public FilmActorId parseFilmActorKey(String keysString) {
@@ -2,6 +2,7 @@ package com.fastcode.dvdrental.application.core.filmactor;
 
 import com.fastcode.dvdrental.application.core.filmactor.dto.*;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import com.fastcode.dvdrental.domain.core.filmactor.FilmActorId;
 import java.util.*;
 import org.springframework.data.domain.Pageable;
@@ -18,6 +19,8 @@ public interface IFilmActorAppService {
     FindFilmActorByIdOutput findById(FilmActorId filmActorId);
 
     List<FindFilmActorByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+
+    long count(SearchCriteria search, TotalCount totalCount) throws Exception;
     //Relationship Operations
     //Relationship Operations
 
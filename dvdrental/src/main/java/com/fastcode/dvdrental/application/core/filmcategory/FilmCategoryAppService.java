@@ -16,10 +16,9 @@ import java.time.*;
 import java.util.*;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -47,6 +46,8 @@ public class FilmCategoryAppService implements IFilmCategoryAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QFilmCategoryEntity.filmCategoryEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreateFilmCategoryOutput create(CreateFilmCategoryInput input) {
         FilmCategoryEntity filmCategory = mapper.createFilmCategoryInputToFilmCategoryEntity(input);
@@ -139,7 +140,7 @@ public class FilmCategoryAppService implements IFilmCategoryAppService {
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<FindFilmCategoryByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<FilmCategoryEntity> foundFilmCategory = _filmCategoryRepository.findAll(search(search), pageable);
+        Slice<FilmCategoryEntity> foundFilmCategory = _filmCategoryRepository.findSlice(search(search), pageable);
         List<FilmCategoryEntity> filmCategoryList = foundFilmCategory.getContent();
         Iterator<FilmCategoryEntity> filmCategoryIterator = filmCategoryList.iterator();
         List<FindFilmCategoryByIdOutput> output = new ArrayList<>();
@@ -151,106 +152,29 @@ public class FilmCategoryAppService implements IFilmCategoryAppService {
         return output;
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QFilmCategoryEntity filmCategory = QFilmCategoryEntity.filmCategoryEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(filmCategory, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _filmCategoryRepository.estimateCount(search(search));
         }
-        return null;
+        return _filmCategoryRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    list.get(i).replace("%20", "").trim().equals("categoryId") ||
-                    list.get(i).replace("%20", "").trim().equals("filmId")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QFilmCategoryEntity filmCategory,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("categoryId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(
-                    filmCategory.categoryId.eq(Integer.valueOf(details.getValue().getSearchValue()))
-                ); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(
-                    filmCategory.categoryId.ne(Integer.valueOf(details.getValue().getSearchValue()))
-                ); else if (details.getValue().getOperator().equals("range")) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        filmCategory.categoryId.between(
-                            Integer.valueOf(details.getValue().getStartingValue()),
-                            Integer.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        filmCategory.categoryId.goe(Integer.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        filmCategory.categoryId.loe(Integer.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("filmId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(filmCategory.filmId.eq(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(filmCategory.filmId.ne(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        filmCategory.filmId.between(
-                            Integer.valueOf(details.getValue().getStartingValue()),
-                            Integer.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        filmCategory.filmId.goe(Integer.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        filmCategory.filmId.loe(Integer.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-        }
-
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("categoryId")) {
-                builder.and(filmCategory.category.categoryId.eq(Integer.parseInt(joinCol.getValue())));
-            }
-        }
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("filmId")) {
-                builder.and(filmCategory.film.filmId.eq(Integer.parseInt(joinCol.getValue())));
-            }
-        }
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QFilmCategoryEntity filmCategory) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("categoryId", filmCategory.categoryId)
+            .field("filmId", filmCategory.filmId)
+            .joinColumn("categoryId", filmCategory.category.categoryId)
+            .joinColumn("filmId", filmCategory.film.filmId)
+            .build();
     }
 
     public FilmCategoryId parseFilmCategoryKey(String keysString) {
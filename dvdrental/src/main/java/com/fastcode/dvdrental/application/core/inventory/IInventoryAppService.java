@@ -2,8 +2,12 @@ package com.fastcode.dvdrental.application.core.inventory;
 
 import com.fastcode.dvdrental.application.core.inventory.dto.*;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import java.util.*;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 public interface IInventoryAppService {
     //CRUD Operations
@@ -16,7 +20,13 @@ public interface IInventoryAppService {
 
     FindInventoryByIdOutput findById(Integer id);
 
-    List<FindInventoryByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+    Map<Integer, FindInventoryByIdOutput> findByIds(Collection<Integer> ids) throws Exception;
+
+    Slice<FindInventoryByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+
+    long count(SearchCriteria search, TotalCount totalCount) throws Exception;
+
+    void export(SearchCriteria search, Sort sort, Consumer<FindInventoryByIdOutput> consumer) throws Exception;
     //Relationship Operations
     //Relationship Operations
 
@@ -1,6 +1,7 @@
 package com.fastcode.dvdrental.application.core.inventory;
 
 import com.fastcode.dvdrental.application.core.inventory.dto.*;
+import com.fastcode.dvdrental.commons.cache.DataVersions;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.commons.search.*;
 import com.fastcode.dvdrental.domain.core.film.FilmEntity;
@@ -13,12 +14,14 @@ import com.fastcode.dvdrental.domain.core.store.StoreEntity;
 import com.querydsl.core.BooleanBuilder;
 import java.time.*;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -46,6 +49,11 @@ public class InventoryAppService implements IInventoryAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    @NonNull
+    protected final DataVersions dataVersions;
+
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QInventoryEntity.inventoryEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreateInventoryOutput create(CreateInventoryInput input) {
         InventoryEntity inventory = mapper.createInventoryInputToInventoryEntity(input);
@@ -74,6 +82,7 @@ public class InventoryAppService implements IInventoryAppService {
             return null;
         }
 
+        dataVersions.bump(DataVersions.INVENTORY);
         InventoryEntity createdInventory = _inventoryRepository.save(inventory);
         return mapper.inventoryEntityToCreateInventoryOutput(createdInventory);
     }
@@ -108,6 +117,7 @@ public class InventoryAppService implements IInventoryAppService {
             return null;
         }
 
+        dataVersions.bump(DataVersions.INVENTORY);
         InventoryEntity updatedInventory = _inventoryRepository.save(inventory);
         return mapper.inventoryEntityToUpdateInventoryOutput(updatedInventory);
     }
@@ -116,14 +126,25 @@ public class InventoryAppService implements IInventoryAppService {
     public void delete(Integer inventoryId) {
         InventoryEntity existing = _inventoryRepository.findById(inventoryId).orElse(null);
         _inventoryRepository.delete(existing);
+        dataVersions.bump(DataVersions.INVENTORY);
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public FindInventoryByIdOutput findById(Integer inventoryId) {
-        InventoryEntity foundInventory = _inventoryRepository.findById(inventoryId).orElse(null);
-        if (foundInventory == null) return null;
+        return _inventoryRepository.findProjectedById(inventoryId);
+    }
 
-        return mapper.inventoryEntityToFindInventoryByIdOutput(foundInventory);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<Integer, FindInventoryByIdOutput> findByIds(Collection<Integer> inventoryIds) throws Exception {
+        BatchIds.checkSize(inventoryIds);
+        if (inventoryIds.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        return BatchIds.keyById(
+            inventoryIds,
+            _inventoryRepository.findProjectedByIds(inventoryIds),
+            FindInventoryByIdOutput::getInventoryId
+        );
     }
 
     //Film
@@ -153,93 +174,41 @@ public class InventoryAppService implements IInventoryAppService {
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public List<FindInventoryByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<InventoryEntity> foundInventory = _inventoryRepository.findAll(search(search), pageable);
-        List<InventoryEntity> inventoryList = foundInventory.getContent();
-        Iterator<InventoryEntity> inventoryIterator = inventoryList.iterator();
-        List<FindInventoryByIdOutput> output = new ArrayList<>();
-
-        while (inventoryIterator.hasNext()) {
-            InventoryEntity inventory = inventoryIterator.next();
-            output.add(mapper.inventoryEntityToFindInventoryByIdOutput(inventory));
-        }
-        return output;
+    public Slice<FindInventoryByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
+        return _inventoryRepository.findAllProjected(search(search), pageable);
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QInventoryEntity inventory = QInventoryEntity.inventoryEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(inventory, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _inventoryRepository.estimateCount(search(search));
         }
-        return null;
+        return _inventoryRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    list.get(i).replace("%20", "").trim().equals("filmId") ||
-                    list.get(i).replace("%20", "").trim().equals("storeId") ||
-                    list.get(i).replace("%20", "").trim().equals("inventoryId")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void export(SearchCriteria search, Sort sort, Consumer<FindInventoryByIdOutput> consumer) throws Exception {
+        try (Stream<FindInventoryByIdOutput> rows = _inventoryRepository.streamProjected(search(search), sort)) {
+            rows.forEach(consumer);
         }
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QInventoryEntity inventory,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("inventoryId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(inventory.inventoryId.eq(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(inventory.inventoryId.ne(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        inventory.inventoryId.between(
-                            Integer.valueOf(details.getValue().getStartingValue()),
-                            Integer.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        inventory.inventoryId.goe(Integer.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        inventory.inventoryId.loe(Integer.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
+    }
 
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("filmId")) {
-                builder.and(inventory.film.filmId.eq(Integer.parseInt(joinCol.getValue())));
-            }
-        }
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("storeId")) {
-                builder.and(inventory.store.storeId.eq(Integer.parseInt(joinCol.getValue())));
-            }
-        }
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QInventoryEntity inventory) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("filmId", inventory.film.filmId)
+            .field("storeId", inventory.store.storeId)
+            .field("inventoryId", inventory.inventoryId)
+            .joinColumn("filmId", inventory.film.filmId)
+            .joinColumn("storeId", inventory.store.storeId)
+            .build();
     }
 
     public Map<String, String> parseRentalsJoinColumn(String keysString) {
@@ -1,6 +1,7 @@
 package com.fastcode.dvdrental.application.core.language;
 
 import com.fastcode.dvdrental.application.core.language.dto.*;
+import com.fastcode.dvdrental.commons.cache.ReferenceDataCaches;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.commons.search.*;
 import com.fastcode.dvdrental.domain.core.language.ILanguageRepository;
@@ -9,12 +10,16 @@ import com.fastcode.dvdrental.domain.core.language.QLanguageEntity;
 import com.querydsl.core.BooleanBuilder;
 import java.time.*;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,6 +39,8 @@ public class LanguageAppService implements ILanguageAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QLanguageEntity.languageEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreateLanguageOutput create(CreateLanguageInput input) {
         LanguageEntity language = mapper.createLanguageInputToLanguageEntity(input);
@@ -43,6 +50,7 @@ public class LanguageAppService implements ILanguageAppService {
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
+    @CacheEvict(cacheNames = ReferenceDataCaches.LANGUAGE, key = "#p0")
     public UpdateLanguageOutput update(Integer languageId, UpdateLanguageInput input) {
         LanguageEntity language = mapper.updateLanguageInputToLanguageEntity(input);
 
@@ -51,105 +59,64 @@ public class LanguageAppService implements ILanguageAppService {
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
+    @CacheEvict(cacheNames = ReferenceDataCaches.LANGUAGE, key = "#p0")
     public void delete(Integer languageId) {
         LanguageEntity existing = _languageRepository.findById(languageId).orElse(null);
         _languageRepository.delete(existing);
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Cacheable(cacheNames = ReferenceDataCaches.LANGUAGE, key = "#p0", unless = "#result == null")
     public FindLanguageByIdOutput findById(Integer languageId) {
-        LanguageEntity foundLanguage = _languageRepository.findById(languageId).orElse(null);
-        if (foundLanguage == null) return null;
-
-        return mapper.languageEntityToFindLanguageByIdOutput(foundLanguage);
+        return _languageRepository.findProjectedById(languageId);
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public List<FindLanguageByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<LanguageEntity> foundLanguage = _languageRepository.findAll(search(search), pageable);
-        List<LanguageEntity> languageList = foundLanguage.getContent();
-        Iterator<LanguageEntity> languageIterator = languageList.iterator();
-        List<FindLanguageByIdOutput> output = new ArrayList<>();
-
-        while (languageIterator.hasNext()) {
-            LanguageEntity language = languageIterator.next();
-            output.add(mapper.languageEntityToFindLanguageByIdOutput(language));
+    public Map<Integer, FindLanguageByIdOutput> findByIds(Collection<Integer> languageIds) throws Exception {
+        BatchIds.checkSize(languageIds);
+        if (languageIds.isEmpty()) {
+            return new LinkedHashMap<>();
         }
-        return output;
+        return BatchIds.keyById(
+            languageIds,
+            _languageRepository.findProjectedByIds(languageIds),
+            FindLanguageByIdOutput::getLanguageId
+        );
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QLanguageEntity language = QLanguageEntity.languageEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(language, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Slice<FindLanguageByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
+        return _languageRepository.findAllProjected(search(search), pageable);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _languageRepository.estimateCount(search(search));
         }
-        return null;
+        return _languageRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    list.get(i).replace("%20", "").trim().equals("languageId") ||
-                    list.get(i).replace("%20", "").trim().equals("name")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void export(SearchCriteria search, Sort sort, Consumer<FindLanguageByIdOutput> consumer) throws Exception {
+        try (Stream<FindLanguageByIdOutput> rows = _languageRepository.streamProjected(search(search), sort)) {
+            rows.forEach(consumer);
         }
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QLanguageEntity language,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("languageId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(language.languageId.eq(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(language.languageId.ne(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        language.languageId.between(
-                            Integer.valueOf(details.getValue().getStartingValue()),
-                            Integer.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        language.languageId.goe(Integer.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        language.languageId.loe(Integer.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("name")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    language.name.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    language.name.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    language.name.ne(details.getValue().getSearchValue())
-                );
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
+    }
 
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QLanguageEntity language) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("languageId", language.languageId)
+            .field("name", language.name)
+            .build();
     }
 
     public Map<String, String> parseFilmsJoinColumn(String keysString) {
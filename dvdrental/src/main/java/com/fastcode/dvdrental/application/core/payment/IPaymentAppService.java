@@ -1,9 +1,14 @@
 package com.fastcode.dvdrental.application.core.payment;
 
 import com.fastcode.dvdrental.application.core.payment.dto.*;
+import com.fastcode.dvdrental.commons.bulk.BulkOutput;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import java.util.*;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 public interface IPaymentAppService {
     //CRUD Operations
@@ -14,9 +19,19 @@ public interface IPaymentAppService {
 
     UpdatePaymentOutput update(Integer id, UpdatePaymentInput input);
 
+    BulkOutput<CreatePaymentOutput> createAll(List<CreatePaymentInput> inputs) throws Exception;
+
+    BulkOutput<UpdatePaymentOutput> updateAll(List<UpdatePaymentInput> inputs) throws Exception;
+
     FindPaymentByIdOutput findById(Integer id);
 
-    List<FindPaymentByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+    Map<Integer, FindPaymentByIdOutput> findByIds(Collection<Integer> ids) throws Exception;
+
+    Slice<FindPaymentByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+
+    long count(SearchCriteria search, TotalCount totalCount) throws Exception;
+
+    void export(SearchCriteria search, Sort sort, Consumer<FindPaymentByIdOutput> consumer) throws Exception;
     //Relationship Operations
     //Relationship Operations
     //Relationship Operations
@@ -1,6 +1,10 @@
 package com.fastcode.dvdrental.application.core.payment;
 
 import com.fastcode.dvdrental.application.core.payment.dto.*;
+import com.fastcode.dvdrental.commons.bulk.BulkOutput;
+import com.fastcode.dvdrental.commons.bulk.BulkRow;
+import com.fastcode.dvdrental.commons.bulk.BulkWriter;
+import com.fastcode.dvdrental.commons.cache.DataVersions;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.commons.search.*;
 import com.fastcode.dvdrental.domain.core.customer.CustomerEntity;
@@ -15,13 +19,15 @@ import com.fastcode.dvdrental.domain.core.staff.StaffEntity;
 import com.querydsl.core.BooleanBuilder;
 import java.time.*;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.lang3.math.NumberUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -53,6 +59,14 @@ public class PaymentAppService implements IPaymentAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    @NonNull
+    protected final DataVersions dataVersions;
+
+    @NonNull
+    protected final BulkWriter bulkWriter;
+
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QPaymentEntity.paymentEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreatePaymentOutput create(CreatePaymentInput input) {
         PaymentEntity payment = mapper.createPaymentInputToPaymentEntity(input);
@@ -93,6 +107,7 @@ public class PaymentAppService implements IPaymentAppService {
             return null;
         }
 
+        dataVersions.bump(DataVersions.PAYMENT);
         PaymentEntity createdPayment = _paymentRepository.save(payment);
         return mapper.paymentEntityToCreatePaymentOutput(createdPayment);
     }
@@ -140,22 +155,185 @@ public class PaymentAppService implements IPaymentAppService {
             return null;
         }
 
+        dataVersions.bump(DataVersions.PAYMENT);
         PaymentEntity updatedPayment = _paymentRepository.save(payment);
         return mapper.paymentEntityToUpdatePaymentOutput(updatedPayment);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkOutput<CreatePaymentOutput> createAll(List<CreatePaymentInput> inputs) throws Exception {
+        return bulkWriter.write(inputs, this::createChunk);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkOutput<UpdatePaymentOutput> updateAll(List<UpdatePaymentInput> inputs) throws Exception {
+        return bulkWriter.write(inputs, this::updateChunk);
+    }
+
+    protected List<BulkRow<CreatePaymentOutput>> createChunk(List<CreatePaymentInput> chunk) {
+        Map<Integer, CustomerEntity> foundCustomers = BulkWriter.findAllById(
+            _customerRepository,
+            ids(chunk, CreatePaymentInput::getCustomerId),
+            CustomerEntity::getCustomerId
+        );
+        Map<Integer, RentalEntity> foundRentals = BulkWriter.findAllById(
+            _rentalRepository,
+            ids(chunk, CreatePaymentInput::getRentalId),
+            RentalEntity::getRentalId
+        );
+        Map<Integer, StaffEntity> foundStaffs = BulkWriter.findAllById(
+            _staffRepository,
+            ids(chunk, CreatePaymentInput::getStaffId),
+            StaffEntity::getStaffId
+        );
+
+        List<BulkRow<CreatePaymentOutput>> rows = new ArrayList<>();
+        Map<BulkRow<CreatePaymentOutput>, PaymentEntity> pending = new LinkedHashMap<>();
+        for (CreatePaymentInput input : chunk) {
+            PaymentEntity payment = mapper.createPaymentInputToPaymentEntity(input);
+            CustomerEntity foundCustomer = foundCustomers.get(input.getCustomerId());
+            if (foundCustomer == null) {
+                rows.add(
+                    BulkRow.failed(String.format("There does not exist a customer with a id=%s", input.getCustomerId()))
+                );
+                continue;
+            }
+            payment.setCustomer(foundCustomer);
+            RentalEntity foundRental = foundRentals.get(input.getRentalId());
+            if (foundRental == null) {
+                rows.add(
+                    BulkRow.failed(String.format("There does not exist a rental with a id=%s", input.getRentalId()))
+                );
+                continue;
+            }
+            payment.setRental(foundRental);
+            StaffEntity foundStaff = foundStaffs.get(input.getStaffId());
+            if (foundStaff == null) {
+                rows.add(
+                    BulkRow.failed(String.format("There does not exist a staff with a id=%s", input.getStaffId()))
+                );
+                continue;
+            }
+            payment.setStaff(foundStaff);
+            BulkRow<CreatePaymentOutput> row = new BulkRow<>();
+            rows.add(row);
+            pending.put(row, payment);
+        }
+
+        dataVersions.bump(DataVersions.PAYMENT);
+        Iterator<PaymentEntity> created = _paymentRepository.saveAll(pending.values()).iterator();
+        for (BulkRow<CreatePaymentOutput> row : pending.keySet()) {
+            row.setOutput(mapper.paymentEntityToCreatePaymentOutput(created.next()));
+        }
+        return rows;
+    }
+
+    protected List<BulkRow<UpdatePaymentOutput>> updateChunk(List<UpdatePaymentInput> chunk) {
+        Map<Integer, PaymentEntity> existingPayments = BulkWriter.findAllById(
+            _paymentRepository,
+            ids(chunk, UpdatePaymentInput::getPaymentId),
+            PaymentEntity::getPaymentId
+        );
+        Map<Integer, CustomerEntity> foundCustomers = BulkWriter.findAllById(
+            _customerRepository,
+            ids(chunk, UpdatePaymentInput::getCustomerId),
+            CustomerEntity::getCustomerId
+        );
+        Map<Integer, RentalEntity> foundRentals = BulkWriter.findAllById(
+            _rentalRepository,
+            ids(chunk, UpdatePaymentInput::getRentalId),
+            RentalEntity::getRentalId
+        );
+        Map<Integer, StaffEntity> foundStaffs = BulkWriter.findAllById(
+            _staffRepository,
+            ids(chunk, UpdatePaymentInput::getStaffId),
+            StaffEntity::getStaffId
+        );
+
+        List<BulkRow<UpdatePaymentOutput>> rows = new ArrayList<>();
+        Map<BulkRow<UpdatePaymentOutput>, PaymentEntity> pending = new LinkedHashMap<>();
+        for (UpdatePaymentInput input : chunk) {
+            PaymentEntity existing = existingPayments.get(input.getPaymentId());
+            if (existing == null) {
+                rows.add(
+                    BulkRow.failed(
+                        String.format("Unable to update. Payment with id=%s not found.", input.getPaymentId())
+                    )
+                );
+                continue;
+            }
+            PaymentEntity payment = mapper.updatePaymentInputToPaymentEntity(input);
+            if (payment.getVersiono() == null) {
+                payment.setVersiono(existing.getVersiono());
+            }
+            CustomerEntity foundCustomer = foundCustomers.get(input.getCustomerId());
+            if (foundCustomer == null) {
+                rows.add(
+                    BulkRow.failed(String.format("There does not exist a customer with a id=%s", input.getCustomerId()))
+                );
+                continue;
+            }
+            payment.setCustomer(foundCustomer);
+            RentalEntity foundRental = foundRentals.get(input.getRentalId());
+            if (foundRental == null) {
+                rows.add(
+                    BulkRow.failed(String.format("There does not exist a rental with a id=%s", input.getRentalId()))
+                );
+                continue;
+            }
+            payment.setRental(foundRental);
+            StaffEntity foundStaff = foundStaffs.get(input.getStaffId());
+            if (foundStaff == null) {
+                rows.add(
+                    BulkRow.failed(String.format("There does not exist a staff with a id=%s", input.getStaffId()))
+                );
+                continue;
+            }
+            payment.setStaff(foundStaff);
+            BulkRow<UpdatePaymentOutput> row = new BulkRow<>();
+            rows.add(row);
+            pending.put(row, payment);
+        }
+
+        dataVersions.bump(DataVersions.PAYMENT);
+        Iterator<PaymentEntity> updated = _paymentRepository.saveAll(pending.values()).iterator();
+        for (BulkRow<UpdatePaymentOutput> row : pending.keySet()) {
+            row.setOutput(mapper.paymentEntityToUpdatePaymentOutput(updated.next()));
+        }
+        return rows;
+    }
+
+    private static <I> List<Integer> ids(List<I> inputs, Function<I, Integer> idOf) {
+        List<Integer> ids = new ArrayList<>(inputs.size());
+        for (I input : inputs) {
+            ids.add(idOf.apply(input));
+        }
+        return ids;
+    }
+
     @Transactional(propagation = Propagation.REQUIRED)
     public void delete(Integer paymentId) {
         PaymentEntity existing = _paymentRepository.findById(paymentId).orElse(null);
         _paymentRepository.delete(existing);
+        dataVersions.bump(DataVersions.PAYMENT);
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public FindPaymentByIdOutput findById(Integer paymentId) {
-        PaymentEntity foundPayment = _paymentRepository.findById(paymentId).orElse(null);
-        if (foundPayment == null) return null;
+        return _paymentRepository.findProjectedById(paymentId);
+    }
 
-        return mapper.paymentEntityToFindPaymentByIdOutput(foundPayment);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<Integer, FindPaymentByIdOutput> findByIds(Collection<Integer> paymentIds) throws Exception {
+        BatchIds.checkSize(paymentIds);
+        if (paymentIds.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        return BatchIds.keyById(
+            paymentIds,
+            _paymentRepository.findProjectedByIds(paymentIds),
+            FindPaymentByIdOutput::getPaymentId
+        );
     }
 
     //Customer
@@ -198,146 +376,44 @@ public class PaymentAppService implements IPaymentAppService {
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public List<FindPaymentByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<PaymentEntity> foundPayment = _paymentRepository.findAll(search(search), pageable);
-        List<PaymentEntity> paymentList = foundPayment.getContent();
-        Iterator<PaymentEntity> paymentIterator = paymentList.iterator();
-        List<FindPaymentByIdOutput> output = new ArrayList<>();
-
-        while (paymentIterator.hasNext()) {
-            PaymentEntity payment = paymentIterator.next();
-            output.add(mapper.paymentEntityToFindPaymentByIdOutput(payment));
-        }
-        return output;
+    public Slice<FindPaymentByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
+        return _paymentRepository.findAllProjected(search(search), pageable);
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QPaymentEntity payment = QPaymentEntity.paymentEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(payment, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _paymentRepository.estimateCount(search(search));
         }
-        return null;
+        return _paymentRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    list.get(i).replace("%20", "").trim().equals("customerId") ||
-                    list.get(i).replace("%20", "").trim().equals("rentalId") ||
-                    list.get(i).replace("%20", "").trim().equals("staffId") ||
-                    list.get(i).replace("%20", "").trim().equals("amount") ||
-                    list.get(i).replace("%20", "").trim().equals("paymentDate") ||
-                    list.get(i).replace("%20", "").trim().equals("paymentId")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void export(SearchCriteria search, Sort sort, Consumer<FindPaymentByIdOutput> consumer) throws Exception {
+        try (Stream<FindPaymentByIdOutput> rows = _paymentRepository.streamProjected(search(search), sort)) {
+            rows.forEach(consumer);
         }
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QPaymentEntity payment,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("amount")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    NumberUtils.isCreatable(details.getValue().getSearchValue())
-                ) builder.and(payment.amount.eq(Double.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    NumberUtils.isCreatable(details.getValue().getSearchValue())
-                ) builder.and(payment.amount.ne(Double.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        NumberUtils.isCreatable(details.getValue().getStartingValue()) &&
-                        NumberUtils.isCreatable(details.getValue().getEndingValue())
-                    ) builder.and(
-                        payment.amount.between(
-                            Double.valueOf(details.getValue().getStartingValue()),
-                            Double.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (NumberUtils.isCreatable(details.getValue().getStartingValue())) builder.and(
-                        payment.amount.goe(Double.valueOf(details.getValue().getStartingValue()))
-                    ); else if (NumberUtils.isCreatable(details.getValue().getEndingValue())) builder.and(
-                        payment.amount.loe(Double.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("paymentDate")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    SearchUtils.stringToLocalDate(details.getValue().getSearchValue()) != null
-                ) builder.and(
-                    payment.paymentDate.eq(SearchUtils.stringToLocalDate(details.getValue().getSearchValue()))
-                ); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    SearchUtils.stringToLocalDate(details.getValue().getSearchValue()) != null
-                ) builder.and(
-                    payment.paymentDate.ne(SearchUtils.stringToLocalDate(details.getValue().getSearchValue()))
-                ); else if (details.getValue().getOperator().equals("range")) {
-                    LocalDate startLocalDate = SearchUtils.stringToLocalDate(details.getValue().getStartingValue());
-                    LocalDate endLocalDate = SearchUtils.stringToLocalDate(details.getValue().getEndingValue());
-                    if (startLocalDate != null && endLocalDate != null) builder.and(
-                        payment.paymentDate.between(startLocalDate, endLocalDate)
-                    ); else if (endLocalDate != null) builder.and(payment.paymentDate.loe(endLocalDate)); else if (
-                        startLocalDate != null
-                    ) builder.and(payment.paymentDate.goe(startLocalDate));
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("paymentId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(payment.paymentId.eq(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(payment.paymentId.ne(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        payment.paymentId.between(
-                            Integer.valueOf(details.getValue().getStartingValue()),
-                            Integer.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        payment.paymentId.goe(Integer.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        payment.paymentId.loe(Integer.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
+    }
 
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("customerId")) {
-                builder.and(payment.customer.customerId.eq(Integer.parseInt(joinCol.getValue())));
-            }
-        }
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("rentalId")) {
-                builder.and(payment.rental.rentalId.eq(Integer.parseInt(joinCol.getValue())));
-            }
-        }
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("staffId")) {
-                builder.and(payment.staff.staffId.eq(Integer.parseInt(joinCol.getValue())));
-            }
-        }
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QPaymentEntity payment) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("customerId", payment.customer.customerId)
+            .field("rentalId", payment.rental.rentalId)
+            .field("staffId", payment.staff.staffId)
+            .field("amount", payment.amount)
+            .field("paymentDate", payment.paymentDate)
+            .field("paymentId", payment.paymentId)
+            .joinColumn("customerId", payment.customer.customerId)
+            .joinColumn("rentalId", payment.rental.rentalId)
+            .joinColumn("staffId", payment.staff.staffId)
+            .build();
     }
 }
@@ -1,9 +1,14 @@
 package com.fastcode.dvdrental.application.core.rental;
 
 import com.fastcode.dvdrental.application.core.rental.dto.*;
+import com.fastcode.dvdrental.commons.bulk.BulkOutput;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import java.util.*;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 public interface IRentalAppService {
     //CRUD Operations
@@ -14,9 +19,19 @@ public interface IRentalAppService {
 
     UpdateRentalOutput update(Integer id, UpdateRentalInput input);
 
+    BulkOutput<CreateRentalOutput> createAll(List<CreateRentalInput> inputs) throws Exception;
+
+    BulkOutput<UpdateRentalOutput> updateAll(List<UpdateRentalInput> inputs) throws Exception;
+
     FindRentalByIdOutput findById(Integer id);
 
-    List<FindRentalByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+    Map<Integer, FindRentalByIdOutput> findByIds(Collection<Integer> ids) throws Exception;
+
+    Slice<FindRentalByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+
+    long count(SearchCriteria search, TotalCount totalCount) throws Exception;
+
+    void export(SearchCriteria search, Sort sort, Consumer<FindRentalByIdOutput> consumer) throws Exception;
     //Relationship Operations
     //Relationship Operations
     //Relationship Operations
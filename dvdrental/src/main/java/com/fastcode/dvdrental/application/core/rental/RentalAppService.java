@@ -1,6 +1,10 @@
 package com.fastcode.dvdrental.application.core.rental;
 
 import com.fastcode.dvdrental.application.core.rental.dto.*;
+import com.fastcode.dvdrental.commons.bulk.BulkOutput;
+import com.fastcode.dvdrental.commons.bulk.BulkRow;
+import com.fastcode.dvdrental.commons.bulk.BulkWriter;
+import com.fastcode.dvdrental.commons.cache.DataVersions;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.commons.search.*;
 import com.fastcode.dvdrental.domain.core.customer.CustomerEntity;
@@ -15,12 +19,15 @@ import com.fastcode.dvdrental.domain.core.staff.StaffEntity;
 import com.querydsl.core.BooleanBuilder;
 import java.time.*;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -52,6 +59,14 @@ public class RentalAppService implements IRentalAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    @NonNull
+    protected final DataVersions dataVersions;
+
+    @NonNull
+    protected final BulkWriter bulkWriter;
+
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QRentalEntity.rentalEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreateRentalOutput create(CreateRentalInput input) {
         RentalEntity rental = mapper.createRentalInputToRentalEntity(input);
@@ -92,6 +107,7 @@ public class RentalAppService implements IRentalAppService {
             return null;
         }
 
+        dataVersions.bump(DataVersions.RENTAL);
         RentalEntity createdRental = _rentalRepository.save(rental);
         return mapper.rentalEntityToCreateRentalOutput(createdRental);
     }
@@ -139,22 +155,187 @@ public class RentalAppService implements IRentalAppService {
             return null;
         }
 
+        dataVersions.bump(DataVersions.RENTAL);
         RentalEntity updatedRental = _rentalRepository.save(rental);
         return mapper.rentalEntityToUpdateRentalOutput(updatedRental);
     }
 
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkOutput<CreateRentalOutput> createAll(List<CreateRentalInput> inputs) throws Exception {
+        return bulkWriter.write(inputs, this::createChunk);
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkOutput<UpdateRentalOutput> updateAll(List<UpdateRentalInput> inputs) throws Exception {
+        return bulkWriter.write(inputs, this::updateChunk);
+    }
+
+    protected List<BulkRow<CreateRentalOutput>> createChunk(List<CreateRentalInput> chunk) {
+        Map<Integer, CustomerEntity> foundCustomers = BulkWriter.findAllById(
+            _customerRepository,
+            ids(chunk, CreateRentalInput::getCustomerId),
+            CustomerEntity::getCustomerId
+        );
+        Map<Integer, InventoryEntity> foundInventorys = BulkWriter.findAllById(
+            _inventoryRepository,
+            ids(chunk, CreateRentalInput::getInventoryId),
+            InventoryEntity::getInventoryId
+        );
+        Map<Integer, StaffEntity> foundStaffs = BulkWriter.findAllById(
+            _staffRepository,
+            ids(chunk, CreateRentalInput::getStaffId),
+            StaffEntity::getStaffId
+        );
+
+        List<BulkRow<CreateRentalOutput>> rows = new ArrayList<>();
+        Map<BulkRow<CreateRentalOutput>, RentalEntity> pending = new LinkedHashMap<>();
+        for (CreateRentalInput input : chunk) {
+            RentalEntity rental = mapper.createRentalInputToRentalEntity(input);
+            CustomerEntity foundCustomer = foundCustomers.get(input.getCustomerId());
+            if (foundCustomer == null) {
+                rows.add(
+                    BulkRow.failed(String.format("There does not exist a customer with a id=%s", input.getCustomerId()))
+                );
+                continue;
+            }
+            rental.setCustomer(foundCustomer);
+            InventoryEntity foundInventory = foundInventorys.get(input.getInventoryId());
+            if (foundInventory == null) {
+                rows.add(
+                    BulkRow.failed(
+                        String.format("There does not exist a inventory with a id=%s", input.getInventoryId())
+                    )
+                );
+                continue;
+            }
+            rental.setInventory(foundInventory);
+            StaffEntity foundStaff = foundStaffs.get(input.getStaffId());
+            if (foundStaff == null) {
+                rows.add(
+                    BulkRow.failed(String.format("There does not exist a staff with a id=%s", input.getStaffId()))
+                );
+                continue;
+            }
+            rental.setStaff(foundStaff);
+            BulkRow<CreateRentalOutput> row = new BulkRow<>();
+            rows.add(row);
+            pending.put(row, rental);
+        }
+
+        dataVersions.bump(DataVersions.RENTAL);
+        Iterator<RentalEntity> created = _rentalRepository.saveAll(pending.values()).iterator();
+        for (BulkRow<CreateRentalOutput> row : pending.keySet()) {
+            row.setOutput(mapper.rentalEntityToCreateRentalOutput(created.next()));
+        }
+        return rows;
+    }
+
+    protected List<BulkRow<UpdateRentalOutput>> updateChunk(List<UpdateRentalInput> chunk) {
+        Map<Integer, RentalEntity> existingRentals = BulkWriter.findAllById(
+            _rentalRepository,
+            ids(chunk, UpdateRentalInput::getRentalId),
+            RentalEntity::getRentalId
+        );
+        Map<Integer, CustomerEntity> foundCustomers = BulkWriter.findAllById(
+            _customerRepository,
+            ids(chunk, UpdateRentalInput::getCustomerId),
+            CustomerEntity::getCustomerId
+        );
+        Map<Integer, InventoryEntity> foundInventorys = BulkWriter.findAllById(
+            _inventoryRepository,
+            ids(chunk, UpdateRentalInput::getInventoryId),
+            InventoryEntity::getInventoryId
+        );
+        Map<Integer, StaffEntity> foundStaffs = BulkWriter.findAllById(
+            _staffRepository,
+            ids(chunk, UpdateRentalInput::getStaffId),
+            StaffEntity::getStaffId
+        );
+
+        List<BulkRow<UpdateRentalOutput>> rows = new ArrayList<>();
+        Map<BulkRow<UpdateRentalOutput>, RentalEntity> pending = new LinkedHashMap<>();
+        for (UpdateRentalInput input : chunk) {
+            RentalEntity existing = existingRentals.get(input.getRentalId());
+            if (existing == null) {
+                rows.add(
+                    BulkRow.failed(String.format("Unable to update. Rental with id=%s not found.", input.getRentalId()))
+                );
+                continue;
+            }
+            RentalEntity rental = mapper.updateRentalInputToRentalEntity(input);
+            if (rental.getVersiono() == null) {
+                rental.setVersiono(existing.getVersiono());
+            }
+            CustomerEntity foundCustomer = foundCustomers.get(input.getCustomerId());
+            if (foundCustomer == null) {
+                rows.add(
+                    BulkRow.failed(String.format("There does not exist a customer with a id=%s", input.getCustomerId()))
+                );
+                continue;
+            }
+            rental.setCustomer(foundCustomer);
+            InventoryEntity foundInventory = foundInventorys.get(input.getInventoryId());
+            if (foundInventory == null) {
+                rows.add(
+                    BulkRow.failed(
+                        String.format("There does not exist a inventory with a id=%s", input.getInventoryId())
+                    )
+                );
+                continue;
+            }
+            rental.setInventory(foundInventory);
+            StaffEntity foundStaff = foundStaffs.get(input.getStaffId());
+            if (foundStaff == null) {
+                rows.add(
+                    BulkRow.failed(String.format("There does not exist a staff with a id=%s", input.getStaffId()))
+                );
+                continue;
+            }
+            rental.setStaff(foundStaff);
+            BulkRow<UpdateRentalOutput> row = new BulkRow<>();
+            rows.add(row);
+            pending.put(row, rental);
+        }
+
+        dataVersions.bump(DataVersions.RENTAL);
+        Iterator<RentalEntity> updated = _rentalRepository.saveAll(pending.values()).iterator();
+        for (BulkRow<UpdateRentalOutput> row : pending.keySet()) {
+            row.setOutput(mapper.rentalEntityToUpdateRentalOutput(updated.next()));
+        }
+        return rows;
+    }
+
+    private static <I> List<Integer> ids(List<I> inputs, Function<I, Integer> idOf) {
+        List<Integer> ids = new ArrayList<>(inputs.size());
+        for (I input : inputs) {
+            ids.add(idOf.apply(input));
+        }
+        return ids;
+    }
+
     @Transactional(propagation = Propagation.REQUIRED)
     public void delete(Integer rentalId) {
         RentalEntity existing = _rentalRepository.findById(rentalId).orElse(null);
         _rentalRepository.delete(existing);
+        dataVersions.bump(DataVersions.RENTAL);
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public FindRentalByIdOutput findById(Integer rentalId) {
-        RentalEntity foundRental = _rentalRepository.findById(rentalId).orElse(null);
-        if (foundRental == null) return null;
+        return _rentalRepository.findProjectedById(rentalId);
+    }
 
-        return mapper.rentalEntityToFindRentalByIdOutput(foundRental);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<Integer, FindRentalByIdOutput> findByIds(Collection<Integer> rentalIds) throws Exception {
+        BatchIds.checkSize(rentalIds);
+        if (rentalIds.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        return BatchIds.keyById(
+            rentalIds,
+            _rentalRepository.findProjectedByIds(rentalIds),
+            FindRentalByIdOutput::getRentalId
+        );
     }
 
     //Customer
@@ -197,143 +378,45 @@ public class RentalAppService implements IRentalAppService {
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public List<FindRentalByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<RentalEntity> foundRental = _rentalRepository.findAll(search(search), pageable);
-        List<RentalEntity> rentalList = foundRental.getContent();
-        Iterator<RentalEntity> rentalIterator = rentalList.iterator();
-        List<FindRentalByIdOutput> output = new ArrayList<>();
-
-        while (rentalIterator.hasNext()) {
-            RentalEntity rental = rentalIterator.next();
-            output.add(mapper.rentalEntityToFindRentalByIdOutput(rental));
-        }
-        return output;
+    public Slice<FindRentalByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
+        return _rentalRepository.findAllProjected(search(search), pageable);
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QRentalEntity rental = QRentalEntity.rentalEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(rental, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _rentalRepository.estimateCount(search(search));
         }
-        return null;
+        return _rentalRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    list.get(i).replace("%20", "").trim().equals("customerId") ||
-                    list.get(i).replace("%20", "").trim().equals("inventoryId") ||
-                    list.get(i).replace("%20", "").trim().equals("staffId") ||
-                    list.get(i).replace("%20", "").trim().equals("rentalDate") ||
-                    list.get(i).replace("%20", "").trim().equals("rentalId") ||
-                    list.get(i).replace("%20", "").trim().equals("returnDate")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void export(SearchCriteria search, Sort sort, Consumer<FindRentalByIdOutput> consumer) throws Exception {
+        try (Stream<FindRentalByIdOutput> rows = _rentalRepository.streamProjected(search(search), sort)) {
+            rows.forEach(consumer);
         }
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QRentalEntity rental,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("rentalDate")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    SearchUtils.stringToLocalDate(details.getValue().getSearchValue()) != null
-                ) builder.and(
-                    rental.rentalDate.eq(SearchUtils.stringToLocalDate(details.getValue().getSearchValue()))
-                ); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    SearchUtils.stringToLocalDate(details.getValue().getSearchValue()) != null
-                ) builder.and(
-                    rental.rentalDate.ne(SearchUtils.stringToLocalDate(details.getValue().getSearchValue()))
-                ); else if (details.getValue().getOperator().equals("range")) {
-                    LocalDate startLocalDate = SearchUtils.stringToLocalDate(details.getValue().getStartingValue());
-                    LocalDate endLocalDate = SearchUtils.stringToLocalDate(details.getValue().getEndingValue());
-                    if (startLocalDate != null && endLocalDate != null) builder.and(
-                        rental.rentalDate.between(startLocalDate, endLocalDate)
-                    ); else if (endLocalDate != null) builder.and(rental.rentalDate.loe(endLocalDate)); else if (
-                        startLocalDate != null
-                    ) builder.and(rental.rentalDate.goe(startLocalDate));
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("rentalId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(rental.rentalId.eq(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(rental.rentalId.ne(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        rental.rentalId.between(
-                            Integer.valueOf(details.getValue().getStartingValue()),
-                            Integer.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        rental.rentalId.goe(Integer.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        rental.rentalId.loe(Integer.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("returnDate")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    SearchUtils.stringToLocalDate(details.getValue().getSearchValue()) != null
-                ) builder.and(
-                    rental.returnDate.eq(SearchUtils.stringToLocalDate(details.getValue().getSearchValue()))
-                ); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    SearchUtils.stringToLocalDate(details.getValue().getSearchValue()) != null
-                ) builder.and(
-                    rental.returnDate.ne(SearchUtils.stringToLocalDate(details.getValue().getSearchValue()))
-                ); else if (details.getValue().getOperator().equals("range")) {
-                    LocalDate startLocalDate = SearchUtils.stringToLocalDate(details.getValue().getStartingValue());
-                    LocalDate endLocalDate = SearchUtils.stringToLocalDate(details.getValue().getEndingValue());
-                    if (startLocalDate != null && endLocalDate != null) builder.and(
-                        rental.returnDate.between(startLocalDate, endLocalDate)
-                    ); else if (endLocalDate != null) builder.and(rental.returnDate.loe(endLocalDate)); else if (
-                        startLocalDate != null
-                    ) builder.and(rental.returnDate.goe(startLocalDate));
-                }
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
+    }
 
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("customerId")) {
-                builder.and(rental.customer.customerId.eq(Integer.parseInt(joinCol.getValue())));
-            }
-        }
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("inventoryId")) {
-                builder.and(rental.inventory.inventoryId.eq(Integer.parseInt(joinCol.getValue())));
-            }
-        }
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("staffId")) {
-                builder.and(rental.staff.staffId.eq(Integer.parseInt(joinCol.getValue())));
-            }
-        }
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QRentalEntity rental) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("customerId", rental.customer.customerId)
+            .field("inventoryId", rental.inventory.inventoryId)
+            .field("staffId", rental.staff.staffId)
+            .field("rentalDate", rental.rentalDate)
+            .field("rentalId", rental.rentalId)
+            .field("returnDate", rental.returnDate)
+            .joinColumn("customerId", rental.customer.customerId)
+            .joinColumn("inventoryId", rental.inventory.inventoryId)
+            .joinColumn("staffId", rental.staff.staffId)
+            .build();
     }
 
     public Map<String, String> parsePaymentsJoinColumn(String keysString) {
@@ -2,8 +2,12 @@ package com.fastcode.dvdrental.application.core.staff;
 
 import com.fastcode.dvdrental.application.core.staff.dto.*;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import java.util.*;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 public interface IStaffAppService {
     //CRUD Operations
@@ -16,7 +20,13 @@ public interface IStaffAppService {
 
     FindStaffByIdOutput findById(Integer id);
 
-    List<FindStaffByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+    Map<Integer, FindStaffByIdOutput> findByIds(Collection<Integer> ids) throws Exception;
+
+    Slice<FindStaffByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+
+    long count(SearchCriteria search, TotalCount totalCount) throws Exception;
+
+    void export(SearchCriteria search, Sort sort, Consumer<FindStaffByIdOutput> consumer) throws Exception;
     //Relationship Operations
     //Relationship Operations
 
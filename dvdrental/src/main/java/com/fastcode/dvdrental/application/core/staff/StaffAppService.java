@@ -13,12 +13,14 @@ import com.fastcode.dvdrental.domain.core.store.StoreEntity;
 import com.querydsl.core.BooleanBuilder;
 import java.time.*;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -46,6 +48,8 @@ public class StaffAppService implements IStaffAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QStaffEntity.staffEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreateStaffOutput create(CreateStaffInput input) {
         StaffEntity staff = mapper.createStaffInputToStaffEntity(input);
@@ -120,10 +124,20 @@ public class StaffAppService implements IStaffAppService {
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public FindStaffByIdOutput findById(Integer staffId) {
-        StaffEntity foundStaff = _staffRepository.findById(staffId).orElse(null);
-        if (foundStaff == null) return null;
+        return _staffRepository.findProjectedById(staffId);
+    }
 
-        return mapper.staffEntityToFindStaffByIdOutput(foundStaff);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<Integer, FindStaffByIdOutput> findByIds(Collection<Integer> staffIds) throws Exception {
+        BatchIds.checkSize(staffIds);
+        if (staffIds.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        return BatchIds.keyById(
+            staffIds,
+            _staffRepository.findProjectedByIds(staffIds),
+            FindStaffByIdOutput::getStaffId
+        );
     }
 
     //Address
@@ -153,159 +167,47 @@ public class StaffAppService implements IStaffAppService {
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public List<FindStaffByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<StaffEntity> foundStaff = _staffRepository.findAll(search(search), pageable);
-        List<StaffEntity> staffList = foundStaff.getContent();
-        Iterator<StaffEntity> staffIterator = staffList.iterator();
-        List<FindStaffByIdOutput> output = new ArrayList<>();
-
-        while (staffIterator.hasNext()) {
-            StaffEntity staff = staffIterator.next();
-            output.add(mapper.staffEntityToFindStaffByIdOutput(staff));
-        }
-        return output;
+    public Slice<FindStaffByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
+        return _staffRepository.findAllProjected(search(search), pageable);
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QStaffEntity staff = QStaffEntity.staffEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(staff, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _staffRepository.estimateCount(search(search));
         }
-        return null;
+        return _staffRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    list.get(i).replace("%20", "").trim().equals("addressId") ||
-                    list.get(i).replace("%20", "").trim().equals("storeId") ||
-                    list.get(i).replace("%20", "").trim().equals("active") ||
-                    list.get(i).replace("%20", "").trim().equals("email") ||
-                    list.get(i).replace("%20", "").trim().equals("firstName") ||
-                    list.get(i).replace("%20", "").trim().equals("lastName") ||
-                    list.get(i).replace("%20", "").trim().equals("password") ||
-                    list.get(i).replace("%20", "").trim().equals("staffId") ||
-                    list.get(i).replace("%20", "").trim().equals("username")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void export(SearchCriteria search, Sort sort, Consumer<FindStaffByIdOutput> consumer) throws Exception {
+        try (Stream<FindStaffByIdOutput> rows = _staffRepository.streamProjected(search(search), sort)) {
+            rows.forEach(consumer);
         }
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QStaffEntity staff,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("active")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    (
-                        details.getValue().getSearchValue().equalsIgnoreCase("true") ||
-                        details.getValue().getSearchValue().equalsIgnoreCase("false")
-                    )
-                ) builder.and(staff.active.eq(Boolean.parseBoolean(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    (
-                        details.getValue().getSearchValue().equalsIgnoreCase("true") ||
-                        details.getValue().getSearchValue().equalsIgnoreCase("false")
-                    )
-                ) builder.and(staff.active.ne(Boolean.parseBoolean(details.getValue().getSearchValue())));
-            }
-            if (details.getKey().replace("%20", "").trim().equals("email")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    staff.email.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    staff.email.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    staff.email.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("firstName")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    staff.firstName.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    staff.firstName.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    staff.firstName.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("lastName")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    staff.lastName.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    staff.lastName.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    staff.lastName.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("password")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    staff.password.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    staff.password.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    staff.password.ne(details.getValue().getSearchValue())
-                );
-            }
-            if (details.getKey().replace("%20", "").trim().equals("staffId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(staff.staffId.eq(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(staff.staffId.ne(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        staff.staffId.between(
-                            Integer.valueOf(details.getValue().getStartingValue()),
-                            Integer.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        staff.staffId.goe(Integer.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        staff.staffId.loe(Integer.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
-            if (details.getKey().replace("%20", "").trim().equals("username")) {
-                if (details.getValue().getOperator().equals("contains")) builder.and(
-                    staff.username.likeIgnoreCase("%" + details.getValue().getSearchValue() + "%")
-                ); else if (details.getValue().getOperator().equals("equals")) builder.and(
-                    staff.username.eq(details.getValue().getSearchValue())
-                ); else if (details.getValue().getOperator().equals("notEqual")) builder.and(
-                    staff.username.ne(details.getValue().getSearchValue())
-                );
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
+    }
 
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("addressId")) {
-                builder.and(staff.address.addressId.eq(Integer.parseInt(joinCol.getValue())));
-            }
-        }
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("storeId")) {
-                builder.and(staff.store.storeId.eq(Integer.parseInt(joinCol.getValue())));
-            }
-        }
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QStaffEntity staff) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("addressId", staff.address.addressId)
+            .field("storeId", staff.store.storeId)
+            .field("active", staff.active)
+            .field("email", staff.email)
+            .field("firstName", staff.firstName)
+            .field("lastName", staff.lastName)
+            .field("password", staff.password)
+            .field("staffId", staff.staffId)
+            .field("username", staff.username)
+            .joinColumn("addressId", staff.address.addressId)
+            .joinColumn("storeId", staff.store.storeId)
+            .build();
     }
 
     public Map<String, String> parsePaymentsJoinColumn(String keysString) {
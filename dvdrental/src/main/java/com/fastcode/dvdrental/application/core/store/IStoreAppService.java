@@ -2,8 +2,12 @@ package com.fastcode.dvdrental.application.core.store;
 
 import com.fastcode.dvdrental.application.core.store.dto.*;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import java.util.*;
+import java.util.function.Consumer;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 
 public interface IStoreAppService {
     //CRUD Operations
@@ -16,7 +20,13 @@ public interface IStoreAppService {
 
     FindStoreByIdOutput findById(Integer id);
 
-    List<FindStoreByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+    Map<Integer, FindStoreByIdOutput> findByIds(Collection<Integer> ids) throws Exception;
+
+    Slice<FindStoreByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception;
+
+    long count(SearchCriteria search, TotalCount totalCount) throws Exception;
+
+    void export(SearchCriteria search, Sort sort, Consumer<FindStoreByIdOutput> consumer) throws Exception;
     //Relationship Operations
 
     GetAddressOutput getAddress(Integer storeid);
@@ -11,12 +11,14 @@ import com.fastcode.dvdrental.domain.core.store.StoreEntity;
 import com.querydsl.core.BooleanBuilder;
 import java.time.*;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -40,6 +42,8 @@ public class StoreAppService implements IStoreAppService {
     @NonNull
     protected final LoggingHelper logHelper;
 
+    protected static final SearchPredicateCompiler searchCompiler = createSearchCompiler(QStoreEntity.storeEntity);
+
     @Transactional(propagation = Propagation.REQUIRED)
     public CreateStoreOutput create(CreateStoreInput input) {
         StoreEntity store = mapper.createStoreInputToStoreEntity(input);
@@ -89,10 +93,20 @@ public class StoreAppService implements IStoreAppService {
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public FindStoreByIdOutput findById(Integer storeId) {
-        StoreEntity foundStore = _storeRepository.findById(storeId).orElse(null);
-        if (foundStore == null) return null;
+        return _storeRepository.findProjectedById(storeId);
+    }
 
-        return mapper.storeEntityToFindStoreByIdOutput(foundStore);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<Integer, FindStoreByIdOutput> findByIds(Collection<Integer> storeIds) throws Exception {
+        BatchIds.checkSize(storeIds);
+        if (storeIds.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        return BatchIds.keyById(
+            storeIds,
+            _storeRepository.findProjectedByIds(storeIds),
+            FindStoreByIdOutput::getStoreId
+        );
     }
 
     //Address
@@ -109,87 +123,39 @@ public class StoreAppService implements IStoreAppService {
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
-    public List<FindStoreByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
-        Page<StoreEntity> foundStore = _storeRepository.findAll(search(search), pageable);
-        List<StoreEntity> storeList = foundStore.getContent();
-        Iterator<StoreEntity> storeIterator = storeList.iterator();
-        List<FindStoreByIdOutput> output = new ArrayList<>();
-
-        while (storeIterator.hasNext()) {
-            StoreEntity store = storeIterator.next();
-            output.add(mapper.storeEntityToFindStoreByIdOutput(store));
-        }
-        return output;
+    public Slice<FindStoreByIdOutput> find(SearchCriteria search, Pageable pageable) throws Exception {
+        return _storeRepository.findAllProjected(search(search), pageable);
     }
 
-    protected BooleanBuilder search(SearchCriteria search) throws Exception {
-        QStoreEntity store = QStoreEntity.storeEntity;
-        if (search != null) {
-            Map<String, SearchFields> map = new HashMap<>();
-            for (SearchFields fieldDetails : search.getFields()) {
-                map.put(fieldDetails.getFieldName(), fieldDetails);
-            }
-            List<String> keysList = new ArrayList<String>(map.keySet());
-            checkProperties(keysList);
-            return searchKeyValuePair(store, map, search.getJoinColumns());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long count(SearchCriteria search, TotalCount totalCount) throws Exception {
+        if (totalCount == TotalCount.ESTIMATE) {
+            return _storeRepository.estimateCount(search(search));
         }
-        return null;
+        return _storeRepository.count(search(search));
     }
 
-    protected void checkProperties(List<String> list) throws Exception {
-        for (int i = 0; i < list.size(); i++) {
-            if (
-                !(
-                    list.get(i).replace("%20", "").trim().equals("addressId") ||
-                    list.get(i).replace("%20", "").trim().equals("storeId")
-                )
-            ) {
-                throw new Exception("Wrong URL Format: Property " + list.get(i) + " not found!");
-            }
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public void export(SearchCriteria search, Sort sort, Consumer<FindStoreByIdOutput> consumer) throws Exception {
+        try (Stream<FindStoreByIdOutput> rows = _storeRepository.streamProjected(search(search), sort)) {
+            rows.forEach(consumer);
         }
     }
 
-    protected BooleanBuilder searchKeyValuePair(
-        QStoreEntity store,
-        Map<String, SearchFields> map,
-        Map<String, String> joinColumns
-    ) {
-        BooleanBuilder builder = new BooleanBuilder();
-
-        for (Map.Entry<String, SearchFields> details : map.entrySet()) {
-            if (details.getKey().replace("%20", "").trim().equals("storeId")) {
-                if (
-                    details.getValue().getOperator().equals("equals") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(store.storeId.eq(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("notEqual") &&
-                    StringUtils.isNumeric(details.getValue().getSearchValue())
-                ) builder.and(store.storeId.ne(Integer.valueOf(details.getValue().getSearchValue()))); else if (
-                    details.getValue().getOperator().equals("range")
-                ) {
-                    if (
-                        StringUtils.isNumeric(details.getValue().getStartingValue()) &&
-                        StringUtils.isNumeric(details.getValue().getEndingValue())
-                    ) builder.and(
-                        store.storeId.between(
-                            Integer.valueOf(details.getValue().getStartingValue()),
-                            Integer.valueOf(details.getValue().getEndingValue())
-                        )
-                    ); else if (StringUtils.isNumeric(details.getValue().getStartingValue())) builder.and(
-                        store.storeId.goe(Integer.valueOf(details.getValue().getStartingValue()))
-                    ); else if (StringUtils.isNumeric(details.getValue().getEndingValue())) builder.and(
-                        store.storeId.loe(Integer.valueOf(details.getValue().getEndingValue()))
-                    );
-                }
-            }
+    protected BooleanBuilder search(SearchCriteria search) throws Exception {
+        if (search != null) {
+            return searchCompiler.compile(search);
         }
+        return null;
+    }
 
-        for (Map.Entry<String, String> joinCol : joinColumns.entrySet()) {
-            if (joinCol != null && joinCol.getKey().equals("addressId")) {
-                builder.and(store.address.addressId.eq(Integer.parseInt(joinCol.getValue())));
-            }
-        }
-        return builder;
+    protected static SearchPredicateCompiler createSearchCompiler(QStoreEntity store) {
+        return SearchPredicateCompiler
+            .builder()
+            .field("addressId", store.address.addressId)
+            .field("storeId", store.storeId)
+            .joinColumn("addressId", store.address.addressId)
+            .build();
     }
 
     public Map<String, String> parseCustomersJoinColumn(String keysString) {
@@ -3,6 +3,7 @@ package com.fastcode.dvdrental.application.extended.authorization.permission;
 import com.fastcode.dvdrental.application.core.authorization.permission.PermissionAppService;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.domain.extended.authorization.permission.IPermissionRepositoryExtended;
+import com.fastcode.dvdrental.security.PermissionResolver;
 import org.springframework.stereotype.Service;
 
 @Service("permissionAppServiceExtended")
@@ -10,10 +11,11 @@ public class PermissionAppServiceExtended extends PermissionAppService implement
 
     public PermissionAppServiceExtended(
         IPermissionRepositoryExtended permissionRepositoryExtended,
+        PermissionResolver permissionResolver,
         IPermissionMapperExtended mapper,
         LoggingHelper logHelper
     ) {
-        super(permissionRepositoryExtended, mapper, logHelper);
+        super(permissionRepositoryExtended, permissionResolver, mapper, logHelper);
     }
     //Add your custom code here
 
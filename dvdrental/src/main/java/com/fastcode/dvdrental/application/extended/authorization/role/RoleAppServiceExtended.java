@@ -3,6 +3,7 @@ package com.fastcode.dvdrental.application.extended.authorization.role;
 import com.fastcode.dvdrental.application.core.authorization.role.RoleAppService;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.domain.extended.authorization.role.IRoleRepositoryExtended;
+import com.fastcode.dvdrental.security.PermissionResolver;
 import org.springframework.stereotype.Service;
 
 @Service("roleAppServiceExtended")
@@ -10,10 +11,11 @@ public class RoleAppServiceExtended extends RoleAppService implements IRoleAppSe
 
     public RoleAppServiceExtended(
         IRoleRepositoryExtended roleRepositoryExtended,
+        PermissionResolver permissionResolver,
         IRoleMapperExtended mapper,
         LoggingHelper logHelper
     ) {
-        super(roleRepositoryExtended, mapper, logHelper);
+        super(roleRepositoryExtended, permissionResolver, mapper, logHelper);
     }
     //Add your custom code here
 
@@ -7,6 +7,7 @@ import com.fastcode.dvdrental.domain.extended.authorization.role.IRoleRepository
 import com.fastcode.dvdrental.domain.extended.authorization.rolepermission.IRolepermissionRepositoryExtended;
 import com.fastcode.dvdrental.domain.extended.authorization.userrole.IUserroleRepositoryExtended;
 import com.fastcode.dvdrental.security.JWTAppService;
+import com.fastcode.dvdrental.security.PermissionResolver;
 import org.springframework.stereotype.Service;
 
 @Service("rolepermissionAppServiceExtended")
@@ -20,6 +21,7 @@ public class RolepermissionAppServiceExtended
         IRolepermissionRepositoryExtended rolepermissionRepositoryExtended,
         IPermissionRepositoryExtended permissionRepositoryExtended,
         IRoleRepositoryExtended roleRepositoryExtended,
+        PermissionResolver permissionResolver,
         IRolepermissionMapperExtended mapper,
         LoggingHelper logHelper
     ) {
@@ -29,6 +31,7 @@ public class RolepermissionAppServiceExtended
             rolepermissionRepositoryExtended,
             permissionRepositoryExtended,
             roleRepositoryExtended,
+            permissionResolver,
             mapper,
             logHelper
         );
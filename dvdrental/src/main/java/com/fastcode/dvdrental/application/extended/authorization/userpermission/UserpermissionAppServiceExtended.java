@@ -5,6 +5,7 @@ import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.domain.extended.authorization.permission.IPermissionRepositoryExtended;
 import com.fastcode.dvdrental.domain.extended.authorization.user.IUserRepositoryExtended;
 import com.fastcode.dvdrental.domain.extended.authorization.userpermission.IUserpermissionRepositoryExtended;
+import com.fastcode.dvdrental.security.PermissionResolver;
 import org.springframework.stereotype.Service;
 
 @Service("userpermissionAppServiceExtended")
@@ -16,6 +17,7 @@ public class UserpermissionAppServiceExtended
         IUserpermissionRepositoryExtended userpermissionRepositoryExtended,
         IPermissionRepositoryExtended permissionRepositoryExtended,
         IUserRepositoryExtended userRepositoryExtended,
+        PermissionResolver permissionResolver,
         IUserpermissionMapperExtended mapper,
         LoggingHelper logHelper
     ) {
@@ -23,6 +25,7 @@ public class UserpermissionAppServiceExtended
             userpermissionRepositoryExtended,
             permissionRepositoryExtended,
             userRepositoryExtended,
+            permissionResolver,
             mapper,
             logHelper
         );
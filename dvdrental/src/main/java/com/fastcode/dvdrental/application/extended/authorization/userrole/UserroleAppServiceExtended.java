@@ -5,6 +5,7 @@ import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.domain.extended.authorization.role.IRoleRepositoryExtended;
 import com.fastcode.dvdrental.domain.extended.authorization.user.IUserRepositoryExtended;
 import com.fastcode.dvdrental.domain.extended.authorization.userrole.IUserroleRepositoryExtended;
+import com.fastcode.dvdrental.security.PermissionResolver;
 import org.springframework.stereotype.Service;
 
 @Service("userroleAppServiceExtended")
@@ -14,10 +15,18 @@ public class UserroleAppServiceExtended extends UserroleAppService implements IU
         IUserroleRepositoryExtended userroleRepositoryExtended,
         IRoleRepositoryExtended roleRepositoryExtended,
         IUserRepositoryExtended userRepositoryExtended,
+        PermissionResolver permissionResolver,
         IUserroleMapperExtended mapper,
         LoggingHelper logHelper
     ) {
-        super(userroleRepositoryExtended, roleRepositoryExtended, userRepositoryExtended, mapper, logHelper);
+        super(
+            userroleRepositoryExtended,
+            roleRepositoryExtended,
+            userRepositoryExtended,
+            permissionResolver,
+            mapper,
+            logHelper
+        );
     }
     //Add your custom code here
 
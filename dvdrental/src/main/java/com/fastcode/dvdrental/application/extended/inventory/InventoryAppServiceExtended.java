@@ -1,6 +1,7 @@
 package com.fastcode.dvdrental.application.extended.inventory;
 
 import com.fastcode.dvdrental.application.core.inventory.InventoryAppService;
+import com.fastcode.dvdrental.commons.cache.DataVersions;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.domain.extended.film.IFilmRepositoryExtended;
 import com.fastcode.dvdrental.domain.extended.inventory.IInventoryRepositoryExtended;
@@ -15,9 +16,17 @@ public class InventoryAppServiceExtended extends InventoryAppService implements
         IFilmRepositoryExtended filmRepositoryExtended,
         IStoreRepositoryExtended storeRepositoryExtended,
         IInventoryMapperExtended mapper,
-        LoggingHelper logHelper
+        LoggingHelper logHelper,
+        DataVersions dataVersions
     ) {
-        super(inventoryRepositoryExtended, filmRepositoryExtended, storeRepositoryExtended, mapper, logHelper);
+        super(
+            inventoryRepositoryExtended,
+            filmRepositoryExtended,
+            storeRepositoryExtended,
+            mapper,
+            logHelper,
+            dataVersions
+        );
     }
     //Add your custom code here
 
@@ -1,6 +1,8 @@
 package com.fastcode.dvdrental.application.extended.payment;
 
 import com.fastcode.dvdrental.application.core.payment.PaymentAppService;
+import com.fastcode.dvdrental.commons.bulk.BulkWriter;
+import com.fastcode.dvdrental.commons.cache.DataVersions;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.domain.extended.customer.ICustomerRepositoryExtended;
 import com.fastcode.dvdrental.domain.extended.payment.IPaymentRepositoryExtended;
@@ -17,7 +19,9 @@ public class PaymentAppServiceExtended extends PaymentAppService implements IPay
         IRentalRepositoryExtended rentalRepositoryExtended,
         IStaffRepositoryExtended staffRepositoryExtended,
         IPaymentMapperExtended mapper,
-        LoggingHelper logHelper
+        LoggingHelper logHelper,
+        DataVersions dataVersions,
+        BulkWriter bulkWriter
     ) {
         super(
             paymentRepositoryExtended,
@@ -25,7 +29,9 @@ public class PaymentAppServiceExtended extends PaymentAppService implements IPay
             rentalRepositoryExtended,
             staffRepositoryExtended,
             mapper,
-            logHelper
+            logHelper,
+            dataVersions,
+            bulkWriter
         );
     }
     //Add your custom code here
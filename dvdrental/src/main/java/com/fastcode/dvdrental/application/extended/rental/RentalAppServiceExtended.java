@@ -1,6 +1,8 @@
 package com.fastcode.dvdrental.application.extended.rental;
 
 import com.fastcode.dvdrental.application.core.rental.RentalAppService;
+import com.fastcode.dvdrental.commons.bulk.BulkWriter;
+import com.fastcode.dvdrental.commons.cache.DataVersions;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.domain.extended.customer.ICustomerRepositoryExtended;
 import com.fastcode.dvdrental.domain.extended.inventory.IInventoryRepositoryExtended;
@@ -17,7 +19,9 @@ public class RentalAppServiceExtended extends RentalAppService implements IRenta
         IInventoryRepositoryExtended inventoryRepositoryExtended,
         IStaffRepositoryExtended staffRepositoryExtended,
         IRentalMapperExtended mapper,
-        LoggingHelper logHelper
+        LoggingHelper logHelper,
+        DataVersions dataVersions,
+        BulkWriter bulkWriter
     ) {
         super(
             rentalRepositoryExtended,
@@ -25,7 +29,9 @@ public class RentalAppServiceExtended extends RentalAppService implements IRenta
             inventoryRepositoryExtended,
             staffRepositoryExtended,
             mapper,
-            logHelper
+            logHelper,
+            dataVersions,
+            bulkWriter
         );
     }
     //Add your custom code here
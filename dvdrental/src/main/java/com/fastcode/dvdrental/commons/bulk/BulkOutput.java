@@ -0,0 +1,27 @@
+package com.fastcode.dvdrental.commons.bulk;
+
+import java.util.List;
+import lombok.Getter;
+
+/**
+ * Response of a bulk write, holding one {@link BulkRow} per input row, in input order.
+ */
+@Getter
+public class BulkOutput<T> {
+
+    private final List<BulkRow<T>> rows;
+    private final int succeeded;
+    private final int failed;
+
+    public BulkOutput(List<BulkRow<T>> rows) {
+        this.rows = rows;
+        int failedRows = 0;
+        for (BulkRow<T> row : rows) {
+            if (row.getError() != null) {
+                failedRows++;
+            }
+        }
+        this.failed = failedRows;
+        this.succeeded = rows.size() - failedRows;
+    }
+}
@@ -0,0 +1,22 @@
+package com.fastcode.dvdrental.commons.bulk;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Result of one row of a bulk write: the output of the written row, or the reason it was not written.
+ */
+@Getter
+@Setter
+public class BulkRow<T> {
+
+    private int index;
+    private T output;
+    private String error;
+
+    public static <T> BulkRow<T> failed(String error) {
+        BulkRow<T> row = new BulkRow<>();
+        row.setError(error);
+        return row;
+    }
+}
@@ -0,0 +1,141 @@
+package com.fastcode.dvdrental.commons.bulk;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Writes the rows of a bulk request in chunks of the JDBC batch size, each chunk in a transaction of its
+ * own, so that Hibernate sends the inserts or updates of a chunk as one JDBC batch.
+ *
+ * Rows failing bean validation are reported without being written. When a chunk fails as a whole, e.g.
+ * on a constraint violation, its rows are retried one by one to tell the failing rows apart from the
+ * others, so a single bad row does not cost the rest of its chunk.
+ */
+@Component
+public class BulkWriter {
+
+    public static final int MAX_SIZE = 10000;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final int batchSize;
+
+    public BulkWriter(
+        PlatformTransactionManager transactionManager,
+        Validator validator,
+        @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize
+    ) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.validator = validator;
+        this.batchSize = batchSize;
+    }
+
+    @FunctionalInterface
+    public interface ChunkWriter<I, T> {
+        /**
+         * Writes the rows of one chunk in the current transaction and returns the result of each of them, in
+         * order. Rows that can not be written, e.g. because a referenced entity does not exist, are returned
+         * as {@link BulkRow#failed(String)} and are left out of the write.
+         */
+        List<BulkRow<T>> write(List<I> chunk);
+    }
+
+    public <I, T> BulkOutput<T> write(List<I> inputs, ChunkWriter<I, T> writer) throws Exception {
+        if (inputs.size() > MAX_SIZE) {
+            throw new Exception("Bulk of " + inputs.size() + " rows exceeds the maximum of " + MAX_SIZE + "!");
+        }
+
+        List<BulkRow<T>> rows = new ArrayList<>(Collections.nCopies(inputs.size(), null));
+        List<Integer> validIndexes = new ArrayList<>(inputs.size());
+        for (int index = 0; index < inputs.size(); index++) {
+            String violations = validate(inputs.get(index));
+            if (violations != null) {
+                rows.set(index, BulkRow.failed(violations));
+            } else {
+                validIndexes.add(index);
+            }
+        }
+
+        for (int from = 0; from < validIndexes.size(); from += batchSize) {
+            List<Integer> chunkIndexes = validIndexes.subList(from, Math.min(from + batchSize, validIndexes.size()));
+            List<I> chunk = chunkIndexes.stream().map(inputs::get).collect(Collectors.toList());
+            List<BulkRow<T>> written = writeChunk(chunk, writer);
+            for (int i = 0; i < written.size(); i++) {
+                rows.set(chunkIndexes.get(i), written.get(i));
+            }
+        }
+        for (int index = 0; index < rows.size(); index++) {
+            rows.get(index).setIndex(index);
+        }
+        return new BulkOutput<>(rows);
+    }
+
+    /**
+     * Loads the entities with the given ids with one query and keys them by id. Null ids are skipped.
+     */
+    public static <E, ID> Map<ID, E> findAllById(
+        JpaRepository<E, ID> repository,
+        Collection<ID> ids,
+        Function<E, ID> idOf
+    ) {
+        Set<ID> distinctIds = ids.stream().filter(Objects::nonNull).collect(Collectors.toCollection(HashSet::new));
+        Map<ID, E> entities = new HashMap<>();
+        if (!distinctIds.isEmpty()) {
+            for (E entity : repository.findAllById(distinctIds)) {
+                entities.put(idOf.apply(entity), entity);
+            }
+        }
+        return entities;
+    }
+
+    private <I, T> List<BulkRow<T>> writeChunk(List<I> chunk, ChunkWriter<I, T> writer) {
+        try {
+            return transactionTemplate.execute(status -> writer.write(chunk));
+        } catch (RuntimeException chunkFailure) {
+            if (chunk.size() == 1) {
+                return Collections.singletonList(BulkRow.failed(message(chunkFailure)));
+            }
+        }
+
+        List<BulkRow<T>> rows = new ArrayList<>(chunk.size());
+        for (I input : chunk) {
+            rows.addAll(writeChunk(Collections.singletonList(input), writer));
+        }
+        return rows;
+    }
+
+    private <I> String validate(I input) {
+        if (input == null) {
+            return "Row should not be null";
+        }
+        Set<ConstraintViolation<I>> violations = validator.validate(input);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", "));
+    }
+
+    private static String message(RuntimeException e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getName();
+    }
+}
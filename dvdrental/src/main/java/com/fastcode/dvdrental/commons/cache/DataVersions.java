@@ -0,0 +1,53 @@
+package com.fastcode.dvdrental.commons.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Versions of the data of the tables, for the caches of results derived from them.
+ *
+ * The services writing a table bump its version, and a cache keys its results by the versions of the tables
+ * they were read from, so a write makes the results read before it unreachable. Within a transaction the
+ * version is bumped once it has committed, so that a concurrent read cannot cache the rows as they were
+ * before the commit under the new version. The versions are kept by each instance of the application.
+ */
+@Component
+public class DataVersions {
+
+    public static final String INVENTORY = "inventory";
+    public static final String PAYMENT = "payment";
+    public static final String RENTAL = "rental";
+
+    private final ConcurrentMap<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public long get(String table) {
+        return version(table).get();
+    }
+
+    /**
+     * Bumps the version of the table after the current transaction has committed, or at once outside a
+     * transaction.
+     */
+    public void bump(String table) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        version(table).incrementAndGet();
+                    }
+                }
+            );
+        } else {
+            version(table).incrementAndGet();
+        }
+    }
+
+    private AtomicLong version(String table) {
+        return versions.computeIfAbsent(table, name -> new AtomicLong());
+    }
+}
@@ -0,0 +1,27 @@
+package com.fastcode.dvdrental.commons.cache;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Caches of the reference data that is read on almost every request but rarely changes.
+ *
+ * The caches hold the {@code findById} outputs of the services and are evicted by the services' own
+ * {@code update} and {@code delete}. Missing rows are not cached, so {@code create} has nothing to evict.
+ * Size, expiry and statistics are set by {@code spring.cache.caffeine.spec}, and the hit and miss counts
+ * are published as the {@code cache.gets} metric.
+ *
+ * Caching advice runs outside the transaction advice, so entries are evicted after the transaction has
+ * committed and a concurrent read cannot cache the row as it was before the commit.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class ReferenceDataCaches {
+
+    public static final String ACTOR = "actor";
+    public static final String CATEGORY = "category";
+    public static final String CITY = "city";
+    public static final String COUNTRY = "country";
+    public static final String LANGUAGE = "language";
+}
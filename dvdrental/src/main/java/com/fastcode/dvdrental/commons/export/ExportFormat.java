@@ -0,0 +1,38 @@
+package com.fastcode.dvdrental.commons.export;
+
+/**
+ * Format of the rows written by a {@code GET /{entity}/export?format=ndjson|csv} endpoint. Rows are
+ * streamed as they are read, so the response is never held in memory.
+ */
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat fromString(String format) throws Exception {
+        if (format == null) {
+            return NDJSON;
+        }
+        for (ExportFormat exportFormat : values()) {
+            if (exportFormat.name().equalsIgnoreCase(format)) {
+                return exportFormat;
+            }
+        }
+        throw new Exception("Wrong URL Format: format " + format + " is not one of ndjson, csv!");
+    }
+}
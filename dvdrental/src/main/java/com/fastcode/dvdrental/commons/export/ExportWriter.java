@@ -0,0 +1,112 @@
+package com.fastcode.dvdrental.commons.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes exported rows to a response output stream, one line per row, through a fixed size buffer.
+ *
+ * CSV columns are the JSON properties of the first row, which are written as the header line. An export
+ * without rows writes no header.
+ */
+public class ExportWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private static final ObjectWriter ROW_WRITER = MAPPER.writer();
+
+    private static final TypeReference<LinkedHashMap<String, Object>> COLUMNS =
+        new TypeReference<LinkedHashMap<String, Object>>() {};
+
+    private final ExportFormat format;
+    private final Writer out;
+    private List<String> columns;
+
+    public ExportWriter(ExportFormat format, OutputStream outputStream) {
+        this.format = format;
+        this.out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    public void write(Object row) {
+        try {
+            if (format == ExportFormat.CSV) {
+                writeCsv(row);
+            } else {
+                ROW_WRITER.writeValue(out, row);
+            }
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeCsv(Object row) throws IOException {
+        Map<String, Object> values = MAPPER.convertValue(row, COLUMNS);
+        if (columns == null) {
+            columns = new ArrayList<>(values.keySet());
+            writeCsvLine(new ArrayList<>(columns));
+            out.write('\n');
+        }
+        List<Object> line = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            line.add(values.get(column));
+        }
+        writeCsvLine(line);
+    }
+
+    private void writeCsvLine(List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (values.get(i) != null) {
+                out.write(escapeCsv(values.get(i).toString()));
+            }
+        }
+    }
+
+    static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Sends the rows written so far, e.g. each part of a response whose parts are ready at different times.
+     */
+    public void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
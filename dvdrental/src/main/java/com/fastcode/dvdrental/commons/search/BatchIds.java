@@ -0,0 +1,42 @@
+package com.fastcode.dvdrental.commons.search;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Ids requested from a {@code POST /{entity}/batch} endpoint, which are read with a single {@code IN}
+ * query instead of one request and query per id.
+ */
+public class BatchIds {
+
+    public static final int MAX_SIZE = 100;
+
+    private BatchIds() {}
+
+    public static void checkSize(Collection<?> ids) throws Exception {
+        if (ids != null && ids.size() > MAX_SIZE) {
+            throw new Exception("Batch of " + ids.size() + " ids exceeds the maximum of " + MAX_SIZE + "!");
+        }
+    }
+
+    /**
+     * Keys the found rows by id, in the order the ids were requested. Ids without a row are left out.
+     */
+    public static <I, T> Map<I, T> keyById(Collection<I> ids, List<T> found, Function<T, I> idOf) {
+        Map<I, T> byId = new LinkedHashMap<>();
+        for (T output : found) {
+            byId.put(idOf.apply(output), output);
+        }
+        Map<I, T> outputs = new LinkedHashMap<>();
+        for (I id : ids) {
+            T output = byId.get(id);
+            if (output != null) {
+                outputs.put(id, output);
+            }
+        }
+        return outputs;
+    }
+}
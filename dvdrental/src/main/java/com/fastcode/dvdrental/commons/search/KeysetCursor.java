@@ -0,0 +1,172 @@
+package com.fastcode.dvdrental.commons.search;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Opaque position of the last row of a page, used for keyset (seek) pagination.
+ *
+ * A cursor holds the sort orders of the page together with the values the last row had for each of
+ * them. Sorting is always closed by the primary key of the entity, so the orders identify exactly one
+ * row and the next page can be fetched with a {@code WHERE (sortKey, id) > (?, ?)} style predicate
+ * instead of skipping all preceding rows. Nulls sort as the largest values, as they do in Postgres.
+ */
+public class KeysetCursor {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final List<Sort.Order> orders;
+    private final List<String> values;
+
+    public KeysetCursor(List<Sort.Order> orders, List<String> values) {
+        if (orders.isEmpty() || orders.size() != values.size()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        this.orders = Collections.unmodifiableList(new ArrayList<>(orders));
+        this.values = Collections.unmodifiableList(new ArrayList<>(values));
+    }
+
+    public List<Sort.Order> getOrders() {
+        return orders;
+    }
+
+    public List<String> getValues() {
+        return values;
+    }
+
+    /**
+     * Returns the sort the cursor was created with, which the next page has to be fetched with.
+     */
+    public Sort getSort() {
+        return keysetSort(Sort.by(orders), null);
+    }
+
+    public String encode() {
+        List<List<String>> token = new ArrayList<>();
+        for (int i = 0; i < orders.size(); i++) {
+            Sort.Order order = orders.get(i);
+            token.add(Arrays.asList(order.getProperty(), order.getDirection().name(), values.get(i)));
+        }
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(token));
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to encode cursor", e);
+        }
+    }
+
+    public static KeysetCursor decode(String token) {
+        List<Sort.Order> orders = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        try {
+            String[][] parts = MAPPER.readValue(Base64.getUrlDecoder().decode(token), String[][].class);
+            for (String[] part : parts) {
+                if (part.length != 3 || part[0] == null) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                orders.add(new Sort.Order(Sort.Direction.fromString(part[1]), part[0]));
+                values.add(part[2]);
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        return new KeysetCursor(orders, values);
+    }
+
+    /**
+     * Creates the cursor pointing at the given row, or returns null when one of the sort properties can
+     * not be read from it.
+     */
+    public static KeysetCursor fromRow(Sort sort, Object row) {
+        if (row == null || sort == null || sort.isUnsorted()) {
+            return null;
+        }
+        BeanWrapper wrapper = PropertyAccessorFactory.forBeanPropertyAccess(row);
+        List<Sort.Order> orders = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            if (!wrapper.isReadableProperty(order.getProperty())) {
+                return null;
+            }
+            Object value = wrapper.getPropertyValue(order.getProperty());
+            orders.add(order);
+            values.add(value == null ? null : value.toString());
+        }
+        return new KeysetCursor(orders, values);
+    }
+
+    /**
+     * Makes the given sort usable for keyset pagination: nulls are ordered as the largest values and the
+     * key property is appended as a tie breaker, in the direction of the last order, unless already present.
+     */
+    public static Sort keysetSort(Sort sort, String keyProperty) {
+        List<Sort.Order> orders = new ArrayList<>();
+        boolean hasKey = keyProperty == null;
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (sort != null) {
+            for (Sort.Order order : sort) {
+                direction = order.getDirection();
+                hasKey = hasKey || order.getProperty().equals(keyProperty);
+                orders.add(order.with(direction.isAscending() ? Sort.NullHandling.NULLS_LAST : Sort.NullHandling.NULLS_FIRST));
+            }
+        }
+        if (!hasKey) {
+            orders.add(
+                new Sort.Order(
+                    direction,
+                    keyProperty,
+                    direction.isAscending() ? Sort.NullHandling.NULLS_LAST : Sort.NullHandling.NULLS_FIRST
+                )
+            );
+        }
+        return Sort.by(orders);
+    }
+
+    /**
+     * Returns the page request of a list endpoint. When an {@code after} token is given it is set on the
+     * search criteria and the page starts right after it, in the sort of the cursor; otherwise the page
+     * starts at the offset, in the requested sort closed by the key property.
+     */
+    public static Pageable pageable(
+        SearchCriteria searchCriteria,
+        String after,
+        int offset,
+        int limit,
+        Sort sort,
+        String keyProperty
+    ) {
+        if (after != null) {
+            KeysetCursor cursor = decode(after);
+            searchCriteria.setAfter(cursor);
+            return new OffsetBasedPageRequest(0, limit, cursor.getSort());
+        }
+        return new OffsetBasedPageRequest(offset, limit, keysetSort(sort, keyProperty));
+    }
+
+    /**
+     * Returns the headers of a page response, carrying the cursor of its last row when there is a next page.
+     */
+    public static HttpHeaders nextCursorHeaders(Slice<?> output) {
+        HttpHeaders headers = new HttpHeaders();
+        if (output.hasNext() && output.hasContent()) {
+            List<?> content = output.getContent();
+            KeysetCursor cursor = fromRow(output.getPageable().getSort(), content.get(content.size() - 1));
+            if (cursor != null) {
+                headers.set(NEXT_CURSOR_HEADER, cursor.encode());
+            }
+        }
+        return headers;
+    }
+}
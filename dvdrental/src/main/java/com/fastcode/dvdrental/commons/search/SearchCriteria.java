@@ -12,6 +12,7 @@ public class SearchCriteria {
     String operator;
     List<SearchFields> fields = new ArrayList<>();
     Map<String, String> joinColumns = new HashMap<String, String>();
+    KeysetCursor after;
 
     public Map<String, String> getJoinColumns() {
         return joinColumns;
@@ -52,4 +53,12 @@ public class SearchCriteria {
     public void setFields(List<SearchFields> fields) {
         this.fields = fields;
     }
+
+    public KeysetCursor getAfter() {
+        return after;
+    }
+
+    public void setAfter(KeysetCursor after) {
+        this.after = after;
+    }
 }
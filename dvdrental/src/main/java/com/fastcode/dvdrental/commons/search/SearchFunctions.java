@@ -0,0 +1,126 @@
+package com.fastcode.dvdrental.commons.search;
+
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.Expressions;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.core.types.dsl.StringExpression;
+import java.util.List;
+import org.hibernate.QueryException;
+import org.hibernate.boot.MetadataBuilder;
+import org.hibernate.boot.spi.MetadataBuilderContributor;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.dialect.function.SQLFunction;
+import org.hibernate.dialect.function.SQLFunctionTemplate;
+import org.hibernate.engine.spi.Mapping;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.type.StandardBasicTypes;
+import org.hibernate.type.Type;
+
+/**
+ * JPQL functions behind the {@code search} operator, registered through
+ * {@code hibernate.metadata_builder_contributor}.
+ *
+ * On Postgres full text fields are matched and ranked against their {@code tsvector} column, which is
+ * backed by a GIN index, and text fields are matched by trigram word similarity, which is backed by the
+ * {@code gin_trgm_ops} indexes on the lower cased columns. Other databases fall back to a case
+ * insensitive substring match. Every argument is rendered exactly once and in order, so that the bound
+ * parameters line up in both forms.
+ */
+public class SearchFunctions implements MetadataBuilderContributor {
+
+    public static final String FULL_TEXT_MATCH = "fts_match";
+    public static final String FULL_TEXT_RANK = "fts_rank";
+    public static final String TRIGRAM_MATCH = "trgm_match";
+    public static final String TRIGRAM_RANK = "trgm_rank";
+
+    private static final String CONTAINS = "lower(?1) like lower(concat('%', ?2, '%'))";
+
+    @Override
+    public void contribute(MetadataBuilder metadataBuilder) {
+        metadataBuilder.applySqlFunction(
+            FULL_TEXT_MATCH,
+            new PostgresFunction(
+                StandardBasicTypes.BOOLEAN,
+                "(?1 @@ plainto_tsquery('english', ?2))",
+                "(" + CONTAINS + ")"
+            )
+        );
+        metadataBuilder.applySqlFunction(
+            FULL_TEXT_RANK,
+            new PostgresFunction(
+                StandardBasicTypes.DOUBLE,
+                "ts_rank(?1, plainto_tsquery('english', ?2))",
+                "(case when " + CONTAINS + " then 1.0 else 0.0 end)"
+            )
+        );
+        metadataBuilder.applySqlFunction(
+            TRIGRAM_MATCH,
+            new PostgresFunction(StandardBasicTypes.BOOLEAN, "(lower(?1) %> lower(?2))", "(" + CONTAINS + ")")
+        );
+        metadataBuilder.applySqlFunction(
+            TRIGRAM_RANK,
+            new PostgresFunction(
+                StandardBasicTypes.DOUBLE,
+                "word_similarity(lower(?2), lower(?1))",
+                "(case when " + CONTAINS + " then 1.0 else 0.0 end)"
+            )
+        );
+    }
+
+    public static BooleanExpression fullTextMatch(StringExpression document, String query) {
+        return Expressions.booleanTemplate("function('" + FULL_TEXT_MATCH + "', {0}, {1}) = true", document, query);
+    }
+
+    public static NumberExpression<Double> fullTextRank(StringExpression document, String query) {
+        return Expressions.numberTemplate(Double.class, "function('" + FULL_TEXT_RANK + "', {0}, {1})", document, query);
+    }
+
+    public static BooleanExpression trigramMatch(StringExpression path, String query) {
+        return Expressions.booleanTemplate("function('" + TRIGRAM_MATCH + "', {0}, {1}) = true", path, query);
+    }
+
+    public static NumberExpression<Double> trigramRank(StringExpression path, String query) {
+        return Expressions.numberTemplate(Double.class, "function('" + TRIGRAM_RANK + "', {0}, {1})", path, query);
+    }
+
+    /**
+     * Renders one template on Postgres and another one on every other database.
+     */
+    static class PostgresFunction implements SQLFunction {
+
+        private final Type type;
+        private final SQLFunctionTemplate postgres;
+        private final SQLFunctionTemplate fallback;
+
+        PostgresFunction(Type type, String postgres, String fallback) {
+            this.type = type;
+            this.postgres = new SQLFunctionTemplate(type, postgres);
+            this.fallback = new SQLFunctionTemplate(type, fallback);
+        }
+
+        @Override
+        public boolean hasArguments() {
+            return true;
+        }
+
+        @Override
+        public boolean hasParenthesesIfNoArguments() {
+            return true;
+        }
+
+        @Override
+        public Type getReturnType(Type firstArgumentType, Mapping mapping) throws QueryException {
+            return type;
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public String render(Type firstArgumentType, List arguments, SessionFactoryImplementor factory)
+            throws QueryException {
+            SQLFunctionTemplate template = factory.getJdbcServices().getDialect() instanceof PostgreSQL81Dialect
+                ? postgres
+                : fallback;
+            return template.render(firstArgumentType, arguments, factory);
+        }
+    }
+}
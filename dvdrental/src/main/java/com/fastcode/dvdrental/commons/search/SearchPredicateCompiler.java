@@ -0,0 +1,545 @@
+package com.fastcode.dvdrental.commons.search;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.ExpressionUtils;
+import com.querydsl.core.types.Path;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.ComparableExpression;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.core.types.dsl.SimpleExpression;
+import com.querydsl.core.types.dsl.StringExpression;
+import java.lang.reflect.AnnotatedElement;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import javax.persistence.Column;
+import javax.persistence.Id;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Compiles a {@link SearchCriteria} into a QueryDSL predicate for one entity.
+ *
+ * The searchable fields and join columns of the entity are registered once against its Q*Entity
+ * metamodel, and the value parser of every field is chosen from the path type at that point. Compiled
+ * predicates are immutable and are cached by the normalized search string, so a repeated search only
+ * costs a map lookup.
+ *
+ * Every searchable field can also serve as a key of keyset pagination: when the criteria carries a
+ * {@link KeysetCursor}, the rows after the cursor are selected with the expanded form of the row value
+ * comparison {@code (a, id) > (?, ?)}, i.e. {@code a >= ? AND (a > ? OR (a = ? AND id > ?))}, since JPQL
+ * has no row values. The keyset predicate depends on the cursor values and is therefore never cached.
+ *
+ * The {@code search} operator is backed by the indexes of {@link SearchFunctions}: text fields are
+ * matched by trigram word similarity and full text fields against their {@code tsvector} document. Its
+ * matches can be ordered by relevance with the {@value #RANK_PROPERTY} sort property, see
+ * {@link #rank(SearchCriteria)}.
+ */
+public class SearchPredicateCompiler {
+
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    public static final String RANK_PROPERTY = "rank";
+
+    private static final String SEARCH = "search";
+
+    private final Map<String, FieldCompiler> fields;
+    private final Map<String, SortKey> sortKeys;
+    private final Map<String, Function<String, NumberExpression<Double>>> rankers;
+    private final Map<String, Function<String, Predicate>> joinColumns;
+    private final Map<String, Predicate> cache;
+
+    private SearchPredicateCompiler(Builder builder) {
+        this.fields = new HashMap<>(builder.fields);
+        this.sortKeys = new HashMap<>(builder.sortKeys);
+        this.rankers = new HashMap<>(builder.rankers);
+        this.joinColumns = new HashMap<>(builder.joinColumns);
+        final int cacheSize = builder.cacheSize;
+        this.cache =
+            Collections.synchronizedMap(
+                new LinkedHashMap<String, Predicate>(16, 0.75f, true) {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Predicate> eldest) {
+                        return size() > cacheSize;
+                    }
+                }
+            );
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns a new {@link BooleanBuilder} holding the predicate for the given criteria. Callers may
+     * further refine the returned builder without affecting the cached predicate.
+     *
+     * @throws Exception if the criteria or its cursor refers to a property that is not searchable
+     */
+    public BooleanBuilder compile(SearchCriteria search) throws Exception {
+        Map<String, SearchFields> searchFields = new TreeMap<>();
+        for (SearchFields fieldDetails : search.getFields()) {
+            String fieldName = normalize(fieldDetails.getFieldName());
+            if (!fields.containsKey(fieldName)) {
+                throw new Exception("Wrong URL Format: Property " + fieldDetails.getFieldName() + " not found!");
+            }
+            searchFields.put(fieldName, fieldDetails);
+        }
+
+        Map<String, String> searchJoinColumns = new TreeMap<>();
+        if (search.getJoinColumns() != null) {
+            for (Map.Entry<String, String> joinCol : search.getJoinColumns().entrySet()) {
+                if (joinCol.getKey() != null && joinColumns.containsKey(joinCol.getKey())) {
+                    searchJoinColumns.put(joinCol.getKey(), joinCol.getValue());
+                }
+            }
+        }
+
+        Predicate keyset = search.getAfter() != null ? keyset(search.getAfter()) : null;
+        if (searchFields.isEmpty() && searchJoinColumns.isEmpty()) {
+            return new BooleanBuilder(keyset);
+        }
+
+        String key = cacheKey(searchFields, searchJoinColumns);
+        Predicate predicate = cache.get(key);
+        if (predicate == null) {
+            BooleanBuilder builder = new BooleanBuilder();
+            for (Map.Entry<String, SearchFields> details : searchFields.entrySet()) {
+                builder.and(fields.get(details.getKey()).compile(details.getValue()));
+            }
+            for (Map.Entry<String, String> joinCol : searchJoinColumns.entrySet()) {
+                builder.and(joinColumns.get(joinCol.getKey()).apply(joinCol.getValue()));
+            }
+            predicate = builder.getValue();
+            if (predicate != null) {
+                cache.put(key, predicate);
+            }
+        }
+        return new BooleanBuilder(predicate).and(keyset);
+    }
+
+    /**
+     * Returns the relevance of a row to the {@code search} operators of the given criteria, the sum of
+     * their ranks, or null when the criteria has none.
+     */
+    public NumberExpression<Double> rank(SearchCriteria search) {
+        if (search == null || search.getFields() == null) {
+            return null;
+        }
+        NumberExpression<Double> rank = null;
+        for (SearchFields fieldDetails : search.getFields()) {
+            Function<String, NumberExpression<Double>> ranker = rankers.get(normalize(fieldDetails.getFieldName()));
+            if (ranker != null && SEARCH.equals(fieldDetails.getOperator()) && fieldDetails.getSearchValue() != null) {
+                NumberExpression<Double> fieldRank = ranker.apply(fieldDetails.getSearchValue());
+                rank = rank == null ? fieldRank : rank.add(fieldRank);
+            }
+        }
+        return rank;
+    }
+
+    private Predicate keyset(KeysetCursor cursor) throws Exception {
+        List<Sort.Order> orders = cursor.getOrders();
+        List<String> values = cursor.getValues();
+        Predicate bound = null;
+        Predicate after = null;
+        Predicate equalPrefix = null;
+        for (int i = 0; i < orders.size(); i++) {
+            Sort.Order order = orders.get(i);
+            SortKey sortKey = sortKeys.get(order.getProperty());
+            if (sortKey == null) {
+                throw new Exception("Wrong URL Format: Property " + order.getProperty() + " not found!");
+            }
+            String value = values.get(i);
+            if (i == 0) {
+                bound = sortKey.notBefore(value, order.getDirection());
+            }
+            Predicate next = sortKey.after(value, order.getDirection());
+            if (next != null) {
+                after = ExpressionUtils.anyOf(after, ExpressionUtils.allOf(equalPrefix, next));
+            }
+            equalPrefix = ExpressionUtils.allOf(equalPrefix, sortKey.equalTo(value));
+        }
+        if (after == null) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return ExpressionUtils.allOf(bound, after);
+    }
+
+    static String normalize(String fieldName) {
+        return fieldName == null ? "" : fieldName.replace("%20", "").trim();
+    }
+
+    private static String cacheKey(Map<String, SearchFields> searchFields, Map<String, String> searchJoinColumns) {
+        StringBuilder key = new StringBuilder();
+        for (Map.Entry<String, SearchFields> details : searchFields.entrySet()) {
+            SearchFields value = details.getValue();
+            appendPart(key, details.getKey());
+            appendPart(key, value.getOperator());
+            appendPart(key, value.getSearchValue());
+            appendPart(key, value.getStartingValue());
+            appendPart(key, value.getEndingValue());
+        }
+        key.append('|');
+        for (Map.Entry<String, String> joinCol : searchJoinColumns.entrySet()) {
+            appendPart(key, joinCol.getKey());
+            appendPart(key, joinCol.getValue());
+        }
+        return key.toString();
+    }
+
+    // Length-prefixed so that null, empty and separator-containing values never collide.
+    private static void appendPart(StringBuilder key, String part) {
+        if (part == null) {
+            key.append("-1:");
+        } else {
+            key.append(part.length()).append(':').append(part);
+        }
+    }
+
+    @FunctionalInterface
+    interface FieldCompiler {
+        /**
+         * Returns the predicate for the given field details, or null when the operator or value does not
+         * apply to the field.
+         */
+        Predicate compile(SearchFields details);
+    }
+
+    /**
+     * Comparisons of one field against a cursor value. Nulls are ordered as the largest values, so they
+     * come last in ascending and first in descending order.
+     */
+    static class SortKey {
+
+        private final SimpleExpression<?> path;
+        private final boolean nullable;
+        private final Function<String, Predicate> eq;
+        private final Function<String, Predicate> gt;
+        private final Function<String, Predicate> lt;
+        private final Function<String, Predicate> goe;
+        private final Function<String, Predicate> loe;
+
+        private SortKey(
+            SimpleExpression<?> path,
+            Function<String, Predicate> eq,
+            Function<String, Predicate> gt,
+            Function<String, Predicate> lt,
+            Function<String, Predicate> goe,
+            Function<String, Predicate> loe
+        ) {
+            this.path = path;
+            this.nullable = !(path instanceof Path) || isNullable(((Path<?>) path).getAnnotatedElement());
+            this.eq = eq;
+            this.gt = gt;
+            this.lt = lt;
+            this.goe = goe;
+            this.loe = loe;
+        }
+
+        static <T extends Comparable> SortKey of(ComparableExpression<T> path, Function<String, T> parser) {
+            Function<String, T> cursorParser = cursorParser(parser);
+            return new SortKey(
+                path,
+                value -> path.eq(cursorParser.apply(value)),
+                value -> path.gt(cursorParser.apply(value)),
+                value -> path.lt(cursorParser.apply(value)),
+                value -> path.goe(cursorParser.apply(value)),
+                value -> path.loe(cursorParser.apply(value))
+            );
+        }
+
+        static <T extends Number & Comparable<?>> SortKey of(NumberExpression<T> path, Function<String, T> parser) {
+            Function<String, T> cursorParser = cursorParser(parser);
+            return new SortKey(
+                path,
+                value -> path.eq(cursorParser.apply(value)),
+                value -> path.gt(cursorParser.apply(value)),
+                value -> path.lt(cursorParser.apply(value)),
+                value -> path.goe(cursorParser.apply(value)),
+                value -> path.loe(cursorParser.apply(value))
+            );
+        }
+
+        Predicate equalTo(String value) {
+            return value == null ? path.isNull() : eq.apply(value);
+        }
+
+        /**
+         * Returns the rows strictly after the value, or null when no row can follow it.
+         */
+        Predicate after(String value, Sort.Direction direction) {
+            if (direction.isAscending()) {
+                if (value == null) {
+                    return null;
+                }
+                return nullable ? ExpressionUtils.or(gt.apply(value), path.isNull()) : gt.apply(value);
+            }
+            return value == null ? path.isNotNull() : lt.apply(value);
+        }
+
+        /**
+         * Returns the rows at or after the value, the index friendly bound of the leading sort key.
+         */
+        Predicate notBefore(String value, Sort.Direction direction) {
+            if (direction.isAscending()) {
+                if (value == null) {
+                    return path.isNull();
+                }
+                return nullable ? ExpressionUtils.or(goe.apply(value), path.isNull()) : goe.apply(value);
+            }
+            return value == null ? null : loe.apply(value);
+        }
+
+        private static <T> Function<String, T> cursorParser(Function<String, T> parser) {
+            return value -> {
+                T parsed = parser.apply(value);
+                if (parsed == null) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                return parsed;
+            };
+        }
+
+        private static boolean isNullable(AnnotatedElement element) {
+            if (element.isAnnotationPresent(Id.class)) {
+                return false;
+            }
+            Column column = element.getAnnotation(Column.class);
+            return column == null || column.nullable();
+        }
+    }
+
+    public static class Builder {
+
+        private final Map<String, FieldCompiler> fields = new HashMap<>();
+        private final Map<String, SortKey> sortKeys = new HashMap<>();
+        private final Map<String, Function<String, NumberExpression<Double>>> rankers = new HashMap<>();
+        private final Map<String, Function<String, Predicate>> joinColumns = new HashMap<>();
+        private int cacheSize = DEFAULT_CACHE_SIZE;
+
+        public Builder field(String name, StringExpression path) {
+            sortKeys.put(name, SortKey.of(path, Function.identity()));
+            rankers.put(name, value -> SearchFunctions.trigramRank(path, value));
+            fields.put(
+                name,
+                details -> {
+                    String operator = details.getOperator();
+                    String value = details.getSearchValue();
+                    if ("contains".equals(operator)) {
+                        return path.likeIgnoreCase("%" + value + "%");
+                    } else if ("equals".equals(operator)) {
+                        return path.eq(value);
+                    } else if ("notEqual".equals(operator)) {
+                        return path.ne(value);
+                    } else if (SEARCH.equals(operator) && value != null) {
+                        return SearchFunctions.trigramMatch(path, value);
+                    }
+                    return null;
+                }
+            );
+            return this;
+        }
+
+        /**
+         * Registers a full text field, i.e. a {@code tsvector} document maintained by the database, that
+         * only supports the {@code search} operator and can not be sorted by.
+         */
+        public Builder fullTextField(String name, StringExpression document) {
+            rankers.put(name, value -> SearchFunctions.fullTextRank(document, value));
+            fields.put(
+                name,
+                details -> {
+                    String value = details.getSearchValue();
+                    if (SEARCH.equals(details.getOperator()) && value != null) {
+                        return SearchFunctions.fullTextMatch(document, value);
+                    }
+                    return null;
+                }
+            );
+            return this;
+        }
+
+        public Builder field(String name, BooleanExpression path) {
+            sortKeys.put(
+                name,
+                SortKey.of(
+                    path,
+                    value -> "true".equals(value) || "false".equals(value) ? Boolean.valueOf(value) : null
+                )
+            );
+            fields.put(
+                name,
+                details -> {
+                    String operator = details.getOperator();
+                    String value = details.getSearchValue();
+                    if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+                        return null;
+                    }
+                    if ("equals".equals(operator)) {
+                        return path.eq(Boolean.parseBoolean(value));
+                    } else if ("notEqual".equals(operator)) {
+                        return path.ne(Boolean.parseBoolean(value));
+                    }
+                    return null;
+                }
+            );
+            return this;
+        }
+
+        public <T extends Number & Comparable<?>> Builder field(String name, NumberExpression<T> path) {
+            Function<String, T> parser = numberParser(path.getType());
+            sortKeys.put(name, SortKey.of(path, exactNumberParser(path.getType())));
+            fields.put(
+                name,
+                details -> {
+                    String operator = details.getOperator();
+                    if ("equals".equals(operator) || "notEqual".equals(operator)) {
+                        T value = parser.apply(details.getSearchValue());
+                        if (value == null) {
+                            return null;
+                        }
+                        return "equals".equals(operator) ? path.eq(value) : path.ne(value);
+                    } else if ("range".equals(operator)) {
+                        T start = parser.apply(details.getStartingValue());
+                        T end = parser.apply(details.getEndingValue());
+                        if (start != null && end != null) {
+                            return path.between(start, end);
+                        } else if (start != null) {
+                            return path.goe(start);
+                        } else if (end != null) {
+                            return path.loe(end);
+                        }
+                    }
+                    return null;
+                }
+            );
+            return this;
+        }
+
+        public <T extends Comparable> Builder field(String name, ComparableExpression<T> path) {
+            Function<String, T> parser = comparableParser(path.getType());
+            sortKeys.put(name, SortKey.of(path, parser));
+            fields.put(
+                name,
+                details -> {
+                    String operator = details.getOperator();
+                    if ("equals".equals(operator) || "notEqual".equals(operator)) {
+                        T value = parser.apply(details.getSearchValue());
+                        if (value == null) {
+                            return null;
+                        }
+                        return "equals".equals(operator) ? path.eq(value) : path.ne(value);
+                    } else if ("range".equals(operator)) {
+                        T start = parser.apply(details.getStartingValue());
+                        T end = parser.apply(details.getEndingValue());
+                        if (start != null && end != null) {
+                            return path.between(start, end);
+                        } else if (end != null) {
+                            return path.loe(end);
+                        } else if (start != null) {
+                            return path.goe(start);
+                        }
+                    }
+                    return null;
+                }
+            );
+            return this;
+        }
+
+        /**
+         * Registers a join column, i.e. a key of {@link SearchCriteria#getJoinColumns()} that restricts the
+         * search to the rows related to a parent entity.
+         */
+        public <T> Builder joinColumn(String name, SimpleExpression<T> path) {
+            Function<String, T> converter = joinColumnConverter(path.getType());
+            joinColumns.put(name, value -> path.eq(converter.apply(value)));
+            return this;
+        }
+
+        public Builder cacheSize(int cacheSize) {
+            if (cacheSize < 1) {
+                throw new IllegalArgumentException("Cache size must not be less than one!");
+            }
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        public SearchPredicateCompiler build() {
+            return new SearchPredicateCompiler(this);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Function<String, T> numberParser(Class<? extends T> type) {
+            if (type == Integer.class) {
+                return value -> StringUtils.isNumeric(value) ? (T) Integer.valueOf(value) : null;
+            } else if (type == Long.class) {
+                return value -> StringUtils.isNumeric(value) ? (T) Long.valueOf(value) : null;
+            } else if (type == Short.class) {
+                return value -> StringUtils.isNumeric(value) ? (T) Short.valueOf(value) : null;
+            } else if (type == Double.class) {
+                return value -> NumberUtils.isCreatable(value) ? (T) Double.valueOf(value) : null;
+            } else if (type == Float.class) {
+                return value -> NumberUtils.isCreatable(value) ? (T) Float.valueOf(value) : null;
+            } else if (type == BigDecimal.class) {
+                return value -> NumberUtils.isCreatable(value) ? (T) new BigDecimal(value) : null;
+            }
+            throw new IllegalArgumentException("Unsupported search field type " + type.getName());
+        }
+
+        // Unlike the search parsers, accepts every value the field type can print, e.g. negative numbers.
+        @SuppressWarnings("unchecked")
+        private static <T> Function<String, T> exactNumberParser(Class<? extends T> type) {
+            Function<String, Object> parser;
+            if (type == Integer.class) {
+                parser = Integer::valueOf;
+            } else if (type == Long.class) {
+                parser = Long::valueOf;
+            } else if (type == Short.class) {
+                parser = Short::valueOf;
+            } else if (type == Double.class) {
+                parser = Double::valueOf;
+            } else if (type == Float.class) {
+                parser = Float::valueOf;
+            } else {
+                parser = BigDecimal::new;
+            }
+            return value -> {
+                try {
+                    return value == null ? null : (T) parser.apply(value);
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            };
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Function<String, T> comparableParser(Class<? extends T> type) {
+            if (type == LocalDate.class) {
+                return value -> value == null ? null : (T) SearchUtils.stringToLocalDate(value);
+            }
+            throw new IllegalArgumentException("Unsupported search field type " + type.getName());
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Function<String, T> joinColumnConverter(Class<? extends T> type) {
+            if (type == Integer.class) {
+                return value -> (T) Integer.valueOf(value);
+            } else if (type == Long.class) {
+                return value -> (T) Long.valueOf(value);
+            } else if (type == String.class) {
+                return value -> (T) value;
+            }
+            throw new IllegalArgumentException("Unsupported join column type " + type.getName());
+        }
+    }
+}
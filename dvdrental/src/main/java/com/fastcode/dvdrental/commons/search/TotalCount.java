@@ -0,0 +1,21 @@
+package com.fastcode.dvdrental.commons.search;
+
+/**
+ * Total row count a list endpoint reports in the {@value #HEADER} header when asked with
+ * {@code ?withTotal=exact|estimate}. List endpoints do not count rows otherwise.
+ */
+public enum TotalCount {
+    EXACT,
+    ESTIMATE;
+
+    public static final String HEADER = "X-Total-Count";
+
+    public static TotalCount fromString(String withTotal) throws Exception {
+        for (TotalCount totalCount : values()) {
+            if (totalCount.name().equalsIgnoreCase(withTotal)) {
+                return totalCount;
+            }
+        }
+        throw new Exception("Wrong URL Format: withTotal " + withTotal + " is not one of exact, estimate!");
+    }
+}
@@ -0,0 +1,169 @@
+package com.fastcode.dvdrental.domain.core.abstractentity;
+
+import com.fastcode.dvdrental.commons.search.SearchPredicateCompiler;
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.types.EntityPath;
+import com.querydsl.core.types.Expression;
+import com.querydsl.core.types.FactoryExpression;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberExpression;
+import com.querydsl.core.types.dsl.PathBuilder;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.impl.JPAQuery;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.PersistenceException;
+import org.hibernate.dialect.PostgreSQL81Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.QueryHints;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.Querydsl;
+
+/**
+ * Base of the custom repository fragments that read rows straight into output DTOs or entities.
+ *
+ * The queries select only the columns of the given projection, so no managed entity, snapshot for dirty
+ * checking or eager association is loaded unless the projection is the entity itself. Pages are read as
+ * slices: one row more than the page size is fetched to tell whether a next page exists, and no count
+ * query is issued.
+ */
+public abstract class ProjectionRepositorySupport<E> {
+
+    @PersistenceContext
+    protected EntityManager entityManager;
+
+    public static final int STREAM_FETCH_SIZE = 1000;
+
+    private final EntityPath<E> entityPath;
+    private final PathBuilder<E> pathBuilder;
+
+    protected ProjectionRepositorySupport(EntityPath<E> entityPath) {
+        this.entityPath = entityPath;
+        this.pathBuilder = new PathBuilder<>(entityPath.getType(), entityPath.getMetadata());
+    }
+
+    protected <T> Slice<T> findSlice(Expression<T> projection, Predicate predicate, Pageable pageable) {
+        return findSlice(projection, predicate, null, pageable);
+    }
+
+    /**
+     * Reads a slice that may be sorted by the {@value SearchPredicateCompiler#RANK_PROPERTY} of the rows,
+     * given by the search predicate compiler. The property is ignored when there is no rank.
+     */
+    protected <T> Slice<T> findSlice(
+        Expression<T> projection,
+        Predicate predicate,
+        NumberExpression<Double> rank,
+        Pageable pageable
+    ) {
+        JPQLQuery<T> query = select(projection, predicate);
+        applySorting(query, pageable.getSort(), rank);
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(query.fetch(), pageable, false);
+        }
+
+        List<T> content = query.offset(pageable.getOffset()).limit(pageable.getPageSize() + 1L).fetch();
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = new ArrayList<>(content.subList(0, pageable.getPageSize()));
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    /**
+     * Streams every matching row through a forward-only, read-only cursor that fetches
+     * {@value #STREAM_FETCH_SIZE} rows per round trip, so the rows are never all held in memory. The
+     * stream must be consumed and closed inside a transaction, which keeps the cursor open on Postgres.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> Stream<T> stream(Expression<T> projection, Predicate predicate, Sort sort) {
+        JPAQuery<T> query = select(projection, predicate);
+        applySorting(query, sort, null);
+        Stream<Object> rows = query
+            .createQuery()
+            .setHint(QueryHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+            .setHint(QueryHints.HINT_READONLY, true)
+            .getResultStream();
+        if (!(projection instanceof FactoryExpression)) {
+            return (Stream<T>) rows;
+        }
+        // Hibernate streams scroll past the result transformer that builds the projected DTOs
+        FactoryExpression<T> factory = (FactoryExpression<T>) projection;
+        return rows.map(row -> row instanceof Object[] ? factory.newInstance((Object[]) row) : (T) row);
+    }
+
+    protected <T> T findOne(Expression<T> projection, Predicate predicate) {
+        return select(projection, predicate).fetchOne();
+    }
+
+    protected <T> List<T> findAll(Expression<T> projection, Predicate predicate) {
+        return select(projection, predicate).fetch();
+    }
+
+    /**
+     * Returns the number of rows matching the predicate, estimated from the Postgres planner statistics
+     * when the predicate is empty. Filtered counts, tables that were never analyzed and other databases
+     * fall back to an exact count.
+     */
+    public long estimateCount(Predicate predicate) {
+        if (isEmpty(predicate)) {
+            Long estimate = plannerEstimate();
+            if (estimate != null) {
+                return estimate;
+            }
+        }
+        return select(entityPath, predicate).fetchCount();
+    }
+
+    private Long plannerEstimate() {
+        SessionFactoryImplementor sessionFactory = entityManager
+            .getEntityManagerFactory()
+            .unwrap(SessionFactoryImplementor.class);
+        if (!(sessionFactory.getJdbcServices().getDialect() instanceof PostgreSQL81Dialect)) {
+            return null;
+        }
+
+        String tableName =
+            ((AbstractEntityPersister) sessionFactory.getMetamodel().entityPersister(entityPath.getType())).getTableName();
+        try {
+            Number estimate = (Number) entityManager
+                .createNativeQuery("SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = to_regclass(:tableName)")
+                .setParameter("tableName", tableName)
+                .getSingleResult();
+            // Tables that were never analyzed have -1 tuples since Postgres 14 and 0 before, as do empty ones
+            return estimate != null && estimate.longValue() > 0 ? estimate.longValue() : null;
+        } catch (PersistenceException e) {
+            return null;
+        }
+    }
+
+    private static boolean isEmpty(Predicate predicate) {
+        return predicate == null || (predicate instanceof BooleanBuilder && !((BooleanBuilder) predicate).hasValue());
+    }
+
+    private void applySorting(JPQLQuery<?> query, Sort sort, NumberExpression<Double> rank) {
+        Querydsl querydsl = new Querydsl(entityManager, pathBuilder);
+        for (Sort.Order order : sort) {
+            if (!SearchPredicateCompiler.RANK_PROPERTY.equals(order.getProperty())) {
+                querydsl.applySorting(Sort.by(order), query);
+            } else if (rank != null) {
+                query.orderBy(order.isAscending() ? rank.asc() : rank.desc());
+            }
+        }
+    }
+
+    private <T> JPAQuery<T> select(Expression<T> projection, Predicate predicate) {
+        JPAQuery<T> query = new JPAQuery<E>(entityManager).select(projection).from(entityPath);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return query;
+    }
+}
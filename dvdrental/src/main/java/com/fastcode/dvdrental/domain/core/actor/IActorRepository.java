@@ -9,4 +9,5 @@ import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("actorRepository")
-public interface IActorRepository extends JpaRepository<ActorEntity, Integer>, QuerydslPredicateExecutor<ActorEntity> {}
+public interface IActorRepository
+    extends JpaRepository<ActorEntity, Integer>, QuerydslPredicateExecutor<ActorEntity>, IActorRepositoryCustom {}
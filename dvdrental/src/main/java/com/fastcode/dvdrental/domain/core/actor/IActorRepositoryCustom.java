@@ -0,0 +1,23 @@
+package com.fastcode.dvdrental.domain.core.actor;
+
+import com.fastcode.dvdrental.application.core.actor.dto.FindActorByIdOutput;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberExpression;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+public interface IActorRepositoryCustom {
+    Slice<FindActorByIdOutput> findAllProjected(Predicate predicate, NumberExpression<Double> rank, Pageable pageable);
+
+    FindActorByIdOutput findProjectedById(Integer actorId);
+
+    List<FindActorByIdOutput> findProjectedByIds(Collection<Integer> actorIds);
+
+    Stream<FindActorByIdOutput> streamProjected(Predicate predicate, Sort sort);
+
+    long estimateCount(Predicate predicate);
+}
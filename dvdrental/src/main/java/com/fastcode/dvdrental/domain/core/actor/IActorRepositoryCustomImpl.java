@@ -0,0 +1,59 @@
+package com.fastcode.dvdrental.domain.core.actor;
+
+import com.fastcode.dvdrental.application.core.actor.dto.FindActorByIdOutput;
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QBean;
+import com.querydsl.core.types.dsl.NumberExpression;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+@Repository("actorRepositoryCustomImpl")
+public class IActorRepositoryCustomImpl
+    extends ProjectionRepositorySupport<ActorEntity>
+    implements IActorRepositoryCustom {
+
+    protected static final QActorEntity actor = QActorEntity.actorEntity;
+
+    protected static final QBean<FindActorByIdOutput> findActorByIdOutput = Projections.bean(
+        FindActorByIdOutput.class,
+        actor.actorId,
+        actor.firstName,
+        actor.lastName,
+        actor.versiono
+    );
+
+    public IActorRepositoryCustomImpl() {
+        super(actor);
+    }
+
+    @Override
+    public Slice<FindActorByIdOutput> findAllProjected(
+        Predicate predicate,
+        NumberExpression<Double> rank,
+        Pageable pageable
+    ) {
+        return findSlice(findActorByIdOutput, predicate, rank, pageable);
+    }
+
+    @Override
+    public FindActorByIdOutput findProjectedById(Integer actorId) {
+        return findOne(findActorByIdOutput, actor.actorId.eq(actorId));
+    }
+
+    @Override
+    public List<FindActorByIdOutput> findProjectedByIds(Collection<Integer> actorIds) {
+        return findAll(findActorByIdOutput, actor.actorId.in(actorIds));
+    }
+
+    @Override
+    public Stream<FindActorByIdOutput> streamProjected(Predicate predicate, Sort sort) {
+        return stream(findActorByIdOutput, predicate, sort);
+    }
+}
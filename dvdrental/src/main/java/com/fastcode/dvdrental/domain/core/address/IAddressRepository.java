@@ -10,4 +10,4 @@ import org.springframework.stereotype.Repository;
 @JaversSpringDataAuditable
 @Repository("addressRepository")
 public interface IAddressRepository
-    extends JpaRepository<AddressEntity, Integer>, QuerydslPredicateExecutor<AddressEntity> {}
+    extends JpaRepository<AddressEntity, Integer>, QuerydslPredicateExecutor<AddressEntity>, IAddressRepositoryCustom {}
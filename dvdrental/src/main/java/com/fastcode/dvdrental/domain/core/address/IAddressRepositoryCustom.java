@@ -0,0 +1,22 @@
+package com.fastcode.dvdrental.domain.core.address;
+
+import com.fastcode.dvdrental.application.core.address.dto.FindAddressByIdOutput;
+import com.querydsl.core.types.Predicate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+public interface IAddressRepositoryCustom {
+    Slice<FindAddressByIdOutput> findAllProjected(Predicate predicate, Pageable pageable);
+
+    FindAddressByIdOutput findProjectedById(Integer addressId);
+
+    List<FindAddressByIdOutput> findProjectedByIds(Collection<Integer> addressIds);
+
+    Stream<FindAddressByIdOutput> streamProjected(Predicate predicate, Sort sort);
+
+    long estimateCount(Predicate predicate);
+}
@@ -0,0 +1,59 @@
+package com.fastcode.dvdrental.domain.core.address;
+
+import com.fastcode.dvdrental.application.core.address.dto.FindAddressByIdOutput;
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QBean;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+@Repository("addressRepositoryCustomImpl")
+public class IAddressRepositoryCustomImpl
+    extends ProjectionRepositorySupport<AddressEntity>
+    implements IAddressRepositoryCustom {
+
+    protected static final QAddressEntity address = QAddressEntity.addressEntity;
+
+    protected static final QBean<FindAddressByIdOutput> findAddressByIdOutput = Projections.bean(
+        FindAddressByIdOutput.class,
+        address.address,
+        address.address2,
+        address.addressId,
+        address.district,
+        address.phone,
+        address.postalCode,
+        address.city.cityId.as("cityId"),
+        address.city.cityId.as("cityDescriptiveField"),
+        address.versiono
+    );
+
+    public IAddressRepositoryCustomImpl() {
+        super(address);
+    }
+
+    @Override
+    public Slice<FindAddressByIdOutput> findAllProjected(Predicate predicate, Pageable pageable) {
+        return findSlice(findAddressByIdOutput, predicate, pageable);
+    }
+
+    @Override
+    public FindAddressByIdOutput findProjectedById(Integer addressId) {
+        return findOne(findAddressByIdOutput, address.addressId.eq(addressId));
+    }
+
+    @Override
+    public List<FindAddressByIdOutput> findProjectedByIds(Collection<Integer> addressIds) {
+        return findAll(findAddressByIdOutput, address.addressId.in(addressIds));
+    }
+
+    @Override
+    public Stream<FindAddressByIdOutput> streamProjected(Predicate predicate, Sort sort) {
+        return stream(findAddressByIdOutput, predicate, sort);
+    }
+}
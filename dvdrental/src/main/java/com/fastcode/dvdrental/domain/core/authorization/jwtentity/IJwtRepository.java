@@ -1,11 +1,32 @@
 package com.fastcode.dvdrental.domain.core.authorization.jwtentity;
 
+import java.util.Date;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface IJwtRepository extends JpaRepository<JwtEntity, Long> {
-    JwtEntity findByAuthorizationTokenAndAuthenticationToken(String authorizationToken, String authenticationToken);
+    JwtEntity findByAuthorizationTokenHashAndAuthenticationTokenHash(
+        String authorizationTokenHash,
+        String authenticationTokenHash
+    );
 
-    JwtEntity findByAuthorizationToken(String authorizationToken);
+    @Modifying
+    @Query("delete from JwtEntity j where j.authorizationTokenHash = ?1")
+    int deleteByAuthorizationTokenHash(String authorizationTokenHash);
+
+    @Modifying
+    @Query("delete from JwtEntity j where j.userName = ?1")
+    int deleteByUserName(String userName);
+
+    @Query("select j.id from JwtEntity j where j.expiresAt < ?1 order by j.expiresAt")
+    List<Long> findExpiredIds(Date now, Pageable pageable);
+
+    @Modifying
+    @Query("delete from JwtEntity j where j.id in ?1")
+    int deleteByIdIn(List<Long> ids);
 }
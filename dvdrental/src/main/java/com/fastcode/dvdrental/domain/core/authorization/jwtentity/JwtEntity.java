@@ -2,6 +2,7 @@ package com.fastcode.dvdrental.domain.core.authorization.jwtentity;
 
 import com.fastcode.dvdrental.domain.core.abstractentity.AbstractEntity;
 import java.time.*;
+import java.util.Date;
 import javax.persistence.*;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -17,8 +18,8 @@ import lombok.Setter;
 public class JwtEntity extends AbstractEntity {
 
     @Basic
-    @Column(name = "authorization_token", nullable = false)
-    private String authorizationToken;
+    @Column(name = "authorization_token_hash", nullable = false, length = 64)
+    private String authorizationTokenHash;
 
     @Id
     @EqualsAndHashCode.Include
@@ -31,6 +32,10 @@ public class JwtEntity extends AbstractEntity {
     private String userName;
 
     @Basic
-    @Column(name = "authentication_token", nullable = true)
-    private String authenticationToken;
+    @Column(name = "authentication_token_hash", nullable = true, length = 64)
+    private String authenticationTokenHash;
+
+    @Basic
+    @Column(name = "expires_at", nullable = false)
+    private Date expiresAt;
 }
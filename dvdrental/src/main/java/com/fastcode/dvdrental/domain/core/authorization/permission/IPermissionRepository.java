@@ -11,7 +11,21 @@ import org.springframework.stereotype.Repository;
 @JaversSpringDataAuditable
 @Repository("permissionRepository")
 public interface IPermissionRepository
-    extends JpaRepository<PermissionEntity, Long>, QuerydslPredicateExecutor<PermissionEntity> {
+    extends
+        JpaRepository<PermissionEntity, Long>,
+        QuerydslPredicateExecutor<PermissionEntity>,
+        IPermissionRepositoryCustom {
     @Query("select u from PermissionEntity u where u.name = ?1")
     PermissionEntity findByPermissionName(String value);
+
+    @Query(
+        "select p.name from PermissionEntity p left join p.userpermissionsSet up on up.userId = ?1 " +
+        "where (up.userId is null and exists (select rp from RolepermissionEntity rp, UserroleEntity ur " +
+        "where rp.permissionId = p.id and ur.roleId = rp.roleId and ur.userId = ?1)) " +
+        "or (up.userId is not null and (up.revoked is null or up.revoked = false))"
+    )
+    List<String> findEffectivePermissionNamesByUserId(Long userId);
+
+    @Query("select p.name from PermissionEntity p order by p.id")
+    List<String> findAllPermissionNames();
 }
@@ -0,0 +1,24 @@
+package com.fastcode.dvdrental.domain.core.authorization.permission;
+
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Repository;
+
+@Repository("permissionRepositoryCustomImpl")
+public class IPermissionRepositoryCustomImpl
+    extends ProjectionRepositorySupport<PermissionEntity>
+    implements IPermissionRepositoryCustom {
+
+    protected static final QPermissionEntity permission = QPermissionEntity.permissionEntity;
+
+    public IPermissionRepositoryCustomImpl() {
+        super(permission);
+    }
+
+    @Override
+    public Slice<PermissionEntity> findSlice(Predicate predicate, Pageable pageable) {
+        return findSlice(permission, predicate, pageable);
+    }
+}
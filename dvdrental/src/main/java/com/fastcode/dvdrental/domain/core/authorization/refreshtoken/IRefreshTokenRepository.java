@@ -0,0 +1,29 @@
+package com.fastcode.dvdrental.domain.core.authorization.refreshtoken;
+
+import java.util.Date;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IRefreshTokenRepository extends JpaRepository<RefreshTokenEntity, Long> {
+    boolean existsByTokenHash(String tokenHash);
+
+    @Modifying
+    @Query("delete from RefreshTokenEntity r where r.tokenHash = ?1")
+    int deleteByTokenHash(String tokenHash);
+
+    @Modifying
+    @Query("delete from RefreshTokenEntity r where r.userName = ?1")
+    int deleteByUserName(String userName);
+
+    @Query("select r.id from RefreshTokenEntity r where r.expiresAt < ?1 order by r.expiresAt")
+    List<Long> findExpiredIds(Date now, Pageable pageable);
+
+    @Modifying
+    @Query("delete from RefreshTokenEntity r where r.id in ?1")
+    int deleteByIdIn(List<Long> ids);
+}
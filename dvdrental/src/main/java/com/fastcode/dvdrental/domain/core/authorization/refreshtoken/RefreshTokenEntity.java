@@ -0,0 +1,36 @@
+package com.fastcode.dvdrental.domain.core.authorization.refreshtoken;
+
+import com.fastcode.dvdrental.domain.core.abstractentity.AbstractEntity;
+import java.util.Date;
+import javax.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Table(name = "refresh_token")
+@Getter
+@Setter
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+@NoArgsConstructor
+public class RefreshTokenEntity extends AbstractEntity {
+
+    @Id
+    @EqualsAndHashCode.Include
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Basic
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    @Basic
+    @Column(name = "user_name", nullable = false, length = 32)
+    private String userName;
+
+    @Basic
+    @Column(name = "expires_at", nullable = false)
+    private Date expiresAt;
+}
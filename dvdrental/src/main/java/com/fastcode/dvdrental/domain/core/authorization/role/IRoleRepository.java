@@ -10,7 +10,8 @@ import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("roleRepository")
-public interface IRoleRepository extends JpaRepository<RoleEntity, Long>, QuerydslPredicateExecutor<RoleEntity> {
+public interface IRoleRepository
+    extends JpaRepository<RoleEntity, Long>, QuerydslPredicateExecutor<RoleEntity>, IRoleRepositoryCustom {
     @Query("select u from RoleEntity u where u.name = ?1")
     RoleEntity findByRoleName(String value);
 }
@@ -0,0 +1,24 @@
+package com.fastcode.dvdrental.domain.core.authorization.role;
+
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Repository;
+
+@Repository("roleRepositoryCustomImpl")
+public class IRoleRepositoryCustomImpl
+    extends ProjectionRepositorySupport<RoleEntity>
+    implements IRoleRepositoryCustom {
+
+    protected static final QRoleEntity role = QRoleEntity.roleEntity;
+
+    public IRoleRepositoryCustomImpl() {
+        super(role);
+    }
+
+    @Override
+    public Slice<RoleEntity> findSlice(Predicate predicate, Pageable pageable) {
+        return findSlice(role, predicate, pageable);
+    }
+}
@@ -10,6 +10,9 @@ import org.springframework.stereotype.Repository;
 @JaversSpringDataAuditable
 @Repository("rolepermissionRepository")
 public interface IRolepermissionRepository
-    extends JpaRepository<RolepermissionEntity, RolepermissionId>, QuerydslPredicateExecutor<RolepermissionEntity> {
+    extends
+        JpaRepository<RolepermissionEntity, RolepermissionId>,
+        QuerydslPredicateExecutor<RolepermissionEntity>,
+        IRolepermissionRepositoryCustom {
     List<RolepermissionEntity> findByRoleId(Long value);
 }
@@ -0,0 +1,24 @@
+package com.fastcode.dvdrental.domain.core.authorization.rolepermission;
+
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Repository;
+
+@Repository("rolepermissionRepositoryCustomImpl")
+public class IRolepermissionRepositoryCustomImpl
+    extends ProjectionRepositorySupport<RolepermissionEntity>
+    implements IRolepermissionRepositoryCustom {
+
+    protected static final QRolepermissionEntity rolepermission = QRolepermissionEntity.rolepermissionEntity;
+
+    public IRolepermissionRepositoryCustomImpl() {
+        super(rolepermission);
+    }
+
+    @Override
+    public Slice<RolepermissionEntity> findSlice(Predicate predicate, Pageable pageable) {
+        return findSlice(rolepermission, predicate, pageable);
+    }
+}
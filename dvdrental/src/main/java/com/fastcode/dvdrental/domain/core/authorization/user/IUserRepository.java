@@ -10,7 +10,8 @@ import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("userRepository")
-public interface IUserRepository extends JpaRepository<UserEntity, Long>, QuerydslPredicateExecutor<UserEntity> {
+public interface IUserRepository
+    extends JpaRepository<UserEntity, Long>, QuerydslPredicateExecutor<UserEntity>, IUserRepositoryCustom {
     @Query("select u from UserEntity u where u.userName = ?1")
     UserEntity findByUserName(String value);
 
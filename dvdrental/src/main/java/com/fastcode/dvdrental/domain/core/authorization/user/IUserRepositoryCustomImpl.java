@@ -0,0 +1,24 @@
+package com.fastcode.dvdrental.domain.core.authorization.user;
+
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Repository;
+
+@Repository("userRepositoryCustomImpl")
+public class IUserRepositoryCustomImpl
+    extends ProjectionRepositorySupport<UserEntity>
+    implements IUserRepositoryCustom {
+
+    protected static final QUserEntity user = QUserEntity.userEntity;
+
+    public IUserRepositoryCustomImpl() {
+        super(user);
+    }
+
+    @Override
+    public Slice<UserEntity> findSlice(Predicate predicate, Pageable pageable) {
+        return findSlice(user, predicate, pageable);
+    }
+}
@@ -10,6 +10,9 @@ import org.springframework.stereotype.Repository;
 @JaversSpringDataAuditable
 @Repository("userpermissionRepository")
 public interface IUserpermissionRepository
-    extends JpaRepository<UserpermissionEntity, UserpermissionId>, QuerydslPredicateExecutor<UserpermissionEntity> {
+    extends
+        JpaRepository<UserpermissionEntity, UserpermissionId>,
+        QuerydslPredicateExecutor<UserpermissionEntity>,
+        IUserpermissionRepositoryCustom {
     List<UserpermissionEntity> findByUserId(Long userId);
 }
@@ -0,0 +1,11 @@
+package com.fastcode.dvdrental.domain.core.authorization.userpermission;
+
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+public interface IUserpermissionRepositoryCustom {
+    Slice<UserpermissionEntity> findSlice(Predicate predicate, Pageable pageable);
+
+    long estimateCount(Predicate predicate);
+}
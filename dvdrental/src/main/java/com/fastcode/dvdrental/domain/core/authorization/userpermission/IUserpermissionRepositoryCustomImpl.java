@@ -0,0 +1,24 @@
+package com.fastcode.dvdrental.domain.core.authorization.userpermission;
+
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Repository;
+
+@Repository("userpermissionRepositoryCustomImpl")
+public class IUserpermissionRepositoryCustomImpl
+    extends ProjectionRepositorySupport<UserpermissionEntity>
+    implements IUserpermissionRepositoryCustom {
+
+    protected static final QUserpermissionEntity userpermission = QUserpermissionEntity.userpermissionEntity;
+
+    public IUserpermissionRepositoryCustomImpl() {
+        super(userpermission);
+    }
+
+    @Override
+    public Slice<UserpermissionEntity> findSlice(Predicate predicate, Pageable pageable) {
+        return findSlice(userpermission, predicate, pageable);
+    }
+}
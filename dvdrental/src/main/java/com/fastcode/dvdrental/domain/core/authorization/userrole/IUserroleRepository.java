@@ -10,7 +10,10 @@ import org.springframework.stereotype.Repository;
 @JaversSpringDataAuditable
 @Repository("userroleRepository")
 public interface IUserroleRepository
-    extends JpaRepository<UserroleEntity, UserroleId>, QuerydslPredicateExecutor<UserroleEntity> {
+    extends
+        JpaRepository<UserroleEntity, UserroleId>,
+        QuerydslPredicateExecutor<UserroleEntity>,
+        IUserroleRepositoryCustom {
     List<UserroleEntity> findByUserId(Long userId);
 
     List<UserroleEntity> findByRoleId(Long roleId);
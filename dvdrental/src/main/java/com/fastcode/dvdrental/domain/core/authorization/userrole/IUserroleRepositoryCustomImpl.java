@@ -0,0 +1,24 @@
+package com.fastcode.dvdrental.domain.core.authorization.userrole;
+
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Repository;
+
+@Repository("userroleRepositoryCustomImpl")
+public class IUserroleRepositoryCustomImpl
+    extends ProjectionRepositorySupport<UserroleEntity>
+    implements IUserroleRepositoryCustom {
+
+    protected static final QUserroleEntity userrole = QUserroleEntity.userroleEntity;
+
+    public IUserroleRepositoryCustomImpl() {
+        super(userrole);
+    }
+
+    @Override
+    public Slice<UserroleEntity> findSlice(Predicate predicate, Pageable pageable) {
+        return findSlice(userrole, predicate, pageable);
+    }
+}
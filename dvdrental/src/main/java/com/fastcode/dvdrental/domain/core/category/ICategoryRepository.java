@@ -10,4 +10,7 @@ import org.springframework.stereotype.Repository;
 @JaversSpringDataAuditable
 @Repository("categoryRepository")
 public interface ICategoryRepository
-    extends JpaRepository<CategoryEntity, Integer>, QuerydslPredicateExecutor<CategoryEntity> {}
+    extends
+        JpaRepository<CategoryEntity, Integer>,
+        QuerydslPredicateExecutor<CategoryEntity>,
+        ICategoryRepositoryCustom {}
@@ -0,0 +1,22 @@
+package com.fastcode.dvdrental.domain.core.category;
+
+import com.fastcode.dvdrental.application.core.category.dto.FindCategoryByIdOutput;
+import com.querydsl.core.types.Predicate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+public interface ICategoryRepositoryCustom {
+    Slice<FindCategoryByIdOutput> findAllProjected(Predicate predicate, Pageable pageable);
+
+    FindCategoryByIdOutput findProjectedById(Integer categoryId);
+
+    List<FindCategoryByIdOutput> findProjectedByIds(Collection<Integer> categoryIds);
+
+    Stream<FindCategoryByIdOutput> streamProjected(Predicate predicate, Sort sort);
+
+    long estimateCount(Predicate predicate);
+}
@@ -0,0 +1,53 @@
+package com.fastcode.dvdrental.domain.core.category;
+
+import com.fastcode.dvdrental.application.core.category.dto.FindCategoryByIdOutput;
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QBean;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+@Repository("categoryRepositoryCustomImpl")
+public class ICategoryRepositoryCustomImpl
+    extends ProjectionRepositorySupport<CategoryEntity>
+    implements ICategoryRepositoryCustom {
+
+    protected static final QCategoryEntity category = QCategoryEntity.categoryEntity;
+
+    protected static final QBean<FindCategoryByIdOutput> findCategoryByIdOutput = Projections.bean(
+        FindCategoryByIdOutput.class,
+        category.categoryId,
+        category.name,
+        category.versiono
+    );
+
+    public ICategoryRepositoryCustomImpl() {
+        super(category);
+    }
+
+    @Override
+    public Slice<FindCategoryByIdOutput> findAllProjected(Predicate predicate, Pageable pageable) {
+        return findSlice(findCategoryByIdOutput, predicate, pageable);
+    }
+
+    @Override
+    public FindCategoryByIdOutput findProjectedById(Integer categoryId) {
+        return findOne(findCategoryByIdOutput, category.categoryId.eq(categoryId));
+    }
+
+    @Override
+    public List<FindCategoryByIdOutput> findProjectedByIds(Collection<Integer> categoryIds) {
+        return findAll(findCategoryByIdOutput, category.categoryId.in(categoryIds));
+    }
+
+    @Override
+    public Stream<FindCategoryByIdOutput> streamProjected(Predicate predicate, Sort sort) {
+        return stream(findCategoryByIdOutput, predicate, sort);
+    }
+}
@@ -9,4 +9,5 @@ import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("cityRepository")
-public interface ICityRepository extends JpaRepository<CityEntity, Integer>, QuerydslPredicateExecutor<CityEntity> {}
+public interface ICityRepository
+    extends JpaRepository<CityEntity, Integer>, QuerydslPredicateExecutor<CityEntity>, ICityRepositoryCustom {}
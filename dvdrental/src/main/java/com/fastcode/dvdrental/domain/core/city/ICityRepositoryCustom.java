@@ -0,0 +1,22 @@
+package com.fastcode.dvdrental.domain.core.city;
+
+import com.fastcode.dvdrental.application.core.city.dto.FindCityByIdOutput;
+import com.querydsl.core.types.Predicate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+public interface ICityRepositoryCustom {
+    Slice<FindCityByIdOutput> findAllProjected(Predicate predicate, Pageable pageable);
+
+    FindCityByIdOutput findProjectedById(Integer cityId);
+
+    List<FindCityByIdOutput> findProjectedByIds(Collection<Integer> cityIds);
+
+    Stream<FindCityByIdOutput> streamProjected(Predicate predicate, Sort sort);
+
+    long estimateCount(Predicate predicate);
+}
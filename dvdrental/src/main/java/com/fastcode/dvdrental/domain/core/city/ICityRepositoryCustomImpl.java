@@ -0,0 +1,55 @@
+package com.fastcode.dvdrental.domain.core.city;
+
+import com.fastcode.dvdrental.application.core.city.dto.FindCityByIdOutput;
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QBean;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+@Repository("cityRepositoryCustomImpl")
+public class ICityRepositoryCustomImpl
+    extends ProjectionRepositorySupport<CityEntity>
+    implements ICityRepositoryCustom {
+
+    protected static final QCityEntity city = QCityEntity.cityEntity;
+
+    protected static final QBean<FindCityByIdOutput> findCityByIdOutput = Projections.bean(
+        FindCityByIdOutput.class,
+        city.city,
+        city.cityId,
+        city.country.countryId.as("countryId"),
+        city.country.countryId.as("countryDescriptiveField"),
+        city.versiono
+    );
+
+    public ICityRepositoryCustomImpl() {
+        super(city);
+    }
+
+    @Override
+    public Slice<FindCityByIdOutput> findAllProjected(Predicate predicate, Pageable pageable) {
+        return findSlice(findCityByIdOutput, predicate, pageable);
+    }
+
+    @Override
+    public FindCityByIdOutput findProjectedById(Integer cityId) {
+        return findOne(findCityByIdOutput, city.cityId.eq(cityId));
+    }
+
+    @Override
+    public List<FindCityByIdOutput> findProjectedByIds(Collection<Integer> cityIds) {
+        return findAll(findCityByIdOutput, city.cityId.in(cityIds));
+    }
+
+    @Override
+    public Stream<FindCityByIdOutput> streamProjected(Predicate predicate, Sort sort) {
+        return stream(findCityByIdOutput, predicate, sort);
+    }
+}
@@ -10,4 +10,4 @@ import org.springframework.stereotype.Repository;
 @JaversSpringDataAuditable
 @Repository("countryRepository")
 public interface ICountryRepository
-    extends JpaRepository<CountryEntity, Integer>, QuerydslPredicateExecutor<CountryEntity> {}
+    extends JpaRepository<CountryEntity, Integer>, QuerydslPredicateExecutor<CountryEntity>, ICountryRepositoryCustom {}
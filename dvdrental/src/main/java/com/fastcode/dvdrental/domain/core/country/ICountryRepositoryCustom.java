@@ -0,0 +1,22 @@
+package com.fastcode.dvdrental.domain.core.country;
+
+import com.fastcode.dvdrental.application.core.country.dto.FindCountryByIdOutput;
+import com.querydsl.core.types.Predicate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+public interface ICountryRepositoryCustom {
+    Slice<FindCountryByIdOutput> findAllProjected(Predicate predicate, Pageable pageable);
+
+    FindCountryByIdOutput findProjectedById(Integer countryId);
+
+    List<FindCountryByIdOutput> findProjectedByIds(Collection<Integer> countryIds);
+
+    Stream<FindCountryByIdOutput> streamProjected(Predicate predicate, Sort sort);
+
+    long estimateCount(Predicate predicate);
+}
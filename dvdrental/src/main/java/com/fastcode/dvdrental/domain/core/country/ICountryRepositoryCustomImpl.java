@@ -0,0 +1,53 @@
+package com.fastcode.dvdrental.domain.core.country;
+
+import com.fastcode.dvdrental.application.core.country.dto.FindCountryByIdOutput;
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QBean;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+@Repository("countryRepositoryCustomImpl")
+public class ICountryRepositoryCustomImpl
+    extends ProjectionRepositorySupport<CountryEntity>
+    implements ICountryRepositoryCustom {
+
+    protected static final QCountryEntity country = QCountryEntity.countryEntity;
+
+    protected static final QBean<FindCountryByIdOutput> findCountryByIdOutput = Projections.bean(
+        FindCountryByIdOutput.class,
+        country.country,
+        country.countryId,
+        country.versiono
+    );
+
+    public ICountryRepositoryCustomImpl() {
+        super(country);
+    }
+
+    @Override
+    public Slice<FindCountryByIdOutput> findAllProjected(Predicate predicate, Pageable pageable) {
+        return findSlice(findCountryByIdOutput, predicate, pageable);
+    }
+
+    @Override
+    public FindCountryByIdOutput findProjectedById(Integer countryId) {
+        return findOne(findCountryByIdOutput, country.countryId.eq(countryId));
+    }
+
+    @Override
+    public List<FindCountryByIdOutput> findProjectedByIds(Collection<Integer> countryIds) {
+        return findAll(findCountryByIdOutput, country.countryId.in(countryIds));
+    }
+
+    @Override
+    public Stream<FindCountryByIdOutput> streamProjected(Predicate predicate, Sort sort) {
+        return stream(findCountryByIdOutput, predicate, sort);
+    }
+}
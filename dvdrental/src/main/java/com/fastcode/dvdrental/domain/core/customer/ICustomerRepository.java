@@ -10,4 +10,7 @@ import org.springframework.stereotype.Repository;
 @JaversSpringDataAuditable
 @Repository("customerRepository")
 public interface ICustomerRepository
-    extends JpaRepository<CustomerEntity, Integer>, QuerydslPredicateExecutor<CustomerEntity> {}
+    extends
+        JpaRepository<CustomerEntity, Integer>,
+        QuerydslPredicateExecutor<CustomerEntity>,
+        ICustomerRepositoryCustom {}
@@ -0,0 +1,23 @@
+package com.fastcode.dvdrental.domain.core.customer;
+
+import com.fastcode.dvdrental.application.core.customer.dto.FindCustomerByIdOutput;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberExpression;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+public interface ICustomerRepositoryCustom {
+    Slice<FindCustomerByIdOutput> findAllProjected(Predicate predicate, NumberExpression<Double> rank, Pageable pageable);
+
+    FindCustomerByIdOutput findProjectedById(Integer customerId);
+
+    List<FindCustomerByIdOutput> findProjectedByIds(Collection<Integer> customerIds);
+
+    Stream<FindCustomerByIdOutput> streamProjected(Predicate predicate, Sort sort);
+
+    long estimateCount(Predicate predicate);
+}
@@ -0,0 +1,65 @@
+package com.fastcode.dvdrental.domain.core.customer;
+
+import com.fastcode.dvdrental.application.core.customer.dto.FindCustomerByIdOutput;
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QBean;
+import com.querydsl.core.types.dsl.NumberExpression;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+@Repository("customerRepositoryCustomImpl")
+public class ICustomerRepositoryCustomImpl
+    extends ProjectionRepositorySupport<CustomerEntity>
+    implements ICustomerRepositoryCustom {
+
+    protected static final QCustomerEntity customer = QCustomerEntity.customerEntity;
+
+    protected static final QBean<FindCustomerByIdOutput> findCustomerByIdOutput = Projections.bean(
+        FindCustomerByIdOutput.class,
+        customer.active,
+        customer.customerId,
+        customer.email,
+        customer.firstName,
+        customer.lastName,
+        customer.address.addressId.as("addressId"),
+        customer.address.addressId.as("addressDescriptiveField"),
+        customer.store.storeId.as("storeId"),
+        customer.store.storeId.as("storeDescriptiveField"),
+        customer.versiono
+    );
+
+    public ICustomerRepositoryCustomImpl() {
+        super(customer);
+    }
+
+    @Override
+    public Slice<FindCustomerByIdOutput> findAllProjected(
+        Predicate predicate,
+        NumberExpression<Double> rank,
+        Pageable pageable
+    ) {
+        return findSlice(findCustomerByIdOutput, predicate, rank, pageable);
+    }
+
+    @Override
+    public FindCustomerByIdOutput findProjectedById(Integer customerId) {
+        return findOne(findCustomerByIdOutput, customer.customerId.eq(customerId));
+    }
+
+    @Override
+    public List<FindCustomerByIdOutput> findProjectedByIds(Collection<Integer> customerIds) {
+        return findAll(findCustomerByIdOutput, customer.customerId.in(customerIds));
+    }
+
+    @Override
+    public Stream<FindCustomerByIdOutput> streamProjected(Predicate predicate, Sort sort) {
+        return stream(findCustomerByIdOutput, predicate, sort);
+    }
+}
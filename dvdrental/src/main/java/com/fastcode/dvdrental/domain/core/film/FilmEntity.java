@@ -60,6 +60,19 @@ public class FilmEntity extends AbstractEntity {
     @Column(name = "release_year", nullable = true)
     private Integer releaseYear;
 
+    /**
+     * The {@code tsvector} of title and description, maintained by the {@code film_fulltext_trigger} and
+     * only read by full text searches. The column definition is used by generated test schemas alone.
+     */
+    @Basic
+    @Column(
+        name = "fulltext",
+        insertable = false,
+        updatable = false,
+        columnDefinition = "varchar(511) as concat_ws(' ', title, description)"
+    )
+    private String fulltext;
+
     @ManyToOne
     @JoinColumn(name = "language_id")
     private LanguageEntity language;
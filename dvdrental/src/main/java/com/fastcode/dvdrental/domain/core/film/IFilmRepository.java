@@ -9,4 +9,5 @@ import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("filmRepository")
-public interface IFilmRepository extends JpaRepository<FilmEntity, Integer>, QuerydslPredicateExecutor<FilmEntity> {}
+public interface IFilmRepository
+    extends JpaRepository<FilmEntity, Integer>, QuerydslPredicateExecutor<FilmEntity>, IFilmRepositoryCustom {}
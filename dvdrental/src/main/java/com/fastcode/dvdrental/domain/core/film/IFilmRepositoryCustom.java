@@ -0,0 +1,23 @@
+package com.fastcode.dvdrental.domain.core.film;
+
+import com.fastcode.dvdrental.application.core.film.dto.FindFilmByIdOutput;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.dsl.NumberExpression;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+public interface IFilmRepositoryCustom {
+    Slice<FindFilmByIdOutput> findAllProjected(Predicate predicate, NumberExpression<Double> rank, Pageable pageable);
+
+    FindFilmByIdOutput findProjectedById(Integer filmId);
+
+    List<FindFilmByIdOutput> findProjectedByIds(Collection<Integer> filmIds);
+
+    Stream<FindFilmByIdOutput> streamProjected(Predicate predicate, Sort sort);
+
+    long estimateCount(Predicate predicate);
+}
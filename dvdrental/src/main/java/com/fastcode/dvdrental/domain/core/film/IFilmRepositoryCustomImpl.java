@@ -0,0 +1,67 @@
+package com.fastcode.dvdrental.domain.core.film;
+
+import com.fastcode.dvdrental.application.core.film.dto.FindFilmByIdOutput;
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QBean;
+import com.querydsl.core.types.dsl.NumberExpression;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+@Repository("filmRepositoryCustomImpl")
+public class IFilmRepositoryCustomImpl
+    extends ProjectionRepositorySupport<FilmEntity>
+    implements IFilmRepositoryCustom {
+
+    protected static final QFilmEntity film = QFilmEntity.filmEntity;
+
+    protected static final QBean<FindFilmByIdOutput> findFilmByIdOutput = Projections.bean(
+        FindFilmByIdOutput.class,
+        film.description,
+        film.filmId,
+        film.length,
+        film.rating,
+        film.releaseYear,
+        film.rentalDuration,
+        film.rentalRate,
+        film.replacementCost,
+        film.title,
+        film.language.languageId.as("languageId"),
+        film.language.languageId.as("languageDescriptiveField"),
+        film.versiono
+    );
+
+    public IFilmRepositoryCustomImpl() {
+        super(film);
+    }
+
+    @Override
+    public Slice<FindFilmByIdOutput> findAllProjected(
+        Predicate predicate,
+        NumberExpression<Double> rank,
+        Pageable pageable
+    ) {
+        return findSlice(findFilmByIdOutput, predicate, rank, pageable);
+    }
+
+    @Override
+    public FindFilmByIdOutput findProjectedById(Integer filmId) {
+        return findOne(findFilmByIdOutput, film.filmId.eq(filmId));
+    }
+
+    @Override
+    public List<FindFilmByIdOutput> findProjectedByIds(Collection<Integer> filmIds) {
+        return findAll(findFilmByIdOutput, film.filmId.in(filmIds));
+    }
+
+    @Override
+    public Stream<FindFilmByIdOutput> streamProjected(Predicate predicate, Sort sort) {
+        return stream(findFilmByIdOutput, predicate, sort);
+    }
+}
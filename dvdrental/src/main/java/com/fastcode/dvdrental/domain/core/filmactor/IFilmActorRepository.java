@@ -10,4 +10,7 @@ import org.springframework.stereotype.Repository;
 @JaversSpringDataAuditable
 @Repository("filmActorRepository")
 public interface IFilmActorRepository
-    extends JpaRepository<FilmActorEntity, FilmActorId>, QuerydslPredicateExecutor<FilmActorEntity> {}
+    extends
+        JpaRepository<FilmActorEntity, FilmActorId>,
+        QuerydslPredicateExecutor<FilmActorEntity>,
+        IFilmActorRepositoryCustom {}
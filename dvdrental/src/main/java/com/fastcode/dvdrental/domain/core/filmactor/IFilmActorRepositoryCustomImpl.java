@@ -0,0 +1,24 @@
+package com.fastcode.dvdrental.domain.core.filmactor;
+
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Repository;
+
+@Repository("filmActorRepositoryCustomImpl")
+public class IFilmActorRepositoryCustomImpl
+    extends ProjectionRepositorySupport<FilmActorEntity>
+    implements IFilmActorRepositoryCustom {
+
+    protected static final QFilmActorEntity filmActor = QFilmActorEntity.filmActorEntity;
+
+    public IFilmActorRepositoryCustomImpl() {
+        super(filmActor);
+    }
+
+    @Override
+    public Slice<FilmActorEntity> findSlice(Predicate predicate, Pageable pageable) {
+        return findSlice(filmActor, predicate, pageable);
+    }
+}
@@ -10,4 +10,7 @@ import org.springframework.stereotype.Repository;
 @JaversSpringDataAuditable
 @Repository("filmCategoryRepository")
 public interface IFilmCategoryRepository
-    extends JpaRepository<FilmCategoryEntity, FilmCategoryId>, QuerydslPredicateExecutor<FilmCategoryEntity> {}
+    extends
+        JpaRepository<FilmCategoryEntity, FilmCategoryId>,
+        QuerydslPredicateExecutor<FilmCategoryEntity>,
+        IFilmCategoryRepositoryCustom {}
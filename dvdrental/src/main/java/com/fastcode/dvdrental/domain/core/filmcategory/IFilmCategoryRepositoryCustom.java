@@ -0,0 +1,11 @@
+package com.fastcode.dvdrental.domain.core.filmcategory;
+
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+public interface IFilmCategoryRepositoryCustom {
+    Slice<FilmCategoryEntity> findSlice(Predicate predicate, Pageable pageable);
+
+    long estimateCount(Predicate predicate);
+}
@@ -0,0 +1,24 @@
+package com.fastcode.dvdrental.domain.core.filmcategory;
+
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Repository;
+
+@Repository("filmCategoryRepositoryCustomImpl")
+public class IFilmCategoryRepositoryCustomImpl
+    extends ProjectionRepositorySupport<FilmCategoryEntity>
+    implements IFilmCategoryRepositoryCustom {
+
+    protected static final QFilmCategoryEntity filmCategory = QFilmCategoryEntity.filmCategoryEntity;
+
+    public IFilmCategoryRepositoryCustomImpl() {
+        super(filmCategory);
+    }
+
+    @Override
+    public Slice<FilmCategoryEntity> findSlice(Predicate predicate, Pageable pageable) {
+        return findSlice(filmCategory, predicate, pageable);
+    }
+}
@@ -10,4 +10,7 @@ import org.springframework.stereotype.Repository;
 @JaversSpringDataAuditable
 @Repository("inventoryRepository")
 public interface IInventoryRepository
-    extends JpaRepository<InventoryEntity, Integer>, QuerydslPredicateExecutor<InventoryEntity> {}
+    extends
+        JpaRepository<InventoryEntity, Integer>,
+        QuerydslPredicateExecutor<InventoryEntity>,
+        IInventoryRepositoryCustom {}
@@ -0,0 +1,22 @@
+package com.fastcode.dvdrental.domain.core.inventory;
+
+import com.fastcode.dvdrental.application.core.inventory.dto.FindInventoryByIdOutput;
+import com.querydsl.core.types.Predicate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+public interface IInventoryRepositoryCustom {
+    Slice<FindInventoryByIdOutput> findAllProjected(Predicate predicate, Pageable pageable);
+
+    FindInventoryByIdOutput findProjectedById(Integer inventoryId);
+
+    List<FindInventoryByIdOutput> findProjectedByIds(Collection<Integer> inventoryIds);
+
+    Stream<FindInventoryByIdOutput> streamProjected(Predicate predicate, Sort sort);
+
+    long estimateCount(Predicate predicate);
+}
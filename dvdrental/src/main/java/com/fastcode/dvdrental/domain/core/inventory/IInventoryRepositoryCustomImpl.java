@@ -0,0 +1,56 @@
+package com.fastcode.dvdrental.domain.core.inventory;
+
+import com.fastcode.dvdrental.application.core.inventory.dto.FindInventoryByIdOutput;
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QBean;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+@Repository("inventoryRepositoryCustomImpl")
+public class IInventoryRepositoryCustomImpl
+    extends ProjectionRepositorySupport<InventoryEntity>
+    implements IInventoryRepositoryCustom {
+
+    protected static final QInventoryEntity inventory = QInventoryEntity.inventoryEntity;
+
+    protected static final QBean<FindInventoryByIdOutput> findInventoryByIdOutput = Projections.bean(
+        FindInventoryByIdOutput.class,
+        inventory.inventoryId,
+        inventory.film.filmId.as("filmId"),
+        inventory.film.filmId.as("filmDescriptiveField"),
+        inventory.store.storeId.as("storeId"),
+        inventory.store.storeId.as("storeDescriptiveField"),
+        inventory.versiono
+    );
+
+    public IInventoryRepositoryCustomImpl() {
+        super(inventory);
+    }
+
+    @Override
+    public Slice<FindInventoryByIdOutput> findAllProjected(Predicate predicate, Pageable pageable) {
+        return findSlice(findInventoryByIdOutput, predicate, pageable);
+    }
+
+    @Override
+    public FindInventoryByIdOutput findProjectedById(Integer inventoryId) {
+        return findOne(findInventoryByIdOutput, inventory.inventoryId.eq(inventoryId));
+    }
+
+    @Override
+    public List<FindInventoryByIdOutput> findProjectedByIds(Collection<Integer> inventoryIds) {
+        return findAll(findInventoryByIdOutput, inventory.inventoryId.in(inventoryIds));
+    }
+
+    @Override
+    public Stream<FindInventoryByIdOutput> streamProjected(Predicate predicate, Sort sort) {
+        return stream(findInventoryByIdOutput, predicate, sort);
+    }
+}
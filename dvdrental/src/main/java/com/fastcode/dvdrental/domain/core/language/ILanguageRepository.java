@@ -10,4 +10,7 @@ import org.springframework.stereotype.Repository;
 @JaversSpringDataAuditable
 @Repository("languageRepository")
 public interface ILanguageRepository
-    extends JpaRepository<LanguageEntity, Integer>, QuerydslPredicateExecutor<LanguageEntity> {}
+    extends
+        JpaRepository<LanguageEntity, Integer>,
+        QuerydslPredicateExecutor<LanguageEntity>,
+        ILanguageRepositoryCustom {}
@@ -0,0 +1,22 @@
+package com.fastcode.dvdrental.domain.core.language;
+
+import com.fastcode.dvdrental.application.core.language.dto.FindLanguageByIdOutput;
+import com.querydsl.core.types.Predicate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+public interface ILanguageRepositoryCustom {
+    Slice<FindLanguageByIdOutput> findAllProjected(Predicate predicate, Pageable pageable);
+
+    FindLanguageByIdOutput findProjectedById(Integer languageId);
+
+    List<FindLanguageByIdOutput> findProjectedByIds(Collection<Integer> languageIds);
+
+    Stream<FindLanguageByIdOutput> streamProjected(Predicate predicate, Sort sort);
+
+    long estimateCount(Predicate predicate);
+}
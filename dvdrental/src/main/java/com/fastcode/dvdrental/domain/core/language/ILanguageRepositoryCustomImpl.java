@@ -0,0 +1,53 @@
+package com.fastcode.dvdrental.domain.core.language;
+
+import com.fastcode.dvdrental.application.core.language.dto.FindLanguageByIdOutput;
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QBean;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+@Repository("languageRepositoryCustomImpl")
+public class ILanguageRepositoryCustomImpl
+    extends ProjectionRepositorySupport<LanguageEntity>
+    implements ILanguageRepositoryCustom {
+
+    protected static final QLanguageEntity language = QLanguageEntity.languageEntity;
+
+    protected static final QBean<FindLanguageByIdOutput> findLanguageByIdOutput = Projections.bean(
+        FindLanguageByIdOutput.class,
+        language.languageId,
+        language.name,
+        language.versiono
+    );
+
+    public ILanguageRepositoryCustomImpl() {
+        super(language);
+    }
+
+    @Override
+    public Slice<FindLanguageByIdOutput> findAllProjected(Predicate predicate, Pageable pageable) {
+        return findSlice(findLanguageByIdOutput, predicate, pageable);
+    }
+
+    @Override
+    public FindLanguageByIdOutput findProjectedById(Integer languageId) {
+        return findOne(findLanguageByIdOutput, language.languageId.eq(languageId));
+    }
+
+    @Override
+    public List<FindLanguageByIdOutput> findProjectedByIds(Collection<Integer> languageIds) {
+        return findAll(findLanguageByIdOutput, language.languageId.in(languageIds));
+    }
+
+    @Override
+    public Stream<FindLanguageByIdOutput> streamProjected(Predicate predicate, Sort sort) {
+        return stream(findLanguageByIdOutput, predicate, sort);
+    }
+}
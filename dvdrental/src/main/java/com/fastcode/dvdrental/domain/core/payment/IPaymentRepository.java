@@ -10,4 +10,4 @@ import org.springframework.stereotype.Repository;
 @JaversSpringDataAuditable
 @Repository("paymentRepository")
 public interface IPaymentRepository
-    extends JpaRepository<PaymentEntity, Integer>, QuerydslPredicateExecutor<PaymentEntity> {}
+    extends JpaRepository<PaymentEntity, Integer>, QuerydslPredicateExecutor<PaymentEntity>, IPaymentRepositoryCustom {}
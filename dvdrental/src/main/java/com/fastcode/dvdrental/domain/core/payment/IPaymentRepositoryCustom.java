@@ -0,0 +1,22 @@
+package com.fastcode.dvdrental.domain.core.payment;
+
+import com.fastcode.dvdrental.application.core.payment.dto.FindPaymentByIdOutput;
+import com.querydsl.core.types.Predicate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+public interface IPaymentRepositoryCustom {
+    Slice<FindPaymentByIdOutput> findAllProjected(Predicate predicate, Pageable pageable);
+
+    FindPaymentByIdOutput findProjectedById(Integer paymentId);
+
+    List<FindPaymentByIdOutput> findProjectedByIds(Collection<Integer> paymentIds);
+
+    Stream<FindPaymentByIdOutput> streamProjected(Predicate predicate, Sort sort);
+
+    long estimateCount(Predicate predicate);
+}
@@ -0,0 +1,60 @@
+package com.fastcode.dvdrental.domain.core.payment;
+
+import com.fastcode.dvdrental.application.core.payment.dto.FindPaymentByIdOutput;
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QBean;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+@Repository("paymentRepositoryCustomImpl")
+public class IPaymentRepositoryCustomImpl
+    extends ProjectionRepositorySupport<PaymentEntity>
+    implements IPaymentRepositoryCustom {
+
+    protected static final QPaymentEntity payment = QPaymentEntity.paymentEntity;
+
+    protected static final QBean<FindPaymentByIdOutput> findPaymentByIdOutput = Projections.bean(
+        FindPaymentByIdOutput.class,
+        payment.amount,
+        payment.paymentDate,
+        payment.paymentId,
+        payment.customer.customerId.as("customerId"),
+        payment.customer.customerId.as("customerDescriptiveField"),
+        payment.rental.rentalId.as("rentalId"),
+        payment.rental.rentalId.as("rentalDescriptiveField"),
+        payment.staff.staffId.as("staffId"),
+        payment.staff.staffId.as("staffDescriptiveField"),
+        payment.versiono
+    );
+
+    public IPaymentRepositoryCustomImpl() {
+        super(payment);
+    }
+
+    @Override
+    public Slice<FindPaymentByIdOutput> findAllProjected(Predicate predicate, Pageable pageable) {
+        return findSlice(findPaymentByIdOutput, predicate, pageable);
+    }
+
+    @Override
+    public FindPaymentByIdOutput findProjectedById(Integer paymentId) {
+        return findOne(findPaymentByIdOutput, payment.paymentId.eq(paymentId));
+    }
+
+    @Override
+    public List<FindPaymentByIdOutput> findProjectedByIds(Collection<Integer> paymentIds) {
+        return findAll(findPaymentByIdOutput, payment.paymentId.in(paymentIds));
+    }
+
+    @Override
+    public Stream<FindPaymentByIdOutput> streamProjected(Predicate predicate, Sort sort) {
+        return stream(findPaymentByIdOutput, predicate, sort);
+    }
+}
@@ -25,7 +25,8 @@ public class PaymentEntity extends AbstractEntity {
 
     @Id
     @EqualsAndHashCode.Include
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_payment_id_seq")
+    @SequenceGenerator(name = "payment_payment_id_seq", sequenceName = "payment_payment_id_seq", allocationSize = 50)
     @Column(name = "payment_id", nullable = false)
     private Integer paymentId;
 
@@ -10,4 +10,4 @@ import org.springframework.stereotype.Repository;
 @JaversSpringDataAuditable
 @Repository("rentalRepository")
 public interface IRentalRepository
-    extends JpaRepository<RentalEntity, Integer>, QuerydslPredicateExecutor<RentalEntity> {}
+    extends JpaRepository<RentalEntity, Integer>, QuerydslPredicateExecutor<RentalEntity>, IRentalRepositoryCustom {}
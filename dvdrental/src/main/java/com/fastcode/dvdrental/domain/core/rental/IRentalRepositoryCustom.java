@@ -0,0 +1,22 @@
+package com.fastcode.dvdrental.domain.core.rental;
+
+import com.fastcode.dvdrental.application.core.rental.dto.FindRentalByIdOutput;
+import com.querydsl.core.types.Predicate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+public interface IRentalRepositoryCustom {
+    Slice<FindRentalByIdOutput> findAllProjected(Predicate predicate, Pageable pageable);
+
+    FindRentalByIdOutput findProjectedById(Integer rentalId);
+
+    List<FindRentalByIdOutput> findProjectedByIds(Collection<Integer> rentalIds);
+
+    Stream<FindRentalByIdOutput> streamProjected(Predicate predicate, Sort sort);
+
+    long estimateCount(Predicate predicate);
+}
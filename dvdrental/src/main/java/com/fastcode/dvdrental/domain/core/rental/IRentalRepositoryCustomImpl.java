@@ -0,0 +1,60 @@
+package com.fastcode.dvdrental.domain.core.rental;
+
+import com.fastcode.dvdrental.application.core.rental.dto.FindRentalByIdOutput;
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QBean;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+@Repository("rentalRepositoryCustomImpl")
+public class IRentalRepositoryCustomImpl
+    extends ProjectionRepositorySupport<RentalEntity>
+    implements IRentalRepositoryCustom {
+
+    protected static final QRentalEntity rental = QRentalEntity.rentalEntity;
+
+    protected static final QBean<FindRentalByIdOutput> findRentalByIdOutput = Projections.bean(
+        FindRentalByIdOutput.class,
+        rental.rentalDate,
+        rental.rentalId,
+        rental.returnDate,
+        rental.customer.customerId.as("customerId"),
+        rental.customer.customerId.as("customerDescriptiveField"),
+        rental.inventory.inventoryId.as("inventoryId"),
+        rental.inventory.inventoryId.as("inventoryDescriptiveField"),
+        rental.staff.staffId.as("staffId"),
+        rental.staff.staffId.as("staffDescriptiveField"),
+        rental.versiono
+    );
+
+    public IRentalRepositoryCustomImpl() {
+        super(rental);
+    }
+
+    @Override
+    public Slice<FindRentalByIdOutput> findAllProjected(Predicate predicate, Pageable pageable) {
+        return findSlice(findRentalByIdOutput, predicate, pageable);
+    }
+
+    @Override
+    public FindRentalByIdOutput findProjectedById(Integer rentalId) {
+        return findOne(findRentalByIdOutput, rental.rentalId.eq(rentalId));
+    }
+
+    @Override
+    public List<FindRentalByIdOutput> findProjectedByIds(Collection<Integer> rentalIds) {
+        return findAll(findRentalByIdOutput, rental.rentalId.in(rentalIds));
+    }
+
+    @Override
+    public Stream<FindRentalByIdOutput> streamProjected(Predicate predicate, Sort sort) {
+        return stream(findRentalByIdOutput, predicate, sort);
+    }
+}
@@ -32,7 +32,8 @@ public class RentalEntity extends AbstractEntity {
 
     @Id
     @EqualsAndHashCode.Include
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rental_rental_id_seq")
+    @SequenceGenerator(name = "rental_rental_id_seq", sequenceName = "rental_rental_id_seq", allocationSize = 50)
     @Column(name = "rental_id", nullable = false)
     private Integer rentalId;
 
@@ -9,4 +9,5 @@ import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("staffRepository")
-public interface IStaffRepository extends JpaRepository<StaffEntity, Integer>, QuerydslPredicateExecutor<StaffEntity> {}
+public interface IStaffRepository
+    extends JpaRepository<StaffEntity, Integer>, QuerydslPredicateExecutor<StaffEntity>, IStaffRepositoryCustom {}
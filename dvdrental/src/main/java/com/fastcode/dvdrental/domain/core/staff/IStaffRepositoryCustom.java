@@ -0,0 +1,22 @@
+package com.fastcode.dvdrental.domain.core.staff;
+
+import com.fastcode.dvdrental.application.core.staff.dto.FindStaffByIdOutput;
+import com.querydsl.core.types.Predicate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+public interface IStaffRepositoryCustom {
+    Slice<FindStaffByIdOutput> findAllProjected(Predicate predicate, Pageable pageable);
+
+    FindStaffByIdOutput findProjectedById(Integer staffId);
+
+    List<FindStaffByIdOutput> findProjectedByIds(Collection<Integer> staffIds);
+
+    Stream<FindStaffByIdOutput> streamProjected(Predicate predicate, Sort sort);
+
+    long estimateCount(Predicate predicate);
+}
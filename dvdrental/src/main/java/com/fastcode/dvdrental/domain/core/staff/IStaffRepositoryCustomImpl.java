@@ -0,0 +1,62 @@
+package com.fastcode.dvdrental.domain.core.staff;
+
+import com.fastcode.dvdrental.application.core.staff.dto.FindStaffByIdOutput;
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QBean;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+@Repository("staffRepositoryCustomImpl")
+public class IStaffRepositoryCustomImpl
+    extends ProjectionRepositorySupport<StaffEntity>
+    implements IStaffRepositoryCustom {
+
+    protected static final QStaffEntity staff = QStaffEntity.staffEntity;
+
+    protected static final QBean<FindStaffByIdOutput> findStaffByIdOutput = Projections.bean(
+        FindStaffByIdOutput.class,
+        staff.active,
+        staff.email,
+        staff.firstName,
+        staff.lastName,
+        staff.password,
+        staff.staffId,
+        staff.username,
+        staff.address.addressId.as("addressId"),
+        staff.address.addressId.as("addressDescriptiveField"),
+        staff.store.storeId.as("storeId"),
+        staff.store.storeId.as("storeDescriptiveField"),
+        staff.versiono
+    );
+
+    public IStaffRepositoryCustomImpl() {
+        super(staff);
+    }
+
+    @Override
+    public Slice<FindStaffByIdOutput> findAllProjected(Predicate predicate, Pageable pageable) {
+        return findSlice(findStaffByIdOutput, predicate, pageable);
+    }
+
+    @Override
+    public FindStaffByIdOutput findProjectedById(Integer staffId) {
+        return findOne(findStaffByIdOutput, staff.staffId.eq(staffId));
+    }
+
+    @Override
+    public List<FindStaffByIdOutput> findProjectedByIds(Collection<Integer> staffIds) {
+        return findAll(findStaffByIdOutput, staff.staffId.in(staffIds));
+    }
+
+    @Override
+    public Stream<FindStaffByIdOutput> streamProjected(Predicate predicate, Sort sort) {
+        return stream(findStaffByIdOutput, predicate, sort);
+    }
+}
@@ -9,4 +9,5 @@ import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("storeRepository")
-public interface IStoreRepository extends JpaRepository<StoreEntity, Integer>, QuerydslPredicateExecutor<StoreEntity> {}
+public interface IStoreRepository
+    extends JpaRepository<StoreEntity, Integer>, QuerydslPredicateExecutor<StoreEntity>, IStoreRepositoryCustom {}
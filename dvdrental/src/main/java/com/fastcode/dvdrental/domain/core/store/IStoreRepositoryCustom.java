@@ -0,0 +1,22 @@
+package com.fastcode.dvdrental.domain.core.store;
+
+import com.fastcode.dvdrental.application.core.store.dto.FindStoreByIdOutput;
+import com.querydsl.core.types.Predicate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+public interface IStoreRepositoryCustom {
+    Slice<FindStoreByIdOutput> findAllProjected(Predicate predicate, Pageable pageable);
+
+    FindStoreByIdOutput findProjectedById(Integer storeId);
+
+    List<FindStoreByIdOutput> findProjectedByIds(Collection<Integer> storeIds);
+
+    Stream<FindStoreByIdOutput> streamProjected(Predicate predicate, Sort sort);
+
+    long estimateCount(Predicate predicate);
+}
@@ -0,0 +1,54 @@
+package com.fastcode.dvdrental.domain.core.store;
+
+import com.fastcode.dvdrental.application.core.store.dto.FindStoreByIdOutput;
+import com.fastcode.dvdrental.domain.core.abstractentity.ProjectionRepositorySupport;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.core.types.Projections;
+import com.querydsl.core.types.QBean;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+@Repository("storeRepositoryCustomImpl")
+public class IStoreRepositoryCustomImpl
+    extends ProjectionRepositorySupport<StoreEntity>
+    implements IStoreRepositoryCustom {
+
+    protected static final QStoreEntity store = QStoreEntity.storeEntity;
+
+    protected static final QBean<FindStoreByIdOutput> findStoreByIdOutput = Projections.bean(
+        FindStoreByIdOutput.class,
+        store.storeId,
+        store.address.addressId.as("addressId"),
+        store.address.addressId.as("addressDescriptiveField"),
+        store.versiono
+    );
+
+    public IStoreRepositoryCustomImpl() {
+        super(store);
+    }
+
+    @Override
+    public Slice<FindStoreByIdOutput> findAllProjected(Predicate predicate, Pageable pageable) {
+        return findSlice(findStoreByIdOutput, predicate, pageable);
+    }
+
+    @Override
+    public FindStoreByIdOutput findProjectedById(Integer storeId) {
+        return findOne(findStoreByIdOutput, store.storeId.eq(storeId));
+    }
+
+    @Override
+    public List<FindStoreByIdOutput> findProjectedByIds(Collection<Integer> storeIds) {
+        return findAll(findStoreByIdOutput, store.storeId.in(storeIds));
+    }
+
+    @Override
+    public Stream<FindStoreByIdOutput> streamProjected(Predicate predicate, Sort sort) {
+        return stream(findStoreByIdOutput, predicate, sort);
+    }
+}
@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.actor;
 
 import com.fastcode.dvdrental.domain.core.actor.IActorRepository;
+import com.fastcode.dvdrental.domain.core.actor.IActorRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("actorRepositoryExtended")
-public interface IActorRepositoryExtended extends IActorRepository {
+public interface IActorRepositoryExtended extends IActorRepository, IActorRepositoryCustom {
     //Add your custom code here
 }
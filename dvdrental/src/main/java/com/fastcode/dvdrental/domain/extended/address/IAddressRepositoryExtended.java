@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.address;
 
 import com.fastcode.dvdrental.domain.core.address.IAddressRepository;
+import com.fastcode.dvdrental.domain.core.address.IAddressRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("addressRepositoryExtended")
-public interface IAddressRepositoryExtended extends IAddressRepository {
+public interface IAddressRepositoryExtended extends IAddressRepository, IAddressRepositoryCustom {
     //Add your custom code here
 }
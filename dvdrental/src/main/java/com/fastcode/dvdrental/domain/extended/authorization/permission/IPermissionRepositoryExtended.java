@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.authorization.permission;
 
 import com.fastcode.dvdrental.domain.core.authorization.permission.IPermissionRepository;
+import com.fastcode.dvdrental.domain.core.authorization.permission.IPermissionRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("permissionRepositoryExtended")
-public interface IPermissionRepositoryExtended extends IPermissionRepository {
+public interface IPermissionRepositoryExtended extends IPermissionRepository, IPermissionRepositoryCustom {
     //Add your custom code here
 }
@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.authorization.role;
 
 import com.fastcode.dvdrental.domain.core.authorization.role.IRoleRepository;
+import com.fastcode.dvdrental.domain.core.authorization.role.IRoleRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("roleRepositoryExtended")
-public interface IRoleRepositoryExtended extends IRoleRepository {
+public interface IRoleRepositoryExtended extends IRoleRepository, IRoleRepositoryCustom {
     //Add your custom code here
 }
@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.authorization.rolepermission;
 
 import com.fastcode.dvdrental.domain.core.authorization.rolepermission.IRolepermissionRepository;
+import com.fastcode.dvdrental.domain.core.authorization.rolepermission.IRolepermissionRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("rolepermissionRepositoryExtended")
-public interface IRolepermissionRepositoryExtended extends IRolepermissionRepository {
+public interface IRolepermissionRepositoryExtended extends IRolepermissionRepository, IRolepermissionRepositoryCustom {
     //Add your custom code here
 }
@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.authorization.user;
 
 import com.fastcode.dvdrental.domain.core.authorization.user.IUserRepository;
+import com.fastcode.dvdrental.domain.core.authorization.user.IUserRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("userRepositoryExtended")
-public interface IUserRepositoryExtended extends IUserRepository {
+public interface IUserRepositoryExtended extends IUserRepository, IUserRepositoryCustom {
     //Add your custom code here
 }
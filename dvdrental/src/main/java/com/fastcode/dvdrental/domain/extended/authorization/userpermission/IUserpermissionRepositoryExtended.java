@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.authorization.userpermission;
 
 import com.fastcode.dvdrental.domain.core.authorization.userpermission.IUserpermissionRepository;
+import com.fastcode.dvdrental.domain.core.authorization.userpermission.IUserpermissionRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("userpermissionRepositoryExtended")
-public interface IUserpermissionRepositoryExtended extends IUserpermissionRepository {
+public interface IUserpermissionRepositoryExtended extends IUserpermissionRepository, IUserpermissionRepositoryCustom {
     //Add your custom code here
 }
@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.authorization.userrole;
 
 import com.fastcode.dvdrental.domain.core.authorization.userrole.IUserroleRepository;
+import com.fastcode.dvdrental.domain.core.authorization.userrole.IUserroleRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("userroleRepositoryExtended")
-public interface IUserroleRepositoryExtended extends IUserroleRepository {
+public interface IUserroleRepositoryExtended extends IUserroleRepository, IUserroleRepositoryCustom {
     //Add your custom code here
 }
@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.category;
 
 import com.fastcode.dvdrental.domain.core.category.ICategoryRepository;
+import com.fastcode.dvdrental.domain.core.category.ICategoryRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("categoryRepositoryExtended")
-public interface ICategoryRepositoryExtended extends ICategoryRepository {
+public interface ICategoryRepositoryExtended extends ICategoryRepository, ICategoryRepositoryCustom {
     //Add your custom code here
 }
@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.city;
 
 import com.fastcode.dvdrental.domain.core.city.ICityRepository;
+import com.fastcode.dvdrental.domain.core.city.ICityRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("cityRepositoryExtended")
-public interface ICityRepositoryExtended extends ICityRepository {
+public interface ICityRepositoryExtended extends ICityRepository, ICityRepositoryCustom {
     //Add your custom code here
 }
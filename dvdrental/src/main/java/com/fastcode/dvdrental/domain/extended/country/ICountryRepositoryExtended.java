@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.country;
 
 import com.fastcode.dvdrental.domain.core.country.ICountryRepository;
+import com.fastcode.dvdrental.domain.core.country.ICountryRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("countryRepositoryExtended")
-public interface ICountryRepositoryExtended extends ICountryRepository {
+public interface ICountryRepositoryExtended extends ICountryRepository, ICountryRepositoryCustom {
     //Add your custom code here
 }
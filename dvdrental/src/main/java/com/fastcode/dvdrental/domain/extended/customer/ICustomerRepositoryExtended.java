@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.customer;
 
 import com.fastcode.dvdrental.domain.core.customer.ICustomerRepository;
+import com.fastcode.dvdrental.domain.core.customer.ICustomerRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("customerRepositoryExtended")
-public interface ICustomerRepositoryExtended extends ICustomerRepository {
+public interface ICustomerRepositoryExtended extends ICustomerRepository, ICustomerRepositoryCustom {
     //Add your custom code here
 }
@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.film;
 
 import com.fastcode.dvdrental.domain.core.film.IFilmRepository;
+import com.fastcode.dvdrental.domain.core.film.IFilmRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("filmRepositoryExtended")
-public interface IFilmRepositoryExtended extends IFilmRepository {
+public interface IFilmRepositoryExtended extends IFilmRepository, IFilmRepositoryCustom {
     //Add your custom code here
 }
@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.filmactor;
 
 import com.fastcode.dvdrental.domain.core.filmactor.IFilmActorRepository;
+import com.fastcode.dvdrental.domain.core.filmactor.IFilmActorRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("filmActorRepositoryExtended")
-public interface IFilmActorRepositoryExtended extends IFilmActorRepository {
+public interface IFilmActorRepositoryExtended extends IFilmActorRepository, IFilmActorRepositoryCustom {
     //Add your custom code here
 }
@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.filmcategory;
 
 import com.fastcode.dvdrental.domain.core.filmcategory.IFilmCategoryRepository;
+import com.fastcode.dvdrental.domain.core.filmcategory.IFilmCategoryRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("filmCategoryRepositoryExtended")
-public interface IFilmCategoryRepositoryExtended extends IFilmCategoryRepository {
+public interface IFilmCategoryRepositoryExtended extends IFilmCategoryRepository, IFilmCategoryRepositoryCustom {
     //Add your custom code here
 }
@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.inventory;
 
 import com.fastcode.dvdrental.domain.core.inventory.IInventoryRepository;
+import com.fastcode.dvdrental.domain.core.inventory.IInventoryRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("inventoryRepositoryExtended")
-public interface IInventoryRepositoryExtended extends IInventoryRepository {
+public interface IInventoryRepositoryExtended extends IInventoryRepository, IInventoryRepositoryCustom {
     //Add your custom code here
 }
@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.language;
 
 import com.fastcode.dvdrental.domain.core.language.ILanguageRepository;
+import com.fastcode.dvdrental.domain.core.language.ILanguageRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("languageRepositoryExtended")
-public interface ILanguageRepositoryExtended extends ILanguageRepository {
+public interface ILanguageRepositoryExtended extends ILanguageRepository, ILanguageRepositoryCustom {
     //Add your custom code here
 }
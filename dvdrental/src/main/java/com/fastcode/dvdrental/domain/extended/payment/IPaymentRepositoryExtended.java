@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.payment;
 
 import com.fastcode.dvdrental.domain.core.payment.IPaymentRepository;
+import com.fastcode.dvdrental.domain.core.payment.IPaymentRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("paymentRepositoryExtended")
-public interface IPaymentRepositoryExtended extends IPaymentRepository {
+public interface IPaymentRepositoryExtended extends IPaymentRepository, IPaymentRepositoryCustom {
     //Add your custom code here
 }
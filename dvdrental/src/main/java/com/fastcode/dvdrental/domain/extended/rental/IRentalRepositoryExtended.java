@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.rental;
 
 import com.fastcode.dvdrental.domain.core.rental.IRentalRepository;
+import com.fastcode.dvdrental.domain.core.rental.IRentalRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("rentalRepositoryExtended")
-public interface IRentalRepositoryExtended extends IRentalRepository {
+public interface IRentalRepositoryExtended extends IRentalRepository, IRentalRepositoryCustom {
     //Add your custom code here
 }
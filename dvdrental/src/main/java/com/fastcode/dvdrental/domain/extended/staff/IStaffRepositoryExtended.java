@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.staff;
 
 import com.fastcode.dvdrental.domain.core.staff.IStaffRepository;
+import com.fastcode.dvdrental.domain.core.staff.IStaffRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("staffRepositoryExtended")
-public interface IStaffRepositoryExtended extends IStaffRepository {
+public interface IStaffRepositoryExtended extends IStaffRepository, IStaffRepositoryCustom {
     //Add your custom code here
 }
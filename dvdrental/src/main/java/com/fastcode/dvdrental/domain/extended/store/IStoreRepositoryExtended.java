@@ -1,11 +1,12 @@
 package com.fastcode.dvdrental.domain.extended.store;
 
 import com.fastcode.dvdrental.domain.core.store.IStoreRepository;
+import com.fastcode.dvdrental.domain.core.store.IStoreRepositoryCustom;
 import org.javers.spring.annotation.JaversSpringDataAuditable;
 import org.springframework.stereotype.Repository;
 
 @JaversSpringDataAuditable
 @Repository("storeRepositoryExtended")
-public interface IStoreRepositoryExtended extends IStoreRepository {
+public interface IStoreRepositoryExtended extends IStoreRepository, IStoreRepositoryCustom {
     //Add your custom code here
 }
@@ -9,20 +9,26 @@ import com.fastcode.dvdrental.application.core.staff.IStaffAppService;
 import com.fastcode.dvdrental.application.core.staff.dto.FindStaffByIdOutput;
 import com.fastcode.dvdrental.application.core.store.IStoreAppService;
 import com.fastcode.dvdrental.application.core.store.dto.FindStoreByIdOutput;
+import com.fastcode.dvdrental.commons.export.ExportFormat;
+import com.fastcode.dvdrental.commons.export.ExportWriter;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
-import com.fastcode.dvdrental.commons.search.OffsetBasedPageRequest;
+import com.fastcode.dvdrental.commons.search.KeysetCursor;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
 import com.fastcode.dvdrental.commons.search.SearchUtils;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import java.time.*;
 import java.util.*;
 import javax.persistence.EntityNotFoundException;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.env.Environment;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -122,12 +128,47 @@ public class AddressController {
         return new ResponseEntity(output, HttpStatus.OK);
     }
 
+    @PreAuthorize("hasAnyAuthority('ADDRESSENTITY_READ')")
+    @RequestMapping(
+        value = "/batch",
+        method = RequestMethod.POST,
+        consumes = { "application/json" },
+        produces = { "application/json" }
+    )
+    public ResponseEntity<Map<Integer, FindAddressByIdOutput>> findByIds(@RequestBody LinkedHashSet<Integer> ids)
+        throws Exception {
+        return new ResponseEntity(_addressAppService.findByIds(ids), HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyAuthority('ADDRESSENTITY_READ')")
+    @RequestMapping(value = "/export", method = RequestMethod.GET)
+    public void export(
+        @RequestParam(value = "search", required = false) String search,
+        @RequestParam(value = "format", required = false) String format,
+        Sort sort,
+        HttpServletResponse response
+    ) throws Exception {
+        ExportFormat exportFormat = ExportFormat.fromString(format);
+        SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(
+            HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"address." + exportFormat.getExtension() + "\""
+        );
+        try (ExportWriter writer = new ExportWriter(exportFormat, response.getOutputStream())) {
+            _addressAppService.export(searchCriteria, KeysetCursor.keysetSort(sort, "addressId"), writer::write);
+        }
+    }
+
     @PreAuthorize("hasAnyAuthority('ADDRESSENTITY_READ')")
     @RequestMapping(method = RequestMethod.GET, consumes = { "application/json" }, produces = { "application/json" })
     public ResponseEntity find(
         @RequestParam(value = "search", required = false) String search,
         @RequestParam(value = "offset", required = false) String offset,
         @RequestParam(value = "limit", required = false) String limit,
+        @RequestParam(value = "withTotal", required = false) String withTotal,
+        @RequestParam(value = "after", required = false) String after,
         Sort sort
     ) throws Exception {
         if (offset == null) {
@@ -141,10 +182,26 @@ public class AddressController {
             sort = Sort.by(Sort.Direction.ASC, "addressId");
         }
 
-        Pageable Pageable = new OffsetBasedPageRequest(Integer.parseInt(offset), Integer.parseInt(limit), sort);
         SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
-
-        return ResponseEntity.ok(_addressAppService.find(searchCriteria, Pageable));
+        Long total = null;
+        if (withTotal != null) {
+            total = _addressAppService.count(searchCriteria, TotalCount.fromString(withTotal));
+        }
+        Pageable Pageable = KeysetCursor.pageable(
+            searchCriteria,
+            after,
+            Integer.parseInt(offset),
+            Integer.parseInt(limit),
+            sort,
+            "addressId"
+        );
+
+        Slice<FindAddressByIdOutput> output = _addressAppService.find(searchCriteria, Pageable);
+        HttpHeaders headers = KeysetCursor.nextCursorHeaders(output);
+        if (total != null) {
+            headers.set(TotalCount.HEADER, total.toString());
+        }
+        return ResponseEntity.ok().headers(headers).body(output.getContent());
     }
 
     @PreAuthorize("hasAnyAuthority('ADDRESSENTITY_READ')")
@@ -173,6 +230,7 @@ public class AddressController {
         @RequestParam(value = "search", required = false) String search,
         @RequestParam(value = "offset", required = false) String offset,
         @RequestParam(value = "limit", required = false) String limit,
+        @RequestParam(value = "after", required = false) String after,
         Sort sort
     ) throws Exception {
         if (offset == null) {
@@ -186,9 +244,15 @@ public class AddressController {
             sort = Sort.by(Sort.Direction.ASC, "customerId");
         }
 
-        Pageable pageable = new OffsetBasedPageRequest(Integer.parseInt(offset), Integer.parseInt(limit), sort);
-
         SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
+        Pageable pageable = KeysetCursor.pageable(
+            searchCriteria,
+            after,
+            Integer.parseInt(offset),
+            Integer.parseInt(limit),
+            sort,
+            "customerId"
+        );
         Map<String, String> joinColDetails = _addressAppService.parseCustomersJoinColumn(id);
         Optional
             .ofNullable(joinColDetails)
@@ -196,10 +260,10 @@ public class AddressController {
 
         searchCriteria.setJoinColumns(joinColDetails);
 
-        List<FindCustomerByIdOutput> output = _customerAppService.find(searchCriteria, pageable);
+        Slice<FindCustomerByIdOutput> output = _customerAppService.find(searchCriteria, pageable);
         Optional.ofNullable(output).orElseThrow(() -> new EntityNotFoundException(String.format("Not found")));
 
-        return new ResponseEntity(output, HttpStatus.OK);
+        return new ResponseEntity(output.getContent(), KeysetCursor.nextCursorHeaders(output), HttpStatus.OK);
     }
 
     @PreAuthorize("hasAnyAuthority('ADDRESSENTITY_READ')")
@@ -214,6 +278,7 @@ public class AddressController {
         @RequestParam(value = "search", required = false) String search,
         @RequestParam(value = "offset", required = false) String offset,
         @RequestParam(value = "limit", required = false) String limit,
+        @RequestParam(value = "after", required = false) String after,
         Sort sort
     ) throws Exception {
         if (offset == null) {
@@ -227,9 +292,15 @@ public class AddressController {
             sort = Sort.by(Sort.Direction.ASC, "staffId");
         }
 
-        Pageable pageable = new OffsetBasedPageRequest(Integer.parseInt(offset), Integer.parseInt(limit), sort);
-
         SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
+        Pageable pageable = KeysetCursor.pageable(
+            searchCriteria,
+            after,
+            Integer.parseInt(offset),
+            Integer.parseInt(limit),
+            sort,
+            "staffId"
+        );
         Map<String, String> joinColDetails = _addressAppService.parseStaffsJoinColumn(id);
         Optional
             .ofNullable(joinColDetails)
@@ -237,10 +308,10 @@ public class AddressController {
 
         searchCriteria.setJoinColumns(joinColDetails);
 
-        List<FindStaffByIdOutput> output = _staffAppService.find(searchCriteria, pageable);
+        Slice<FindStaffByIdOutput> output = _staffAppService.find(searchCriteria, pageable);
         Optional.ofNullable(output).orElseThrow(() -> new EntityNotFoundException(String.format("Not found")));
 
-        return new ResponseEntity(output, HttpStatus.OK);
+        return new ResponseEntity(output.getContent(), KeysetCursor.nextCursorHeaders(output), HttpStatus.OK);
     }
 
     @PreAuthorize("hasAnyAuthority('ADDRESSENTITY_READ')")
@@ -255,6 +326,7 @@ public class AddressController {
         @RequestParam(value = "search", required = false) String search,
         @RequestParam(value = "offset", required = false) String offset,
         @RequestParam(value = "limit", required = false) String limit,
+        @RequestParam(value = "after", required = false) String after,
         Sort sort
     ) throws Exception {
         if (offset == null) {
@@ -268,9 +340,15 @@ public class AddressController {
             sort = Sort.by(Sort.Direction.ASC, "storeId");
         }
 
-        Pageable pageable = new OffsetBasedPageRequest(Integer.parseInt(offset), Integer.parseInt(limit), sort);
-
         SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
+        Pageable pageable = KeysetCursor.pageable(
+            searchCriteria,
+            after,
+            Integer.parseInt(offset),
+            Integer.parseInt(limit),
+            sort,
+            "storeId"
+        );
         Map<String, String> joinColDetails = _addressAppService.parseStoresJoinColumn(id);
         Optional
             .ofNullable(joinColDetails)
@@ -278,9 +356,9 @@ public class AddressController {
 
         searchCriteria.setJoinColumns(joinColDetails);
 
-        List<FindStoreByIdOutput> output = _storeAppService.find(searchCriteria, pageable);
+        Slice<FindStoreByIdOutput> output = _storeAppService.find(searchCriteria, pageable);
         Optional.ofNullable(output).orElseThrow(() -> new EntityNotFoundException(String.format("Not found")));
 
-        return new ResponseEntity(output, HttpStatus.OK);
+        return new ResponseEntity(output.getContent(), KeysetCursor.nextCursorHeaders(output), HttpStatus.OK);
     }
 }
@@ -3,13 +3,19 @@ package com.fastcode.dvdrental.restcontrollers.core;
 import com.fastcode.dvdrental.commons.domain.EmptyJsonResponse;
 import com.fastcode.dvdrental.security.JWTAppService;
 import com.fastcode.dvdrental.security.SecurityConstants;
+import com.fastcode.dvdrental.security.SecurityUtils;
+import com.fastcode.dvdrental.security.StatelessTokenService;
+import io.jsonwebtoken.JwtException;
+import java.util.Collections;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
@@ -22,6 +28,12 @@ public class AuthenticationController {
     @NonNull
     protected final JWTAppService _jwtAppService;
 
+    @NonNull
+    protected final StatelessTokenService _statelessTokenService;
+
+    @NonNull
+    protected final SecurityUtils securityUtils;
+
     @NonNull
     protected final HttpServletRequest request;
 
@@ -31,12 +43,35 @@ public class AuthenticationController {
     @RequestMapping(value = "/logout", method = RequestMethod.POST)
     public ResponseEntity logout() throws Exception {
         String token = request.getHeader(SecurityConstants.HEADER_STRING);
-        _jwtAppService.deleteToken(token);
+        if (_statelessTokenService.isEnabled()) {
+            _statelessTokenService.logout(SecurityContextHolder.getContext().getAuthentication().getName(), token);
+            response.addHeader(HttpHeaders.SET_COOKIE, _statelessTokenService.refreshCookie("", 0).toString());
+        } else {
+            _jwtAppService.deleteToken(token);
+            handleLogOutResponse(response);
+        }
 
-        handleLogOutResponse(response);
         return new ResponseEntity(new EmptyJsonResponse(), HttpStatus.OK);
     }
 
+    @RequestMapping(value = "/refresh", method = RequestMethod.POST)
+    public ResponseEntity refresh() {
+        if (!_statelessTokenService.isEnabled()) {
+            return new ResponseEntity(HttpStatus.NOT_FOUND);
+        }
+        String refreshToken = securityUtils.getTokenFromCookies(request.getCookies());
+        if (refreshToken == null || !refreshToken.startsWith(SecurityConstants.TOKEN_PREFIX)) {
+            return new ResponseEntity(HttpStatus.UNAUTHORIZED);
+        }
+
+        try {
+            String token = _statelessTokenService.refresh(refreshToken, response);
+            return new ResponseEntity(Collections.singletonMap("token", token), HttpStatus.OK);
+        } catch (JwtException e) {
+            return new ResponseEntity(HttpStatus.UNAUTHORIZED);
+        }
+    }
+
     private void handleLogOutResponse(HttpServletResponse response) {
         Cookie[] cookies = request.getCookies();
         for (Cookie cookie : cookies) {
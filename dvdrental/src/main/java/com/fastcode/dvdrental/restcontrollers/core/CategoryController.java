@@ -4,20 +4,27 @@ import com.fastcode.dvdrental.application.core.category.ICategoryAppService;
 import com.fastcode.dvdrental.application.core.category.dto.*;
 import com.fastcode.dvdrental.application.core.filmcategory.IFilmCategoryAppService;
 import com.fastcode.dvdrental.application.core.filmcategory.dto.FindFilmCategoryByIdOutput;
+import com.fastcode.dvdrental.commons.export.ExportFormat;
+import com.fastcode.dvdrental.commons.export.ExportWriter;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
+import com.fastcode.dvdrental.commons.search.KeysetCursor;
 import com.fastcode.dvdrental.commons.search.OffsetBasedPageRequest;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
 import com.fastcode.dvdrental.commons.search.SearchUtils;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import java.time.*;
 import java.util.*;
 import javax.persistence.EntityNotFoundException;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.env.Environment;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -102,12 +109,47 @@ public class CategoryController {
         return new ResponseEntity(output, HttpStatus.OK);
     }
 
+    @PreAuthorize("hasAnyAuthority('CATEGORYENTITY_READ')")
+    @RequestMapping(
+        value = "/batch",
+        method = RequestMethod.POST,
+        consumes = { "application/json" },
+        produces = { "application/json" }
+    )
+    public ResponseEntity<Map<Integer, FindCategoryByIdOutput>> findByIds(@RequestBody LinkedHashSet<Integer> ids)
+        throws Exception {
+        return new ResponseEntity(_categoryAppService.findByIds(ids), HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyAuthority('CATEGORYENTITY_READ')")
+    @RequestMapping(value = "/export", method = RequestMethod.GET)
+    public void export(
+        @RequestParam(value = "search", required = false) String search,
+        @RequestParam(value = "format", required = false) String format,
+        Sort sort,
+        HttpServletResponse response
+    ) throws Exception {
+        ExportFormat exportFormat = ExportFormat.fromString(format);
+        SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(
+            HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"category." + exportFormat.getExtension() + "\""
+        );
+        try (ExportWriter writer = new ExportWriter(exportFormat, response.getOutputStream())) {
+            _categoryAppService.export(searchCriteria, KeysetCursor.keysetSort(sort, "categoryId"), writer::write);
+        }
+    }
+
     @PreAuthorize("hasAnyAuthority('CATEGORYENTITY_READ')")
     @RequestMapping(method = RequestMethod.GET, consumes = { "application/json" }, produces = { "application/json" })
     public ResponseEntity find(
         @RequestParam(value = "search", required = false) String search,
         @RequestParam(value = "offset", required = false) String offset,
         @RequestParam(value = "limit", required = false) String limit,
+        @RequestParam(value = "withTotal", required = false) String withTotal,
+        @RequestParam(value = "after", required = false) String after,
         Sort sort
     ) throws Exception {
         if (offset == null) {
@@ -121,10 +163,26 @@ public class CategoryController {
             sort = Sort.by(Sort.Direction.ASC, "categoryId");
         }
 
-        Pageable Pageable = new OffsetBasedPageRequest(Integer.parseInt(offset), Integer.parseInt(limit), sort);
         SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
-
-        return ResponseEntity.ok(_categoryAppService.find(searchCriteria, Pageable));
+        Long total = null;
+        if (withTotal != null) {
+            total = _categoryAppService.count(searchCriteria, TotalCount.fromString(withTotal));
+        }
+        Pageable Pageable = KeysetCursor.pageable(
+            searchCriteria,
+            after,
+            Integer.parseInt(offset),
+            Integer.parseInt(limit),
+            sort,
+            "categoryId"
+        );
+
+        Slice<FindCategoryByIdOutput> output = _categoryAppService.find(searchCriteria, Pageable);
+        HttpHeaders headers = KeysetCursor.nextCursorHeaders(output);
+        if (total != null) {
+            headers.set(TotalCount.HEADER, total.toString());
+        }
+        return ResponseEntity.ok().headers(headers).body(output.getContent());
     }
 
     @PreAuthorize("hasAnyAuthority('CATEGORYENTITY_READ')")
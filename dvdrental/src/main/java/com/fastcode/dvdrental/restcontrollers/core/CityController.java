@@ -5,20 +5,26 @@ import com.fastcode.dvdrental.application.core.address.dto.FindAddressByIdOutput
 import com.fastcode.dvdrental.application.core.city.ICityAppService;
 import com.fastcode.dvdrental.application.core.city.dto.*;
 import com.fastcode.dvdrental.application.core.country.ICountryAppService;
+import com.fastcode.dvdrental.commons.export.ExportFormat;
+import com.fastcode.dvdrental.commons.export.ExportWriter;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
-import com.fastcode.dvdrental.commons.search.OffsetBasedPageRequest;
+import com.fastcode.dvdrental.commons.search.KeysetCursor;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
 import com.fastcode.dvdrental.commons.search.SearchUtils;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import java.time.*;
 import java.util.*;
 import javax.persistence.EntityNotFoundException;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.env.Environment;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -107,12 +113,47 @@ public class CityController {
         return new ResponseEntity(output, HttpStatus.OK);
     }
 
+    @PreAuthorize("hasAnyAuthority('CITYENTITY_READ')")
+    @RequestMapping(
+        value = "/batch",
+        method = RequestMethod.POST,
+        consumes = { "application/json" },
+        produces = { "application/json" }
+    )
+    public ResponseEntity<Map<Integer, FindCityByIdOutput>> findByIds(@RequestBody LinkedHashSet<Integer> ids)
+        throws Exception {
+        return new ResponseEntity(_cityAppService.findByIds(ids), HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyAuthority('CITYENTITY_READ')")
+    @RequestMapping(value = "/export", method = RequestMethod.GET)
+    public void export(
+        @RequestParam(value = "search", required = false) String search,
+        @RequestParam(value = "format", required = false) String format,
+        Sort sort,
+        HttpServletResponse response
+    ) throws Exception {
+        ExportFormat exportFormat = ExportFormat.fromString(format);
+        SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(
+            HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"city." + exportFormat.getExtension() + "\""
+        );
+        try (ExportWriter writer = new ExportWriter(exportFormat, response.getOutputStream())) {
+            _cityAppService.export(searchCriteria, KeysetCursor.keysetSort(sort, "cityId"), writer::write);
+        }
+    }
+
     @PreAuthorize("hasAnyAuthority('CITYENTITY_READ')")
     @RequestMapping(method = RequestMethod.GET, consumes = { "application/json" }, produces = { "application/json" })
     public ResponseEntity find(
         @RequestParam(value = "search", required = false) String search,
         @RequestParam(value = "offset", required = false) String offset,
         @RequestParam(value = "limit", required = false) String limit,
+        @RequestParam(value = "withTotal", required = false) String withTotal,
+        @RequestParam(value = "after", required = false) String after,
         Sort sort
     ) throws Exception {
         if (offset == null) {
@@ -126,10 +167,26 @@ public class CityController {
             sort = Sort.by(Sort.Direction.ASC, "cityId");
         }
 
-        Pageable Pageable = new OffsetBasedPageRequest(Integer.parseInt(offset), Integer.parseInt(limit), sort);
         SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
-
-        return ResponseEntity.ok(_cityAppService.find(searchCriteria, Pageable));
+        Long total = null;
+        if (withTotal != null) {
+            total = _cityAppService.count(searchCriteria, TotalCount.fromString(withTotal));
+        }
+        Pageable Pageable = KeysetCursor.pageable(
+            searchCriteria,
+            after,
+            Integer.parseInt(offset),
+            Integer.parseInt(limit),
+            sort,
+            "cityId"
+        );
+
+        Slice<FindCityByIdOutput> output = _cityAppService.find(searchCriteria, Pageable);
+        HttpHeaders headers = KeysetCursor.nextCursorHeaders(output);
+        if (total != null) {
+            headers.set(TotalCount.HEADER, total.toString());
+        }
+        return ResponseEntity.ok().headers(headers).body(output.getContent());
     }
 
     @PreAuthorize("hasAnyAuthority('CITYENTITY_READ')")
@@ -144,6 +201,7 @@ public class CityController {
         @RequestParam(value = "search", required = false) String search,
         @RequestParam(value = "offset", required = false) String offset,
         @RequestParam(value = "limit", required = false) String limit,
+        @RequestParam(value = "after", required = false) String after,
         Sort sort
     ) throws Exception {
         if (offset == null) {
@@ -157,9 +215,15 @@ public class CityController {
             sort = Sort.by(Sort.Direction.ASC, "addressId");
         }
 
-        Pageable pageable = new OffsetBasedPageRequest(Integer.parseInt(offset), Integer.parseInt(limit), sort);
-
         SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
+        Pageable pageable = KeysetCursor.pageable(
+            searchCriteria,
+            after,
+            Integer.parseInt(offset),
+            Integer.parseInt(limit),
+            sort,
+            "addressId"
+        );
         Map<String, String> joinColDetails = _cityAppService.parseAddressJoinColumn(id);
         Optional
             .ofNullable(joinColDetails)
@@ -167,10 +231,10 @@ public class CityController {
 
         searchCriteria.setJoinColumns(joinColDetails);
 
-        List<FindAddressByIdOutput> output = _addressAppService.find(searchCriteria, pageable);
+        Slice<FindAddressByIdOutput> output = _addressAppService.find(searchCriteria, pageable);
         Optional.ofNullable(output).orElseThrow(() -> new EntityNotFoundException(String.format("Not found")));
 
-        return new ResponseEntity(output, HttpStatus.OK);
+        return new ResponseEntity(output.getContent(), KeysetCursor.nextCursorHeaders(output), HttpStatus.OK);
     }
 
     @PreAuthorize("hasAnyAuthority('CITYENTITY_READ')")
@@ -8,20 +8,26 @@ import com.fastcode.dvdrental.application.core.payment.dto.FindPaymentByIdOutput
 import com.fastcode.dvdrental.application.core.rental.IRentalAppService;
 import com.fastcode.dvdrental.application.core.rental.dto.FindRentalByIdOutput;
 import com.fastcode.dvdrental.application.core.store.IStoreAppService;
+import com.fastcode.dvdrental.commons.export.ExportFormat;
+import com.fastcode.dvdrental.commons.export.ExportWriter;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
-import com.fastcode.dvdrental.commons.search.OffsetBasedPageRequest;
+import com.fastcode.dvdrental.commons.search.KeysetCursor;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
 import com.fastcode.dvdrental.commons.search.SearchUtils;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import java.time.*;
 import java.util.*;
 import javax.persistence.EntityNotFoundException;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.env.Environment;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -124,12 +130,47 @@ public class CustomerController {
         return new ResponseEntity(output, HttpStatus.OK);
     }
 
+    @PreAuthorize("hasAnyAuthority('CUSTOMERENTITY_READ')")
+    @RequestMapping(
+        value = "/batch",
+        method = RequestMethod.POST,
+        consumes = { "application/json" },
+        produces = { "application/json" }
+    )
+    public ResponseEntity<Map<Integer, FindCustomerByIdOutput>> findByIds(@RequestBody LinkedHashSet<Integer> ids)
+        throws Exception {
+        return new ResponseEntity(_customerAppService.findByIds(ids), HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyAuthority('CUSTOMERENTITY_READ')")
+    @RequestMapping(value = "/export", method = RequestMethod.GET)
+    public void export(
+        @RequestParam(value = "search", required = false) String search,
+        @RequestParam(value = "format", required = false) String format,
+        Sort sort,
+        HttpServletResponse response
+    ) throws Exception {
+        ExportFormat exportFormat = ExportFormat.fromString(format);
+        SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(
+            HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"customer." + exportFormat.getExtension() + "\""
+        );
+        try (ExportWriter writer = new ExportWriter(exportFormat, response.getOutputStream())) {
+            _customerAppService.export(searchCriteria, KeysetCursor.keysetSort(sort, "customerId"), writer::write);
+        }
+    }
+
     @PreAuthorize("hasAnyAuthority('CUSTOMERENTITY_READ')")
     @RequestMapping(method = RequestMethod.GET, consumes = { "application/json" }, produces = { "application/json" })
     public ResponseEntity find(
         @RequestParam(value = "search", required = false) String search,
         @RequestParam(value = "offset", required = false) String offset,
         @RequestParam(value = "limit", required = false) String limit,
+        @RequestParam(value = "withTotal", required = false) String withTotal,
+        @RequestParam(value = "after", required = false) String after,
         Sort sort
     ) throws Exception {
         if (offset == null) {
@@ -143,10 +184,26 @@ public class CustomerController {
             sort = Sort.by(Sort.Direction.ASC, "customerId");
         }
 
-        Pageable Pageable = new OffsetBasedPageRequest(Integer.parseInt(offset), Integer.parseInt(limit), sort);
         SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
-
-        return ResponseEntity.ok(_customerAppService.find(searchCriteria, Pageable));
+        Long total = null;
+        if (withTotal != null) {
+            total = _customerAppService.count(searchCriteria, TotalCount.fromString(withTotal));
+        }
+        Pageable Pageable = KeysetCursor.pageable(
+            searchCriteria,
+            after,
+            Integer.parseInt(offset),
+            Integer.parseInt(limit),
+            sort,
+            "customerId"
+        );
+
+        Slice<FindCustomerByIdOutput> output = _customerAppService.find(searchCriteria, Pageable);
+        HttpHeaders headers = KeysetCursor.nextCursorHeaders(output);
+        if (total != null) {
+            headers.set(TotalCount.HEADER, total.toString());
+        }
+        return ResponseEntity.ok().headers(headers).body(output.getContent());
     }
 
     @PreAuthorize("hasAnyAuthority('CUSTOMERENTITY_READ')")
@@ -175,6 +232,7 @@ public class CustomerController {
         @RequestParam(value = "search", required = false) String search,
         @RequestParam(value = "offset", required = false) String offset,
         @RequestParam(value = "limit", required = false) String limit,
+        @RequestParam(value = "after", required = false) String after,
         Sort sort
     ) throws Exception {
         if (offset == null) {
@@ -188,9 +246,15 @@ public class CustomerController {
             sort = Sort.by(Sort.Direction.ASC, "paymentId");
         }
 
-        Pageable pageable = new OffsetBasedPageRequest(Integer.parseInt(offset), Integer.parseInt(limit), sort);
-
         SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
+        Pageable pageable = KeysetCursor.pageable(
+            searchCriteria,
+            after,
+            Integer.parseInt(offset),
+            Integer.parseInt(limit),
+            sort,
+            "paymentId"
+        );
         Map<String, String> joinColDetails = _customerAppService.parsePaymentsJoinColumn(id);
         Optional
             .ofNullable(joinColDetails)
@@ -198,10 +262,10 @@ public class CustomerController {
 
         searchCriteria.setJoinColumns(joinColDetails);
 
-        List<FindPaymentByIdOutput> output = _paymentAppService.find(searchCriteria, pageable);
+        Slice<FindPaymentByIdOutput> output = _paymentAppService.find(searchCriteria, pageable);
         Optional.ofNullable(output).orElseThrow(() -> new EntityNotFoundException(String.format("Not found")));
 
-        return new ResponseEntity(output, HttpStatus.OK);
+        return new ResponseEntity(output.getContent(), KeysetCursor.nextCursorHeaders(output), HttpStatus.OK);
     }
 
     @PreAuthorize("hasAnyAuthority('CUSTOMERENTITY_READ')")
@@ -216,6 +280,7 @@ public class CustomerController {
         @RequestParam(value = "search", required = false) String search,
         @RequestParam(value = "offset", required = false) String offset,
         @RequestParam(value = "limit", required = false) String limit,
+        @RequestParam(value = "after", required = false) String after,
         Sort sort
     ) throws Exception {
         if (offset == null) {
@@ -229,9 +294,15 @@ public class CustomerController {
             sort = Sort.by(Sort.Direction.ASC, "rentalId");
         }
 
-        Pageable pageable = new OffsetBasedPageRequest(Integer.parseInt(offset), Integer.parseInt(limit), sort);
-
         SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
+        Pageable pageable = KeysetCursor.pageable(
+            searchCriteria,
+            after,
+            Integer.parseInt(offset),
+            Integer.parseInt(limit),
+            sort,
+            "rentalId"
+        );
         Map<String, String> joinColDetails = _customerAppService.parseRentalsJoinColumn(id);
         Optional
             .ofNullable(joinColDetails)
@@ -239,10 +310,10 @@ public class CustomerController {
 
         searchCriteria.setJoinColumns(joinColDetails);
 
-        List<FindRentalByIdOutput> output = _rentalAppService.find(searchCriteria, pageable);
+        Slice<FindRentalByIdOutput> output = _rentalAppService.find(searchCriteria, pageable);
         Optional.ofNullable(output).orElseThrow(() -> new EntityNotFoundException(String.format("Not found")));
 
-        return new ResponseEntity(output, HttpStatus.OK);
+        return new ResponseEntity(output.getContent(), KeysetCursor.nextCursorHeaders(output), HttpStatus.OK);
     }
 
     @PreAuthorize("hasAnyAuthority('CUSTOMERENTITY_READ')")
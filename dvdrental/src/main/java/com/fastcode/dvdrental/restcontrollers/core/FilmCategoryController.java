@@ -8,6 +8,7 @@ import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.commons.search.OffsetBasedPageRequest;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
 import com.fastcode.dvdrental.commons.search.SearchUtils;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import com.fastcode.dvdrental.domain.core.filmcategory.FilmCategoryId;
 import java.time.*;
 import java.util.*;
@@ -19,6 +20,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.env.Environment;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -132,6 +134,7 @@ public class FilmCategoryController {
         @RequestParam(value = "search", required = false) String search,
         @RequestParam(value = "offset", required = false) String offset,
         @RequestParam(value = "limit", required = false) String limit,
+        @RequestParam(value = "withTotal", required = false) String withTotal,
         Sort sort
     ) throws Exception {
         if (offset == null) {
@@ -147,8 +150,17 @@ public class FilmCategoryController {
 
         Pageable Pageable = new OffsetBasedPageRequest(Integer.parseInt(offset), Integer.parseInt(limit), sort);
         SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
+        Long total = null;
+        if (withTotal != null) {
+            total = _filmCategoryAppService.count(searchCriteria, TotalCount.fromString(withTotal));
+        }
 
-        return ResponseEntity.ok(_filmCategoryAppService.find(searchCriteria, Pageable));
+        List<FindFilmCategoryByIdOutput> output = _filmCategoryAppService.find(searchCriteria, Pageable);
+        HttpHeaders headers = new HttpHeaders();
+        if (total != null) {
+            headers.set(TotalCount.HEADER, total.toString());
+        }
+        return ResponseEntity.ok().headers(headers).body(output);
     }
 
     @PreAuthorize("hasAnyAuthority('FILMCATEGORYENTITY_READ')")
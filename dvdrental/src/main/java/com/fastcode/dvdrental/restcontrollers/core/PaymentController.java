@@ -5,20 +5,27 @@ import com.fastcode.dvdrental.application.core.payment.IPaymentAppService;
 import com.fastcode.dvdrental.application.core.payment.dto.*;
 import com.fastcode.dvdrental.application.core.rental.IRentalAppService;
 import com.fastcode.dvdrental.application.core.staff.IStaffAppService;
+import com.fastcode.dvdrental.commons.bulk.BulkOutput;
+import com.fastcode.dvdrental.commons.export.ExportFormat;
+import com.fastcode.dvdrental.commons.export.ExportWriter;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
-import com.fastcode.dvdrental.commons.search.OffsetBasedPageRequest;
+import com.fastcode.dvdrental.commons.search.KeysetCursor;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
 import com.fastcode.dvdrental.commons.search.SearchUtils;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import java.time.*;
 import java.util.*;
 import javax.persistence.EntityNotFoundException;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.env.Environment;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -64,6 +71,30 @@ public class PaymentController {
         return new ResponseEntity(output, HttpStatus.OK);
     }
 
+    @PreAuthorize("hasAnyAuthority('PAYMENTENTITY_CREATE')")
+    @RequestMapping(
+        value = "/bulk",
+        method = RequestMethod.POST,
+        consumes = { "application/json" },
+        produces = { "application/json" }
+    )
+    public ResponseEntity<BulkOutput<CreatePaymentOutput>> createAll(@RequestBody List<CreatePaymentInput> payments)
+        throws Exception {
+        return new ResponseEntity(_paymentAppService.createAll(payments), HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyAuthority('PAYMENTENTITY_UPDATE')")
+    @RequestMapping(
+        value = "/bulk",
+        method = RequestMethod.PUT,
+        consumes = { "application/json" },
+        produces = { "application/json" }
+    )
+    public ResponseEntity<BulkOutput<UpdatePaymentOutput>> updateAll(@RequestBody List<UpdatePaymentInput> payments)
+        throws Exception {
+        return new ResponseEntity(_paymentAppService.updateAll(payments), HttpStatus.OK);
+    }
+
     // ------------ Delete payment ------------
     @PreAuthorize("hasAnyAuthority('PAYMENTENTITY_DELETE')")
     @ResponseStatus(value = HttpStatus.NO_CONTENT)
@@ -120,12 +151,47 @@ public class PaymentController {
         return new ResponseEntity(output, HttpStatus.OK);
     }
 
+    @PreAuthorize("hasAnyAuthority('PAYMENTENTITY_READ')")
+    @RequestMapping(
+        value = "/batch",
+        method = RequestMethod.POST,
+        consumes = { "application/json" },
+        produces = { "application/json" }
+    )
+    public ResponseEntity<Map<Integer, FindPaymentByIdOutput>> findByIds(@RequestBody LinkedHashSet<Integer> ids)
+        throws Exception {
+        return new ResponseEntity(_paymentAppService.findByIds(ids), HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyAuthority('PAYMENTENTITY_READ')")
+    @RequestMapping(value = "/export", method = RequestMethod.GET)
+    public void export(
+        @RequestParam(value = "search", required = false) String search,
+        @RequestParam(value = "format", required = false) String format,
+        Sort sort,
+        HttpServletResponse response
+    ) throws Exception {
+        ExportFormat exportFormat = ExportFormat.fromString(format);
+        SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(
+            HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"payment." + exportFormat.getExtension() + "\""
+        );
+        try (ExportWriter writer = new ExportWriter(exportFormat, response.getOutputStream())) {
+            _paymentAppService.export(searchCriteria, KeysetCursor.keysetSort(sort, "paymentId"), writer::write);
+        }
+    }
+
     @PreAuthorize("hasAnyAuthority('PAYMENTENTITY_READ')")
     @RequestMapping(method = RequestMethod.GET, consumes = { "application/json" }, produces = { "application/json" })
     public ResponseEntity find(
         @RequestParam(value = "search", required = false) String search,
         @RequestParam(value = "offset", required = false) String offset,
         @RequestParam(value = "limit", required = false) String limit,
+        @RequestParam(value = "withTotal", required = false) String withTotal,
+        @RequestParam(value = "after", required = false) String after,
         Sort sort
     ) throws Exception {
         if (offset == null) {
@@ -139,10 +205,26 @@ public class PaymentController {
             sort = Sort.by(Sort.Direction.ASC, "paymentId");
         }
 
-        Pageable Pageable = new OffsetBasedPageRequest(Integer.parseInt(offset), Integer.parseInt(limit), sort);
         SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
+        Long total = null;
+        if (withTotal != null) {
+            total = _paymentAppService.count(searchCriteria, TotalCount.fromString(withTotal));
+        }
+        Pageable Pageable = KeysetCursor.pageable(
+            searchCriteria,
+            after,
+            Integer.parseInt(offset),
+            Integer.parseInt(limit),
+            sort,
+            "paymentId"
+        );
 
-        return ResponseEntity.ok(_paymentAppService.find(searchCriteria, Pageable));
+        Slice<FindPaymentByIdOutput> output = _paymentAppService.find(searchCriteria, Pageable);
+        HttpHeaders headers = KeysetCursor.nextCursorHeaders(output);
+        if (total != null) {
+            headers.set(TotalCount.HEADER, total.toString());
+        }
+        return ResponseEntity.ok().headers(headers).body(output.getContent());
     }
 
     @PreAuthorize("hasAnyAuthority('PAYMENTENTITY_READ')")
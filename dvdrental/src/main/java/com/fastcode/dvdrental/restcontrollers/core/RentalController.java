@@ -7,20 +7,27 @@ import com.fastcode.dvdrental.application.core.payment.dto.FindPaymentByIdOutput
 import com.fastcode.dvdrental.application.core.rental.IRentalAppService;
 import com.fastcode.dvdrental.application.core.rental.dto.*;
 import com.fastcode.dvdrental.application.core.staff.IStaffAppService;
+import com.fastcode.dvdrental.commons.bulk.BulkOutput;
+import com.fastcode.dvdrental.commons.export.ExportFormat;
+import com.fastcode.dvdrental.commons.export.ExportWriter;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
-import com.fastcode.dvdrental.commons.search.OffsetBasedPageRequest;
+import com.fastcode.dvdrental.commons.search.KeysetCursor;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
 import com.fastcode.dvdrental.commons.search.SearchUtils;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import java.time.*;
 import java.util.*;
 import javax.persistence.EntityNotFoundException;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.env.Environment;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -70,6 +77,30 @@ public class RentalController {
         return new ResponseEntity(output, HttpStatus.OK);
     }
 
+    @PreAuthorize("hasAnyAuthority('RENTALENTITY_CREATE')")
+    @RequestMapping(
+        value = "/bulk",
+        method = RequestMethod.POST,
+        consumes = { "application/json" },
+        produces = { "application/json" }
+    )
+    public ResponseEntity<BulkOutput<CreateRentalOutput>> createAll(@RequestBody List<CreateRentalInput> rentals)
+        throws Exception {
+        return new ResponseEntity(_rentalAppService.createAll(rentals), HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyAuthority('RENTALENTITY_UPDATE')")
+    @RequestMapping(
+        value = "/bulk",
+        method = RequestMethod.PUT,
+        consumes = { "application/json" },
+        produces = { "application/json" }
+    )
+    public ResponseEntity<BulkOutput<UpdateRentalOutput>> updateAll(@RequestBody List<UpdateRentalInput> rentals)
+        throws Exception {
+        return new ResponseEntity(_rentalAppService.updateAll(rentals), HttpStatus.OK);
+    }
+
     // ------------ Delete rental ------------
     @PreAuthorize("hasAnyAuthority('RENTALENTITY_DELETE')")
     @ResponseStatus(value = HttpStatus.NO_CONTENT)
@@ -126,12 +157,47 @@ public class RentalController {
         return new ResponseEntity(output, HttpStatus.OK);
     }
 
+    @PreAuthorize("hasAnyAuthority('RENTALENTITY_READ')")
+    @RequestMapping(
+        value = "/batch",
+        method = RequestMethod.POST,
+        consumes = { "application/json" },
+        produces = { "application/json" }
+    )
+    public ResponseEntity<Map<Integer, FindRentalByIdOutput>> findByIds(@RequestBody LinkedHashSet<Integer> ids)
+        throws Exception {
+        return new ResponseEntity(_rentalAppService.findByIds(ids), HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyAuthority('RENTALENTITY_READ')")
+    @RequestMapping(value = "/export", method = RequestMethod.GET)
+    public void export(
+        @RequestParam(value = "search", required = false) String search,
+        @RequestParam(value = "format", required = false) String format,
+        Sort sort,
+        HttpServletResponse response
+    ) throws Exception {
+        ExportFormat exportFormat = ExportFormat.fromString(format);
+        SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(
+            HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"rental." + exportFormat.getExtension() + "\""
+        );
+        try (ExportWriter writer = new ExportWriter(exportFormat, response.getOutputStream())) {
+            _rentalAppService.export(searchCriteria, KeysetCursor.keysetSort(sort, "rentalId"), writer::write);
+        }
+    }
+
     @PreAuthorize("hasAnyAuthority('RENTALENTITY_READ')")
     @RequestMapping(method = RequestMethod.GET, consumes = { "application/json" }, produces = { "application/json" })
     public ResponseEntity find(
         @RequestParam(value = "search", required = false) String search,
         @RequestParam(value = "offset", required = false) String offset,
         @RequestParam(value = "limit", required = false) String limit,
+        @RequestParam(value = "withTotal", required = false) String withTotal,
+        @RequestParam(value = "after", required = false) String after,
         Sort sort
     ) throws Exception {
         if (offset == null) {
@@ -145,10 +211,26 @@ public class RentalController {
             sort = Sort.by(Sort.Direction.ASC, "rentalId");
         }
 
-        Pageable Pageable = new OffsetBasedPageRequest(Integer.parseInt(offset), Integer.parseInt(limit), sort);
         SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
-
-        return ResponseEntity.ok(_rentalAppService.find(searchCriteria, Pageable));
+        Long total = null;
+        if (withTotal != null) {
+            total = _rentalAppService.count(searchCriteria, TotalCount.fromString(withTotal));
+        }
+        Pageable Pageable = KeysetCursor.pageable(
+            searchCriteria,
+            after,
+            Integer.parseInt(offset),
+            Integer.parseInt(limit),
+            sort,
+            "rentalId"
+        );
+
+        Slice<FindRentalByIdOutput> output = _rentalAppService.find(searchCriteria, Pageable);
+        HttpHeaders headers = KeysetCursor.nextCursorHeaders(output);
+        if (total != null) {
+            headers.set(TotalCount.HEADER, total.toString());
+        }
+        return ResponseEntity.ok().headers(headers).body(output.getContent());
     }
 
     @PreAuthorize("hasAnyAuthority('RENTALENTITY_READ')")
@@ -191,6 +273,7 @@ public class RentalController {
         @RequestParam(value = "search", required = false) String search,
         @RequestParam(value = "offset", required = false) String offset,
         @RequestParam(value = "limit", required = false) String limit,
+        @RequestParam(value = "after", required = false) String after,
         Sort sort
     ) throws Exception {
         if (offset == null) {
@@ -204,9 +287,15 @@ public class RentalController {
             sort = Sort.by(Sort.Direction.ASC, "paymentId");
         }
 
-        Pageable pageable = new OffsetBasedPageRequest(Integer.parseInt(offset), Integer.parseInt(limit), sort);
-
         SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
+        Pageable pageable = KeysetCursor.pageable(
+            searchCriteria,
+            after,
+            Integer.parseInt(offset),
+            Integer.parseInt(limit),
+            sort,
+            "paymentId"
+        );
         Map<String, String> joinColDetails = _rentalAppService.parsePaymentsJoinColumn(id);
         Optional
             .ofNullable(joinColDetails)
@@ -214,10 +303,10 @@ public class RentalController {
 
         searchCriteria.setJoinColumns(joinColDetails);
 
-        List<FindPaymentByIdOutput> output = _paymentAppService.find(searchCriteria, pageable);
+        Slice<FindPaymentByIdOutput> output = _paymentAppService.find(searchCriteria, pageable);
         Optional.ofNullable(output).orElseThrow(() -> new EntityNotFoundException(String.format("Not found")));
 
-        return new ResponseEntity(output, HttpStatus.OK);
+        return new ResponseEntity(output.getContent(), KeysetCursor.nextCursorHeaders(output), HttpStatus.OK);
     }
 
     @PreAuthorize("hasAnyAuthority('RENTALENTITY_READ')")
@@ -8,6 +8,7 @@ import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.commons.search.OffsetBasedPageRequest;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
 import com.fastcode.dvdrental.commons.search.SearchUtils;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import com.fastcode.dvdrental.domain.core.authorization.rolepermission.RolepermissionId;
 import java.time.*;
 import java.util.*;
@@ -19,6 +20,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.env.Environment;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -146,6 +148,7 @@ public class RolepermissionController {
         @RequestParam(value = "search", required = false) String search,
         @RequestParam(value = "offset", required = false) String offset,
         @RequestParam(value = "limit", required = false) String limit,
+        @RequestParam(value = "withTotal", required = false) String withTotal,
         Sort sort
     ) throws Exception {
         if (offset == null) {
@@ -157,8 +160,17 @@ public class RolepermissionController {
 
         Pageable Pageable = new OffsetBasedPageRequest(Integer.parseInt(offset), Integer.parseInt(limit), sort);
         SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
+        Long total = null;
+        if (withTotal != null) {
+            total = _rolepermissionAppService.count(searchCriteria, TotalCount.fromString(withTotal));
+        }
 
-        return ResponseEntity.ok(_rolepermissionAppService.find(searchCriteria, Pageable));
+        List<FindRolepermissionByIdOutput> output = _rolepermissionAppService.find(searchCriteria, Pageable);
+        HttpHeaders headers = new HttpHeaders();
+        if (total != null) {
+            headers.set(TotalCount.HEADER, total.toString());
+        }
+        return ResponseEntity.ok().headers(headers).body(output);
     }
 
     @PreAuthorize("hasAnyAuthority('ROLEPERMISSIONENTITY_READ')")
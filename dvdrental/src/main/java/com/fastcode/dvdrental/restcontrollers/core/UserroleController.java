@@ -9,6 +9,7 @@ import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.commons.search.OffsetBasedPageRequest;
 import com.fastcode.dvdrental.commons.search.SearchCriteria;
 import com.fastcode.dvdrental.commons.search.SearchUtils;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import com.fastcode.dvdrental.domain.core.authorization.userrole.UserroleId;
 import com.fastcode.dvdrental.security.JWTAppService;
 import java.time.*;
@@ -21,6 +22,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.env.Environment;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -148,6 +150,7 @@ public class UserroleController {
         @RequestParam(value = "search", required = false) String search,
         @RequestParam(value = "offset", required = false) String offset,
         @RequestParam(value = "limit", required = false) String limit,
+        @RequestParam(value = "withTotal", required = false) String withTotal,
         Sort sort
     ) throws Exception {
         if (offset == null) {
@@ -159,8 +162,17 @@ public class UserroleController {
 
         Pageable Pageable = new OffsetBasedPageRequest(Integer.parseInt(offset), Integer.parseInt(limit), sort);
         SearchCriteria searchCriteria = SearchUtils.generateSearchCriteriaObject(search);
+        Long total = null;
+        if (withTotal != null) {
+            total = _userroleAppService.count(searchCriteria, TotalCount.fromString(withTotal));
+        }
 
-        return ResponseEntity.ok(_userroleAppService.find(searchCriteria, Pageable));
+        List<FindUserroleByIdOutput> output = _userroleAppService.find(searchCriteria, Pageable);
+        HttpHeaders headers = new HttpHeaders();
+        if (total != null) {
+            headers.set(TotalCount.HEADER, total.toString());
+        }
+        return ResponseEntity.ok().headers(headers).body(output);
     }
 
     @PreAuthorize("hasAnyAuthority('USERROLEENTITY_READ')")
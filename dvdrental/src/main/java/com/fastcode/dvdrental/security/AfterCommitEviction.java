@@ -0,0 +1,27 @@
+package com.fastcode.dvdrental.security;
+
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs a cache eviction now and, inside a transaction, once more after the transaction commits, so that
+ * a read racing the transaction cannot cache the rows as they were before the commit.
+ */
+final class AfterCommitEviction {
+
+    private AfterCommitEviction() {}
+
+    static void run(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCommit() {
+                        eviction.run();
+                    }
+                }
+            );
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.fastcode.dvdrental.security;
+
+import java.io.Serializable;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.PermissionEvaluator;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evaluates {@code hasPermission(target, 'NAME')} against the permission bits of the authentication. The
+ * target is not used, since permissions are granted per entity type and not per row. Authentications
+ * without bits are checked against their granted authorities.
+ */
+@Component
+@RequiredArgsConstructor
+public class BitSetPermissionEvaluator implements PermissionEvaluator {
+
+    @NonNull
+    private final PermissionIndex permissionIndex;
+
+    @Override
+    public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission) {
+        return hasPermission(authentication, String.valueOf(permission));
+    }
+
+    @Override
+    public boolean hasPermission(
+        Authentication authentication,
+        Serializable targetId,
+        String targetType,
+        Object permission
+    ) {
+        return hasPermission(authentication, String.valueOf(permission));
+    }
+
+    public boolean hasPermission(Authentication authentication, String... permissions) {
+        if (authentication == null) {
+            return false;
+        }
+        if (authentication instanceof PermissionAuthenticationToken) {
+            return ((PermissionAuthenticationToken) authentication).hasAnyPermission(permissionIndex, permissions);
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            for (String permission : permissions) {
+                if (permission.equals(authority.getAuthority())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -1,11 +1,11 @@
 package com.fastcode.dvdrental.security;
 
 import com.fastcode.dvdrental.domain.core.authorization.jwtentity.IJwtRepository;
-import com.fastcode.dvdrental.domain.core.authorization.jwtentity.JwtEntity;
-import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,21 +17,40 @@ public class JWTAppService {
     @NonNull
     private final IJwtRepository _jwtRepository;
 
+    @NonNull
+    private final TokenSessionCache _tokenSessionCache;
+
+    @NonNull
+    private final StatelessTokenService _statelessTokenService;
+
     @Transactional(propagation = Propagation.REQUIRED)
     public void deleteAllUserTokens(String userName) {
-        List<JwtEntity> userTokens = _jwtRepository.findAll();
-        userTokens.removeAll(Collections.singleton(null));
-
-        for (JwtEntity jwt : userTokens) {
-            if (jwt.getUserName().equals(userName)) {
-                _jwtRepository.delete(jwt);
-            }
-        }
+        _jwtRepository.deleteByUserName(userName);
+        _tokenSessionCache.evictUser(userName);
+        _statelessTokenService.revokeUser(userName);
     }
 
     @Transactional(propagation = Propagation.REQUIRED)
     public void deleteToken(String token) {
-        JwtEntity jwt = _jwtRepository.findByAuthorizationToken(token);
-        _jwtRepository.delete(jwt);
+        _jwtRepository.deleteByAuthorizationTokenHash(TokenDigests.sha256(token));
+        _tokenSessionCache.evict(token);
+    }
+
+    /**
+     * Deletes at most batchSize of the expired tokens, oldest first, and returns how many were deleted.
+     * Each batch is its own transaction, so a purge never holds locks on the whole table.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public int purgeExpiredTokens(int batchSize) {
+        List<Long> expiredIds = _jwtRepository.findExpiredIds(new Date(), PageRequest.of(0, batchSize));
+        if (expiredIds.isEmpty()) {
+            return 0;
+        }
+        return _jwtRepository.deleteByIdIn(expiredIds);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public long countTokens() {
+        return _jwtRepository.count();
     }
 }
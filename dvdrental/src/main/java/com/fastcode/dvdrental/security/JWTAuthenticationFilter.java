@@ -2,62 +2,63 @@ package com.fastcode.dvdrental.security;
 
 import com.fastcode.dvdrental.domain.core.authorization.jwtentity.IJwtRepository;
 import com.fastcode.dvdrental.domain.core.authorization.jwtentity.JwtEntity;
-import com.fastcode.dvdrental.domain.core.authorization.user.IUserRepository;
-import com.fastcode.dvdrental.domain.core.authorization.user.UserEntity;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.util.*;
 import java.util.stream.Collectors;
 import javax.servlet.FilterChain;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import org.apache.http.auth.InvalidCredentialsException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+/**
+ * Logs a user in with a single read of the user: {@link UserDetailsServiceImpl} loads the user with its
+ * active and email confirmed flags and its effective permissions as a {@link LoginUser}, which the
+ * authentication carries to the issuing of the tokens.
+ */
 public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 
-    private IUserRepository _userRepository;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectReader CREDENTIALS_READER = MAPPER.readerFor(LoginUserInput.class);
+    private static final ObjectWriter RESPONSE_WRITER = MAPPER.writer();
 
     private IJwtRepository jwtRepo;
+    private TokenSessionCache tokenSessionCache;
+    private StatelessTokenService statelessTokenService;
     private AuthenticationManager authenticationManager;
 
-    public JWTAuthenticationFilter(
-        AuthenticationManager authenticationManager,
-        ApplicationContext ctx,
-        IUserRepository userRepository
-    ) {
+    public JWTAuthenticationFilter(AuthenticationManager authenticationManager, ApplicationContext ctx) {
         this.authenticationManager = authenticationManager;
-        this._userRepository = userRepository;
         this.jwtRepo = ctx.getBean(IJwtRepository.class);
+        this.tokenSessionCache = ctx.getBean(TokenSessionCache.class);
+        this.statelessTokenService = ctx.getBean(StatelessTokenService.class);
     }
 
     @Override
     public Authentication attemptAuthentication(HttpServletRequest request, HttpServletResponse res)
         throws AuthenticationException {
+        LoginUserInput creds;
         try {
-            System.out.println("I am here ...");
-            LoginUserInput creds = new ObjectMapper().readValue(request.getInputStream(), LoginUserInput.class);
-            UserEntity user = _userRepository.findByUserName(creds.getUserName());
-            if (user != null && user.getIsActive()) {
-                return authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(creds.getUserName(), creds.getPassword(), new ArrayList<>())
-                );
-            } else throw new InvalidCredentialsException("Invalid Credentials");
-        } catch (IOException | InvalidCredentialsException e) {
-            throw new RuntimeException(e);
+            creds = CREDENTIALS_READER.readValue(request.getInputStream());
+        } catch (IOException e) {
+            throw new AuthenticationServiceException("Invalid Credentials", e);
         }
+        return authenticationManager.authenticate(
+            new UsernamePasswordAuthenticationToken(creds.getUserName(), creds.getPassword(), new ArrayList<>())
+        );
     }
 
     @Override
@@ -69,26 +70,23 @@ public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilte
     ) throws IOException {
         Claims claims = Jwts.claims();
         Claims cookieClaims = Jwts.claims();
-        String userName = "";
+        LoginUser user = (LoginUser) auth.getPrincipal();
+        String userName = user.getUsername();
+        claims.setSubject(userName);
+        cookieClaims.setSubject(userName);
+        List<String> scopes = auth.getAuthorities().stream().map(s -> s.toString()).collect(Collectors.toList());
+        claims.put("scopes", scopes);
         response.setContentType("application/json");
-        PrintWriter out = response.getWriter();
-
-        if (auth != null) {
-            if (auth.getPrincipal() instanceof org.springframework.security.core.userdetails.User) {
-                userName = ((User) auth.getPrincipal()).getUsername();
-                claims.setSubject(userName);
-                cookieClaims.setSubject(userName);
-            }
-        }
-        claims.put("scopes", (auth.getAuthorities().stream().map(s -> s.toString()).collect(Collectors.toList())));
-        UserEntity user = _userRepository.findByUserName(userName);
-        if (user != null && (user.getIsEmailConfirmed() == null || !user.getIsEmailConfirmed())) {
-            out.println("{");
-            out.println("\"message\":" + "\"User email is not confirmed\",");
-            out.println("\"status\":" + "\"EmailNotConfirmed\"");
-            out.println("}");
-            out.close();
+
+        if (!user.isEmailConfirmed()) {
+            Map<String, String> body = new LinkedHashMap<>();
+            body.put("message", "User email is not confirmed");
+            body.put("status", "EmailNotConfirmed");
+            RESPONSE_WRITER.writeValue(response.getWriter(), body);
             return;
+        } else if (statelessTokenService.isEnabled()) {
+            String accessToken = statelessTokenService.issueTokens(userName, scopes, response);
+            RESPONSE_WRITER.writeValue(response.getWriter(), Collections.singletonMap("token", accessToken));
         } else {
             Date expDate = new Date(System.currentTimeMillis() + SecurityConstants.EXPIRATION_TIME);
             Long time = SecurityConstants.EXPIRATION_TIME / 1000;
@@ -110,11 +108,17 @@ public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilte
 
             // Add the user and token to the JwtEntity table
             JwtEntity jwt = new JwtEntity();
-            jwt.setAuthorizationToken(SecurityConstants.TOKEN_PREFIX + authorizationToken);
+            jwt.setAuthorizationTokenHash(TokenDigests.sha256(SecurityConstants.TOKEN_PREFIX + authorizationToken));
             jwt.setUserName(userName);
-            jwt.setAuthenticationToken(SecurityConstants.TOKEN_PREFIX + authenticationToken);
+            jwt.setAuthenticationTokenHash(TokenDigests.sha256(SecurityConstants.TOKEN_PREFIX + authenticationToken));
+            jwt.setExpiresAt(expDate);
 
             jwtRepo.save(jwt);
+            tokenSessionCache.put(
+                SecurityConstants.TOKEN_PREFIX + authorizationToken,
+                SecurityConstants.TOKEN_PREFIX + authenticationToken,
+                userName
+            );
 
             Cookie authenticationCookie = new Cookie(
                 SecurityConstants.HEADER_STRING_AUTHENTICATION,
@@ -131,10 +135,10 @@ public class JWTAuthenticationFilter extends UsernamePasswordAuthenticationFilte
             response.addHeader(SecurityConstants.HEADER_STRING, SecurityConstants.TOKEN_PREFIX + authorizationToken);
             response.setContentType("application/json");
 
-            out.println("{");
-            out.println("\"token\":" + "\"" + SecurityConstants.TOKEN_PREFIX + authorizationToken + "\"");
-            out.println("}");
-            out.close();
+            RESPONSE_WRITER.writeValue(
+                response.getWriter(),
+                Collections.singletonMap("token", SecurityConstants.TOKEN_PREFIX + authorizationToken)
+            );
         }
     }
 
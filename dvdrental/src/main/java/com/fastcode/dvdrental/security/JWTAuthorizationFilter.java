@@ -4,25 +4,20 @@ import com.fastcode.dvdrental.commons.error.ApiError;
 import com.fastcode.dvdrental.commons.error.ExceptionMessageConstants;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.domain.core.authorization.jwtentity.IJwtRepository;
-import com.fastcode.dvdrental.domain.core.authorization.jwtentity.JwtEntity;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.*;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.*;
-import java.util.stream.Collectors;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.context.ApplicationContext;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
@@ -30,11 +25,19 @@ public class JWTAuthorizationFilter extends BasicAuthenticationFilter {
 
     private SecurityUtils securityUtils;
     private IJwtRepository jwtRepo;
+    private TokenSessionCache tokenSessionCache;
+    private VerifiedClaimsCache verifiedClaimsCache;
+    private StatelessTokenService statelessTokenService;
+    private RevocationEpochs revocationEpochs;
 
     public JWTAuthorizationFilter(AuthenticationManager authManager, ApplicationContext ctx) {
         super(authManager);
         this.securityUtils = ctx.getBean(SecurityUtils.class);
         this.jwtRepo = ctx.getBean(IJwtRepository.class);
+        this.tokenSessionCache = ctx.getBean(TokenSessionCache.class);
+        this.verifiedClaimsCache = ctx.getBean(VerifiedClaimsCache.class);
+        this.statelessTokenService = ctx.getBean(StatelessTokenService.class);
+        this.revocationEpochs = ctx.getBean(RevocationEpochs.class);
     }
 
     @Override
@@ -43,11 +46,14 @@ public class JWTAuthorizationFilter extends BasicAuthenticationFilter {
         String authenticationToken = securityUtils.getTokenFromCookies(req.getCookies());
         String authorizationToken = req.getHeader(SecurityConstants.HEADER_STRING);
 
+        // In the stateless mode the cookie holds the refresh token, which is only sent to /auth/refresh
         if (
             authorizationToken == null ||
-            authenticationToken == null ||
             !authorizationToken.startsWith(SecurityConstants.TOKEN_PREFIX) ||
-            !authenticationToken.startsWith(SecurityConstants.TOKEN_PREFIX)
+            (
+                !statelessTokenService.isEnabled() &&
+                (authenticationToken == null || !authenticationToken.startsWith(SecurityConstants.TOKEN_PREFIX))
+            )
         ) {
             chain.doFilter(req, res);
             return;
@@ -99,49 +105,35 @@ public class JWTAuthorizationFilter extends BasicAuthenticationFilter {
 
     private UsernamePasswordAuthenticationToken getAuthentication(HttpServletRequest request) throws JwtException {
         String authorizationToken = request.getHeader(SecurityConstants.HEADER_STRING);
-        String authenticationToken = securityUtils.getTokenFromCookies(request.getCookies());
-        // Check that the token is inactive in the JwtEntity table
+        if (statelessTokenService.isEnabled()) {
+            // Access tokens are verified by signature, type and expiry, and revoked by the epoch of their user
+            PermissionAuthenticationToken authentication = verifiedClaimsCache.getAccessAuthentication(authorizationToken);
+            if (
+                authentication != null &&
+                revocationEpochs.isRevoked(authentication.getName(), authentication.getIssuedAtMillis())
+            ) {
+                throw new JwtException("Token Was Revoked");
+            }
+            return authentication;
+        }
 
-        // Check that the token is inactive in the JwtEntity table
-        JwtEntity jwt = jwtRepo.findByAuthorizationTokenAndAuthenticationToken(authorizationToken, authenticationToken);
+        String authenticationToken = securityUtils.getTokenFromCookies(request.getCookies());
+        // Check that the token is active in the token sessions, which fall back to the JwtEntity table
         ApiError apiError = new ApiError(HttpStatus.UNAUTHORIZED);
 
-        if (jwt == null) {
-            throw new JwtException("Token Does Not Exist");
-        }
-        Claims claims;
         if (
-            StringUtils.isNotEmpty(authenticationToken) &&
-            authenticationToken.startsWith(SecurityConstants.TOKEN_PREFIX)
+            !tokenSessionCache.isActive(
+                authorizationToken,
+                authenticationToken,
+                (authorization, authentication) ->
+                    jwtRepo.findByAuthorizationTokenHashAndAuthenticationTokenHash(
+                        TokenDigests.sha256(authorization),
+                        TokenDigests.sha256(authentication)
+                    )
+            )
         ) {
-            claims =
-                Jwts
-                    .parser()
-                    .setSigningKey(SecurityConstants.SECRET.getBytes())
-                    .parseClaimsJws(authenticationToken.replace(SecurityConstants.TOKEN_PREFIX, ""))
-                    .getBody();
-        }
-
-        if (
-            StringUtils.isNotEmpty(authorizationToken) && authorizationToken.startsWith(SecurityConstants.TOKEN_PREFIX)
-        ) {
-            String userName = null;
-            List<GrantedAuthority> authorities = null;
-            claims =
-                Jwts
-                    .parser()
-                    .setSigningKey(SecurityConstants.SECRET.getBytes())
-                    .parseClaimsJws(authorizationToken.replace(SecurityConstants.TOKEN_PREFIX, ""))
-                    .getBody();
-            userName = claims.getSubject();
-            List<String> scopes = claims.get("scopes", List.class);
-            authorities =
-                scopes.stream().map(authority -> new SimpleGrantedAuthority(authority)).collect(Collectors.toList());
-
-            if (StringUtils.isNotEmpty(userName)) {
-                return new UsernamePasswordAuthenticationToken(userName, null, authorities);
-            }
+            throw new JwtException("Token Does Not Exist");
         }
-        return null;
+        return verifiedClaimsCache.getAuthentication(authorizationToken, authenticationToken);
     }
 }
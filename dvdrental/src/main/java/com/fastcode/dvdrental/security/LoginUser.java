@@ -0,0 +1,40 @@
+package com.fastcode.dvdrental.security;
+
+import com.fastcode.dvdrental.domain.core.authorization.user.UserEntity;
+import java.util.Collection;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * User details of a login, read once from the user and carried through authentication to the issuing of
+ * the tokens, so that no step of the login reads the user again. Inactive users are disabled.
+ */
+public class LoginUser extends User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long userId;
+    private final boolean emailConfirmed;
+
+    public LoginUser(UserEntity user, Collection<? extends GrantedAuthority> authorities) {
+        super(
+            user.getUserName(),
+            user.getPassword(),
+            Boolean.TRUE.equals(user.getIsActive()),
+            true,
+            true,
+            true,
+            authorities
+        );
+        this.userId = user.getId();
+        this.emailConfirmed = Boolean.TRUE.equals(user.getIsEmailConfirmed());
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public boolean isEmailConfirmed() {
+        return emailConfirmed;
+    }
+}
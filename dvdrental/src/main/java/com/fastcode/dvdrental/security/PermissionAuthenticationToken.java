@@ -0,0 +1,62 @@
+package com.fastcode.dvdrental.security;
+
+import java.util.BitSet;
+import java.util.Collection;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Authentication of a request whose granted authorities are also encoded as bits of the
+ * {@link PermissionIndex}, which the method security expressions test instead of the authority list.
+ *
+ * Each request gets its own instance, built from the authorities and bits cached for its token pair, so the
+ * request can set details or clear it as for any authentication. {@link #getPermissions()} returns a copy of
+ * the bits, which are never changed.
+ */
+public class PermissionAuthenticationToken extends UsernamePasswordAuthenticationToken {
+
+    private static final long serialVersionUID = 1L;
+
+    private final BitSet permissions;
+    private final long issuedAtMillis;
+
+    public PermissionAuthenticationToken(
+        Object principal,
+        Collection<? extends GrantedAuthority> authorities,
+        BitSet permissions
+    ) {
+        this(principal, authorities, permissions, 0);
+    }
+
+    public PermissionAuthenticationToken(
+        Object principal,
+        Collection<? extends GrantedAuthority> authorities,
+        BitSet permissions,
+        long issuedAtMillis
+    ) {
+        super(principal, null, authorities);
+        this.permissions = (BitSet) permissions.clone();
+        this.issuedAtMillis = issuedAtMillis;
+    }
+
+    /**
+     * Returns a copy of the permission bits.
+     */
+    public BitSet getPermissions() {
+        return (BitSet) permissions.clone();
+    }
+
+    /**
+     * Returns whether any of the permissions is granted, without copying the bits.
+     */
+    boolean hasAnyPermission(PermissionIndex permissionIndex, String... names) {
+        return permissionIndex.hasAny(permissions, names);
+    }
+
+    /**
+     * Returns when the token of this authentication was issued, or 0 for tokens that do not record it.
+     */
+    public long getIssuedAtMillis() {
+        return issuedAtMillis;
+    }
+}
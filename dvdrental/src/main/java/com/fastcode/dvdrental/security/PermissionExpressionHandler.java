@@ -0,0 +1,43 @@
+package com.fastcode.dvdrental.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.security.access.expression.SecurityExpressionRoot;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Evaluates the method security expressions against a {@link PermissionExpressionRoot}. The expressions
+ * are parsed once per annotated method and compiled to bytecode after their first evaluations, falling
+ * back to interpretation for the ones that cannot be compiled.
+ */
+public class PermissionExpressionHandler extends DefaultMethodSecurityExpressionHandler {
+
+    private final BitSetPermissionEvaluator permissionEvaluator;
+
+    public PermissionExpressionHandler(BitSetPermissionEvaluator permissionEvaluator) {
+        this.permissionEvaluator = permissionEvaluator;
+        setPermissionEvaluator(permissionEvaluator);
+        setExpressionParser(
+            new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.MIXED, getClass().getClassLoader()))
+        );
+    }
+
+    @Override
+    protected MethodSecurityExpressionOperations createSecurityExpressionRoot(
+        Authentication authentication,
+        MethodInvocation invocation
+    ) {
+        PermissionExpressionRoot root = new PermissionExpressionRoot(authentication, permissionEvaluator);
+        SecurityExpressionRoot delegate = root.getDelegate();
+        delegate.setPermissionEvaluator(getPermissionEvaluator());
+        delegate.setTrustResolver(getTrustResolver());
+        delegate.setRoleHierarchy(getRoleHierarchy());
+        delegate.setDefaultRolePrefix(getDefaultRolePrefix());
+        root.setThis(invocation.getThis());
+        return root;
+    }
+}
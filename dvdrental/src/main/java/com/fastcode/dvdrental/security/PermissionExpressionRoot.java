@@ -0,0 +1,132 @@
+package com.fastcode.dvdrental.security;
+
+import org.springframework.security.access.expression.SecurityExpressionRoot;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Root object of the {@code @PreAuthorize} expressions, which answers {@code hasAuthority} and
+ * {@code hasAnyAuthority} from the permission bits of the authentication. Every other operation, and the
+ * authority checks of authentications without bits, go to the standard root.
+ */
+public class PermissionExpressionRoot implements MethodSecurityExpressionOperations {
+
+    public final boolean permitAll = true;
+    public final boolean denyAll = false;
+
+    private final SecurityExpressionRoot delegate;
+    private final BitSetPermissionEvaluator permissionEvaluator;
+    private Object filterObject;
+    private Object returnObject;
+    private Object target;
+
+    public PermissionExpressionRoot(Authentication authentication, BitSetPermissionEvaluator permissionEvaluator) {
+        this.delegate = new SecurityExpressionRoot(authentication) {};
+        this.permissionEvaluator = permissionEvaluator;
+    }
+
+    SecurityExpressionRoot getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public boolean hasAuthority(String authority) {
+        return hasAnyAuthority(authority);
+    }
+
+    @Override
+    public boolean hasAnyAuthority(String... authorities) {
+        if (getAuthentication() instanceof PermissionAuthenticationToken) {
+            return permissionEvaluator.hasPermission(getAuthentication(), authorities);
+        }
+        return delegate.hasAnyAuthority(authorities);
+    }
+
+    @Override
+    public Authentication getAuthentication() {
+        return delegate.getAuthentication();
+    }
+
+    @Override
+    public boolean hasRole(String role) {
+        return delegate.hasRole(role);
+    }
+
+    @Override
+    public boolean hasAnyRole(String... roles) {
+        return delegate.hasAnyRole(roles);
+    }
+
+    @Override
+    public boolean permitAll() {
+        return true;
+    }
+
+    @Override
+    public boolean denyAll() {
+        return false;
+    }
+
+    @Override
+    public boolean isAnonymous() {
+        return delegate.isAnonymous();
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return delegate.isAuthenticated();
+    }
+
+    @Override
+    public boolean isRememberMe() {
+        return delegate.isRememberMe();
+    }
+
+    @Override
+    public boolean isFullyAuthenticated() {
+        return delegate.isFullyAuthenticated();
+    }
+
+    @Override
+    public boolean hasPermission(Object target, Object permission) {
+        return delegate.hasPermission(target, permission);
+    }
+
+    @Override
+    public boolean hasPermission(Object targetId, String targetType, Object permission) {
+        return delegate.hasPermission(targetId, targetType, permission);
+    }
+
+    public Object getPrincipal() {
+        return delegate.getPrincipal();
+    }
+
+    @Override
+    public void setFilterObject(Object filterObject) {
+        this.filterObject = filterObject;
+    }
+
+    @Override
+    public Object getFilterObject() {
+        return filterObject;
+    }
+
+    @Override
+    public void setReturnObject(Object returnObject) {
+        this.returnObject = returnObject;
+    }
+
+    @Override
+    public Object getReturnObject() {
+        return returnObject;
+    }
+
+    void setThis(Object target) {
+        this.target = target;
+    }
+
+    @Override
+    public Object getThis() {
+        return target;
+    }
+}
@@ -0,0 +1,72 @@
+package com.fastcode.dvdrental.security;
+
+import com.fastcode.dvdrental.domain.core.authorization.permission.IPermissionRepository;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Interns permission names to dense integer ids, so that the permissions of an authentication can be
+ * held in a {@link BitSet} and an authority check is a bit test instead of a scan over granted authority
+ * strings.
+ *
+ * The names of the permission table are interned at startup. Names seen later, in tokens or in
+ * permissions created afterwards, are interned on first use. Ids are never reused, so a bit set built
+ * earlier stays valid.
+ */
+@Component
+@RequiredArgsConstructor
+public class PermissionIndex {
+
+    public static final int NOT_INTERNED = -1;
+
+    @Qualifier("permissionRepository")
+    @NonNull
+    private final IPermissionRepository permissionRepository;
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        permissionRepository.findAllPermissionNames().forEach(this::intern);
+    }
+
+    public int intern(String name) {
+        return ids.computeIfAbsent(name, n -> nextId.getAndIncrement());
+    }
+
+    /**
+     * Returns the id of an interned name, or {@value #NOT_INTERNED} when no authentication can hold it.
+     */
+    public int idOf(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : NOT_INTERNED;
+    }
+
+    public BitSet encode(Collection<String> names) {
+        BitSet bits = new BitSet(nextId.get());
+        for (String name : names) {
+            bits.set(intern(name));
+        }
+        return bits;
+    }
+
+    public boolean hasAny(BitSet bits, String... names) {
+        for (String name : names) {
+            int id = idOf(name);
+            if (id != NOT_INTERNED && bits.get(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
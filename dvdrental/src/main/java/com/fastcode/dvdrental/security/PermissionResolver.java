@@ -0,0 +1,54 @@
+package com.fastcode.dvdrental.security;
+
+import com.fastcode.dvdrental.domain.core.authorization.permission.IPermissionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Effective permissions of the users: the permissions of their roles plus the permissions granted to
+ * them, minus the permissions revoked from them.
+ *
+ * A user's set is resolved by a single query and kept until the user's roles or permissions change, or
+ * until a role permission or permission changes, which evicts every set.
+ */
+@Component
+@RequiredArgsConstructor
+public class PermissionResolver {
+
+    public static final long MAXIMUM_SIZE = 10_000;
+
+    @Qualifier("permissionRepository")
+    @NonNull
+    private final IPermissionRepository permissionRepository;
+
+    private final Cache<Long, Set<String>> permissions = Caffeine
+        .newBuilder()
+        .maximumSize(MAXIMUM_SIZE)
+        .expireAfterWrite(1, TimeUnit.HOURS)
+        .build();
+
+    public Set<String> getPermissions(Long userId) {
+        return permissions.get(
+            userId,
+            id -> Collections.unmodifiableSet(
+                new LinkedHashSet<>(permissionRepository.findEffectivePermissionNamesByUserId(id))
+            )
+        );
+    }
+
+    public void evictUser(Long userId) {
+        AfterCommitEviction.run(() -> permissions.invalidate(userId));
+    }
+
+    public void evictAll() {
+        AfterCommitEviction.run(permissions::invalidateAll);
+    }
+}
@@ -0,0 +1,33 @@
+package com.fastcode.dvdrental.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per user revocation epochs of the stateless mode: the time of the last revocation of a user's tokens.
+ * An access token issued at or before the epoch of its user is rejected.
+ *
+ * An epoch is only needed while access tokens issued before it can still be valid, so epochs are dropped
+ * {@link SecurityConstants#ACCESS_EXPIRATION_TIME} after they are set. The epochs are held by each
+ * instance, so a revocation on another instance only takes effect here when the revoked access tokens
+ * expire.
+ */
+@Component
+public class RevocationEpochs {
+
+    private final Cache<String, Long> epochs = Caffeine
+        .newBuilder()
+        .expireAfterWrite(SecurityConstants.ACCESS_EXPIRATION_TIME, TimeUnit.MILLISECONDS)
+        .build();
+
+    public void revoke(String userName) {
+        epochs.asMap().merge(userName, System.currentTimeMillis(), Math::max);
+    }
+
+    public boolean isRevoked(String userName, long issuedAtMillis) {
+        Long epoch = epochs.getIfPresent(userName);
+        return epoch != null && issuedAtMillis <= epoch;
+    }
+}
@@ -3,27 +3,26 @@ package com.fastcode.dvdrental.security;
 import static com.fastcode.dvdrental.security.SecurityConstants.CONFIRM;
 import static com.fastcode.dvdrental.security.SecurityConstants.REGISTER;
 
-import com.fastcode.dvdrental.domain.core.authorization.user.IUserRepository;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AccountStatusUserDetailsChecker;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
-import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 
 @Configuration
 @EnableWebSecurity
-@EnableGlobalMethodSecurity(prePostEnabled = true)
 @RequiredArgsConstructor
 public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
@@ -33,10 +32,6 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     @NonNull
     private final Environment env;
 
-    @Qualifier("userRepository")
-    @NonNull
-    private final IUserRepository userRepository;
-
     @NonNull
     private final ApplicationContext context;
 
@@ -46,7 +41,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
             .cors()
             .and()
             .csrf()
-            .ignoringAntMatchers("/auth", "/auth/logout")
+            .ignoringAntMatchers("/auth", "/auth/logout", "/auth/refresh")
             .csrfTokenRepository(CookieCsrfTokenRepository.withHttpOnlyFalse())
             .and()
             .sessionManagement()
@@ -55,6 +50,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
             .authorizeRequests()
             .antMatchers(
                 "/auth",
+                "/auth/refresh",
                 "/reporting/viewResource/**",
                 "/register/**",
                 "/password/forgot",
@@ -81,12 +77,25 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
             .anyRequest()
             .authenticated()
             .and()
-            .addFilter(new JWTAuthenticationFilter(authenticationManager(), context, userRepository))
+            .addFilter(new JWTAuthenticationFilter(authenticationManager(), context))
             .addFilter(new JWTAuthorizationFilter(authenticationManager(), context));
     }
 
     @Autowired
     public void configure(AuthenticationManagerBuilder auth) throws Exception {
-        auth.userDetailsService(userDetailsService).passwordEncoder(new BCryptPasswordEncoder());
+        auth.authenticationProvider(authenticationProvider(userDetailsService));
+    }
+
+    /**
+     * Checks whether the account is disabled, locked or expired only once the password has matched, so that a
+     * caller without the password gets the same bad credentials for any account.
+     */
+    static DaoAuthenticationProvider authenticationProvider(UserDetailsService userDetailsService) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(new BCryptPasswordEncoder());
+        provider.setPreAuthenticationChecks(user -> {});
+        provider.setPostAuthenticationChecks(new AccountStatusUserDetailsChecker());
+        return provider;
     }
 }
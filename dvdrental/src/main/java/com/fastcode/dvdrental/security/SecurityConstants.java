@@ -4,6 +4,13 @@ public class SecurityConstants {
 
     public static final String SECRET = "SecretKeyToGenJWTs"; // We should place this in a secure location or an encrypted file
     public static final long EXPIRATION_TIME = 864_000_000; // 10 days
+    public static final long ACCESS_EXPIRATION_TIME = 900_000; // 15 minutes, access tokens of the stateless mode
+    public static final String ISSUED_AT_MILLIS = "issuedAtMillis";
+    public static final String TOKEN_TYPE = "typ"; // Tells the access and refresh tokens of the stateless mode apart
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
+    public static final String REFRESH_TOKEN_DIGEST = "rtd"; // Digest of the refresh token an access token was issued with
+    public static final String REFRESH_PATH = "/auth/refresh"; // Only path the refresh token cookie is sent to
     public static final String TOKEN_PREFIX = "Bearer_";
     public static final String HEADER_STRING = "Authorization";
     public static final String HEADER_STRING_AUTHENTICATION = "Authentication";
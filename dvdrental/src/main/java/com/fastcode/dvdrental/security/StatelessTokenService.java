@@ -0,0 +1,196 @@
+package com.fastcode.dvdrental.security;
+
+import com.fastcode.dvdrental.domain.core.authorization.refreshtoken.IRefreshTokenRepository;
+import com.fastcode.dvdrental.domain.core.authorization.refreshtoken.RefreshTokenEntity;
+import com.fastcode.dvdrental.domain.core.authorization.user.IUserRepository;
+import com.fastcode.dvdrental.domain.core.authorization.user.UserEntity;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import javax.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Tokens of the stateless mode, enabled by {@code fastCode.security.stateless=true}.
+ *
+ * Requests are authenticated by short lived access tokens, which are only verified cryptographically and
+ * against the {@link RevocationEpochs}, so no request reads the database for authentication. A login also
+ * issues a long lived refresh token, sent as the authentication cookie and stored as a digest. The cookie is
+ * strictly same-site and only sent to {@value SecurityConstants#REFRESH_PATH}, where it can be exchanged once
+ * for a new access token and a new refresh token. A refresh token that is used again was copied, so every
+ * token of its user is revoked.
+ */
+@Service
+@RequiredArgsConstructor
+public class StatelessTokenService {
+
+    @Value("${fastCode.security.stateless:false}")
+    private boolean enabled;
+
+    @Value("${fastCode.security.refreshCookie.secure:true}")
+    private boolean secureRefreshCookie;
+
+    @NonNull
+    private final IRefreshTokenRepository _refreshTokenRepository;
+
+    @Qualifier("userRepository")
+    @NonNull
+    private final IUserRepository _userRepository;
+
+    @NonNull
+    private final SecurityUtils _securityUtils;
+
+    @NonNull
+    private final RevocationEpochs _revocationEpochs;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Issues an access token and a refresh token for the user. The refresh token is set as the
+     * authentication cookie and the access token is returned, with its prefix.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public String issueTokens(String userName, List<String> scopes, HttpServletResponse response) {
+        long now = System.currentTimeMillis();
+
+        Claims refreshClaims = Jwts.claims();
+        refreshClaims.setSubject(userName);
+        refreshClaims.setId(UUID.randomUUID().toString());
+        refreshClaims.setExpiration(new Date(now + SecurityConstants.EXPIRATION_TIME));
+        refreshClaims.put(SecurityConstants.TOKEN_TYPE, SecurityConstants.REFRESH_TOKEN);
+        String refreshToken = SecurityConstants.TOKEN_PREFIX + sign(refreshClaims);
+
+        RefreshTokenEntity stored = new RefreshTokenEntity();
+        stored.setTokenHash(TokenDigests.sha256(refreshToken));
+        stored.setUserName(userName);
+        stored.setExpiresAt(refreshClaims.getExpiration());
+        _refreshTokenRepository.save(stored);
+
+        // The access token names its refresh token, which logout ends without being sent the cookie
+        Claims accessClaims = Jwts.claims();
+        accessClaims.setSubject(userName);
+        accessClaims.setIssuedAt(new Date(now));
+        accessClaims.setExpiration(new Date(now + SecurityConstants.ACCESS_EXPIRATION_TIME));
+        accessClaims.put(SecurityConstants.ISSUED_AT_MILLIS, now);
+        accessClaims.put("scopes", scopes);
+        accessClaims.put(SecurityConstants.TOKEN_TYPE, SecurityConstants.ACCESS_TOKEN);
+        accessClaims.put(SecurityConstants.REFRESH_TOKEN_DIGEST, stored.getTokenHash());
+        String accessToken = SecurityConstants.TOKEN_PREFIX + sign(accessClaims);
+
+        response.setHeader("Access-Control-Allow-Credentials", "true");
+        response.addHeader(
+            HttpHeaders.SET_COOKIE,
+            refreshCookie(refreshToken, SecurityConstants.EXPIRATION_TIME / 1000).toString()
+        );
+        response.addHeader(SecurityConstants.HEADER_STRING, accessToken);
+        return accessToken;
+    }
+
+    /**
+     * Exchanges a refresh token for new tokens, with the current permissions of its user.
+     *
+     * @throws JwtException when the refresh token is invalid, expired, was already used or is another kind
+     * of token, or its user is no longer active
+     */
+    @Transactional(propagation = Propagation.REQUIRED, noRollbackFor = JwtException.class)
+    public String refresh(String refreshToken, HttpServletResponse response) throws JwtException {
+        Claims claims = parse(refreshToken);
+        if (!SecurityConstants.REFRESH_TOKEN.equals(claims.get(SecurityConstants.TOKEN_TYPE))) {
+            throw new JwtException("Token Is Not A Refresh Token");
+        }
+        String userName = claims.getSubject();
+
+        if (_refreshTokenRepository.deleteByTokenHash(TokenDigests.sha256(refreshToken)) == 0) {
+            revokeUser(userName);
+            throw new JwtException("Refresh Token Was Already Used");
+        }
+
+        UserEntity user = _userRepository.findByUserName(userName);
+        if (user == null || !Boolean.TRUE.equals(user.getIsActive())) {
+            throw new JwtException("User Is Not Active");
+        }
+        return issueTokens(userName, _securityUtils.getAllPermissionsFromUserAndRole(user), response);
+    }
+
+    /**
+     * Ends the session of the refresh token the access token was issued with, and revokes the access tokens of
+     * its user, since access tokens cannot be revoked one by one.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void logout(String userName, String accessToken) {
+        if (accessToken != null) {
+            Object refreshTokenDigest = parse(accessToken).get(SecurityConstants.REFRESH_TOKEN_DIGEST);
+            if (refreshTokenDigest != null) {
+                _refreshTokenRepository.deleteByTokenHash(refreshTokenDigest.toString());
+            }
+        }
+        _revocationEpochs.revoke(userName);
+    }
+
+    /**
+     * Returns the refresh token cookie, which is only sent to {@value SecurityConstants#REFRESH_PATH} and
+     * never with a request started by another site, and over HTTPS only unless
+     * {@code fastCode.security.refreshCookie.secure} is false. A max age of 0 clears it.
+     */
+    public ResponseCookie refreshCookie(String refreshToken, long maxAgeSeconds) {
+        return ResponseCookie
+            .from(SecurityConstants.HEADER_STRING_AUTHENTICATION, refreshToken)
+            .path(SecurityConstants.REFRESH_PATH)
+            .secure(secureRefreshCookie)
+            .httpOnly(true)
+            .sameSite("Strict")
+            .maxAge(maxAgeSeconds)
+            .build();
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED)
+    public void revokeUser(String userName) {
+        _refreshTokenRepository.deleteByUserName(userName);
+        _revocationEpochs.revoke(userName);
+    }
+
+    /**
+     * Deletes at most batchSize of the expired refresh tokens, oldest first, and returns how many were
+     * deleted.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public int purgeExpiredRefreshTokens(int batchSize) {
+        List<Long> expiredIds = _refreshTokenRepository.findExpiredIds(new Date(), PageRequest.of(0, batchSize));
+        if (expiredIds.isEmpty()) {
+            return 0;
+        }
+        return _refreshTokenRepository.deleteByIdIn(expiredIds);
+    }
+
+    @Transactional(propagation = Propagation.REQUIRED, readOnly = true)
+    public long countRefreshTokens() {
+        return _refreshTokenRepository.count();
+    }
+
+    private static String sign(Claims claims) {
+        return Jwts.builder().setClaims(claims).signWith(SignatureAlgorithm.HS512, SecurityConstants.SECRET.getBytes()).compact();
+    }
+
+    private static Claims parse(String token) {
+        return Jwts
+            .parser()
+            .setSigningKey(SecurityConstants.SECRET.getBytes())
+            .parseClaimsJws(token.replace(SecurityConstants.TOKEN_PREFIX, ""))
+            .getBody();
+    }
+}
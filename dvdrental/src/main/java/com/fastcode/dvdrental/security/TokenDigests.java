@@ -0,0 +1,46 @@
+package com.fastcode.dvdrental.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 digests of tokens, used instead of the tokens themselves wherever a token is stored or used as a
+ * key. A digest has a fixed length of 64 hex characters, so it can be indexed whatever the size of the
+ * token claims.
+ */
+public final class TokenDigests {
+
+    public static final int LENGTH = 64;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private TokenDigests() {}
+
+    /**
+     * Returns the hex digest of the given tokens. Several tokens are digested as one value, separated by a
+     * byte that cannot occur in a token.
+     */
+    public static String sha256(String... tokens) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (int i = 0; i < tokens.length; i++) {
+            if (i > 0) {
+                digest.update((byte) 0);
+            }
+            digest.update(String.valueOf(tokens[i]).getBytes(StandardCharsets.UTF_8));
+        }
+
+        byte[] bytes = digest.digest();
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(hex);
+    }
+}
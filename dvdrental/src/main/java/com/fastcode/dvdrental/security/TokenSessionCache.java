@@ -0,0 +1,91 @@
+package com.fastcode.dvdrental.security;
+
+import com.fastcode.dvdrental.domain.core.authorization.jwtentity.JwtEntity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import org.springframework.stereotype.Component;
+
+/**
+ * Active token sessions of this instance, keyed by authorization token, so that authenticated requests
+ * are checked against memory instead of the JwtEntity table.
+ *
+ * Sessions are added at login and loaded from the table on a miss. They live as long as the tokens
+ * themselves and are evicted when the tokens are deleted. Eviction is repeated after the deleting
+ * transaction commits, and a session loaded while an eviction was running is dropped again, so a read
+ * racing a logout cannot bring the deleted session back.
+ */
+@Component
+public class TokenSessionCache {
+
+    public static final long MAXIMUM_SIZE = 100_000;
+
+    private final Cache<String, TokenSession> sessions = Caffeine
+        .newBuilder()
+        .maximumSize(MAXIMUM_SIZE)
+        .expireAfterWrite(SecurityConstants.EXPIRATION_TIME, TimeUnit.MILLISECONDS)
+        .build();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    public void put(String authorizationToken, String authenticationToken, String userName) {
+        sessions.put(authorizationToken, new TokenSession(authenticationToken, userName));
+    }
+
+    /**
+     * Returns whether the token pair belongs to an active session. On a miss the session is read with
+     * the loader, which returns null when the tokens do not exist.
+     */
+    public boolean isActive(
+        String authorizationToken,
+        String authenticationToken,
+        BiFunction<String, String, JwtEntity> loader
+    ) {
+        TokenSession session = sessions.getIfPresent(authorizationToken);
+        if (session != null && session.authenticationToken.equals(authenticationToken)) {
+            return true;
+        }
+
+        long evictionsBeforeLoad = evictions.get();
+        JwtEntity jwt = loader.apply(authorizationToken, authenticationToken);
+        if (jwt == null) {
+            return false;
+        }
+        put(authorizationToken, authenticationToken, jwt.getUserName());
+        if (evictions.get() != evictionsBeforeLoad) {
+            sessions.invalidate(authorizationToken);
+        }
+        return true;
+    }
+
+    public void evict(String authorizationToken) {
+        AfterCommitEviction.run(
+            () -> {
+                evictions.incrementAndGet();
+                sessions.invalidate(authorizationToken);
+            }
+        );
+    }
+
+    public void evictUser(String userName) {
+        AfterCommitEviction.run(
+            () -> {
+                evictions.incrementAndGet();
+                sessions.asMap().values().removeIf(session -> userName.equals(session.userName));
+            }
+        );
+    }
+
+    private static class TokenSession {
+
+        private final String authenticationToken;
+        private final String userName;
+
+        private TokenSession(String authenticationToken, String userName) {
+            this.authenticationToken = authenticationToken;
+            this.userName = userName;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.fastcode.dvdrental.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+
+/**
+ * Size of the token stores, published as the {@value #TOKENS} gauge, and the number of expired tokens
+ * purged from them, published as the {@value #PURGED} counter. Both are tagged with the {@value #STORE}
+ * they count, {@value #ACCESS} for the tokens of the sessions and {@value #REFRESH} for the refresh tokens
+ * of the stateless mode. The sizes are counted after each purge rather than on every scrape.
+ */
+@Component
+public class TokenStoreMetrics {
+
+    public static final String TOKENS = "jwt.tokens";
+    public static final String PURGED = "jwt.tokens.purged";
+    public static final String STORE = "store";
+    public static final String ACCESS = "access";
+    public static final String REFRESH = "refresh";
+
+    private final AtomicLong accessTokens = new AtomicLong();
+    private final AtomicLong refreshTokens = new AtomicLong();
+    private final Counter accessPurged;
+    private final Counter refreshPurged;
+
+    public TokenStoreMetrics(MeterRegistry meterRegistry) {
+        Gauge
+            .builder(TOKENS, accessTokens, AtomicLong::get)
+            .tag(STORE, ACCESS)
+            .description("Stored tokens")
+            .register(meterRegistry);
+        Gauge
+            .builder(TOKENS, refreshTokens, AtomicLong::get)
+            .tag(STORE, REFRESH)
+            .description("Stored tokens")
+            .register(meterRegistry);
+        this.accessPurged =
+            Counter.builder(PURGED).tag(STORE, ACCESS).description("Expired tokens purged").register(meterRegistry);
+        this.refreshPurged =
+            Counter.builder(PURGED).tag(STORE, REFRESH).description("Expired tokens purged").register(meterRegistry);
+    }
+
+    public void recordAccessPurge(long purgedTokens, long remainingTokens) {
+        accessPurged.increment(purgedTokens);
+        accessTokens.set(remainingTokens);
+    }
+
+    public void recordRefreshPurge(long purgedTokens, long remainingTokens) {
+        refreshPurged.increment(purgedTokens);
+        refreshTokens.set(remainingTokens);
+    }
+}
@@ -0,0 +1,184 @@
+package com.fastcode.dvdrental.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+/**
+ * Claims of verified token pairs, keyed by a SHA-256 digest of the pair, so that the requests of a session
+ * verify the signatures and decode the claims of its tokens only once. Every call builds a new
+ * authentication from them, which the request is free to change.
+ *
+ * An entry expires with the earlier of the two tokens, after which the tokens are parsed again and
+ * rejected as expired. Whether the session is still active is not cached here and must be checked
+ * before, so a logout takes effect on the next request.
+ */
+@Component
+@RequiredArgsConstructor
+public class VerifiedClaimsCache {
+
+    public static final long MAXIMUM_SIZE = 10_000;
+
+    @NonNull
+    private final PermissionIndex permissionIndex;
+
+    private final Cache<String, VerifiedAuthentication> authentications = Caffeine
+        .newBuilder()
+        .maximumSize(MAXIMUM_SIZE)
+        .expireAfter(new UntilTokenExpiration())
+        .build();
+
+    /**
+     * Returns the authentication of the token pair, or null when the authorization token has no subject.
+     * The authentication token is optional.
+     *
+     * @throws JwtException when a token is malformed, expired or incorrectly signed
+     */
+    public PermissionAuthenticationToken getAuthentication(String authorizationToken, String authenticationToken)
+        throws JwtException {
+        VerifiedAuthentication verified = verified(authorizationToken, authenticationToken);
+        return verified != null ? verified.authentication() : null;
+    }
+
+    /**
+     * Returns the authentication of an access token of the stateless mode, or null when it has no subject.
+     *
+     * @throws JwtException when the token is malformed, expired or incorrectly signed, or is not an access
+     * token, e.g. a refresh token
+     */
+    public PermissionAuthenticationToken getAccessAuthentication(String accessToken) throws JwtException {
+        VerifiedAuthentication verified = verified(accessToken, null);
+        if (verified == null) {
+            return null;
+        }
+        if (!SecurityConstants.ACCESS_TOKEN.equals(verified.tokenType)) {
+            throw new JwtException("Token Is Not An Access Token");
+        }
+        return verified.authentication();
+    }
+
+    private VerifiedAuthentication verified(String authorizationToken, String authenticationToken) {
+        return authentications.get(
+            TokenDigests.sha256(authorizationToken, authenticationToken),
+            key -> verify(authorizationToken, authenticationToken)
+        );
+    }
+
+    private VerifiedAuthentication verify(String authorizationToken, String authenticationToken) {
+        Date expiration = null;
+        if (
+            StringUtils.isNotEmpty(authenticationToken) &&
+            authenticationToken.startsWith(SecurityConstants.TOKEN_PREFIX)
+        ) {
+            expiration = parse(authenticationToken).getExpiration();
+        }
+
+        if (
+            StringUtils.isEmpty(authorizationToken) || !authorizationToken.startsWith(SecurityConstants.TOKEN_PREFIX)
+        ) {
+            return null;
+        }
+        Claims claims = parse(authorizationToken);
+        String userName = claims.getSubject();
+        if (StringUtils.isEmpty(userName)) {
+            return null;
+        }
+        if (expiration == null || (claims.getExpiration() != null && claims.getExpiration().before(expiration))) {
+            expiration = claims.getExpiration();
+        }
+
+        List<String> scopes = claims.get("scopes", List.class);
+        if (scopes == null) {
+            throw new JwtException("Token Has No Scopes");
+        }
+        List<GrantedAuthority> authorities = scopes
+            .stream()
+            .map(authority -> new SimpleGrantedAuthority(authority))
+            .collect(Collectors.toList());
+        Long issuedAtMillis = claims.get(SecurityConstants.ISSUED_AT_MILLIS, Long.class);
+        return new VerifiedAuthentication(
+            userName,
+            Collections.unmodifiableList(authorities),
+            permissionIndex.encode(scopes),
+            issuedAtMillis != null ? issuedAtMillis : 0,
+            claims.get(SecurityConstants.TOKEN_TYPE, String.class),
+            expiration != null ? expiration.getTime() : System.currentTimeMillis() + SecurityConstants.EXPIRATION_TIME
+        );
+    }
+
+    private static Claims parse(String token) {
+        return Jwts
+            .parser()
+            .setSigningKey(SecurityConstants.SECRET.getBytes())
+            .parseClaimsJws(token.replace(SecurityConstants.TOKEN_PREFIX, ""))
+            .getBody();
+    }
+
+    private static class VerifiedAuthentication {
+
+        private final String userName;
+        private final List<GrantedAuthority> authorities;
+        private final BitSet permissions;
+        private final long issuedAtMillis;
+        private final String tokenType;
+        private final long expiresAt;
+
+        private VerifiedAuthentication(
+            String userName,
+            List<GrantedAuthority> authorities,
+            BitSet permissions,
+            long issuedAtMillis,
+            String tokenType,
+            long expiresAt
+        ) {
+            this.userName = userName;
+            this.authorities = authorities;
+            this.permissions = permissions;
+            this.issuedAtMillis = issuedAtMillis;
+            this.tokenType = tokenType;
+            this.expiresAt = expiresAt;
+        }
+
+        private PermissionAuthenticationToken authentication() {
+            return new PermissionAuthenticationToken(userName, authorities, permissions, issuedAtMillis);
+        }
+    }
+
+    private static class UntilTokenExpiration implements Expiry<String, VerifiedAuthentication> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedAuthentication value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.expiresAt - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(
+            String key,
+            VerifiedAuthentication value,
+            long currentTime,
+            long currentDuration
+        ) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedAuthentication value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
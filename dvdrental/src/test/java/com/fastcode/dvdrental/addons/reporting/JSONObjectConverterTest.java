@@ -0,0 +1,32 @@
+package com.fastcode.dvdrental.addons.reporting;
+
+import org.assertj.core.api.Assertions;
+import org.json.simple.JSONObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+public class JSONObjectConverterTest {
+
+    protected JSONObjectConverter converter = new JSONObjectConverter();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void convertToDatabaseColumn_QueryIsConverted_ReadSameQuery() {
+        JSONObject query = new JSONObject();
+        query.put("measures", "Rental.count");
+        query.put("limit", 10);
+
+        String json = converter.convertToDatabaseColumn(query);
+
+        Assertions.assertThat(converter.convertToEntityAttribute(json)).isEqualTo(query);
+    }
+
+    @Test
+    public void convertToDatabaseColumn_QueryIsNull_ReturnNull() {
+        Assertions.assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        Assertions.assertThat(converter.convertToEntityAttribute(null)).isNull();
+        Assertions.assertThat(converter.convertToEntityAttribute("")).isNull();
+    }
+}
@@ -0,0 +1,57 @@
+package com.fastcode.dvdrental.addons.reporting;
+
+import java.util.Map;
+import org.assertj.core.api.Assertions;
+import org.json.simple.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+public class ParsedQueryCacheTest {
+
+    protected static final String QUERY = "{\"measures\":[\"Rental.count\"],\"filters\":{\"member\":\"Rental.staffId\"}}";
+
+    protected ParsedQueryCache parsedQueryCache;
+
+    @Before
+    public void setUp() {
+        parsedQueryCache = new ParsedQueryCache();
+    }
+
+    @Test
+    public void get_RowVersionIsCached_ReturnCachedQuery() {
+        JSONObject first = parsedQueryCache.get(1L, 2L, "running", 0L, QUERY);
+        JSONObject second = parsedQueryCache.get(1L, 2L, "running", 0L, "{}");
+
+        Assertions.assertThat(second).isEqualTo(first).isNotSameAs(first);
+        Assertions.assertThat(second.get("measures")).asList().containsExactly("Rental.count");
+    }
+
+    @Test
+    public void get_RowVersionChanged_ParseQueryAgain() {
+        parsedQueryCache.get(1L, 2L, "running", 0L, QUERY);
+
+        Assertions.assertThat(parsedQueryCache.get(1L, 2L, "running", 1L, "{}")).isEmpty();
+        Assertions.assertThat(parsedQueryCache.get(1L, 2L, "published", 0L, "{}")).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void get_CallerChangesQuery_DoNotChangeCachedQuery() {
+        JSONObject query = parsedQueryCache.get(1L, 2L, "running", 0L, QUERY);
+        query.put("measures", null);
+
+        Assertions
+            .assertThatThrownBy(() -> ((Map<String, Object>) query.get("filters")).put("member", "Rental.id"))
+            .isInstanceOf(UnsupportedOperationException.class);
+        Assertions.assertThat(parsedQueryCache.get(1L, 2L, "running", 0L, QUERY).get("measures")).isNotNull();
+    }
+
+    @Test
+    public void get_QueryIsNotJson_ReturnNull() {
+        Assertions.assertThat(parsedQueryCache.get(1L, 2L, "running", 0L, "not json")).isNull();
+        Assertions.assertThat(parsedQueryCache.get(1L, 2L, "running", 0L, null)).isNull();
+    }
+}
@@ -0,0 +1,325 @@
+package com.fastcode.dvdrental.addons.reporting.application.dashboard;
+
+import com.fastcode.dvdrental.addons.reporting.JSONObjectConverter;
+import com.fastcode.dvdrental.addons.reporting.application.dashboard.dto.DashboardReportDataOutput;
+import com.fastcode.dvdrental.addons.reporting.application.dashboard.dto.FindDashboardByIdOutput;
+import com.fastcode.dvdrental.addons.reporting.application.dashboard.dto.UpdateDashboardInput;
+import com.fastcode.dvdrental.addons.reporting.application.report.dto.FindReportByIdOutput;
+import com.fastcode.dvdrental.addons.reporting.application.report.dto.UpdateReportInput;
+import com.fastcode.dvdrental.addons.reporting.domain.dashboard.DashboardEntity;
+import com.fastcode.dvdrental.addons.reporting.domain.dashboard.IDashboardRepository;
+import com.fastcode.dvdrental.addons.reporting.domain.dashboardversion.DashboardversionEntity;
+import com.fastcode.dvdrental.addons.reporting.domain.dashboardversion.DashboardversionId;
+import com.fastcode.dvdrental.addons.reporting.domain.dashboardversion.IDashboardversionRepository;
+import com.fastcode.dvdrental.addons.reporting.domain.dashboardversionreport.DashboardversionreportEntity;
+import com.fastcode.dvdrental.addons.reporting.domain.dashboardversionreport.IDashboardversionreportRepository;
+import com.fastcode.dvdrental.addons.reporting.domain.report.IReportRepository;
+import com.fastcode.dvdrental.addons.reporting.domain.report.ReportEntity;
+import com.fastcode.dvdrental.addons.reporting.domain.reportversion.IReportversionRepository;
+import com.fastcode.dvdrental.addons.reporting.domain.reportversion.ReportversionEntity;
+import com.fastcode.dvdrental.addons.reporting.domain.reportversion.ReportversionId;
+import com.fastcode.dvdrental.domain.core.authorization.user.IUserRepository;
+import com.fastcode.dvdrental.domain.core.authorization.user.UserEntity;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import javax.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.json.simple.JSONObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(
+    properties = {
+        "spring.profiles.active=test",
+        "spring.jpa.properties.hibernate.default_schema=PUBLIC",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+    }
+)
+public class DashboardAppServiceTest {
+
+    @Autowired
+    @Qualifier("dashboardAppService")
+    protected IDashboardAppService dashboardAppService;
+
+    @Autowired
+    protected IDashboardRepository dashboardRepository;
+
+    @Autowired
+    protected IDashboardversionRepository dashboardversionRepository;
+
+    @Autowired
+    protected IDashboardversionreportRepository dashboardversionreportRepository;
+
+    @Autowired
+    protected IReportRepository reportRepository;
+
+    @Autowired
+    protected IReportversionRepository reportversionRepository;
+
+    @Autowired
+    protected IUserRepository userRepository;
+
+    @Autowired
+    protected EntityManagerFactory entityManagerFactory;
+
+    protected UserEntity user;
+
+    @Before
+    public void setUp() {
+        user = new UserEntity();
+        user.setUserName(UUID.randomUUID().toString().substring(0, 8));
+        user.setFirstName("first");
+        user.setLastName("last");
+        user.setEmailAddress(user.getUserName() + "@example.com");
+        user.setPassword("password");
+        user.setIsActive(true);
+        user = userRepository.save(user);
+    }
+
+    protected Long createDashboard(int reports) {
+        return createDashboard(reports, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    protected Long createDashboard(int reports, boolean ownReports) {
+        DashboardEntity dashboard = new DashboardEntity();
+        dashboard.setIsPublished(false);
+        dashboard.setUser(user);
+        dashboard = dashboardRepository.save(dashboard);
+
+        DashboardversionEntity dashboardversion = new DashboardversionEntity();
+        dashboardversion.setUserId(user.getId());
+        dashboardversion.setDashboardId(dashboard.getId());
+        dashboardversion.setDashboardVersion("running");
+        dashboardversion.setTitle("Dashboard");
+        dashboardversionRepository.save(dashboardversion);
+
+        for (int i = 0; i < reports; i++) {
+            // Unless the user owns them, every report has its own owner, as reports shared on a dashboard do
+            UserEntity owner = user;
+            if (!ownReports) {
+                owner = new UserEntity();
+                owner.setUserName(UUID.randomUUID().toString().substring(0, 8));
+                owner.setFirstName("first");
+                owner.setLastName("last");
+                owner.setEmailAddress(owner.getUserName() + "@example.com");
+                owner.setPassword("password");
+                owner.setIsActive(true);
+                owner = userRepository.save(owner);
+            }
+
+            ReportEntity report = new ReportEntity();
+            report.setIsPublished(false);
+            report.setUser(owner);
+            report = reportRepository.save(report);
+
+            JSONObject query = new JSONObject();
+            query.put("measures", "Rental.count");
+            ReportversionEntity reportversion = new ReportversionEntity();
+            reportversion.setUserId(user.getId());
+            reportversion.setReportId(report.getId());
+            reportversion.setReportVersion("running");
+            reportversion.setTitle("Report " + i);
+            reportversion.setQuery(query);
+            reportversionRepository.save(reportversion);
+
+            DashboardversionreportEntity dashboardversionreport = new DashboardversionreportEntity();
+            dashboardversionreport.setDashboardId(dashboard.getId());
+            dashboardversionreport.setUserId(user.getId());
+            dashboardversionreport.setDashboardVersion("running");
+            dashboardversionreport.setReportId(report.getId());
+            dashboardversionreport.setReportWidth("mediumchart");
+            dashboardversionreport.setOrderId((long) (reports - i));
+            dashboardversionreportRepository.save(dashboardversionreport);
+        }
+        return dashboard.getId();
+    }
+
+    protected long countStatements(Runnable runnable) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        runnable.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    public void setReportsList_DashboardHasMoreReports_IssueSameNumberOfStatements() {
+        Long small = createDashboard(2);
+        Long large = createDashboard(12);
+
+        long smallStatements = countStatements(
+            () -> {
+                dashboardAppService.findByDashboardIdAndUserId(small, user.getId(), "running");
+                dashboardAppService.setReportsList(small, user.getId(), "running");
+            }
+        );
+        long largeStatements = countStatements(
+            () -> {
+                dashboardAppService.findByDashboardIdAndUserId(large, user.getId(), "running");
+                dashboardAppService.setReportsList(large, user.getId(), "running");
+            }
+        );
+
+        Assertions.assertThat(smallStatements).isPositive();
+        Assertions.assertThat(largeStatements).isEqualTo(smallStatements);
+    }
+
+    @Test
+    public void setReportsList_DashboardHasReports_ReturnReportsInDashboardOrder() {
+        Long dashboardId = createDashboard(3);
+
+        List<FindReportByIdOutput> reports = dashboardAppService.setReportsList(dashboardId, user.getId(), "running");
+
+        Assertions.assertThat(reports).extracting("title").containsExactly("Report 2", "Report 1", "Report 0");
+        Assertions.assertThat(reports).extracting("orderId").containsExactly(1L, 2L, 3L);
+        Assertions.assertThat(reports.get(0).getUserId()).isEqualTo(user.getId());
+        Assertions.assertThat(reports.get(0).getOwnerId()).isNotEqualTo(user.getId());
+        Assertions.assertThat(reports.get(0).getQuery()).containsEntry("measures", "Rental.count");
+        Assertions.assertThat(reports.get(0).getReportWidth()).isEqualTo("mediumchart");
+    }
+
+    protected List<DashboardversionreportEntity> layout(Long dashboardId, String version) {
+        return dashboardversionreportRepository.findByDashboardIdAndVersionAndUserIdInDesc(
+            dashboardId,
+            version,
+            user.getId()
+        );
+    }
+
+    protected ReportversionEntity reportversion(Long reportId, String version) {
+        return reportversionRepository.findById(new ReportversionId(user.getId(), reportId, version)).orElse(null);
+    }
+
+    @Test
+    public void publishDashboard_DashboardHasMoreReports_IssueSameNumberOfStatements() {
+        Long small = createDashboard(2);
+        Long large = createDashboard(12);
+
+        long smallStatements = countStatements(() -> dashboardAppService.publishDashboard(user.getId(), small));
+        long largeStatements = countStatements(() -> dashboardAppService.publishDashboard(user.getId(), large));
+
+        Assertions.assertThat(smallStatements).isPositive();
+        Assertions.assertThat(largeStatements).isEqualTo(smallStatements);
+        Assertions.assertThat(layout(large, "published")).hasSize(12);
+    }
+
+    @Test
+    public void publishDashboard_DashboardWasPublished_CopyRunningVersionsToPublishedVersions() {
+        Long dashboardId = createDashboard(3);
+        dashboardAppService.publishDashboard(user.getId(), dashboardId);
+
+        List<DashboardversionreportEntity> running = layout(dashboardId, "running");
+        dashboardversionreportRepository.delete(running.get(0));
+        ReportversionEntity changed = reportversion(running.get(1).getReportId(), "running");
+        changed.setTitle("Changed");
+        reportversionRepository.save(changed);
+        Long publishedVersiono = reportversion(changed.getReportId(), "published").getVersiono();
+
+        FindDashboardByIdOutput output = dashboardAppService.publishDashboard(user.getId(), dashboardId);
+
+        Assertions.assertThat(output.getIsPublished()).isTrue();
+        Assertions.assertThat(layout(dashboardId, "published"))
+            .extracting("reportId")
+            .containsExactly(running.get(1).getReportId(), running.get(2).getReportId());
+        ReportversionEntity published = reportversion(changed.getReportId(), "published");
+        Assertions.assertThat(published.getTitle()).isEqualTo("Changed");
+        Assertions.assertThat(published.getQuery()).containsEntry("measures", "Rental.count");
+        Assertions.assertThat(published.getVersiono()).isGreaterThan(publishedVersiono);
+        Assertions.assertThat(reportversion(changed.getReportId(), "running").getIsRefreshed()).isTrue();
+        Assertions.assertThat(reportRepository.findById(changed.getReportId()).get().getIsPublished()).isTrue();
+        Assertions.assertThat(
+            dashboardversionRepository.findById(new DashboardversionId(user.getId(), dashboardId, "published"))
+        )
+            .hasValueSatisfying(version -> Assertions.assertThat(version.getTitle()).isEqualTo("Dashboard"));
+    }
+
+    @Test
+    public void refreshDashboard_RunningVersionsChanged_ResetRunningVersionsToPublishedVersions() {
+        Long dashboardId = createDashboard(2, true);
+        dashboardAppService.publishDashboard(user.getId(), dashboardId);
+
+        List<DashboardversionreportEntity> running = layout(dashboardId, "running");
+        dashboardversionreportRepository.delete(running.get(0));
+        ReportversionEntity changed = reportversion(running.get(1).getReportId(), "running");
+        changed.setTitle("Changed");
+        changed.setIsRefreshed(false);
+        reportversionRepository.save(changed);
+
+        FindDashboardByIdOutput output = dashboardAppService.refreshDashboard(user.getId(), dashboardId);
+
+        Assertions.assertThat(output.getIsRefreshed()).isTrue();
+        Assertions.assertThat(layout(dashboardId, "running"))
+            .extracting("reportId")
+            .containsExactly(running.get(0).getReportId(), running.get(1).getReportId());
+        ReportversionEntity refreshed = reportversion(changed.getReportId(), "running");
+        Assertions.assertThat(refreshed.getTitle()).isNotEqualTo("Changed");
+        Assertions.assertThat(refreshed.getIsRefreshed()).isTrue();
+    }
+
+    @Test
+    public void update_ReportsAreReordered_SetLayoutInGivenOrder() {
+        Long dashboardId = createDashboard(3);
+        List<DashboardversionreportEntity> running = layout(dashboardId, "running");
+        DashboardversionEntity dashboardversion = dashboardversionRepository
+            .findById(new DashboardversionId(user.getId(), dashboardId, "running"))
+            .get();
+
+        UpdateDashboardInput input = new UpdateDashboardInput();
+        input.setId(dashboardId);
+        input.setUserId(user.getId());
+        input.setTitle("Dashboard");
+        input.setVersiono(dashboardversion.getVersiono());
+        for (DashboardversionreportEntity dashboardversionreport : running) {
+            UpdateReportInput reportInput = new UpdateReportInput();
+            reportInput.setId(dashboardversionreport.getReportId());
+            input.getReportDetails().add(reportInput);
+        }
+        input.getReportDetails().get(0).setReportWidth("largechart");
+
+        dashboardAppService.update(dashboardId, input);
+
+        List<FindReportByIdOutput> reports = dashboardAppService.setReportsList(dashboardId, user.getId(), "running");
+        Assertions.assertThat(reports)
+            .extracting("id")
+            .containsExactly(running.get(0).getReportId(), running.get(1).getReportId(), running.get(2).getReportId());
+        Assertions.assertThat(reports).extracting("orderId").containsExactly(0L, 1L, 2L);
+        Assertions.assertThat(reports).extracting("reportWidth").containsExactly("largechart", "mediumchart", "mediumchart");
+    }
+
+    @Test
+    public void getDashboardData_ReportsHaveQueries_EmitDataOrErrorOfEveryReport() {
+        Long dashboardId = createDashboard(3);
+        List<DashboardversionreportEntity> running = layout(dashboardId, "running");
+        for (DashboardversionreportEntity dashboardversionreport : running.subList(0, 2)) {
+            ReportversionEntity reportversion = reportversion(dashboardversionreport.getReportId(), "running");
+            reportversion.setQuery(JSONObjectConverter.parse("{\"renewQuery\": true, \"measures\": [\"Film.count_film_id\"]}"));
+            reportversionRepository.save(reportversion);
+        }
+
+        List<DashboardReportDataOutput> reportData = new ArrayList<>();
+        dashboardAppService.getDashboardData(dashboardId, user.getId(), "running", reportData::add);
+
+        Assertions
+            .assertThat(reportData)
+            .extracting("reportId")
+            .containsExactlyInAnyOrder(running.get(0).getReportId(), running.get(1).getReportId(), running.get(2).getReportId());
+        for (DashboardReportDataOutput output : reportData) {
+            if (output.getReportId().equals(running.get(2).getReportId())) {
+                Assertions.assertThat(output.getData()).isNull();
+                Assertions.assertThat(output.getError()).isNotEmpty();
+            } else {
+                Assertions.assertThat(output.getError()).isNull();
+                Assertions.assertThat(output.getData().getColumns()).extracting("member").containsExactly("Film.count_film_id");
+            }
+        }
+    }
+}
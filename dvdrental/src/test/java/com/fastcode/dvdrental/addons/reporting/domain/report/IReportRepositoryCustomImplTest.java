@@ -0,0 +1,206 @@
+package com.fastcode.dvdrental.addons.reporting.domain.report;
+
+import com.fastcode.dvdrental.addons.reporting.JSONObjectConverter;
+import com.fastcode.dvdrental.addons.reporting.application.report.dto.ReportDetailsOutput;
+import com.fastcode.dvdrental.addons.reporting.domain.reportversion.IReportversionRepository;
+import com.fastcode.dvdrental.addons.reporting.domain.reportversion.ReportversionEntity;
+import com.fastcode.dvdrental.commons.search.KeysetCursor;
+import com.fastcode.dvdrental.commons.search.OffsetBasedPageRequest;
+import com.fastcode.dvdrental.domain.core.authorization.user.IUserRepository;
+import com.fastcode.dvdrental.domain.core.authorization.user.UserEntity;
+import java.util.UUID;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(
+    properties = {
+        "spring.profiles.active=test",
+        "spring.jpa.properties.hibernate.default_schema=PUBLIC",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+    }
+)
+public class IReportRepositoryCustomImplTest {
+
+    @Autowired
+    protected IReportRepository reportRepository;
+
+    @Autowired
+    protected IReportversionRepository reportversionRepository;
+
+    @Autowired
+    protected IUserRepository userRepository;
+
+    protected UserEntity user;
+
+    @Before
+    public void setUp() {
+        user = new UserEntity();
+        user.setUserName(UUID.randomUUID().toString().substring(0, 8));
+        user.setFirstName("first");
+        user.setLastName("last");
+        user.setEmailAddress(user.getUserName() + "@example.com");
+        user.setPassword("password");
+        user.setIsActive(true);
+        user = userRepository.save(user);
+
+        for (String title : new String[] { "Rentals", "Actors", "Revenue_by_store", "Films", "Revenue" }) {
+            createReport(title);
+        }
+    }
+
+    protected void createReport(String title) {
+        ReportEntity report = new ReportEntity();
+        report.setIsPublished(false);
+        report.setUser(user);
+        report = reportRepository.save(report);
+
+        ReportversionEntity reportversion = new ReportversionEntity();
+        reportversion.setUserId(user.getId());
+        reportversion.setReportId(report.getId());
+        reportversion.setReportVersion("running");
+        reportversion.setTitle(title);
+        reportversionRepository.save(reportversion);
+    }
+
+    @Test
+    public void getAllReportsByUserId_OffsetIsGiven_ReturnPageInTitleOrder() throws Exception {
+        Slice<ReportDetailsOutput> page = reportRepository.getAllReportsByUserId(
+            user.getId(),
+            null,
+            null,
+            new OffsetBasedPageRequest(1, 2, Sort.unsorted())
+        );
+
+        Assertions.assertThat(page.getContent()).extracting("title").containsExactly("Films", "Rentals");
+        Assertions.assertThat(page.hasNext()).isTrue();
+    }
+
+    @Test
+    public void getAllReportsByUserId_CursorIsGiven_ReturnPageAfterCursor() throws Exception {
+        Pageable pageable = new OffsetBasedPageRequest(0, 2, Sort.by(Sort.Direction.DESC, "title"));
+        Slice<ReportDetailsOutput> first = reportRepository.getAllReportsByUserId(user.getId(), null, null, pageable);
+        KeysetCursor cursor = KeysetCursor.fromRow(first.getPageable().getSort(), first.getContent().get(1));
+
+        Slice<ReportDetailsOutput> second = reportRepository.getAllReportsByUserId(
+            user.getId(),
+            null,
+            cursor,
+            pageable
+        );
+
+        Assertions.assertThat(first.getContent()).extracting("title").containsExactly("Revenue_by_store", "Revenue");
+        Assertions.assertThat(second.getContent()).extracting("title").containsExactly("Rentals", "Films");
+        Assertions.assertThat(second.hasNext()).isTrue();
+    }
+
+    @Test
+    public void getAllReportsByUserId_CursorIsOnLastPage_ReturnLastRowsWithoutNext() throws Exception {
+        Pageable pageable = new OffsetBasedPageRequest(0, 4, Sort.unsorted());
+        Slice<ReportDetailsOutput> first = reportRepository.getAllReportsByUserId(user.getId(), null, null, pageable);
+        KeysetCursor cursor = KeysetCursor.fromRow(first.getPageable().getSort(), first.getContent().get(3));
+
+        Slice<ReportDetailsOutput> second = reportRepository.getAllReportsByUserId(
+            user.getId(),
+            null,
+            cursor,
+            pageable
+        );
+
+        Assertions.assertThat(second.getContent()).extracting("title").containsExactly("Revenue_by_store");
+        Assertions.assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    public void getAllReportsByUserId_SearchIsGiven_MatchTitlesIgnoringCaseAndWildcards() throws Exception {
+        Slice<ReportDetailsOutput> page = reportRepository.getAllReportsByUserId(
+            user.getId(),
+            "REVENUE_",
+            null,
+            new OffsetBasedPageRequest(0, 10, Sort.unsorted())
+        );
+
+        Assertions.assertThat(page.getContent()).extracting("title").containsExactly("Revenue_by_store");
+        Assertions.assertThat(page.getContent().get(0).getUserId()).isEqualTo(user.getId());
+    }
+
+    @Test
+    public void getAllReportsByUserId_OffsetIsPastLastRow_ReturnEmptyPage() throws Exception {
+        Slice<ReportDetailsOutput> page = reportRepository.getAllReportsByUserId(
+            user.getId(),
+            null,
+            null,
+            new OffsetBasedPageRequest(10, 2, Sort.unsorted())
+        );
+
+        Assertions.assertThat(page.getContent()).isEmpty();
+        Assertions.assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    public void countReportsByUserId_SearchIsGiven_CountMatchingReports() throws Exception {
+        Assertions.assertThat(reportRepository.countReportsByUserId(user.getId(), null)).isEqualTo(5);
+        Assertions.assertThat(reportRepository.countReportsByUserId(user.getId(), "revenue")).isEqualTo(2);
+    }
+
+    @Test
+    public void getAllReportsByUserId_ReportIsPublishedButNotRefreshed_ReturnBothFlags() throws Exception {
+        ReportEntity report = new ReportEntity();
+        report.setIsPublished(true);
+        report.setUser(user);
+        report = reportRepository.save(report);
+
+        ReportversionEntity reportversion = new ReportversionEntity();
+        reportversion.setUserId(user.getId());
+        reportversion.setReportId(report.getId());
+        reportversion.setReportVersion("running");
+        reportversion.setTitle("Published");
+        reportversion.setIsRefreshed(false);
+        reportversionRepository.save(reportversion);
+
+        Slice<ReportDetailsOutput> page = reportRepository.getAllReportsByUserId(
+            user.getId(),
+            "Published",
+            null,
+            new OffsetBasedPageRequest(0, 10, Sort.unsorted())
+        );
+
+        Assertions.assertThat(page.getContent()).hasSize(1);
+        Assertions.assertThat(page.getContent().get(0).getIsPublished()).isTrue();
+        Assertions.assertThat(page.getContent().get(0).getIsRefreshed()).isFalse();
+    }
+
+    @Test
+    public void getAllReportsByUserId_ReportHasQuery_ReturnQueryAsWritten() throws Exception {
+        ReportEntity report = new ReportEntity();
+        report.setIsPublished(false);
+        report.setUser(user);
+        report = reportRepository.save(report);
+
+        ReportversionEntity reportversion = new ReportversionEntity();
+        reportversion.setUserId(user.getId());
+        reportversion.setReportId(report.getId());
+        reportversion.setReportVersion("running");
+        reportversion.setTitle("Queried");
+        reportversion.setQuery(JSONObjectConverter.parse("{\"measures\": [\"Rental.count_rental_id\"]}"));
+        reportversionRepository.save(reportversion);
+
+        Slice<ReportDetailsOutput> page = reportRepository.getAllReportsByUserId(
+            user.getId(),
+            "Queried",
+            null,
+            new OffsetBasedPageRequest(0, 10, Sort.unsorted())
+        );
+
+        Assertions.assertThat(page.getContent()).hasSize(1);
+        Assertions.assertThat(page.getContent().get(0).getQuery()).isEqualTo(reportversion.getQuery());
+    }
+}
@@ -0,0 +1,234 @@
+package com.fastcode.dvdrental.addons.reporting.query;
+
+import com.fastcode.dvdrental.addons.reporting.JSONObjectConverter;
+import com.fastcode.dvdrental.addons.reporting.application.report.dto.ReportDataOutput;
+import com.fastcode.dvdrental.application.core.rental.IRentalAppService;
+import com.fastcode.dvdrental.domain.core.category.CategoryEntity;
+import com.fastcode.dvdrental.domain.core.category.ICategoryRepository;
+import com.fastcode.dvdrental.domain.core.film.FilmEntity;
+import com.fastcode.dvdrental.domain.core.film.IFilmRepository;
+import com.fastcode.dvdrental.domain.core.filmcategory.FilmCategoryEntity;
+import com.fastcode.dvdrental.domain.core.filmcategory.IFilmCategoryRepository;
+import com.fastcode.dvdrental.domain.core.inventory.IInventoryRepository;
+import com.fastcode.dvdrental.domain.core.inventory.InventoryEntity;
+import com.fastcode.dvdrental.domain.core.rental.IRentalRepository;
+import com.fastcode.dvdrental.domain.core.rental.RentalEntity;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(
+    properties = {
+        "spring.profiles.active=test",
+        "spring.jpa.properties.hibernate.default_schema=PUBLIC",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+    }
+)
+public class ReportQueryEngineTest {
+
+    // Rentals of a year no other test rents in, so that the queries only see the rentals of this test, read
+    // from the table rather than from a rollup refreshed before they were added
+    protected static final String RENTALS_OF_1999 =
+        "\"renewQuery\": true, \"timeDimensions\": [{\"dimension\": \"Rental.rentalDate\", \"granularity\": \"month\", " +
+        "\"dateRange\": [\"1999-01-01\", \"1999-12-31\"]}]";
+
+    @Autowired
+    protected ReportQueryEngine reportQueryEngine;
+
+    // Rentals of another year, by a measure no rollup stores, so that the queries are cached
+    protected static final String CACHED_RENTALS_OF_1997 =
+        "{\"measures\": [\"Rental.count_rental_id\", \"Rental.max_rental_id\"], \"timeDimensions\": " +
+        "[{\"dimension\": \"Rental.rentalDate\", \"dateRange\": [\"1997-01-01\", \"1997-12-31\"]}]}";
+
+    @Autowired
+    protected IRentalRepository rentalRepository;
+
+    @Autowired
+    protected IRentalAppService rentalAppService;
+
+    @Autowired
+    protected IFilmRepository filmRepository;
+
+    @Autowired
+    protected ICategoryRepository categoryRepository;
+
+    @Autowired
+    protected IFilmCategoryRepository filmCategoryRepository;
+
+    @Autowired
+    protected IInventoryRepository inventoryRepository;
+
+    @Before
+    public void setUp() {
+        if (rentalRepository.findAll().stream().noneMatch(rental -> rental.getRentalDate() != null && rental.getRentalDate().getYear() == 1999)) {
+            rent(LocalDate.of(1999, 1, 5));
+            rent(LocalDate.of(1999, 1, 20));
+            rent(LocalDate.of(1999, 3, 2));
+        }
+    }
+
+    protected void rent(LocalDate date) {
+        RentalEntity rental = new RentalEntity();
+        rental.setRentalDate(date);
+        rentalRepository.save(rental);
+    }
+
+    @Test
+    public void execute_TimeDimensionHasGranularity_ReturnColumnsByMonth() {
+        ReportDataOutput output = reportQueryEngine.execute(
+            JSONObjectConverter.parse("{\"measures\": [\"Rental.count_rental_id\"], " + RENTALS_OF_1999 + "}")
+        );
+
+        Assertions.assertThat(output.getRowCount()).isEqualTo(2);
+        Assertions.assertThat(output.isTruncated()).isFalse();
+        Assertions.assertThat(output.getColumns()).extracting("member").containsExactly("Rental.rentalDate.month", "Rental.count_rental_id");
+        Assertions.assertThat(output.getColumns()).extracting("type").containsExactly("time", "number");
+        Assertions
+            .assertThat(output.getColumns().get(0).getValues())
+            .containsExactly(LocalDateTime.of(1999, 1, 1, 0, 0), LocalDateTime.of(1999, 3, 1, 0, 0));
+        Assertions
+            .assertThat(output.getColumns().get(1).getValues())
+            .extracting(value -> ((Number) value).longValue())
+            .containsExactly(2L, 1L);
+    }
+
+    @Test
+    public void execute_ResultExceedsLimit_ReturnTruncatedResult() {
+        ReportDataOutput output = reportQueryEngine.execute(
+            JSONObjectConverter.parse("{\"measures\": [\"Rental.count_rental_id\"], \"limit\": 1, " + RENTALS_OF_1999 + "}")
+        );
+
+        Assertions.assertThat(output.getRowCount()).isEqualTo(1);
+        Assertions.assertThat(output.isTruncated()).isTrue();
+        Assertions.assertThat(output.getColumns().get(0).getValues()).hasSize(1);
+    }
+
+    @Test
+    public void execute_DataUnchanged_ReturnCachedResult() {
+        ReportDataOutput first = reportQueryEngine.execute(JSONObjectConverter.parse(CACHED_RENTALS_OF_1997));
+        ReportDataOutput second = reportQueryEngine.execute(JSONObjectConverter.parse(CACHED_RENTALS_OF_1997));
+
+        Assertions.assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    public void execute_RentalDeletedThroughService_ReturnNewResult() {
+        RentalEntity rental = new RentalEntity();
+        rental.setRentalDate(LocalDate.of(1997, 6, 1));
+        rental = rentalRepository.save(rental);
+        // Saved through the repository, so the result is renewed to see it
+        Map<String, Object> renewed = JSONObjectConverter.parse(CACHED_RENTALS_OF_1997);
+        renewed.put("renewQuery", true);
+        ReportDataOutput before = reportQueryEngine.execute(renewed);
+
+        rentalAppService.delete(rental.getRentalId());
+        ReportDataOutput after = reportQueryEngine.execute(JSONObjectConverter.parse(CACHED_RENTALS_OF_1997));
+
+        Assertions.assertThat(after).isNotSameAs(before);
+        Assertions
+            .assertThat(((Number) after.getColumns().get(0).getValues().get(0)).longValue())
+            .isEqualTo(((Number) before.getColumns().get(0).getValues().get(0)).longValue() - 1);
+    }
+
+    protected void categorize(FilmEntity film, String name) {
+        CategoryEntity category = new CategoryEntity();
+        category.setName(name);
+        category = categoryRepository.save(category);
+        FilmCategoryEntity filmCategory = new FilmCategoryEntity();
+        filmCategory.setFilmId(film.getFilmId());
+        filmCategory.setCategoryId(category.getCategoryId());
+        filmCategoryRepository.save(filmCategory);
+    }
+
+    @Test
+    public void execute_FilmHasTwoCategories_CountItsRentalsOncePerCategory() {
+        FilmEntity film = new FilmEntity();
+        film.setTitle("Two Categories");
+        film.setRentalRate(4.99);
+        film.setRentalDuration((short) 3);
+        film.setReplacementCost(19.99);
+        film = filmRepository.save(film);
+        categorize(film, "Engine Drama");
+        categorize(film, "Engine Comedy");
+        InventoryEntity inventory = new InventoryEntity();
+        inventory.setFilm(film);
+        inventory = inventoryRepository.save(inventory);
+        RentalEntity rental = new RentalEntity();
+        rental.setRentalDate(LocalDate.of(1996, 5, 5));
+        rental.setInventory(inventory);
+        rentalRepository.save(rental);
+
+        String ofBothCategories =
+            "\"renewQuery\": true, \"filters\": [{\"member\": \"Category.name\", \"operator\": \"equals\"," +
+            " \"values\": [\"Engine Drama\", \"Engine Comedy\"]}]";
+        Assertions
+            .assertThatThrownBy(
+                () ->
+                    reportQueryEngine.execute(
+                        JSONObjectConverter.parse("{\"measures\": [\"Rental.count_rental_id\"], " + ofBothCategories + "}")
+                    )
+            )
+            .isInstanceOf(IllegalArgumentException.class);
+
+        ReportDataOutput output = reportQueryEngine.execute(
+            JSONObjectConverter.parse("{\"measures\": [\"Rental.countDistinct_rental_id\"], " + ofBothCategories + "}")
+        );
+        Assertions
+            .assertThat(output.getColumns().get(0).getValues())
+            .extracting(value -> ((Number) value).longValue())
+            .containsExactly(1L);
+
+        output =
+            reportQueryEngine.execute(
+                JSONObjectConverter.parse(
+                    "{\"measures\": [\"Rental.count_rental_id\"], \"dimensions\": [\"Category.name\"], " +
+                    ofBothCategories +
+                    ", \"order\": {\"Category.name\": \"asc\"}}"
+                )
+            );
+        Assertions.assertThat(output.getColumns().get(0).getValues()).containsExactly("Engine Comedy", "Engine Drama");
+        Assertions
+            .assertThat(output.getColumns().get(1).getValues())
+            .extracting(value -> ((Number) value).longValue())
+            .containsExactly(1L, 1L);
+    }
+
+    @Test
+    public void executeAll_CallbackThrows_RethrowWithoutHandingOverAgain() {
+        Map<Integer, Map<String, Object>> queries = new HashMap<>();
+        for (int key = 0; key < 2; key++) {
+            queries.put(key, JSONObjectConverter.parse("{\"measures\": [\"Rental.count_rental_id\"], " + RENTALS_OF_1999 + "}"));
+        }
+        List<Integer> handedOver = new ArrayList<>();
+        UncheckedIOException clientGone = new UncheckedIOException(new IOException("Broken pipe"));
+
+        Assertions
+            .assertThatThrownBy(
+                () ->
+                    reportQueryEngine.executeAll(
+                        queries,
+                        30_000,
+                        (key, output) -> {
+                            handedOver.add(key);
+                            throw clientGone;
+                        },
+                        (key, e) -> handedOver.add(key)
+                    )
+            )
+            .isSameAs(clientGone);
+        Assertions.assertThat(handedOver).hasSize(1);
+    }
+}
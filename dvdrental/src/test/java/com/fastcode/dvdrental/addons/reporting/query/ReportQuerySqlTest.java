@@ -0,0 +1,269 @@
+package com.fastcode.dvdrental.addons.reporting.query;
+
+import com.fastcode.dvdrental.addons.reporting.JSONObjectConverter;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+public class ReportQuerySqlTest {
+
+    protected static final LocalDateTime NOW = LocalDateTime.of(2026, 10, 18, 10, 30);
+
+    protected ReportQuerySql build(String json, int maxRows) {
+        return ReportQuerySql.build(JSONObjectConverter.parse(json), "public", maxRows, NOW);
+    }
+
+    protected static Timestamp timestamp(String value) {
+        return Timestamp.valueOf(LocalDateTime.parse(value));
+    }
+
+    protected static ReportRollup rollup(String name) {
+        return ReportRollups.all().stream().filter(rollup -> rollup.getName().equals(name)).findFirst().get();
+    }
+
+    @Test
+    public void build_DimensionOfJoinedCube_JoinAlongTablesItBelongsTo() {
+        ReportQuerySql statement = build(
+            "{\"measures\": [\"Payment.sum_amount\"], \"dimensions\": [\"Film.rating\"]}",
+            10000
+        );
+
+        Assertions
+            .assertThat(statement.getSql())
+            .isEqualTo(
+                "SELECT c_film.rating AS c0, SUM(c_payment.amount) AS c1 FROM public.payment c_payment" +
+                " LEFT JOIN public.rental c_rental ON c_payment.rental_id = c_rental.rental_id" +
+                " LEFT JOIN public.inventory c_inventory ON c_rental.inventory_id = c_inventory.inventory_id" +
+                " LEFT JOIN public.film c_film ON c_inventory.film_id = c_film.film_id" +
+                " GROUP BY c_film.rating ORDER BY c1 DESC LIMIT ? OFFSET ?"
+            );
+        Assertions.assertThat(statement.getParameters()).containsExactly(10001, 0);
+        Assertions.assertThat(statement.getColumns()).extracting("member").containsExactly("Film.rating", "Payment.sum_amount");
+        Assertions
+            .assertThat(statement.getColumns())
+            .extracting("type")
+            .containsExactly(ReportCube.Type.STRING, ReportCube.Type.NUMBER);
+    }
+
+    @Test
+    public void build_MeasureOfCubeJoinedAfterTableHavingMany_JoinIt() {
+        ReportQuerySql statement = build(
+            "{\"measures\": [\"Rental.countDistinct_rental_id\", \"Category.count_category_id\"], \"dimensions\": [\"Film.title\"]}",
+            10000
+        );
+
+        Assertions
+            .assertThat(statement.getSql())
+            .contains(
+                " LEFT JOIN public.film_category c_filmcategory ON c_film.film_id = c_filmcategory.film_id" +
+                " LEFT JOIN public.category c_category ON c_filmcategory.category_id = c_category.category_id"
+            );
+    }
+
+    @Test
+    public void build_CountAcrossTableHavingManyIsGroupedOrFilteredByItsKey_CountEachRowOncePerGroup() {
+        String[] queries = {
+            "{\"measures\": [\"Rental.count_rental_id\"], \"dimensions\": [\"Category.name\"]}",
+            "{\"measures\": [\"Payment.sum_amount\"], \"filters\": [{\"member\": \"Category.name\", \"operator\": \"equals\"," +
+            " \"values\": [\"Drama\"]}]}",
+            "{\"measures\": [\"Rental.count_rental_id\"], \"filters\": [{\"and\": [{\"member\": \"Category.category_id\"," +
+            " \"operator\": \"equals\", \"values\": [\"1\"]}, {\"member\": \"Film.rating\", \"operator\": \"set\"}]}]}",
+        };
+
+        for (String query : queries) {
+            Assertions.assertThat(build(query, 10000).getSql()).as(query).contains("LEFT JOIN public.film_category");
+        }
+    }
+
+    @Test
+    public void matches_RollupIsByCategoryAndQueryIsNot_ReturnFalse() {
+        ReportRollup rollup = rollup("rentals_by_category_day");
+
+        Assertions
+            .assertThat(
+                rollup.matches(
+                    JSONObjectConverter.parse("{\"measures\": [\"Rental.count_rental_id\"], \"dimensions\": [\"Category.name\"]}"),
+                    NOW
+                )
+            )
+            .isTrue();
+        Assertions.assertThat(rollup.matches(JSONObjectConverter.parse("{\"measures\": [\"Rental.count_rental_id\"]}"), NOW)).isFalse();
+    }
+
+    @Test
+    public void build_TimeDimensionHasGranularityAndRelativeRange_TruncateAndFilterByRange() {
+        ReportQuerySql statement = build(
+            "{\"measures\": [\"Rental.count_rental_id\", \"Rental.runningTotal_rental_id\"], \"timeDimensions\": " +
+            "[{\"dimension\": \"Rental.rentalDate\", \"granularity\": \"month\", \"dateRange\": \"Last month\"}]}",
+            10000
+        );
+
+        Assertions
+            .assertThat(statement.getSql())
+            .isEqualTo(
+                "SELECT DATE_TRUNC('month', c_rental.rental_date) AS c0, COUNT(c_rental.rental_id) AS c1," +
+                " SUM(SUM(c_rental.rental_id)) OVER (ORDER BY DATE_TRUNC('month', c_rental.rental_date)) AS c2" +
+                " FROM public.rental c_rental WHERE c_rental.rental_date >= ? AND c_rental.rental_date < ?" +
+                " GROUP BY DATE_TRUNC('month', c_rental.rental_date) ORDER BY c0 ASC LIMIT ? OFFSET ?"
+            );
+        Assertions
+            .assertThat(statement.getParameters())
+            .containsExactly(timestamp("2026-09-01T00:00"), timestamp("2026-10-01T00:00"), 10001, 0);
+        Assertions.assertThat(statement.getColumns()).extracting("member").startsWith("Rental.rentalDate.month");
+    }
+
+    @Test
+    public void build_FiltersOnDimensionsAndMeasures_FilterInWhereAndHaving() {
+        ReportQuerySql statement = build(
+            "{\"measures\": [\"Film.count_film_id\"], \"dimensions\": [\"Film.rating\"], \"limit\": 20, \"filters\": [" +
+            "{\"member\": \"Film.count_film_id\", \"operator\": \"gt\", \"values\": [\"5\"]}," +
+            "{\"or\": [{\"member\": \"Film.title\", \"operator\": \"contains\", \"values\": [\"Love_\"]}," +
+            "{\"dimension\": \"Film.releaseYear\", \"operator\": \"equals\", \"values\": [\"2006\", \"2007\"]}]}]," +
+            "\"order\": [[\"Film.rating\", \"asc\"]]}",
+            10000
+        );
+
+        Assertions
+            .assertThat(statement.getSql())
+            .endsWith(
+                " WHERE ((LOWER(c_film.title) LIKE ?) OR c_film.release_year IN (?, ?))" +
+                " GROUP BY c_film.rating HAVING COUNT(c_film.film_id) > ? ORDER BY c0 ASC LIMIT ? OFFSET ?"
+            );
+        Assertions
+            .assertThat(statement.getParameters())
+            .containsExactly("%love\\_%", new BigDecimal("2006"), new BigDecimal("2007"), new BigDecimal("5"), 21, 0);
+    }
+
+    @Test
+    public void build_FiltersOnBooleanDimension_BindBooleanAndMatchItsText() {
+        ReportQuerySql statement = build(
+            "{\"measures\": [\"Customer.count_customer_id\"], \"dimensions\": [\"Customer.activebool\"], \"filters\": [" +
+            "{\"member\": \"Customer.activebool\", \"operator\": \"equals\", \"values\": [\"true\"]}," +
+            "{\"member\": \"Customer.activebool\", \"operator\": \"contains\", \"values\": [\"TRU\"]}]}",
+            10000
+        );
+
+        Assertions
+            .assertThat(statement.getSql())
+            .contains("c_customer.activebool IN (?)")
+            .contains("LOWER(CAST(c_customer.activebool AS VARCHAR)) LIKE ?");
+        Assertions.assertThat(statement.getParameters()).containsExactly(true, "%tru%", 10001, 0);
+        Assertions
+            .assertThat(statement.getColumns())
+            .extracting("type")
+            .containsExactly(ReportCube.Type.BOOLEAN, ReportCube.Type.NUMBER);
+    }
+
+    @Test
+    public void build_RelativeDateRanges_ResolveAgainstNow() {
+        ReportQuerySql statement = build(
+            "{\"measures\": [\"Payment.sum_amount\"], \"filters\": [" +
+            "{\"member\": \"Payment.paymentDate\", \"operator\": \"inDateRange\", \"values\": \"Last 7 days\"}," +
+            "{\"member\": \"Payment.paymentDate\", \"operator\": \"inDateRange\", \"values\": \"This quarter\"}," +
+            "{\"member\": \"Payment.paymentDate\", \"operator\": \"inDateRange\", \"values\": [\"2026-01-01\", \"2026-01-31\"]}]}",
+            10000
+        );
+
+        Assertions
+            .assertThat(statement.getParameters())
+            .containsExactly(
+                timestamp("2026-10-11T00:00"),
+                timestamp("2026-10-18T00:00"),
+                timestamp("2026-10-01T00:00"),
+                timestamp("2027-01-01T00:00"),
+                timestamp("2026-01-01T00:00"),
+                timestamp("2026-02-01T00:00"),
+                10001,
+                0
+            );
+    }
+
+    @Test
+    public void build_LimitExceedsMaximum_LimitToMaximum() {
+        ReportQuerySql statement = build("{\"dimensions\": [\"Film.title\"], \"limit\": 50000, \"offset\": 10}", 100);
+
+        Assertions.assertThat(statement.getLimit()).isEqualTo(100);
+        Assertions.assertThat(statement.getParameters()).containsExactly(101, 10);
+    }
+
+    @Test
+    public void build_QueryMatchesRollup_AggregateRollupAgain() {
+        ReportRollup rollup = rollup("payments_by_store_staff_day");
+        String query =
+            "{\"measures\": [\"Payment.count_payment_id\", \"Payment.runningTotal_amount\"], \"dimensions\": [\"Store.store_id\"]," +
+            " \"timeDimensions\": [{\"dimension\": \"Payment.paymentDate\", \"granularity\": \"month\", \"dateRange\": \"This year\"}]," +
+            " \"filters\": [{\"member\": \"Payment.sum_amount\", \"operator\": \"gt\", \"values\": [\"100\"]}]}";
+
+        Assertions.assertThat(rollup.matches(JSONObjectConverter.parse(query), NOW)).isTrue();
+        ReportQuerySql statement = ReportQuerySql.build(JSONObjectConverter.parse(query), "public", 10000, NOW, rollup);
+
+        Assertions
+            .assertThat(statement.getSql())
+            .isEqualTo(
+                "SELECT r.store_store_id AS c0, DATE_TRUNC('month', r.payment_paymentdate) AS c1," +
+                " CAST(SUM(r.payment_count_payment_id) AS BIGINT) AS c2," +
+                " SUM(SUM(r.payment_sum_amount)) OVER (ORDER BY DATE_TRUNC('month', r.payment_paymentdate)) AS c3" +
+                " FROM public.rollup_payments_by_store_staff_day r WHERE r.payment_paymentdate >= ? AND r.payment_paymentdate < ?" +
+                " GROUP BY r.store_store_id, DATE_TRUNC('month', r.payment_paymentdate) HAVING SUM(r.payment_sum_amount) > ?" +
+                " ORDER BY c1 ASC LIMIT ? OFFSET ?"
+            );
+        Assertions
+            .assertThat(statement.getParameters())
+            .containsExactly(timestamp("2026-01-01T00:00"), timestamp("2027-01-01T00:00"), new BigDecimal("100"), 10001, 0);
+    }
+
+    @Test
+    public void matches_QueryFinerThanRollup_ReturnFalse() {
+        ReportRollup rollup = rollup("payments_by_store_staff_day");
+        String[] queries = {
+            "{\"measures\": [\"Payment.avg_amount\"]}",
+            "{\"measures\": [\"Payment.sum_amount\"], \"dimensions\": [\"Customer.customer_id\"]}",
+            "{\"dimensions\": [\"Store.store_id\"]}",
+            "{\"measures\": [\"Payment.sum_amount\"], \"timeDimensions\": [{\"dimension\": \"Payment.paymentDate\", \"granularity\": \"hour\"}]}",
+            "{\"measures\": [\"Payment.sum_amount\"], \"timeDimensions\": [{\"dimension\": \"Payment.paymentDate\"," +
+            " \"dateRange\": [\"2026-01-01T08:00:00\", \"2026-01-31\"]}]}",
+            "{\"measures\": [\"Payment.sum_amount\"], \"filters\": [{\"member\": \"Payment.paymentDate\", \"operator\": \"set\"}]}",
+        };
+
+        Assertions.assertThat(rollup.matches(JSONObjectConverter.parse("{\"measures\": [\"Payment.sum_amount\"]}"), NOW)).isTrue();
+        for (String query : queries) {
+            Assertions.assertThat(rollup.matches(JSONObjectConverter.parse(query), NOW)).as(query).isFalse();
+        }
+    }
+
+    @Test
+    public void build_QueryIsInvalid_ThrowIllegalArgumentException() {
+        String[] queries = {
+            "{}",
+            "{\"measures\": [\"Film.sum_title\"]}",
+            "{\"dimensions\": [\"Film.title; DROP TABLE film\"]}",
+            "{\"dimensions\": [\"Unknown.title\"]}",
+            "{\"measures\": [\"Film.count_film_id\"], \"dimensions\": [\"Actor.firstName\"]}",
+            "{\"dimensions\": [\"Film.title\"], \"order\": {\"Film.rating\": \"asc\"}}",
+            "{\"dimensions\": [\"Film.title\"], \"order\": {\"Film.title\": \"asc; DROP TABLE film\"}}",
+            "{\"timeDimensions\": [{\"dimension\": \"Rental.rentalDate\", \"granularity\": \"fortnight\"}]}",
+            "{\"dimensions\": [\"Film.title\"], \"filters\": [{\"member\": \"Film.title\", \"operator\": \"like\", \"values\": [\"a\"]}]}",
+            "{\"dimensions\": [\"Film.title\"], \"filters\": [{\"member\": \"Film.length\", \"operator\": \"gt\", \"values\": [\"long\"]}]}",
+            "{\"measures\": [\"Rental.count_rental_id\"], \"dimensions\": [\"Film.title\", \"Category.lastUpdate\"]}",
+            "{\"measures\": [\"Payment.sum_amount\"], \"filters\": [{\"member\": \"Category.name\", \"operator\": \"equals\"," +
+            " \"values\": [\"Drama\", \"Comedy\"]}]}",
+            "{\"measures\": [\"Payment.sum_amount\"], \"filters\": [{\"or\": [{\"member\": \"Category.name\"," +
+            " \"operator\": \"equals\", \"values\": [\"Drama\"]}, {\"member\": \"Film.rating\", \"operator\": \"set\"}]}]}",
+            "{\"measures\": [\"Film.avg_length\"], \"dimensions\": [\"FilmCategory.lastUpdate\"]}",
+            "{\"dimensions\": [\"Staff.username\"], \"filters\": [{\"member\": \"Staff.active\", \"operator\": \"equals\"," +
+            " \"values\": [\"yes\"]}]}",
+        };
+
+        for (String query : queries) {
+            Assertions
+                .assertThatThrownBy(() -> build(query, 10000))
+                .as(query)
+                .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.fastcode.dvdrental.addons.reporting.query;
+
+import com.fastcode.dvdrental.addons.reporting.JSONObjectConverter;
+import com.fastcode.dvdrental.addons.reporting.application.report.dto.ReportDataOutput;
+import com.fastcode.dvdrental.domain.core.rental.IRentalRepository;
+import com.fastcode.dvdrental.domain.core.rental.RentalEntity;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import javax.sql.DataSource;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(
+    properties = {
+        "spring.profiles.active=test",
+        "spring.jpa.properties.hibernate.default_schema=PUBLIC",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+    }
+)
+public class ReportRollupStoreTest {
+
+    // Rentals of a year no other test rents in, by month
+    protected static final String RENTALS_OF_1998 =
+        "{\"measures\": [\"Rental.count_rental_id\"], \"timeDimensions\": [{\"dimension\": \"Rental.rentalDate\"," +
+        " \"granularity\": \"month\", \"dateRange\": [\"1998-01-01\", \"1998-12-31\"]}]}";
+
+    protected static final String RENEWED_RENTALS_OF_1998 = RENTALS_OF_1998.replace("{\"measures\"", "{\"renewQuery\": true, \"measures\"");
+
+    @Autowired
+    protected ReportRollupStore reportRollupStore;
+
+    @Autowired
+    protected ReportQueryEngine reportQueryEngine;
+
+    @Autowired
+    protected IRentalRepository rentalRepository;
+
+    @Autowired
+    protected DataSource dataSource;
+
+    protected RentalEntity rent(LocalDate date) {
+        RentalEntity rental = new RentalEntity();
+        rental.setRentalDate(date);
+        return rentalRepository.save(rental);
+    }
+
+    protected static ReportRollup rollup() {
+        return ReportRollups
+            .all()
+            .stream()
+            .filter(rollup -> rollup.getName().equals("rentals_by_store_staff_day"))
+            .findFirst()
+            .get();
+    }
+
+    protected ReportDataOutput execute(String query) {
+        return reportQueryEngine.execute(JSONObjectConverter.parse(query));
+    }
+
+    @Test
+    public void refresh_RowsAdded_AggregateTheirDaysAgain() {
+        rent(LocalDate.of(1998, 2, 10));
+        rent(LocalDate.of(1998, 2, 10));
+        rent(LocalDate.of(1998, 3, 1));
+        reportRollupStore.refresh(rollup(), true);
+
+        ReportDataOutput output = execute(RENTALS_OF_1998);
+        Assertions.assertThat(output.getRollup()).isEqualTo("rentals_by_store_staff_day");
+        Assertions.assertThat(execute(RENEWED_RENTALS_OF_1998).getRollup()).isNull();
+        Assertions
+            .assertThat(output.getColumns().get(1).getValues())
+            .isEqualTo(execute(RENEWED_RENTALS_OF_1998).getColumns().get(1).getValues());
+
+        rent(LocalDate.of(1998, 3, 5));
+        Assertions.assertThat(reportRollupStore.refresh(rollup(), false)).isPositive();
+        Assertions.assertThat(reportRollupStore.refresh(rollup(), false)).isPositive();
+
+        output = execute(RENTALS_OF_1998);
+        Assertions.assertThat(output.getRollup()).isEqualTo("rentals_by_store_staff_day");
+        Assertions
+            .assertThat(output.getColumns().get(1).getValues())
+            .isEqualTo(execute(RENEWED_RENTALS_OF_1998).getColumns().get(1).getValues());
+        Assertions
+            .assertThat(output.getColumns().get(1).getValues())
+            .extracting(value -> ((Number) value).longValue())
+            .endsWith(2L);
+    }
+
+    @Test
+    public void refresh_RowBelowTheMarkCommittedAfterRefresh_AggregateItsDay() {
+        RentalEntity late = rent(LocalDate.of(1998, 6, 1));
+        rent(LocalDate.of(1998, 6, 2));
+        rentalRepository.delete(late);
+        reportRollupStore.refresh(rollup(), true);
+
+        // Commits after the refresh with the key allocated to it before the rental of the next day
+        new JdbcTemplate(dataSource)
+            .update(
+                "INSERT INTO PUBLIC.rental (rental_id, rental_date, versiono) VALUES (?, ?, 0)",
+                late.getRentalId(),
+                Date.valueOf(late.getRentalDate())
+            );
+        reportRollupStore.refresh(rollup(), false);
+
+        ReportDataOutput output = execute(RENTALS_OF_1998);
+        Assertions.assertThat(output.getRollup()).isEqualTo("rentals_by_store_staff_day");
+        Assertions
+            .assertThat(output.getColumns().get(1).getValues())
+            .isEqualTo(execute(RENEWED_RENTALS_OF_1998).getColumns().get(1).getValues());
+    }
+
+    @Test
+    public void refresh_RebuildAfterAggregatedRowChanged_ReturnChangedResult() {
+        RentalEntity moved = rent(LocalDate.of(1998, 9, 1));
+        rent(LocalDate.of(1998, 9, 1));
+        reportRollupStore.refresh(rollup(), true);
+        List<Object> before = execute(RENTALS_OF_1998).getColumns().get(1).getValues();
+
+        moved.setRentalDate(LocalDate.of(1998, 11, 1));
+        rentalRepository.save(moved);
+        reportRollupStore.refresh(rollup(), true);
+
+        ReportDataOutput output = execute(RENTALS_OF_1998);
+        Assertions.assertThat(output.getRollup()).isEqualTo("rentals_by_store_staff_day");
+        Assertions.assertThat(output.getColumns().get(1).getValues()).isNotEqualTo(before);
+        Assertions
+            .assertThat(output.getColumns().get(1).getValues())
+            .isEqualTo(execute(RENEWED_RENTALS_OF_1998).getColumns().get(1).getValues());
+    }
+}
@@ -0,0 +1,160 @@
+package com.fastcode.dvdrental.addons.scheduler.domain.jobhistory;
+
+import com.fastcode.dvdrental.commons.logging.LoggingHelper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(
+    properties = {
+        "spring.profiles.active=test",
+        "spring.jpa.properties.hibernate.default_schema=PUBLIC",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+    }
+)
+public class JobHistoryWriterTest {
+
+    @Autowired
+    protected DataSource dataSource;
+
+    @Autowired
+    protected PlatformTransactionManager transactionManager;
+
+    @Autowired
+    protected Environment env;
+
+    @Autowired
+    protected LoggingHelper logHelper;
+
+    @Autowired
+    protected IJobHistoryRepository jobHistoryRepository;
+
+    protected JobHistoryEntity history(String jobName) {
+        JobHistoryEntity history = new JobHistoryEntity();
+        history.setJobName(jobName);
+        history.setJobGroup("writerTest");
+        history.setJobClass(JobHistoryWriterTest.class.getName());
+        history.setTriggerName(jobName);
+        history.setTriggerGroup("writerTest");
+        history.setFiredTime(new Date());
+        history.setFinishedTime(new Date());
+        history.setDuration(JobsListener.timeDifference(0));
+        history.setJobStatus("Success");
+        return history;
+    }
+
+    protected JobHistoryWriter writer(SimpleMeterRegistry meterRegistry, int batchSize) {
+        return writer(meterRegistry, batchSize, transactionManager);
+    }
+
+    protected JobHistoryWriter writer(
+        SimpleMeterRegistry meterRegistry,
+        int batchSize,
+        PlatformTransactionManager transactionManager
+    ) {
+        return new JobHistoryWriter(dataSource, transactionManager, env, meterRegistry, logHelper, 10, batchSize, 100);
+    }
+
+    /**
+     * Returns a transaction manager failing to begin a transaction until the latch is counted down, as while
+     * the database is unreachable.
+     */
+    protected PlatformTransactionManager unavailableOnce(CountDownLatch unavailable) {
+        return new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                if (unavailable.getCount() > 0) {
+                    unavailable.countDown();
+                    throw new CannotCreateTransactionException("Database is unreachable");
+                }
+                return transactionManager.getTransaction(definition);
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+                transactionManager.commit(status);
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+                transactionManager.rollback(status);
+            }
+        };
+    }
+
+    @Test
+    public void stop_ExecutionsQueued_WriteAllOfThem() throws Exception {
+        JobHistoryWriter writer = writer(new SimpleMeterRegistry(), 2);
+        writer.start();
+
+        for (int index = 0; index < 5; index++) {
+            Assertions.assertThat(writer.write(history("queued"))).isTrue();
+        }
+        writer.stop();
+
+        Assertions.assertThat(jobHistoryRepository.findByJob("queued", "writerTest")).hasSize(5);
+    }
+
+    @Test
+    public void stop_OneExecutionOfBatchIsInvalid_WriteTheOthers() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JobHistoryWriter writer = writer(meterRegistry, 10);
+        JobHistoryEntity invalid = history("invalid");
+        invalid.setJobMapData(String.join("", Collections.nCopies(257, "x")));
+
+        Assertions.assertThat(writer.write(history("valid"))).isTrue();
+        Assertions.assertThat(writer.write(invalid)).isTrue();
+        Assertions.assertThat(writer.write(history("valid"))).isTrue();
+        writer.start();
+        writer.stop();
+
+        Assertions.assertThat(jobHistoryRepository.findByJob("valid", "writerTest")).hasSize(2);
+        Assertions.assertThat(jobHistoryRepository.findByJob("invalid", "writerTest")).isEmpty();
+        Assertions.assertThat(meterRegistry.counter(JobHistoryWriter.FAILED).count()).isEqualTo(1);
+    }
+
+    @Test
+    public void stop_TransactionCannotBeBegun_CountBatchAsFailedAndWriteTheNextOne() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CountDownLatch unavailable = new CountDownLatch(1);
+        JobHistoryWriter writer = writer(meterRegistry, 10, unavailableOnce(unavailable));
+
+        Assertions.assertThat(writer.write(history("unavailable"))).isTrue();
+        Assertions.assertThat(writer.write(history("unavailable"))).isTrue();
+        writer.start();
+        Assertions.assertThat(unavailable.await(10, TimeUnit.SECONDS)).isTrue();
+        Assertions.assertThat(writer.write(history("available"))).isTrue();
+        writer.stop();
+
+        Assertions.assertThat(jobHistoryRepository.findByJob("unavailable", "writerTest")).isEmpty();
+        Assertions.assertThat(jobHistoryRepository.findByJob("available", "writerTest")).hasSize(1);
+        Assertions.assertThat(meterRegistry.counter(JobHistoryWriter.FAILED).count()).isEqualTo(2);
+    }
+
+    @Test
+    public void write_WriterIsStopped_DropExecution() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JobHistoryWriter writer = writer(meterRegistry, 2);
+        writer.start();
+        writer.stop();
+
+        Assertions.assertThat(writer.write(history("dropped"))).isFalse();
+        Assertions.assertThat(meterRegistry.counter(JobHistoryWriter.DROPPED).count()).isEqualTo(1);
+        Assertions.assertThat(jobHistoryRepository.findByJob("dropped", "writerTest")).isEmpty();
+    }
+}
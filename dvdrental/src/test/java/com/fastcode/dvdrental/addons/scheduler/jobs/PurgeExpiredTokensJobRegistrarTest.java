@@ -0,0 +1,101 @@
+package com.fastcode.dvdrental.addons.scheduler.jobs;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.CronTrigger;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.TriggerKey;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+public class PurgeExpiredTokensJobRegistrarTest {
+
+    protected static final JobKey JOB_KEY = new JobKey(
+        PurgeExpiredTokensJobRegistrar.JOB_NAME,
+        PurgeExpiredTokensJobRegistrar.JOB_GROUP
+    );
+
+    protected static final TriggerKey TRIGGER_KEY = new TriggerKey(
+        PurgeExpiredTokensJobRegistrar.JOB_NAME,
+        PurgeExpiredTokensJobRegistrar.JOB_GROUP
+    );
+
+    protected Scheduler scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = mock(Scheduler.class);
+    }
+
+    protected void store(String cron, int batchSize) throws SchedulerException {
+        JobDetail job = JobBuilder
+            .newJob(PurgeExpiredTokensJob.class)
+            .withIdentity(JOB_KEY)
+            .usingJobData(PurgeExpiredTokensJob.BATCH_SIZE, batchSize)
+            .storeDurably()
+            .build();
+        Trigger trigger = TriggerBuilder
+            .newTrigger()
+            .forJob(JOB_KEY)
+            .withIdentity(TRIGGER_KEY)
+            .withSchedule(CronScheduleBuilder.cronSchedule(cron))
+            .build();
+        when(scheduler.getJobDetail(JOB_KEY)).thenReturn(job);
+        when(scheduler.getTrigger(TRIGGER_KEY)).thenReturn(trigger);
+    }
+
+    @Test
+    public void register_JobIsNotStored_AddJobAndScheduleTrigger() throws SchedulerException {
+        new PurgeExpiredTokensJobRegistrar(null, "0 0 * * * ?", 1000).register(scheduler);
+
+        ArgumentCaptor<JobDetail> job = ArgumentCaptor.forClass(JobDetail.class);
+        verify(scheduler).addJob(job.capture(), eq(true));
+        Assertions.assertThat(job.getValue().getJobDataMap().getInt(PurgeExpiredTokensJob.BATCH_SIZE)).isEqualTo(1000);
+        ArgumentCaptor<Trigger> trigger = ArgumentCaptor.forClass(Trigger.class);
+        verify(scheduler).scheduleJob(trigger.capture());
+        Assertions.assertThat(((CronTrigger) trigger.getValue()).getCronExpression()).isEqualTo("0 0 * * * ?");
+    }
+
+    @Test
+    public void register_CronAndBatchSizeChanged_ReplaceJobAndRescheduleTrigger() throws SchedulerException {
+        store("0 0 * * * ?", 1000);
+
+        new PurgeExpiredTokensJobRegistrar(null, "0 */30 * * * ?", 500).register(scheduler);
+
+        ArgumentCaptor<JobDetail> job = ArgumentCaptor.forClass(JobDetail.class);
+        verify(scheduler).addJob(job.capture(), eq(true));
+        Assertions.assertThat(job.getValue().getJobDataMap().getInt(PurgeExpiredTokensJob.BATCH_SIZE)).isEqualTo(500);
+        ArgumentCaptor<Trigger> trigger = ArgumentCaptor.forClass(Trigger.class);
+        verify(scheduler).rescheduleJob(eq(TRIGGER_KEY), trigger.capture());
+        Assertions.assertThat(((CronTrigger) trigger.getValue()).getCronExpression()).isEqualTo("0 */30 * * * ?");
+    }
+
+    @Test
+    public void register_NothingChanged_KeepJobAndTrigger() throws SchedulerException {
+        store("0 0 * * * ?", 1000);
+
+        new PurgeExpiredTokensJobRegistrar(null, "0 0 * * * ?", 1000).register(scheduler);
+
+        verify(scheduler, never()).addJob(any(JobDetail.class), anyBoolean());
+        verify(scheduler, never()).scheduleJob(any(Trigger.class));
+        verify(scheduler, never()).rescheduleJob(any(TriggerKey.class), any(Trigger.class));
+    }
+}
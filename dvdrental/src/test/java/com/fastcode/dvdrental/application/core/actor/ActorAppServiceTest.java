@@ -1,6 +1,7 @@
 package com.fastcode.dvdrental.application.core.actor;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
@@ -17,6 +18,8 @@ import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
 import java.time.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,9 +34,8 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.slf4j.Logger;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -66,18 +68,16 @@ public class ActorAppServiceTest {
 
     @Test
     public void findActorById_IdIsNotNullAndIdDoesNotExist_ReturnNull() {
-        Optional<ActorEntity> nullOptional = Optional.ofNullable(null);
-        Mockito.when(_actorRepository.findById(any(Integer.class))).thenReturn(nullOptional);
+        Mockito.when(_actorRepository.findProjectedById(any(Integer.class))).thenReturn(null);
         Assertions.assertThat(_appService.findById(ID)).isEqualTo(null);
     }
 
     @Test
     public void findActorById_IdIsNotNullAndIdExists_ReturnActor() {
-        ActorEntity actor = mock(ActorEntity.class);
-        Optional<ActorEntity> actorOptional = Optional.of((ActorEntity) actor);
-        Mockito.when(_actorRepository.findById(any(Integer.class))).thenReturn(actorOptional);
+        FindActorByIdOutput actor = mock(FindActorByIdOutput.class);
+        Mockito.when(_actorRepository.findProjectedById(any(Integer.class))).thenReturn(actor);
 
-        Assertions.assertThat(_appService.findById(ID)).isEqualTo(_mapper.actorEntityToFindActorByIdOutput(actor));
+        Assertions.assertThat(_appService.findById(ID)).isEqualTo(actor);
     }
 
     @Test
@@ -117,90 +117,106 @@ public class ActorAppServiceTest {
 
     @Test
     public void find_ListIsEmpty_ReturnList() throws Exception {
-        List<ActorEntity> list = new ArrayList<>();
-        Page<ActorEntity> foundPage = new PageImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindActorByIdOutput> output = new ArrayList<>();
         SearchCriteria search = new SearchCriteria();
 
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
-        Mockito.when(_actorRepository.findAll(any(Predicate.class), any(Pageable.class))).thenReturn(foundPage);
-        Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
+        Mockito
+            .when(_actorRepository.findAllProjected(any(Predicate.class), any(), any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(output));
+        Assertions.assertThat(_appService.find(search, pageable).getContent()).isEqualTo(output);
     }
 
     @Test
     public void find_ListIsNotEmpty_ReturnList() throws Exception {
-        List<ActorEntity> list = new ArrayList<>();
-        ActorEntity actor = mock(ActorEntity.class);
-        list.add(actor);
-        Page<ActorEntity> foundPage = new PageImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindActorByIdOutput> output = new ArrayList<>();
+        output.add(mock(FindActorByIdOutput.class));
         SearchCriteria search = new SearchCriteria();
 
-        output.add(_mapper.actorEntityToFindActorByIdOutput(actor));
-
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
-        Mockito.when(_actorRepository.findAll(any(Predicate.class), any(Pageable.class))).thenReturn(foundPage);
-        Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
+        Mockito
+            .when(_actorRepository.findAllProjected(any(Predicate.class), any(), any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(output));
+        Assertions.assertThat(_appService.find(search, pageable).getContent()).isEqualTo(output);
     }
 
     @Test
-    public void searchKeyValuePair_PropertyExists_ReturnBooleanBuilder() {
-        QActorEntity actor = QActorEntity.actorEntity;
-        SearchFields searchFields = new SearchFields();
-        searchFields.setOperator("equals");
-        searchFields.setSearchValue("xyz");
-        Map<String, SearchFields> map = new HashMap<>();
-        map.put("firstName", searchFields);
-        Map<String, String> searchMap = new HashMap<>();
-        searchMap.put("xyz", String.valueOf(ID));
-        BooleanBuilder builder = new BooleanBuilder();
-        builder.and(actor.firstName.eq("xyz"));
-        Assertions.assertThat(_appService.searchKeyValuePair(actor, map, searchMap)).isEqualTo(builder);
+    public void findByIds_IdsExist_ReturnOutputsKeyedByIdInRequestOrder() throws Exception {
+        FindActorByIdOutput first = new FindActorByIdOutput();
+        first.setActorId(ID);
+        FindActorByIdOutput second = new FindActorByIdOutput();
+        second.setActorId(ID + 1);
+        Mockito
+            .when(_actorRepository.findProjectedByIds(anyCollection()))
+            .thenReturn(Arrays.asList(first, second));
+
+        Assertions
+            .assertThat(_appService.findByIds(Arrays.asList(ID + 1, ID + 2, ID)))
+            .containsExactly(Assertions.entry(ID + 1, second), Assertions.entry(ID, first));
     }
 
-    @Test(expected = Exception.class)
-    public void checkProperties_PropertyDoesNotExist_ThrowException() throws Exception {
-        List<String> list = new ArrayList<>();
-        list.add("xyz");
-        _appService.checkProperties(list);
+    @Test
+    public void findByIds_BatchIsTooLarge_ThrowException() {
+        List<Integer> ids = Collections.nCopies(BatchIds.MAX_SIZE + 1, ID);
+
+        Assertions
+            .assertThatThrownBy(() -> _appService.findByIds(ids))
+            .hasMessage("Batch of 101 ids exceeds the maximum of 100!");
+    }
+
+    @Test
+    public void count_TotalCountIsExact_ReturnCount() throws Exception {
+        SearchCriteria search = new SearchCriteria();
+
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_actorRepository.count(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.EXACT)).isEqualTo(15L);
     }
 
     @Test
-    public void checkProperties_PropertyExists_ReturnNothing() throws Exception {
-        List<String> list = new ArrayList<>();
-        list.add("firstName");
-        list.add("lastName");
-        _appService.checkProperties(list);
+    public void count_TotalCountIsEstimate_ReturnEstimate() throws Exception {
+        SearchCriteria search = new SearchCriteria();
+
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_actorRepository.estimateCount(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.ESTIMATE)).isEqualTo(15L);
     }
 
     @Test
-    public void search_SearchIsNotNullAndSearchContainsCaseThree_ReturnBooleanBuilder() throws Exception {
-        Map<String, SearchFields> map = new HashMap<>();
+    public void search_SearchIsNotNullAndPropertyExists_ReturnBooleanBuilder() throws Exception {
         QActorEntity actor = QActorEntity.actorEntity;
         List<SearchFields> fieldsList = new ArrayList<>();
         SearchFields fields = new SearchFields();
         SearchCriteria search = new SearchCriteria();
         search.setType(3);
-        search.setValue("xyz");
-        search.setOperator("equals");
         fields.setFieldName("firstName");
         fields.setOperator("equals");
         fields.setSearchValue("xyz");
         fieldsList.add(fields);
         search.setFields(fieldsList);
         BooleanBuilder builder = new BooleanBuilder();
-        builder.or(actor.firstName.eq("xyz"));
-        Mockito.doNothing().when(_appService).checkProperties(any(List.class));
-        Mockito
-            .doReturn(builder)
-            .when(_appService)
-            .searchKeyValuePair(any(QActorEntity.class), any(HashMap.class), any(HashMap.class));
+        builder.and(actor.firstName.eq("xyz"));
 
         Assertions.assertThat(_appService.search(search)).isEqualTo(builder);
     }
 
+    @Test(expected = Exception.class)
+    public void search_SearchIsNotNullAndPropertyDoesNotExist_ThrowException() throws Exception {
+        List<SearchFields> fieldsList = new ArrayList<>();
+        SearchFields fields = new SearchFields();
+        SearchCriteria search = new SearchCriteria();
+        search.setType(3);
+        fields.setFieldName("xyz");
+        fields.setOperator("equals");
+        fields.setSearchValue("xyz");
+        fieldsList.add(fields);
+        search.setFields(fieldsList);
+
+        _appService.search(search);
+    }
+
     @Test
     public void search_StringIsNull_ReturnNull() throws Exception {
         Assertions.assertThat(_appService.search(null)).isEqualTo(null);
@@ -14,6 +14,7 @@ import com.fastcode.dvdrental.commons.search.*;
 import com.fastcode.dvdrental.domain.core.authorization.permission.*;
 import com.fastcode.dvdrental.domain.core.authorization.permission.PermissionEntity;
 import com.fastcode.dvdrental.domain.core.authorization.permission.QPermissionEntity;
+import com.fastcode.dvdrental.security.PermissionResolver;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
 import java.time.*;
@@ -32,9 +33,9 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.slf4j.Logger;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -56,6 +57,9 @@ public class PermissionAppServiceTest {
     @Mock
     protected LoggingHelper logHelper;
 
+    @Mock
+    protected PermissionResolver _permissionResolver;
+
     protected static Long ID = 15L;
 
     @Before
@@ -141,14 +145,14 @@ public class PermissionAppServiceTest {
     @Test
     public void find_ListIsEmpty_ReturnList() throws Exception {
         List<PermissionEntity> list = new ArrayList<>();
-        Page<PermissionEntity> foundPage = new PageImpl(list);
+        Slice<PermissionEntity> foundSlice = new SliceImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindPermissionByIdOutput> output = new ArrayList<>();
         SearchCriteria search = new SearchCriteria();
 
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
-        Mockito.when(_permissionRepository.findAll(any(Predicate.class), any(Pageable.class))).thenReturn(foundPage);
-        Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
+        Mockito.when(_permissionRepository.findSlice(any(Predicate.class), any(Pageable.class))).thenReturn(foundSlice);
+        Assertions.assertThat(_appService.find(search, pageable).getContent()).isEqualTo(output);
     }
 
     @Test
@@ -156,7 +160,7 @@ public class PermissionAppServiceTest {
         List<PermissionEntity> list = new ArrayList<>();
         PermissionEntity permission = mock(PermissionEntity.class);
         list.add(permission);
-        Page<PermissionEntity> foundPage = new PageImpl(list);
+        Slice<PermissionEntity> foundSlice = new SliceImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindPermissionByIdOutput> output = new ArrayList<>();
         SearchCriteria search = new SearchCriteria();
@@ -164,66 +168,61 @@ public class PermissionAppServiceTest {
         output.add(_mapper.permissionEntityToFindPermissionByIdOutput(permission));
 
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
-        Mockito.when(_permissionRepository.findAll(any(Predicate.class), any(Pageable.class))).thenReturn(foundPage);
-        Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
+        Mockito.when(_permissionRepository.findSlice(any(Predicate.class), any(Pageable.class))).thenReturn(foundSlice);
+        Assertions.assertThat(_appService.find(search, pageable).getContent()).isEqualTo(output);
     }
 
     @Test
-    public void searchKeyValuePair_PropertyExists_ReturnBooleanBuilder() {
-        QPermissionEntity permission = QPermissionEntity.permissionEntity;
-        SearchFields searchFields = new SearchFields();
-        searchFields.setOperator("equals");
-        searchFields.setSearchValue("xyz");
-        Map<String, SearchFields> map = new HashMap<>();
-        map.put("displayName", searchFields);
-        Map<String, String> searchMap = new HashMap<>();
-        searchMap.put("xyz", String.valueOf(ID));
-        BooleanBuilder builder = new BooleanBuilder();
-        builder.and(permission.displayName.eq("xyz"));
-        Assertions.assertThat(_appService.searchKeyValuePair(permission, map, searchMap)).isEqualTo(builder);
-    }
+    public void count_TotalCountIsExact_ReturnCount() throws Exception {
+        SearchCriteria search = new SearchCriteria();
 
-    @Test(expected = Exception.class)
-    public void checkProperties_PropertyDoesNotExist_ThrowException() throws Exception {
-        List<String> list = new ArrayList<>();
-        list.add("xyz");
-        _appService.checkProperties(list);
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_permissionRepository.count(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.EXACT)).isEqualTo(15L);
     }
 
     @Test
-    public void checkProperties_PropertyExists_ReturnNothing() throws Exception {
-        List<String> list = new ArrayList<>();
-        list.add("displayName");
-        list.add("name");
-        _appService.checkProperties(list);
+    public void count_TotalCountIsEstimate_ReturnEstimate() throws Exception {
+        SearchCriteria search = new SearchCriteria();
+
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_permissionRepository.estimateCount(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.ESTIMATE)).isEqualTo(15L);
     }
 
     @Test
-    public void search_SearchIsNotNullAndSearchContainsCaseThree_ReturnBooleanBuilder() throws Exception {
-        Map<String, SearchFields> map = new HashMap<>();
+    public void search_SearchIsNotNullAndPropertyExists_ReturnBooleanBuilder() throws Exception {
         QPermissionEntity permission = QPermissionEntity.permissionEntity;
         List<SearchFields> fieldsList = new ArrayList<>();
         SearchFields fields = new SearchFields();
         SearchCriteria search = new SearchCriteria();
         search.setType(3);
-        search.setValue("xyz");
-        search.setOperator("equals");
         fields.setFieldName("displayName");
         fields.setOperator("equals");
         fields.setSearchValue("xyz");
         fieldsList.add(fields);
         search.setFields(fieldsList);
         BooleanBuilder builder = new BooleanBuilder();
-        builder.or(permission.displayName.eq("xyz"));
-        Mockito.doNothing().when(_appService).checkProperties(any(List.class));
-        Mockito
-            .doReturn(builder)
-            .when(_appService)
-            .searchKeyValuePair(any(QPermissionEntity.class), any(HashMap.class), any(HashMap.class));
+        builder.and(permission.displayName.eq("xyz"));
 
         Assertions.assertThat(_appService.search(search)).isEqualTo(builder);
     }
 
+    @Test(expected = Exception.class)
+    public void search_SearchIsNotNullAndPropertyDoesNotExist_ThrowException() throws Exception {
+        List<SearchFields> fieldsList = new ArrayList<>();
+        SearchFields fields = new SearchFields();
+        SearchCriteria search = new SearchCriteria();
+        search.setType(3);
+        fields.setFieldName("xyz");
+        fields.setOperator("equals");
+        fields.setSearchValue("xyz");
+        fieldsList.add(fields);
+        search.setFields(fieldsList);
+
+        _appService.search(search);
+    }
+
     @Test
     public void search_StringIsNull_ReturnNull() throws Exception {
         Assertions.assertThat(_appService.search(null)).isEqualTo(null);
@@ -14,6 +14,7 @@ import com.fastcode.dvdrental.commons.search.*;
 import com.fastcode.dvdrental.domain.core.authorization.role.*;
 import com.fastcode.dvdrental.domain.core.authorization.role.QRoleEntity;
 import com.fastcode.dvdrental.domain.core.authorization.role.RoleEntity;
+import com.fastcode.dvdrental.security.PermissionResolver;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
 import java.time.*;
@@ -32,9 +33,9 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.slf4j.Logger;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -50,6 +51,9 @@ public class RoleAppServiceTest {
     @Mock
     protected IRoleMapper _mapper;
 
+    @Mock
+    protected PermissionResolver _permissionResolver;
+
     @Mock
     protected Logger loggerMock;
 
@@ -118,6 +122,7 @@ public class RoleAppServiceTest {
         Mockito.when(_mapper.updateRoleInputToRoleEntity(any(UpdateRoleInput.class))).thenReturn(roleEntity);
         Mockito.when(_roleRepository.save(any(RoleEntity.class))).thenReturn(roleEntity);
         Assertions.assertThat(_appService.update(ID, role)).isEqualTo(_mapper.roleEntityToUpdateRoleOutput(roleEntity));
+        verify(_permissionResolver).evictAll();
     }
 
     @Test
@@ -128,19 +133,20 @@ public class RoleAppServiceTest {
 
         _appService.delete(ID);
         verify(_roleRepository).delete(role);
+        verify(_permissionResolver).evictAll();
     }
 
     @Test
     public void find_ListIsEmpty_ReturnList() throws Exception {
         List<RoleEntity> list = new ArrayList<>();
-        Page<RoleEntity> foundPage = new PageImpl(list);
+        Slice<RoleEntity> foundSlice = new SliceImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindRoleByIdOutput> output = new ArrayList<>();
         SearchCriteria search = new SearchCriteria();
 
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
-        Mockito.when(_roleRepository.findAll(any(Predicate.class), any(Pageable.class))).thenReturn(foundPage);
-        Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
+        Mockito.when(_roleRepository.findSlice(any(Predicate.class), any(Pageable.class))).thenReturn(foundSlice);
+        Assertions.assertThat(_appService.find(search, pageable).getContent()).isEqualTo(output);
     }
 
     @Test
@@ -148,7 +154,7 @@ public class RoleAppServiceTest {
         List<RoleEntity> list = new ArrayList<>();
         RoleEntity role = mock(RoleEntity.class);
         list.add(role);
-        Page<RoleEntity> foundPage = new PageImpl(list);
+        Slice<RoleEntity> foundSlice = new SliceImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindRoleByIdOutput> output = new ArrayList<>();
         SearchCriteria search = new SearchCriteria();
@@ -156,66 +162,61 @@ public class RoleAppServiceTest {
         output.add(_mapper.roleEntityToFindRoleByIdOutput(role));
 
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
-        Mockito.when(_roleRepository.findAll(any(Predicate.class), any(Pageable.class))).thenReturn(foundPage);
-        Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
+        Mockito.when(_roleRepository.findSlice(any(Predicate.class), any(Pageable.class))).thenReturn(foundSlice);
+        Assertions.assertThat(_appService.find(search, pageable).getContent()).isEqualTo(output);
     }
 
     @Test
-    public void searchKeyValuePair_PropertyExists_ReturnBooleanBuilder() {
-        QRoleEntity role = QRoleEntity.roleEntity;
-        SearchFields searchFields = new SearchFields();
-        searchFields.setOperator("equals");
-        searchFields.setSearchValue("xyz");
-        Map<String, SearchFields> map = new HashMap<>();
-        map.put("displayName", searchFields);
-        Map<String, String> searchMap = new HashMap<>();
-        searchMap.put("xyz", String.valueOf(ID));
-        BooleanBuilder builder = new BooleanBuilder();
-        builder.and(role.displayName.eq("xyz"));
-        Assertions.assertThat(_appService.searchKeyValuePair(role, map, searchMap)).isEqualTo(builder);
-    }
+    public void count_TotalCountIsExact_ReturnCount() throws Exception {
+        SearchCriteria search = new SearchCriteria();
 
-    @Test(expected = Exception.class)
-    public void checkProperties_PropertyDoesNotExist_ThrowException() throws Exception {
-        List<String> list = new ArrayList<>();
-        list.add("xyz");
-        _appService.checkProperties(list);
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_roleRepository.count(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.EXACT)).isEqualTo(15L);
     }
 
     @Test
-    public void checkProperties_PropertyExists_ReturnNothing() throws Exception {
-        List<String> list = new ArrayList<>();
-        list.add("displayName");
-        list.add("name");
-        _appService.checkProperties(list);
+    public void count_TotalCountIsEstimate_ReturnEstimate() throws Exception {
+        SearchCriteria search = new SearchCriteria();
+
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_roleRepository.estimateCount(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.ESTIMATE)).isEqualTo(15L);
     }
 
     @Test
-    public void search_SearchIsNotNullAndSearchContainsCaseThree_ReturnBooleanBuilder() throws Exception {
-        Map<String, SearchFields> map = new HashMap<>();
+    public void search_SearchIsNotNullAndPropertyExists_ReturnBooleanBuilder() throws Exception {
         QRoleEntity role = QRoleEntity.roleEntity;
         List<SearchFields> fieldsList = new ArrayList<>();
         SearchFields fields = new SearchFields();
         SearchCriteria search = new SearchCriteria();
         search.setType(3);
-        search.setValue("xyz");
-        search.setOperator("equals");
         fields.setFieldName("displayName");
         fields.setOperator("equals");
         fields.setSearchValue("xyz");
         fieldsList.add(fields);
         search.setFields(fieldsList);
         BooleanBuilder builder = new BooleanBuilder();
-        builder.or(role.displayName.eq("xyz"));
-        Mockito.doNothing().when(_appService).checkProperties(any(List.class));
-        Mockito
-            .doReturn(builder)
-            .when(_appService)
-            .searchKeyValuePair(any(QRoleEntity.class), any(HashMap.class), any(HashMap.class));
+        builder.and(role.displayName.eq("xyz"));
 
         Assertions.assertThat(_appService.search(search)).isEqualTo(builder);
     }
 
+    @Test(expected = Exception.class)
+    public void search_SearchIsNotNullAndPropertyDoesNotExist_ThrowException() throws Exception {
+        List<SearchFields> fieldsList = new ArrayList<>();
+        SearchFields fields = new SearchFields();
+        SearchCriteria search = new SearchCriteria();
+        search.setType(3);
+        fields.setFieldName("xyz");
+        fields.setOperator("equals");
+        fields.setSearchValue("xyz");
+        fieldsList.add(fields);
+        search.setFields(fieldsList);
+
+        _appService.search(search);
+    }
+
     @Test
     public void search_StringIsNull_ReturnNull() throws Exception {
         Assertions.assertThat(_appService.search(null)).isEqualTo(null);
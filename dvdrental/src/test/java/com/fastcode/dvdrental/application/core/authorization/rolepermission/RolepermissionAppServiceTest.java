@@ -20,6 +20,7 @@ import com.fastcode.dvdrental.domain.core.authorization.rolepermission.Rolepermi
 import com.fastcode.dvdrental.domain.core.authorization.rolepermission.RolepermissionId;
 import com.fastcode.dvdrental.domain.core.authorization.userrole.IUserroleRepository;
 import com.fastcode.dvdrental.security.JWTAppService;
+import com.fastcode.dvdrental.security.PermissionResolver;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
 import java.time.*;
@@ -38,9 +39,9 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.slf4j.Logger;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -74,6 +75,9 @@ public class RolepermissionAppServiceTest {
     @Mock
     protected LoggingHelper logHelper;
 
+    @Mock
+    protected PermissionResolver _permissionResolver;
+
     @Mock
     protected RolepermissionId rolepermissionId;
 
@@ -204,15 +208,15 @@ public class RolepermissionAppServiceTest {
     @Test
     public void find_ListIsEmpty_ReturnList() throws Exception {
         List<RolepermissionEntity> list = new ArrayList<>();
-        Page<RolepermissionEntity> foundPage = new PageImpl(list);
+        Slice<RolepermissionEntity> foundSlice = new SliceImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindRolepermissionByIdOutput> output = new ArrayList<>();
         SearchCriteria search = new SearchCriteria();
 
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
         Mockito
-            .when(_rolepermissionRepository.findAll(any(Predicate.class), any(Pageable.class)))
-            .thenReturn(foundPage);
+            .when(_rolepermissionRepository.findSlice(any(Predicate.class), any(Pageable.class)))
+            .thenReturn(foundSlice);
         Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
     }
 
@@ -221,7 +225,7 @@ public class RolepermissionAppServiceTest {
         List<RolepermissionEntity> list = new ArrayList<>();
         RolepermissionEntity rolepermission = mock(RolepermissionEntity.class);
         list.add(rolepermission);
-        Page<RolepermissionEntity> foundPage = new PageImpl(list);
+        Slice<RolepermissionEntity> foundSlice = new SliceImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindRolepermissionByIdOutput> output = new ArrayList<>();
         SearchCriteria search = new SearchCriteria();
@@ -230,61 +234,62 @@ public class RolepermissionAppServiceTest {
 
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
         Mockito
-            .when(_rolepermissionRepository.findAll(any(Predicate.class), any(Pageable.class)))
-            .thenReturn(foundPage);
+            .when(_rolepermissionRepository.findSlice(any(Predicate.class), any(Pageable.class)))
+            .thenReturn(foundSlice);
         Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
     }
 
     @Test
-    public void searchKeyValuePair_PropertyExists_ReturnBooleanBuilder() {
-        QRolepermissionEntity rolepermission = QRolepermissionEntity.rolepermissionEntity;
-        SearchFields searchFields = new SearchFields();
-        searchFields.setOperator("equals");
-        searchFields.setSearchValue("xyz");
-        Map<String, SearchFields> map = new HashMap<>();
-        Map<String, String> searchMap = new HashMap<>();
-        searchMap.put("xyz", String.valueOf(ID));
-        BooleanBuilder builder = new BooleanBuilder();
-        Assertions.assertThat(_appService.searchKeyValuePair(rolepermission, map, searchMap)).isEqualTo(builder);
-    }
+    public void count_TotalCountIsExact_ReturnCount() throws Exception {
+        SearchCriteria search = new SearchCriteria();
 
-    @Test(expected = Exception.class)
-    public void checkProperties_PropertyDoesNotExist_ThrowException() throws Exception {
-        List<String> list = new ArrayList<>();
-        list.add("xyz");
-        _appService.checkProperties(list);
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_rolepermissionRepository.count(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.EXACT)).isEqualTo(15L);
     }
 
     @Test
-    public void checkProperties_PropertyExists_ReturnNothing() throws Exception {
-        List<String> list = new ArrayList<>();
-        _appService.checkProperties(list);
+    public void count_TotalCountIsEstimate_ReturnEstimate() throws Exception {
+        SearchCriteria search = new SearchCriteria();
+
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_rolepermissionRepository.estimateCount(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.ESTIMATE)).isEqualTo(15L);
     }
 
     @Test
-    public void search_SearchIsNotNullAndSearchContainsCaseThree_ReturnBooleanBuilder() throws Exception {
-        Map<String, SearchFields> map = new HashMap<>();
+    public void search_SearchIsNotNullAndPropertyExists_ReturnBooleanBuilder() throws Exception {
         QRolepermissionEntity rolepermission = QRolepermissionEntity.rolepermissionEntity;
         List<SearchFields> fieldsList = new ArrayList<>();
         SearchFields fields = new SearchFields();
         SearchCriteria search = new SearchCriteria();
         search.setType(3);
-        search.setValue("xyz");
-        search.setOperator("equals");
+        fields.setFieldName("permissionId");
         fields.setOperator("equals");
-        fields.setSearchValue("xyz");
+        fields.setSearchValue("15");
         fieldsList.add(fields);
         search.setFields(fieldsList);
         BooleanBuilder builder = new BooleanBuilder();
-        Mockito.doNothing().when(_appService).checkProperties(any(List.class));
-        Mockito
-            .doReturn(builder)
-            .when(_appService)
-            .searchKeyValuePair(any(QRolepermissionEntity.class), any(HashMap.class), any(HashMap.class));
+        builder.and(rolepermission.permissionId.eq(15L));
 
         Assertions.assertThat(_appService.search(search)).isEqualTo(builder);
     }
 
+    @Test(expected = Exception.class)
+    public void search_SearchIsNotNullAndPropertyDoesNotExist_ThrowException() throws Exception {
+        List<SearchFields> fieldsList = new ArrayList<>();
+        SearchFields fields = new SearchFields();
+        SearchCriteria search = new SearchCriteria();
+        search.setType(3);
+        fields.setFieldName("xyz");
+        fields.setOperator("equals");
+        fields.setSearchValue("xyz");
+        fieldsList.add(fields);
+        search.setFields(fieldsList);
+
+        _appService.search(search);
+    }
+
     @Test
     public void search_StringIsNull_ReturnNull() throws Exception {
         Assertions.assertThat(_appService.search(null)).isEqualTo(null);
@@ -38,9 +38,9 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.slf4j.Logger;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -161,14 +161,14 @@ public class UserAppServiceTest {
     @Test
     public void find_ListIsEmpty_ReturnList() throws Exception {
         List<UserEntity> list = new ArrayList<>();
-        Page<UserEntity> foundPage = new PageImpl(list);
+        Slice<UserEntity> foundSlice = new SliceImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindUserByIdOutput> output = new ArrayList<>();
         SearchCriteria search = new SearchCriteria();
 
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
-        Mockito.when(_userRepository.findAll(any(Predicate.class), any(Pageable.class))).thenReturn(foundPage);
-        Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
+        Mockito.when(_userRepository.findSlice(any(Predicate.class), any(Pageable.class))).thenReturn(foundSlice);
+        Assertions.assertThat(_appService.find(search, pageable).getContent()).isEqualTo(output);
     }
 
     @Test
@@ -176,7 +176,7 @@ public class UserAppServiceTest {
         List<UserEntity> list = new ArrayList<>();
         UserEntity user = mock(UserEntity.class);
         list.add(user);
-        Page<UserEntity> foundPage = new PageImpl(list);
+        Slice<UserEntity> foundSlice = new SliceImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindUserByIdOutput> output = new ArrayList<>();
         SearchCriteria search = new SearchCriteria();
@@ -188,70 +188,61 @@ public class UserAppServiceTest {
         output.add(_mapper.userEntityToFindUserByIdOutput(user, userpreference));
 
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
-        Mockito.when(_userRepository.findAll(any(Predicate.class), any(Pageable.class))).thenReturn(foundPage);
-        Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
+        Mockito.when(_userRepository.findSlice(any(Predicate.class), any(Pageable.class))).thenReturn(foundSlice);
+        Assertions.assertThat(_appService.find(search, pageable).getContent()).isEqualTo(output);
     }
 
     @Test
-    public void searchKeyValuePair_PropertyExists_ReturnBooleanBuilder() {
-        QUserEntity user = QUserEntity.userEntity;
-        SearchFields searchFields = new SearchFields();
-        searchFields.setOperator("equals");
-        searchFields.setSearchValue("xyz");
-        Map<String, SearchFields> map = new HashMap<>();
-        map.put("emailAddress", searchFields);
-        Map<String, String> searchMap = new HashMap<>();
-        searchMap.put("xyz", String.valueOf(ID));
-        BooleanBuilder builder = new BooleanBuilder();
-        builder.and(user.emailAddress.eq("xyz"));
-        Assertions.assertThat(_appService.searchKeyValuePair(user, map, searchMap)).isEqualTo(builder);
-    }
+    public void count_TotalCountIsExact_ReturnCount() throws Exception {
+        SearchCriteria search = new SearchCriteria();
 
-    @Test(expected = Exception.class)
-    public void checkProperties_PropertyDoesNotExist_ThrowException() throws Exception {
-        List<String> list = new ArrayList<>();
-        list.add("xyz");
-        _appService.checkProperties(list);
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_userRepository.count(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.EXACT)).isEqualTo(15L);
     }
 
     @Test
-    public void checkProperties_PropertyExists_ReturnNothing() throws Exception {
-        List<String> list = new ArrayList<>();
-        list.add("emailAddress");
-        list.add("firstName");
-        list.add("lastName");
-        list.add("password");
-        list.add("phoneNumber");
-        list.add("userName");
-        _appService.checkProperties(list);
+    public void count_TotalCountIsEstimate_ReturnEstimate() throws Exception {
+        SearchCriteria search = new SearchCriteria();
+
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_userRepository.estimateCount(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.ESTIMATE)).isEqualTo(15L);
     }
 
     @Test
-    public void search_SearchIsNotNullAndSearchContainsCaseThree_ReturnBooleanBuilder() throws Exception {
-        Map<String, SearchFields> map = new HashMap<>();
+    public void search_SearchIsNotNullAndPropertyExists_ReturnBooleanBuilder() throws Exception {
         QUserEntity user = QUserEntity.userEntity;
         List<SearchFields> fieldsList = new ArrayList<>();
         SearchFields fields = new SearchFields();
         SearchCriteria search = new SearchCriteria();
         search.setType(3);
-        search.setValue("xyz");
-        search.setOperator("equals");
         fields.setFieldName("emailAddress");
         fields.setOperator("equals");
         fields.setSearchValue("xyz");
         fieldsList.add(fields);
         search.setFields(fieldsList);
         BooleanBuilder builder = new BooleanBuilder();
-        builder.or(user.emailAddress.eq("xyz"));
-        Mockito.doNothing().when(_appService).checkProperties(any(List.class));
-        Mockito
-            .doReturn(builder)
-            .when(_appService)
-            .searchKeyValuePair(any(QUserEntity.class), any(HashMap.class), any(HashMap.class));
+        builder.and(user.emailAddress.eq("xyz"));
 
         Assertions.assertThat(_appService.search(search)).isEqualTo(builder);
     }
 
+    @Test(expected = Exception.class)
+    public void search_SearchIsNotNullAndPropertyDoesNotExist_ThrowException() throws Exception {
+        List<SearchFields> fieldsList = new ArrayList<>();
+        SearchFields fields = new SearchFields();
+        SearchCriteria search = new SearchCriteria();
+        search.setType(3);
+        fields.setFieldName("xyz");
+        fields.setOperator("equals");
+        fields.setSearchValue("xyz");
+        fieldsList.add(fields);
+        search.setFields(fieldsList);
+
+        _appService.search(search);
+    }
+
     @Test
     public void search_StringIsNull_ReturnNull() throws Exception {
         Assertions.assertThat(_appService.search(null)).isEqualTo(null);
@@ -18,6 +18,7 @@ import com.fastcode.dvdrental.domain.core.authorization.userrole.*;
 import com.fastcode.dvdrental.domain.core.authorization.userrole.QUserroleEntity;
 import com.fastcode.dvdrental.domain.core.authorization.userrole.UserroleEntity;
 import com.fastcode.dvdrental.domain.core.authorization.userrole.UserroleId;
+import com.fastcode.dvdrental.security.PermissionResolver;
 import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
 import java.time.*;
@@ -36,9 +37,9 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.slf4j.Logger;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -66,6 +67,9 @@ public class UserroleAppServiceTest {
     @Mock
     protected LoggingHelper logHelper;
 
+    @Mock
+    protected PermissionResolver _permissionResolver;
+
     @Mock
     protected UserroleId userroleId;
 
@@ -121,6 +125,7 @@ public class UserroleAppServiceTest {
         Assertions
             .assertThat(_appService.create(userroleInput))
             .isEqualTo(_mapper.userroleEntityToCreateUserroleOutput(userroleEntity));
+        verify(_permissionResolver).evictUser(15L);
     }
 
     @Test
@@ -190,13 +195,13 @@ public class UserroleAppServiceTest {
     @Test
     public void find_ListIsEmpty_ReturnList() throws Exception {
         List<UserroleEntity> list = new ArrayList<>();
-        Page<UserroleEntity> foundPage = new PageImpl(list);
+        Slice<UserroleEntity> foundSlice = new SliceImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindUserroleByIdOutput> output = new ArrayList<>();
         SearchCriteria search = new SearchCriteria();
 
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
-        Mockito.when(_userroleRepository.findAll(any(Predicate.class), any(Pageable.class))).thenReturn(foundPage);
+        Mockito.when(_userroleRepository.findSlice(any(Predicate.class), any(Pageable.class))).thenReturn(foundSlice);
         Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
     }
 
@@ -205,7 +210,7 @@ public class UserroleAppServiceTest {
         List<UserroleEntity> list = new ArrayList<>();
         UserroleEntity userrole = mock(UserroleEntity.class);
         list.add(userrole);
-        Page<UserroleEntity> foundPage = new PageImpl(list);
+        Slice<UserroleEntity> foundSlice = new SliceImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindUserroleByIdOutput> output = new ArrayList<>();
         SearchCriteria search = new SearchCriteria();
@@ -213,60 +218,61 @@ public class UserroleAppServiceTest {
         output.add(_mapper.userroleEntityToFindUserroleByIdOutput(userrole));
 
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
-        Mockito.when(_userroleRepository.findAll(any(Predicate.class), any(Pageable.class))).thenReturn(foundPage);
+        Mockito.when(_userroleRepository.findSlice(any(Predicate.class), any(Pageable.class))).thenReturn(foundSlice);
         Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
     }
 
     @Test
-    public void searchKeyValuePair_PropertyExists_ReturnBooleanBuilder() {
-        QUserroleEntity userrole = QUserroleEntity.userroleEntity;
-        SearchFields searchFields = new SearchFields();
-        searchFields.setOperator("equals");
-        searchFields.setSearchValue("xyz");
-        Map<String, SearchFields> map = new HashMap<>();
-        Map<String, String> searchMap = new HashMap<>();
-        searchMap.put("xyz", String.valueOf(ID));
-        BooleanBuilder builder = new BooleanBuilder();
-        Assertions.assertThat(_appService.searchKeyValuePair(userrole, map, searchMap)).isEqualTo(builder);
-    }
+    public void count_TotalCountIsExact_ReturnCount() throws Exception {
+        SearchCriteria search = new SearchCriteria();
 
-    @Test(expected = Exception.class)
-    public void checkProperties_PropertyDoesNotExist_ThrowException() throws Exception {
-        List<String> list = new ArrayList<>();
-        list.add("xyz");
-        _appService.checkProperties(list);
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_userroleRepository.count(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.EXACT)).isEqualTo(15L);
     }
 
     @Test
-    public void checkProperties_PropertyExists_ReturnNothing() throws Exception {
-        List<String> list = new ArrayList<>();
-        _appService.checkProperties(list);
+    public void count_TotalCountIsEstimate_ReturnEstimate() throws Exception {
+        SearchCriteria search = new SearchCriteria();
+
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_userroleRepository.estimateCount(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.ESTIMATE)).isEqualTo(15L);
     }
 
     @Test
-    public void search_SearchIsNotNullAndSearchContainsCaseThree_ReturnBooleanBuilder() throws Exception {
-        Map<String, SearchFields> map = new HashMap<>();
+    public void search_SearchIsNotNullAndPropertyExists_ReturnBooleanBuilder() throws Exception {
         QUserroleEntity userrole = QUserroleEntity.userroleEntity;
         List<SearchFields> fieldsList = new ArrayList<>();
         SearchFields fields = new SearchFields();
         SearchCriteria search = new SearchCriteria();
         search.setType(3);
-        search.setValue("xyz");
-        search.setOperator("equals");
+        fields.setFieldName("roleId");
         fields.setOperator("equals");
-        fields.setSearchValue("xyz");
+        fields.setSearchValue("15");
         fieldsList.add(fields);
         search.setFields(fieldsList);
         BooleanBuilder builder = new BooleanBuilder();
-        Mockito.doNothing().when(_appService).checkProperties(any(List.class));
-        Mockito
-            .doReturn(builder)
-            .when(_appService)
-            .searchKeyValuePair(any(QUserroleEntity.class), any(HashMap.class), any(HashMap.class));
+        builder.and(userrole.roleId.eq(15L));
 
         Assertions.assertThat(_appService.search(search)).isEqualTo(builder);
     }
 
+    @Test(expected = Exception.class)
+    public void search_SearchIsNotNullAndPropertyDoesNotExist_ThrowException() throws Exception {
+        List<SearchFields> fieldsList = new ArrayList<>();
+        SearchFields fields = new SearchFields();
+        SearchCriteria search = new SearchCriteria();
+        search.setType(3);
+        fields.setFieldName("xyz");
+        fields.setOperator("equals");
+        fields.setSearchValue("xyz");
+        fieldsList.add(fields);
+        search.setFields(fieldsList);
+
+        _appService.search(search);
+    }
+
     @Test
     public void search_StringIsNull_ReturnNull() throws Exception {
         Assertions.assertThat(_appService.search(null)).isEqualTo(null);
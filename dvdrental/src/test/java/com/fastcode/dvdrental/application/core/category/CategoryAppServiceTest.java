@@ -1,6 +1,7 @@
 package com.fastcode.dvdrental.application.core.category;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
@@ -17,6 +18,8 @@ import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
 import java.time.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,9 +34,8 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.slf4j.Logger;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -66,20 +68,16 @@ public class CategoryAppServiceTest {
 
     @Test
     public void findCategoryById_IdIsNotNullAndIdDoesNotExist_ReturnNull() {
-        Optional<CategoryEntity> nullOptional = Optional.ofNullable(null);
-        Mockito.when(_categoryRepository.findById(any(Integer.class))).thenReturn(nullOptional);
+        Mockito.when(_categoryRepository.findProjectedById(any(Integer.class))).thenReturn(null);
         Assertions.assertThat(_appService.findById(ID)).isEqualTo(null);
     }
 
     @Test
     public void findCategoryById_IdIsNotNullAndIdExists_ReturnCategory() {
-        CategoryEntity category = mock(CategoryEntity.class);
-        Optional<CategoryEntity> categoryOptional = Optional.of((CategoryEntity) category);
-        Mockito.when(_categoryRepository.findById(any(Integer.class))).thenReturn(categoryOptional);
+        FindCategoryByIdOutput category = mock(FindCategoryByIdOutput.class);
+        Mockito.when(_categoryRepository.findProjectedById(any(Integer.class))).thenReturn(category);
 
-        Assertions
-            .assertThat(_appService.findById(ID))
-            .isEqualTo(_mapper.categoryEntityToFindCategoryByIdOutput(category));
+        Assertions.assertThat(_appService.findById(ID)).isEqualTo(category);
     }
 
     @Test
@@ -123,89 +121,106 @@ public class CategoryAppServiceTest {
 
     @Test
     public void find_ListIsEmpty_ReturnList() throws Exception {
-        List<CategoryEntity> list = new ArrayList<>();
-        Page<CategoryEntity> foundPage = new PageImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindCategoryByIdOutput> output = new ArrayList<>();
         SearchCriteria search = new SearchCriteria();
 
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
-        Mockito.when(_categoryRepository.findAll(any(Predicate.class), any(Pageable.class))).thenReturn(foundPage);
-        Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
+        Mockito
+            .when(_categoryRepository.findAllProjected(any(Predicate.class), any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(output));
+        Assertions.assertThat(_appService.find(search, pageable).getContent()).isEqualTo(output);
     }
 
     @Test
     public void find_ListIsNotEmpty_ReturnList() throws Exception {
-        List<CategoryEntity> list = new ArrayList<>();
-        CategoryEntity category = mock(CategoryEntity.class);
-        list.add(category);
-        Page<CategoryEntity> foundPage = new PageImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindCategoryByIdOutput> output = new ArrayList<>();
+        output.add(mock(FindCategoryByIdOutput.class));
         SearchCriteria search = new SearchCriteria();
 
-        output.add(_mapper.categoryEntityToFindCategoryByIdOutput(category));
-
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
-        Mockito.when(_categoryRepository.findAll(any(Predicate.class), any(Pageable.class))).thenReturn(foundPage);
-        Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
+        Mockito
+            .when(_categoryRepository.findAllProjected(any(Predicate.class), any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(output));
+        Assertions.assertThat(_appService.find(search, pageable).getContent()).isEqualTo(output);
     }
 
     @Test
-    public void searchKeyValuePair_PropertyExists_ReturnBooleanBuilder() {
-        QCategoryEntity category = QCategoryEntity.categoryEntity;
-        SearchFields searchFields = new SearchFields();
-        searchFields.setOperator("equals");
-        searchFields.setSearchValue("xyz");
-        Map<String, SearchFields> map = new HashMap<>();
-        map.put("name", searchFields);
-        Map<String, String> searchMap = new HashMap<>();
-        searchMap.put("xyz", String.valueOf(ID));
-        BooleanBuilder builder = new BooleanBuilder();
-        builder.and(category.name.eq("xyz"));
-        Assertions.assertThat(_appService.searchKeyValuePair(category, map, searchMap)).isEqualTo(builder);
+    public void findByIds_IdsExist_ReturnOutputsKeyedByIdInRequestOrder() throws Exception {
+        FindCategoryByIdOutput first = new FindCategoryByIdOutput();
+        first.setCategoryId(ID);
+        FindCategoryByIdOutput second = new FindCategoryByIdOutput();
+        second.setCategoryId(ID + 1);
+        Mockito
+            .when(_categoryRepository.findProjectedByIds(anyCollection()))
+            .thenReturn(Arrays.asList(first, second));
+
+        Assertions
+            .assertThat(_appService.findByIds(Arrays.asList(ID + 1, ID + 2, ID)))
+            .containsExactly(Assertions.entry(ID + 1, second), Assertions.entry(ID, first));
     }
 
-    @Test(expected = Exception.class)
-    public void checkProperties_PropertyDoesNotExist_ThrowException() throws Exception {
-        List<String> list = new ArrayList<>();
-        list.add("xyz");
-        _appService.checkProperties(list);
+    @Test
+    public void findByIds_BatchIsTooLarge_ThrowException() {
+        List<Integer> ids = Collections.nCopies(BatchIds.MAX_SIZE + 1, ID);
+
+        Assertions
+            .assertThatThrownBy(() -> _appService.findByIds(ids))
+            .hasMessage("Batch of 101 ids exceeds the maximum of 100!");
     }
 
     @Test
-    public void checkProperties_PropertyExists_ReturnNothing() throws Exception {
-        List<String> list = new ArrayList<>();
-        list.add("name");
-        _appService.checkProperties(list);
+    public void count_TotalCountIsExact_ReturnCount() throws Exception {
+        SearchCriteria search = new SearchCriteria();
+
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_categoryRepository.count(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.EXACT)).isEqualTo(15L);
     }
 
     @Test
-    public void search_SearchIsNotNullAndSearchContainsCaseThree_ReturnBooleanBuilder() throws Exception {
-        Map<String, SearchFields> map = new HashMap<>();
+    public void count_TotalCountIsEstimate_ReturnEstimate() throws Exception {
+        SearchCriteria search = new SearchCriteria();
+
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_categoryRepository.estimateCount(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.ESTIMATE)).isEqualTo(15L);
+    }
+
+    @Test
+    public void search_SearchIsNotNullAndPropertyExists_ReturnBooleanBuilder() throws Exception {
         QCategoryEntity category = QCategoryEntity.categoryEntity;
         List<SearchFields> fieldsList = new ArrayList<>();
         SearchFields fields = new SearchFields();
         SearchCriteria search = new SearchCriteria();
         search.setType(3);
-        search.setValue("xyz");
-        search.setOperator("equals");
         fields.setFieldName("name");
         fields.setOperator("equals");
         fields.setSearchValue("xyz");
         fieldsList.add(fields);
         search.setFields(fieldsList);
         BooleanBuilder builder = new BooleanBuilder();
-        builder.or(category.name.eq("xyz"));
-        Mockito.doNothing().when(_appService).checkProperties(any(List.class));
-        Mockito
-            .doReturn(builder)
-            .when(_appService)
-            .searchKeyValuePair(any(QCategoryEntity.class), any(HashMap.class), any(HashMap.class));
+        builder.and(category.name.eq("xyz"));
 
         Assertions.assertThat(_appService.search(search)).isEqualTo(builder);
     }
 
+    @Test(expected = Exception.class)
+    public void search_SearchIsNotNullAndPropertyDoesNotExist_ThrowException() throws Exception {
+        List<SearchFields> fieldsList = new ArrayList<>();
+        SearchFields fields = new SearchFields();
+        SearchCriteria search = new SearchCriteria();
+        search.setType(3);
+        fields.setFieldName("xyz");
+        fields.setOperator("equals");
+        fields.setSearchValue("xyz");
+        fieldsList.add(fields);
+        search.setFields(fieldsList);
+
+        _appService.search(search);
+    }
+
     @Test
     public void search_StringIsNull_ReturnNull() throws Exception {
         Assertions.assertThat(_appService.search(null)).isEqualTo(null);
@@ -1,6 +1,7 @@
 package com.fastcode.dvdrental.application.core.city;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
@@ -19,6 +20,8 @@ import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
 import java.time.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -33,9 +36,8 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.slf4j.Logger;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -71,18 +73,16 @@ public class CityAppServiceTest {
 
     @Test
     public void findCityById_IdIsNotNullAndIdDoesNotExist_ReturnNull() {
-        Optional<CityEntity> nullOptional = Optional.ofNullable(null);
-        Mockito.when(_cityRepository.findById(any(Integer.class))).thenReturn(nullOptional);
+        Mockito.when(_cityRepository.findProjectedById(any(Integer.class))).thenReturn(null);
         Assertions.assertThat(_appService.findById(ID)).isEqualTo(null);
     }
 
     @Test
     public void findCityById_IdIsNotNullAndIdExists_ReturnCity() {
-        CityEntity city = mock(CityEntity.class);
-        Optional<CityEntity> cityOptional = Optional.of((CityEntity) city);
-        Mockito.when(_cityRepository.findById(any(Integer.class))).thenReturn(cityOptional);
+        FindCityByIdOutput city = mock(FindCityByIdOutput.class);
+        Mockito.when(_cityRepository.findProjectedById(any(Integer.class))).thenReturn(city);
 
-        Assertions.assertThat(_appService.findById(ID)).isEqualTo(_mapper.cityEntityToFindCityByIdOutput(city));
+        Assertions.assertThat(_appService.findById(ID)).isEqualTo(city);
     }
 
     @Test
@@ -164,89 +164,106 @@ public class CityAppServiceTest {
 
     @Test
     public void find_ListIsEmpty_ReturnList() throws Exception {
-        List<CityEntity> list = new ArrayList<>();
-        Page<CityEntity> foundPage = new PageImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindCityByIdOutput> output = new ArrayList<>();
         SearchCriteria search = new SearchCriteria();
 
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
-        Mockito.when(_cityRepository.findAll(any(Predicate.class), any(Pageable.class))).thenReturn(foundPage);
-        Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
+        Mockito
+            .when(_cityRepository.findAllProjected(any(Predicate.class), any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(output));
+        Assertions.assertThat(_appService.find(search, pageable).getContent()).isEqualTo(output);
     }
 
     @Test
     public void find_ListIsNotEmpty_ReturnList() throws Exception {
-        List<CityEntity> list = new ArrayList<>();
-        CityEntity city = mock(CityEntity.class);
-        list.add(city);
-        Page<CityEntity> foundPage = new PageImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindCityByIdOutput> output = new ArrayList<>();
+        output.add(mock(FindCityByIdOutput.class));
         SearchCriteria search = new SearchCriteria();
 
-        output.add(_mapper.cityEntityToFindCityByIdOutput(city));
-
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
-        Mockito.when(_cityRepository.findAll(any(Predicate.class), any(Pageable.class))).thenReturn(foundPage);
-        Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
+        Mockito
+            .when(_cityRepository.findAllProjected(any(Predicate.class), any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(output));
+        Assertions.assertThat(_appService.find(search, pageable).getContent()).isEqualTo(output);
     }
 
     @Test
-    public void searchKeyValuePair_PropertyExists_ReturnBooleanBuilder() {
-        QCityEntity city = QCityEntity.cityEntity;
-        SearchFields searchFields = new SearchFields();
-        searchFields.setOperator("equals");
-        searchFields.setSearchValue("xyz");
-        Map<String, SearchFields> map = new HashMap<>();
-        map.put("city", searchFields);
-        Map<String, String> searchMap = new HashMap<>();
-        searchMap.put("xyz", String.valueOf(ID));
-        BooleanBuilder builder = new BooleanBuilder();
-        builder.and(city.city.eq("xyz"));
-        Assertions.assertThat(_appService.searchKeyValuePair(city, map, searchMap)).isEqualTo(builder);
+    public void findByIds_IdsExist_ReturnOutputsKeyedByIdInRequestOrder() throws Exception {
+        FindCityByIdOutput first = new FindCityByIdOutput();
+        first.setCityId(ID);
+        FindCityByIdOutput second = new FindCityByIdOutput();
+        second.setCityId(ID + 1);
+        Mockito
+            .when(_cityRepository.findProjectedByIds(anyCollection()))
+            .thenReturn(Arrays.asList(first, second));
+
+        Assertions
+            .assertThat(_appService.findByIds(Arrays.asList(ID + 1, ID + 2, ID)))
+            .containsExactly(Assertions.entry(ID + 1, second), Assertions.entry(ID, first));
     }
 
-    @Test(expected = Exception.class)
-    public void checkProperties_PropertyDoesNotExist_ThrowException() throws Exception {
-        List<String> list = new ArrayList<>();
-        list.add("xyz");
-        _appService.checkProperties(list);
+    @Test
+    public void findByIds_BatchIsTooLarge_ThrowException() {
+        List<Integer> ids = Collections.nCopies(BatchIds.MAX_SIZE + 1, ID);
+
+        Assertions
+            .assertThatThrownBy(() -> _appService.findByIds(ids))
+            .hasMessage("Batch of 101 ids exceeds the maximum of 100!");
+    }
+
+    @Test
+    public void count_TotalCountIsExact_ReturnCount() throws Exception {
+        SearchCriteria search = new SearchCriteria();
+
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_cityRepository.count(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.EXACT)).isEqualTo(15L);
     }
 
     @Test
-    public void checkProperties_PropertyExists_ReturnNothing() throws Exception {
-        List<String> list = new ArrayList<>();
-        list.add("city");
-        _appService.checkProperties(list);
+    public void count_TotalCountIsEstimate_ReturnEstimate() throws Exception {
+        SearchCriteria search = new SearchCriteria();
+
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_cityRepository.estimateCount(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.ESTIMATE)).isEqualTo(15L);
     }
 
     @Test
-    public void search_SearchIsNotNullAndSearchContainsCaseThree_ReturnBooleanBuilder() throws Exception {
-        Map<String, SearchFields> map = new HashMap<>();
+    public void search_SearchIsNotNullAndPropertyExists_ReturnBooleanBuilder() throws Exception {
         QCityEntity city = QCityEntity.cityEntity;
         List<SearchFields> fieldsList = new ArrayList<>();
         SearchFields fields = new SearchFields();
         SearchCriteria search = new SearchCriteria();
         search.setType(3);
-        search.setValue("xyz");
-        search.setOperator("equals");
         fields.setFieldName("city");
         fields.setOperator("equals");
         fields.setSearchValue("xyz");
         fieldsList.add(fields);
         search.setFields(fieldsList);
         BooleanBuilder builder = new BooleanBuilder();
-        builder.or(city.city.eq("xyz"));
-        Mockito.doNothing().when(_appService).checkProperties(any(List.class));
-        Mockito
-            .doReturn(builder)
-            .when(_appService)
-            .searchKeyValuePair(any(QCityEntity.class), any(HashMap.class), any(HashMap.class));
+        builder.and(city.city.eq("xyz"));
 
         Assertions.assertThat(_appService.search(search)).isEqualTo(builder);
     }
 
+    @Test(expected = Exception.class)
+    public void search_SearchIsNotNullAndPropertyDoesNotExist_ThrowException() throws Exception {
+        List<SearchFields> fieldsList = new ArrayList<>();
+        SearchFields fields = new SearchFields();
+        SearchCriteria search = new SearchCriteria();
+        search.setType(3);
+        fields.setFieldName("xyz");
+        fields.setOperator("equals");
+        fields.setSearchValue("xyz");
+        fieldsList.add(fields);
+        search.setFields(fieldsList);
+
+        _appService.search(search);
+    }
+
     @Test
     public void search_StringIsNull_ReturnNull() throws Exception {
         Assertions.assertThat(_appService.search(null)).isEqualTo(null);
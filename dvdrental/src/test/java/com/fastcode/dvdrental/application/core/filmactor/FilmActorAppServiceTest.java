@@ -36,9 +36,9 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.slf4j.Logger;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -178,13 +178,13 @@ public class FilmActorAppServiceTest {
     @Test
     public void find_ListIsEmpty_ReturnList() throws Exception {
         List<FilmActorEntity> list = new ArrayList<>();
-        Page<FilmActorEntity> foundPage = new PageImpl(list);
+        Slice<FilmActorEntity> foundSlice = new SliceImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindFilmActorByIdOutput> output = new ArrayList<>();
         SearchCriteria search = new SearchCriteria();
 
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
-        Mockito.when(_filmActorRepository.findAll(any(Predicate.class), any(Pageable.class))).thenReturn(foundPage);
+        Mockito.when(_filmActorRepository.findSlice(any(Predicate.class), any(Pageable.class))).thenReturn(foundSlice);
         Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
     }
 
@@ -193,7 +193,7 @@ public class FilmActorAppServiceTest {
         List<FilmActorEntity> list = new ArrayList<>();
         FilmActorEntity filmActor = mock(FilmActorEntity.class);
         list.add(filmActor);
-        Page<FilmActorEntity> foundPage = new PageImpl(list);
+        Slice<FilmActorEntity> foundSlice = new SliceImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindFilmActorByIdOutput> output = new ArrayList<>();
         SearchCriteria search = new SearchCriteria();
@@ -201,60 +201,61 @@ public class FilmActorAppServiceTest {
         output.add(_mapper.filmActorEntityToFindFilmActorByIdOutput(filmActor));
 
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
-        Mockito.when(_filmActorRepository.findAll(any(Predicate.class), any(Pageable.class))).thenReturn(foundPage);
+        Mockito.when(_filmActorRepository.findSlice(any(Predicate.class), any(Pageable.class))).thenReturn(foundSlice);
         Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
     }
 
     @Test
-    public void searchKeyValuePair_PropertyExists_ReturnBooleanBuilder() {
-        QFilmActorEntity filmActor = QFilmActorEntity.filmActorEntity;
-        SearchFields searchFields = new SearchFields();
-        searchFields.setOperator("equals");
-        searchFields.setSearchValue("xyz");
-        Map<String, SearchFields> map = new HashMap<>();
-        Map<String, String> searchMap = new HashMap<>();
-        searchMap.put("xyz", String.valueOf(ID));
-        BooleanBuilder builder = new BooleanBuilder();
-        Assertions.assertThat(_appService.searchKeyValuePair(filmActor, map, searchMap)).isEqualTo(builder);
-    }
+    public void count_TotalCountIsExact_ReturnCount() throws Exception {
+        SearchCriteria search = new SearchCriteria();
 
-    @Test(expected = Exception.class)
-    public void checkProperties_PropertyDoesNotExist_ThrowException() throws Exception {
-        List<String> list = new ArrayList<>();
-        list.add("xyz");
-        _appService.checkProperties(list);
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_filmActorRepository.count(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.EXACT)).isEqualTo(15L);
     }
 
     @Test
-    public void checkProperties_PropertyExists_ReturnNothing() throws Exception {
-        List<String> list = new ArrayList<>();
-        _appService.checkProperties(list);
+    public void count_TotalCountIsEstimate_ReturnEstimate() throws Exception {
+        SearchCriteria search = new SearchCriteria();
+
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_filmActorRepository.estimateCount(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.ESTIMATE)).isEqualTo(15L);
     }
 
     @Test
-    public void search_SearchIsNotNullAndSearchContainsCaseThree_ReturnBooleanBuilder() throws Exception {
-        Map<String, SearchFields> map = new HashMap<>();
+    public void search_SearchIsNotNullAndPropertyExists_ReturnBooleanBuilder() throws Exception {
         QFilmActorEntity filmActor = QFilmActorEntity.filmActorEntity;
         List<SearchFields> fieldsList = new ArrayList<>();
         SearchFields fields = new SearchFields();
         SearchCriteria search = new SearchCriteria();
         search.setType(3);
-        search.setValue("xyz");
-        search.setOperator("equals");
+        fields.setFieldName("actorId");
         fields.setOperator("equals");
-        fields.setSearchValue("xyz");
+        fields.setSearchValue("15");
         fieldsList.add(fields);
         search.setFields(fieldsList);
         BooleanBuilder builder = new BooleanBuilder();
-        Mockito.doNothing().when(_appService).checkProperties(any(List.class));
-        Mockito
-            .doReturn(builder)
-            .when(_appService)
-            .searchKeyValuePair(any(QFilmActorEntity.class), any(HashMap.class), any(HashMap.class));
+        builder.and(filmActor.actorId.eq(15));
 
         Assertions.assertThat(_appService.search(search)).isEqualTo(builder);
     }
 
+    @Test(expected = Exception.class)
+    public void search_SearchIsNotNullAndPropertyDoesNotExist_ThrowException() throws Exception {
+        List<SearchFields> fieldsList = new ArrayList<>();
+        SearchFields fields = new SearchFields();
+        SearchCriteria search = new SearchCriteria();
+        search.setType(3);
+        fields.setFieldName("xyz");
+        fields.setOperator("equals");
+        fields.setSearchValue("xyz");
+        fieldsList.add(fields);
+        search.setFields(fieldsList);
+
+        _appService.search(search);
+    }
+
     @Test
     public void search_StringIsNull_ReturnNull() throws Exception {
         Assertions.assertThat(_appService.search(null)).isEqualTo(null);
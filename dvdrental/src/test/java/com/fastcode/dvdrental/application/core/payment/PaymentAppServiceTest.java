@@ -1,6 +1,7 @@
 package com.fastcode.dvdrental.application.core.payment;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
@@ -8,6 +9,9 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fastcode.dvdrental.application.core.payment.dto.*;
+import com.fastcode.dvdrental.commons.bulk.BulkRow;
+import com.fastcode.dvdrental.commons.bulk.BulkWriter;
+import com.fastcode.dvdrental.commons.cache.DataVersions;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.commons.search.*;
 import com.fastcode.dvdrental.domain.core.customer.CustomerEntity;
@@ -23,6 +27,8 @@ import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
 import java.time.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,9 +43,8 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.slf4j.Logger;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -70,6 +75,12 @@ public class PaymentAppServiceTest {
     @Mock
     protected LoggingHelper logHelper;
 
+    @Mock
+    protected DataVersions dataVersions;
+
+    @Mock
+    protected BulkWriter bulkWriter;
+
     protected static Integer ID = 15;
 
     @Before
@@ -81,20 +92,16 @@ public class PaymentAppServiceTest {
 
     @Test
     public void findPaymentById_IdIsNotNullAndIdDoesNotExist_ReturnNull() {
-        Optional<PaymentEntity> nullOptional = Optional.ofNullable(null);
-        Mockito.when(_paymentRepository.findById(any(Integer.class))).thenReturn(nullOptional);
+        Mockito.when(_paymentRepository.findProjectedById(any(Integer.class))).thenReturn(null);
         Assertions.assertThat(_appService.findById(ID)).isEqualTo(null);
     }
 
     @Test
     public void findPaymentById_IdIsNotNullAndIdExists_ReturnPayment() {
-        PaymentEntity payment = mock(PaymentEntity.class);
-        Optional<PaymentEntity> paymentOptional = Optional.of((PaymentEntity) payment);
-        Mockito.when(_paymentRepository.findById(any(Integer.class))).thenReturn(paymentOptional);
+        FindPaymentByIdOutput payment = mock(FindPaymentByIdOutput.class);
+        Mockito.when(_paymentRepository.findProjectedById(any(Integer.class))).thenReturn(payment);
 
-        Assertions
-            .assertThat(_appService.findById(ID))
-            .isEqualTo(_mapper.paymentEntityToFindPaymentByIdOutput(payment));
+        Assertions.assertThat(_appService.findById(ID)).isEqualTo(payment);
     }
 
     @Test
@@ -196,84 +203,177 @@ public class PaymentAppServiceTest {
 
     @Test
     public void find_ListIsEmpty_ReturnList() throws Exception {
-        List<PaymentEntity> list = new ArrayList<>();
-        Page<PaymentEntity> foundPage = new PageImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindPaymentByIdOutput> output = new ArrayList<>();
         SearchCriteria search = new SearchCriteria();
 
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
-        Mockito.when(_paymentRepository.findAll(any(Predicate.class), any(Pageable.class))).thenReturn(foundPage);
-        Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
+        Mockito
+            .when(_paymentRepository.findAllProjected(any(Predicate.class), any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(output));
+        Assertions.assertThat(_appService.find(search, pageable).getContent()).isEqualTo(output);
     }
 
     @Test
     public void find_ListIsNotEmpty_ReturnList() throws Exception {
-        List<PaymentEntity> list = new ArrayList<>();
-        PaymentEntity payment = mock(PaymentEntity.class);
-        list.add(payment);
-        Page<PaymentEntity> foundPage = new PageImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindPaymentByIdOutput> output = new ArrayList<>();
+        output.add(mock(FindPaymentByIdOutput.class));
         SearchCriteria search = new SearchCriteria();
 
-        output.add(_mapper.paymentEntityToFindPaymentByIdOutput(payment));
-
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
-        Mockito.when(_paymentRepository.findAll(any(Predicate.class), any(Pageable.class))).thenReturn(foundPage);
-        Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
+        Mockito
+            .when(_paymentRepository.findAllProjected(any(Predicate.class), any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(output));
+        Assertions.assertThat(_appService.find(search, pageable).getContent()).isEqualTo(output);
     }
 
     @Test
-    public void searchKeyValuePair_PropertyExists_ReturnBooleanBuilder() {
-        QPaymentEntity payment = QPaymentEntity.paymentEntity;
-        SearchFields searchFields = new SearchFields();
-        searchFields.setOperator("equals");
-        searchFields.setSearchValue("xyz");
-        Map<String, SearchFields> map = new HashMap<>();
-        Map<String, String> searchMap = new HashMap<>();
-        searchMap.put("xyz", String.valueOf(ID));
-        BooleanBuilder builder = new BooleanBuilder();
-        Assertions.assertThat(_appService.searchKeyValuePair(payment, map, searchMap)).isEqualTo(builder);
+    public void createChunk_ReferencesExist_ReturnCreatedPayment() {
+        PaymentEntity paymentEntity = new PaymentEntity();
+        CreatePaymentInput paymentInput = new CreatePaymentInput();
+        CreatePaymentOutput output = new CreatePaymentOutput();
+        CustomerEntity customer = new CustomerEntity();
+        customer.setCustomerId(15);
+        paymentInput.setCustomerId(15);
+        RentalEntity rental = new RentalEntity();
+        rental.setRentalId(15);
+        paymentInput.setRentalId(15);
+        StaffEntity staff = new StaffEntity();
+        staff.setStaffId(15);
+        paymentInput.setStaffId(15);
+
+        Mockito.when(_customerRepository.findAllById(anyCollection())).thenReturn(Collections.singletonList(customer));
+        Mockito.when(_rentalRepository.findAllById(anyCollection())).thenReturn(Collections.singletonList(rental));
+        Mockito.when(_staffRepository.findAllById(anyCollection())).thenReturn(Collections.singletonList(staff));
+        Mockito.when(_mapper.createPaymentInputToPaymentEntity(any(CreatePaymentInput.class))).thenReturn(paymentEntity);
+        Mockito.when(_paymentRepository.saveAll(anyCollection())).thenReturn(Collections.singletonList(paymentEntity));
+        Mockito.when(_mapper.paymentEntityToCreatePaymentOutput(paymentEntity)).thenReturn(output);
+
+        List<BulkRow<CreatePaymentOutput>> rows = _appService.createChunk(Collections.singletonList(paymentInput));
+
+        Assertions.assertThat(rows).extracting(BulkRow::getOutput).containsExactly(output);
+        Assertions.assertThat(paymentEntity.getCustomer()).isEqualTo(customer);
     }
 
-    @Test(expected = Exception.class)
-    public void checkProperties_PropertyDoesNotExist_ThrowException() throws Exception {
-        List<String> list = new ArrayList<>();
-        list.add("xyz");
-        _appService.checkProperties(list);
+    @Test
+    public void createChunk_CustomerDoesNotExist_ReturnFailedRow() {
+        CreatePaymentInput paymentInput = new CreatePaymentInput();
+        CustomerEntity customer = new CustomerEntity();
+        customer.setCustomerId(15);
+        paymentInput.setCustomerId(15);
+        RentalEntity rental = new RentalEntity();
+        rental.setRentalId(15);
+        paymentInput.setRentalId(15);
+        StaffEntity staff = new StaffEntity();
+        staff.setStaffId(15);
+        paymentInput.setStaffId(15);
+
+        Mockito.when(_customerRepository.findAllById(anyCollection())).thenReturn(Collections.emptyList());
+        Mockito.when(_rentalRepository.findAllById(anyCollection())).thenReturn(Collections.singletonList(rental));
+        Mockito.when(_staffRepository.findAllById(anyCollection())).thenReturn(Collections.singletonList(staff));
+        Mockito.when(_mapper.createPaymentInputToPaymentEntity(any(CreatePaymentInput.class))).thenReturn(new PaymentEntity());
+        Mockito.when(_paymentRepository.saveAll(anyCollection())).thenReturn(Collections.emptyList());
+
+        List<BulkRow<CreatePaymentOutput>> rows = _appService.createChunk(Collections.singletonList(paymentInput));
+
+        Assertions
+            .assertThat(rows)
+            .extracting(BulkRow::getError)
+            .containsExactly("There does not exist a customer with a id=15");
+    }
+
+    @Test
+    public void updateChunk_PaymentDoesNotExist_ReturnFailedRow() {
+        UpdatePaymentInput paymentInput = new UpdatePaymentInput();
+        paymentInput.setPaymentId(15);
+
+        Mockito.when(_paymentRepository.findAllById(anyCollection())).thenReturn(Collections.emptyList());
+        Mockito.when(_paymentRepository.saveAll(anyCollection())).thenReturn(Collections.emptyList());
+
+        List<BulkRow<UpdatePaymentOutput>> rows = _appService.updateChunk(Collections.singletonList(paymentInput));
+
+        Assertions
+            .assertThat(rows)
+            .extracting(BulkRow::getError)
+            .containsExactly("Unable to update. Payment with id=15 not found.");
     }
 
     @Test
-    public void checkProperties_PropertyExists_ReturnNothing() throws Exception {
-        List<String> list = new ArrayList<>();
-        _appService.checkProperties(list);
+    public void findByIds_IdsExist_ReturnOutputsKeyedByIdInRequestOrder() throws Exception {
+        FindPaymentByIdOutput first = new FindPaymentByIdOutput();
+        first.setPaymentId(ID);
+        FindPaymentByIdOutput second = new FindPaymentByIdOutput();
+        second.setPaymentId(ID + 1);
+        Mockito
+            .when(_paymentRepository.findProjectedByIds(anyCollection()))
+            .thenReturn(Arrays.asList(first, second));
+
+        Assertions
+            .assertThat(_appService.findByIds(Arrays.asList(ID + 1, ID + 2, ID)))
+            .containsExactly(Assertions.entry(ID + 1, second), Assertions.entry(ID, first));
     }
 
     @Test
-    public void search_SearchIsNotNullAndSearchContainsCaseThree_ReturnBooleanBuilder() throws Exception {
-        Map<String, SearchFields> map = new HashMap<>();
+    public void findByIds_BatchIsTooLarge_ThrowException() {
+        List<Integer> ids = Collections.nCopies(BatchIds.MAX_SIZE + 1, ID);
+
+        Assertions
+            .assertThatThrownBy(() -> _appService.findByIds(ids))
+            .hasMessage("Batch of 101 ids exceeds the maximum of 100!");
+    }
+
+    @Test
+    public void count_TotalCountIsExact_ReturnCount() throws Exception {
+        SearchCriteria search = new SearchCriteria();
+
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_paymentRepository.count(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.EXACT)).isEqualTo(15L);
+    }
+
+    @Test
+    public void count_TotalCountIsEstimate_ReturnEstimate() throws Exception {
+        SearchCriteria search = new SearchCriteria();
+
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_paymentRepository.estimateCount(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.ESTIMATE)).isEqualTo(15L);
+    }
+
+    @Test
+    public void search_SearchIsNotNullAndPropertyExists_ReturnBooleanBuilder() throws Exception {
         QPaymentEntity payment = QPaymentEntity.paymentEntity;
         List<SearchFields> fieldsList = new ArrayList<>();
         SearchFields fields = new SearchFields();
         SearchCriteria search = new SearchCriteria();
         search.setType(3);
-        search.setValue("xyz");
-        search.setOperator("equals");
+        fields.setFieldName("paymentId");
         fields.setOperator("equals");
-        fields.setSearchValue("xyz");
+        fields.setSearchValue("15");
         fieldsList.add(fields);
         search.setFields(fieldsList);
         BooleanBuilder builder = new BooleanBuilder();
-        Mockito.doNothing().when(_appService).checkProperties(any(List.class));
-        Mockito
-            .doReturn(builder)
-            .when(_appService)
-            .searchKeyValuePair(any(QPaymentEntity.class), any(HashMap.class), any(HashMap.class));
+        builder.and(payment.paymentId.eq(15));
 
         Assertions.assertThat(_appService.search(search)).isEqualTo(builder);
     }
 
+    @Test(expected = Exception.class)
+    public void search_SearchIsNotNullAndPropertyDoesNotExist_ThrowException() throws Exception {
+        List<SearchFields> fieldsList = new ArrayList<>();
+        SearchFields fields = new SearchFields();
+        SearchCriteria search = new SearchCriteria();
+        search.setType(3);
+        fields.setFieldName("xyz");
+        fields.setOperator("equals");
+        fields.setSearchValue("xyz");
+        fieldsList.add(fields);
+        search.setFields(fieldsList);
+
+        _appService.search(search);
+    }
+
     @Test
     public void search_StringIsNull_ReturnNull() throws Exception {
         Assertions.assertThat(_appService.search(null)).isEqualTo(null);
@@ -1,6 +1,7 @@
 package com.fastcode.dvdrental.application.core.rental;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
@@ -8,6 +9,9 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fastcode.dvdrental.application.core.rental.dto.*;
+import com.fastcode.dvdrental.commons.bulk.BulkRow;
+import com.fastcode.dvdrental.commons.bulk.BulkWriter;
+import com.fastcode.dvdrental.commons.cache.DataVersions;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
 import com.fastcode.dvdrental.commons.search.*;
 import com.fastcode.dvdrental.domain.core.customer.CustomerEntity;
@@ -23,6 +27,8 @@ import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.Predicate;
 import java.time.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,9 +43,9 @@ import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.slf4j.Logger;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 @RunWith(SpringJUnit4ClassRunner.class)
@@ -70,6 +76,12 @@ public class RentalAppServiceTest {
     @Mock
     protected LoggingHelper logHelper;
 
+    @Mock
+    protected DataVersions dataVersions;
+
+    @Mock
+    protected BulkWriter bulkWriter;
+
     protected static Integer ID = 15;
 
     @Before
@@ -81,18 +93,16 @@ public class RentalAppServiceTest {
 
     @Test
     public void findRentalById_IdIsNotNullAndIdDoesNotExist_ReturnNull() {
-        Optional<RentalEntity> nullOptional = Optional.ofNullable(null);
-        Mockito.when(_rentalRepository.findById(any(Integer.class))).thenReturn(nullOptional);
+        Mockito.when(_rentalRepository.findProjectedById(any(Integer.class))).thenReturn(null);
         Assertions.assertThat(_appService.findById(ID)).isEqualTo(null);
     }
 
     @Test
     public void findRentalById_IdIsNotNullAndIdExists_ReturnRental() {
-        RentalEntity rental = mock(RentalEntity.class);
-        Optional<RentalEntity> rentalOptional = Optional.of((RentalEntity) rental);
-        Mockito.when(_rentalRepository.findById(any(Integer.class))).thenReturn(rentalOptional);
+        FindRentalByIdOutput rental = mock(FindRentalByIdOutput.class);
+        Mockito.when(_rentalRepository.findProjectedById(any(Integer.class))).thenReturn(rental);
 
-        Assertions.assertThat(_appService.findById(ID)).isEqualTo(_mapper.rentalEntityToFindRentalByIdOutput(rental));
+        Assertions.assertThat(_appService.findById(ID)).isEqualTo(rental);
     }
 
     @Test
@@ -188,84 +198,198 @@ public class RentalAppServiceTest {
 
     @Test
     public void find_ListIsEmpty_ReturnList() throws Exception {
-        List<RentalEntity> list = new ArrayList<>();
-        Page<RentalEntity> foundPage = new PageImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindRentalByIdOutput> output = new ArrayList<>();
         SearchCriteria search = new SearchCriteria();
 
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
-        Mockito.when(_rentalRepository.findAll(any(Predicate.class), any(Pageable.class))).thenReturn(foundPage);
-        Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
+        Mockito
+            .when(_rentalRepository.findAllProjected(any(Predicate.class), any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(output));
+        Assertions.assertThat(_appService.find(search, pageable).getContent()).isEqualTo(output);
     }
 
     @Test
     public void find_ListIsNotEmpty_ReturnList() throws Exception {
-        List<RentalEntity> list = new ArrayList<>();
-        RentalEntity rental = mock(RentalEntity.class);
-        list.add(rental);
-        Page<RentalEntity> foundPage = new PageImpl(list);
         Pageable pageable = mock(Pageable.class);
         List<FindRentalByIdOutput> output = new ArrayList<>();
+        output.add(mock(FindRentalByIdOutput.class));
         SearchCriteria search = new SearchCriteria();
 
-        output.add(_mapper.rentalEntityToFindRentalByIdOutput(rental));
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito
+            .when(_rentalRepository.findAllProjected(any(Predicate.class), any(Pageable.class)))
+            .thenReturn(new SliceImpl<>(output));
+        Assertions.assertThat(_appService.find(search, pageable).getContent()).isEqualTo(output);
+    }
+
+    @Test
+    public void export_RowsExist_PassEveryRowToConsumer() throws Exception {
+        List<FindRentalByIdOutput> output = Arrays.asList(
+            mock(FindRentalByIdOutput.class),
+            mock(FindRentalByIdOutput.class)
+        );
+        List<FindRentalByIdOutput> exported = new ArrayList<>();
 
         Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
-        Mockito.when(_rentalRepository.findAll(any(Predicate.class), any(Pageable.class))).thenReturn(foundPage);
-        Assertions.assertThat(_appService.find(search, pageable)).isEqualTo(output);
+        Mockito
+            .when(_rentalRepository.streamProjected(any(Predicate.class), any(Sort.class)))
+            .thenReturn(output.stream());
+        _appService.export(new SearchCriteria(), Sort.by("rentalId"), exported::add);
+
+        Assertions.assertThat(exported).isEqualTo(output);
     }
 
     @Test
-    public void searchKeyValuePair_PropertyExists_ReturnBooleanBuilder() {
-        QRentalEntity rental = QRentalEntity.rentalEntity;
-        SearchFields searchFields = new SearchFields();
-        searchFields.setOperator("equals");
-        searchFields.setSearchValue("xyz");
-        Map<String, SearchFields> map = new HashMap<>();
-        Map<String, String> searchMap = new HashMap<>();
-        searchMap.put("xyz", String.valueOf(ID));
-        BooleanBuilder builder = new BooleanBuilder();
-        Assertions.assertThat(_appService.searchKeyValuePair(rental, map, searchMap)).isEqualTo(builder);
+    public void createChunk_ReferencesExist_ReturnCreatedRental() {
+        RentalEntity rentalEntity = new RentalEntity();
+        CreateRentalInput rentalInput = new CreateRentalInput();
+        CreateRentalOutput output = new CreateRentalOutput();
+        CustomerEntity customer = new CustomerEntity();
+        customer.setCustomerId(15);
+        rentalInput.setCustomerId(15);
+        InventoryEntity inventory = new InventoryEntity();
+        inventory.setInventoryId(15);
+        rentalInput.setInventoryId(15);
+        StaffEntity staff = new StaffEntity();
+        staff.setStaffId(15);
+        rentalInput.setStaffId(15);
+
+        Mockito.when(_customerRepository.findAllById(anyCollection())).thenReturn(Collections.singletonList(customer));
+        Mockito
+            .when(_inventoryRepository.findAllById(anyCollection()))
+            .thenReturn(Collections.singletonList(inventory));
+        Mockito.when(_staffRepository.findAllById(anyCollection())).thenReturn(Collections.singletonList(staff));
+        Mockito.when(_mapper.createRentalInputToRentalEntity(any(CreateRentalInput.class))).thenReturn(rentalEntity);
+        Mockito.when(_rentalRepository.saveAll(anyCollection())).thenReturn(Collections.singletonList(rentalEntity));
+        Mockito.when(_mapper.rentalEntityToCreateRentalOutput(rentalEntity)).thenReturn(output);
+
+        List<BulkRow<CreateRentalOutput>> rows = _appService.createChunk(Collections.singletonList(rentalInput));
+
+        Assertions.assertThat(rows).extracting(BulkRow::getOutput).containsExactly(output);
+        Assertions.assertThat(rentalEntity.getCustomer()).isEqualTo(customer);
     }
 
-    @Test(expected = Exception.class)
-    public void checkProperties_PropertyDoesNotExist_ThrowException() throws Exception {
-        List<String> list = new ArrayList<>();
-        list.add("xyz");
-        _appService.checkProperties(list);
+    @Test
+    public void createChunk_CustomerDoesNotExist_ReturnFailedRow() {
+        CreateRentalInput rentalInput = new CreateRentalInput();
+        CustomerEntity customer = new CustomerEntity();
+        customer.setCustomerId(15);
+        rentalInput.setCustomerId(15);
+        InventoryEntity inventory = new InventoryEntity();
+        inventory.setInventoryId(15);
+        rentalInput.setInventoryId(15);
+        StaffEntity staff = new StaffEntity();
+        staff.setStaffId(15);
+        rentalInput.setStaffId(15);
+
+        Mockito.when(_customerRepository.findAllById(anyCollection())).thenReturn(Collections.emptyList());
+        Mockito
+            .when(_inventoryRepository.findAllById(anyCollection()))
+            .thenReturn(Collections.singletonList(inventory));
+        Mockito.when(_staffRepository.findAllById(anyCollection())).thenReturn(Collections.singletonList(staff));
+        Mockito.when(_mapper.createRentalInputToRentalEntity(any(CreateRentalInput.class))).thenReturn(new RentalEntity());
+        Mockito.when(_rentalRepository.saveAll(anyCollection())).thenReturn(Collections.emptyList());
+
+        List<BulkRow<CreateRentalOutput>> rows = _appService.createChunk(Collections.singletonList(rentalInput));
+
+        Assertions
+            .assertThat(rows)
+            .extracting(BulkRow::getError)
+            .containsExactly("There does not exist a customer with a id=15");
     }
 
     @Test
-    public void checkProperties_PropertyExists_ReturnNothing() throws Exception {
-        List<String> list = new ArrayList<>();
-        _appService.checkProperties(list);
+    public void updateChunk_RentalDoesNotExist_ReturnFailedRow() {
+        UpdateRentalInput rentalInput = new UpdateRentalInput();
+        rentalInput.setRentalId(15);
+
+        Mockito.when(_rentalRepository.findAllById(anyCollection())).thenReturn(Collections.emptyList());
+        Mockito.when(_rentalRepository.saveAll(anyCollection())).thenReturn(Collections.emptyList());
+
+        List<BulkRow<UpdateRentalOutput>> rows = _appService.updateChunk(Collections.singletonList(rentalInput));
+
+        Assertions
+            .assertThat(rows)
+            .extracting(BulkRow::getError)
+            .containsExactly("Unable to update. Rental with id=15 not found.");
+    }
+
+    @Test
+    public void findByIds_IdsExist_ReturnOutputsKeyedByIdInRequestOrder() throws Exception {
+        FindRentalByIdOutput first = new FindRentalByIdOutput();
+        first.setRentalId(ID);
+        FindRentalByIdOutput second = new FindRentalByIdOutput();
+        second.setRentalId(ID + 1);
+        Mockito
+            .when(_rentalRepository.findProjectedByIds(anyCollection()))
+            .thenReturn(Arrays.asList(first, second));
+
+        Assertions
+            .assertThat(_appService.findByIds(Arrays.asList(ID + 1, ID + 2, ID)))
+            .containsExactly(Assertions.entry(ID + 1, second), Assertions.entry(ID, first));
+    }
+
+    @Test
+    public void findByIds_BatchIsTooLarge_ThrowException() {
+        List<Integer> ids = Collections.nCopies(BatchIds.MAX_SIZE + 1, ID);
+
+        Assertions
+            .assertThatThrownBy(() -> _appService.findByIds(ids))
+            .hasMessage("Batch of 101 ids exceeds the maximum of 100!");
+    }
+
+    @Test
+    public void count_TotalCountIsExact_ReturnCount() throws Exception {
+        SearchCriteria search = new SearchCriteria();
+
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_rentalRepository.count(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.EXACT)).isEqualTo(15L);
     }
 
     @Test
-    public void search_SearchIsNotNullAndSearchContainsCaseThree_ReturnBooleanBuilder() throws Exception {
-        Map<String, SearchFields> map = new HashMap<>();
+    public void count_TotalCountIsEstimate_ReturnEstimate() throws Exception {
+        SearchCriteria search = new SearchCriteria();
+
+        Mockito.when(_appService.search(any(SearchCriteria.class))).thenReturn(new BooleanBuilder());
+        Mockito.when(_rentalRepository.estimateCount(any(Predicate.class))).thenReturn(15L);
+        Assertions.assertThat(_appService.count(search, TotalCount.ESTIMATE)).isEqualTo(15L);
+    }
+
+    @Test
+    public void search_SearchIsNotNullAndPropertyExists_ReturnBooleanBuilder() throws Exception {
         QRentalEntity rental = QRentalEntity.rentalEntity;
         List<SearchFields> fieldsList = new ArrayList<>();
         SearchFields fields = new SearchFields();
         SearchCriteria search = new SearchCriteria();
         search.setType(3);
-        search.setValue("xyz");
-        search.setOperator("equals");
+        fields.setFieldName("rentalId");
         fields.setOperator("equals");
-        fields.setSearchValue("xyz");
+        fields.setSearchValue("15");
         fieldsList.add(fields);
         search.setFields(fieldsList);
         BooleanBuilder builder = new BooleanBuilder();
-        Mockito.doNothing().when(_appService).checkProperties(any(List.class));
-        Mockito
-            .doReturn(builder)
-            .when(_appService)
-            .searchKeyValuePair(any(QRentalEntity.class), any(HashMap.class), any(HashMap.class));
+        builder.and(rental.rentalId.eq(15));
 
         Assertions.assertThat(_appService.search(search)).isEqualTo(builder);
     }
 
+    @Test(expected = Exception.class)
+    public void search_SearchIsNotNullAndPropertyDoesNotExist_ThrowException() throws Exception {
+        List<SearchFields> fieldsList = new ArrayList<>();
+        SearchFields fields = new SearchFields();
+        SearchCriteria search = new SearchCriteria();
+        search.setType(3);
+        fields.setFieldName("xyz");
+        fields.setOperator("equals");
+        fields.setSearchValue("xyz");
+        fieldsList.add(fields);
+        search.setFields(fieldsList);
+
+        _appService.search(search);
+    }
+
     @Test
     public void search_StringIsNull_ReturnNull() throws Exception {
         Assertions.assertThat(_appService.search(null)).isEqualTo(null);
@@ -0,0 +1,110 @@
+package com.fastcode.dvdrental.commons.bulk;
+
+import com.fastcode.dvdrental.application.core.payment.dto.CreatePaymentInput;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.validation.Validation;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+public class BulkWriterTest {
+
+    @Mock
+    protected PlatformTransactionManager transactionManager;
+
+    protected BulkWriter bulkWriter;
+
+    protected List<Integer> chunkSizes;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        bulkWriter =
+            new BulkWriter(transactionManager, Validation.buildDefaultValidatorFactory().getValidator(), 2);
+        chunkSizes = new ArrayList<>();
+    }
+
+    protected CreatePaymentInput createInput(Double amount) {
+        CreatePaymentInput input = new CreatePaymentInput();
+        input.setAmount(amount);
+        return input;
+    }
+
+    // Writes every row of a chunk, unless the chunk holds an amount of zero.
+    protected List<BulkRow<Double>> writeChunk(List<CreatePaymentInput> chunk) {
+        chunkSizes.add(chunk.size());
+        if (chunk.stream().anyMatch(input -> input.getAmount() == 0D)) {
+            throw new DataIntegrityViolationException("amount must be positive");
+        }
+        return chunk
+            .stream()
+            .map(
+                input -> {
+                    BulkRow<Double> row = new BulkRow<>();
+                    row.setOutput(input.getAmount());
+                    return row;
+                }
+            )
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    public void write_RowsExceedBatchSize_WriteRowsInChunks() throws Exception {
+        BulkOutput<Double> output = bulkWriter.write(
+            Arrays.asList(createInput(1D), createInput(2D), createInput(3D)),
+            this::writeChunk
+        );
+
+        Assertions.assertThat(chunkSizes).containsExactly(2, 1);
+        Assertions.assertThat(output.getSucceeded()).isEqualTo(3);
+        Assertions.assertThat(output.getRows()).extracting(BulkRow::getOutput).containsExactly(1D, 2D, 3D);
+        Assertions.assertThat(output.getRows()).extracting(BulkRow::getIndex).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    public void write_RowIsNotValid_ReturnViolationsWithoutWritingRow() throws Exception {
+        BulkOutput<Double> output = bulkWriter.write(
+            Arrays.asList(createInput(null), createInput(2D)),
+            this::writeChunk
+        );
+
+        Assertions.assertThat(chunkSizes).containsExactly(1);
+        Assertions.assertThat(output.getFailed()).isEqualTo(1);
+        Assertions.assertThat(output.getRows().get(0).getError()).isEqualTo("amount Should not be null");
+        Assertions.assertThat(output.getRows().get(1).getOutput()).isEqualTo(2D);
+    }
+
+    @Test
+    public void write_ChunkFails_RetryRowsOneByOne() throws Exception {
+        BulkOutput<Double> output = bulkWriter.write(
+            Arrays.asList(createInput(1D), createInput(0D)),
+            this::writeChunk
+        );
+
+        Assertions.assertThat(chunkSizes).containsExactly(2, 1, 1);
+        Assertions.assertThat(output.getRows().get(0).getOutput()).isEqualTo(1D);
+        Assertions.assertThat(output.getRows().get(1).getError()).isEqualTo("amount must be positive");
+    }
+
+    @Test
+    public void write_RowsExceedMaximum_ThrowException() {
+        List<CreatePaymentInput> inputs = new ArrayList<>();
+        for (int i = 0; i <= BulkWriter.MAX_SIZE; i++) {
+            inputs.add(createInput(1D));
+        }
+
+        Assertions
+            .assertThatThrownBy(() -> bulkWriter.write(inputs, this::writeChunk))
+            .hasMessage("Bulk of 10001 rows exceeds the maximum of 10000!");
+    }
+}
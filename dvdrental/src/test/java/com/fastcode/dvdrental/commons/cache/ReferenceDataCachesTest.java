@@ -0,0 +1,99 @@
+package com.fastcode.dvdrental.commons.cache;
+
+import com.fastcode.dvdrental.application.core.language.ILanguageAppService;
+import com.fastcode.dvdrental.application.core.language.dto.CreateLanguageInput;
+import com.fastcode.dvdrental.application.core.language.dto.UpdateLanguageInput;
+import com.fastcode.dvdrental.domain.core.language.ILanguageRepository;
+import com.fastcode.dvdrental.domain.core.language.LanguageEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(properties = "spring.profiles.active=test")
+public class ReferenceDataCachesTest {
+
+    @Autowired
+    protected ILanguageAppService languageAppService;
+
+    @Autowired
+    protected ILanguageRepository languageRepository;
+
+    @Autowired
+    protected CacheManager cacheManager;
+
+    @Autowired
+    protected MeterRegistry meterRegistry;
+
+    protected Integer languageId;
+
+    @Before
+    public void setUp() {
+        CreateLanguageInput input = new CreateLanguageInput();
+        input.setName("cached");
+        languageId = languageAppService.create(input).getLanguageId();
+    }
+
+    protected void renameBehindTheCache(String name) {
+        LanguageEntity language = languageRepository.findById(languageId).get();
+        language.setName(name);
+        languageRepository.save(language);
+    }
+
+    protected double hits() {
+        return meterRegistry
+            .get("cache.gets")
+            .tag("cache", ReferenceDataCaches.LANGUAGE)
+            .tag("result", "hit")
+            .functionCounter()
+            .count();
+    }
+
+    @Test
+    public void findById_RowChangedBehindTheCache_ReturnCachedOutput() {
+        double hits = hits();
+
+        Assertions.assertThat(languageAppService.findById(languageId).getName()).isEqualTo("cached");
+        renameBehindTheCache("changed");
+
+        Assertions.assertThat(languageAppService.findById(languageId).getName()).isEqualTo("cached");
+        Assertions.assertThat(hits()).isEqualTo(hits + 1);
+    }
+
+    @Test
+    public void update_OutputIsCached_EvictOutput() {
+        languageAppService.findById(languageId);
+
+        UpdateLanguageInput input = new UpdateLanguageInput();
+        input.setLanguageId(languageId);
+        input.setName("updated");
+        input.setVersiono(languageRepository.findById(languageId).get().getVersiono());
+        languageAppService.update(languageId, input);
+
+        Assertions.assertThat(languageAppService.findById(languageId).getName()).isEqualTo("updated");
+    }
+
+    @Test
+    public void delete_OutputIsCached_EvictOutput() {
+        languageAppService.findById(languageId);
+
+        languageAppService.delete(languageId);
+
+        Assertions.assertThat(cacheManager.getCache(ReferenceDataCaches.LANGUAGE).get(languageId)).isNull();
+        Assertions.assertThat(languageAppService.findById(languageId)).isNull();
+    }
+
+    @Test
+    public void findById_RowDoesNotExist_DoNotCacheNull() {
+        Integer missingId = languageId + 1000;
+
+        Assertions.assertThat(languageAppService.findById(missingId)).isNull();
+        Assertions.assertThat(cacheManager.getCache(ReferenceDataCaches.LANGUAGE).get(missingId)).isNull();
+    }
+}
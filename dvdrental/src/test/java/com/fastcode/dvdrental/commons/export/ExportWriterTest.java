@@ -0,0 +1,60 @@
+package com.fastcode.dvdrental.commons.export;
+
+import com.fastcode.dvdrental.application.core.film.dto.FindFilmByIdOutput;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+public class ExportWriterTest {
+
+    protected FindFilmByIdOutput createRow(Integer filmId, String title) {
+        FindFilmByIdOutput row = new FindFilmByIdOutput();
+        row.setFilmId(filmId);
+        row.setTitle(title);
+        return row;
+    }
+
+    protected String export(ExportFormat format, FindFilmByIdOutput... rows) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ExportWriter writer = new ExportWriter(format, outputStream)) {
+            for (FindFilmByIdOutput row : rows) {
+                writer.write(row);
+            }
+        }
+        return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void write_FormatIsNdjson_WriteOneJsonObjectPerLine() throws Exception {
+        String[] lines = export(ExportFormat.NDJSON, createRow(1, "abc"), createRow(2, "xyz")).split("\n");
+
+        Assertions.assertThat(lines).hasSize(2);
+        Assertions.assertThat(lines[0]).startsWith("{").contains("\"filmId\":1", "\"title\":\"abc\"");
+        Assertions.assertThat(lines[1]).contains("\"filmId\":2", "\"title\":\"xyz\"");
+    }
+
+    @Test
+    public void write_FormatIsCsv_WriteHeaderAndEscapedValues() throws Exception {
+        String[] lines = export(ExportFormat.CSV, createRow(1, "a, \"b\"")).split("\n");
+
+        Assertions.assertThat(lines).hasSize(2);
+        Assertions.assertThat(lines[0].split(",")).contains("filmId", "title");
+        Assertions.assertThat(lines[1]).contains("1", "\"a, \"\"b\"\"\"");
+    }
+
+    @Test
+    public void write_FormatIsCsvAndThereAreNoRows_WriteNothing() throws Exception {
+        Assertions.assertThat(export(ExportFormat.CSV)).isEmpty();
+    }
+
+    @Test
+    public void fromString_FormatIsNotValid_ThrowException() {
+        Assertions
+            .assertThatThrownBy(() -> ExportFormat.fromString("xml"))
+            .hasMessage("Wrong URL Format: format xml is not one of ndjson, csv!");
+    }
+}
@@ -0,0 +1,94 @@
+package com.fastcode.dvdrental.commons.search;
+
+import com.fastcode.dvdrental.application.core.film.dto.FindFilmByIdOutput;
+import java.util.Arrays;
+import java.util.Collections;
+import org.assertj.core.api.Assertions;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+public class KeysetCursorTest {
+
+    protected FindFilmByIdOutput createRow() {
+        FindFilmByIdOutput row = new FindFilmByIdOutput();
+        row.setFilmId(15);
+        row.setTitle("xyz");
+        return row;
+    }
+
+    @Test
+    public void decode_TokenIsEncodedCursor_ReturnSameCursor() {
+        KeysetCursor cursor = new KeysetCursor(
+            Arrays.asList(Sort.Order.desc("title"), Sort.Order.desc("filmId")),
+            Arrays.asList("x,y|z", null)
+        );
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+        Assertions.assertThat(decoded.getOrders()).isEqualTo(cursor.getOrders());
+        Assertions.assertThat(decoded.getValues()).isEqualTo(cursor.getValues());
+    }
+
+    @Test
+    public void decode_TokenIsNotValid_ThrowException() {
+        Assertions.assertThatThrownBy(() -> KeysetCursor.decode("xyz")).hasMessage("Invalid cursor");
+    }
+
+    @Test
+    public void keysetSort_SortDoesNotContainKey_AppendKeyInLastDirection() {
+        Sort sort = KeysetCursor.keysetSort(Sort.by(Sort.Direction.DESC, "title"), "filmId");
+
+        Assertions
+            .assertThat(sort)
+            .containsExactly(Sort.Order.desc("title").nullsFirst(), Sort.Order.desc("filmId").nullsFirst());
+    }
+
+    @Test
+    public void keysetSort_SortIsUnsorted_ReturnKeyAscending() {
+        Assertions
+            .assertThat(KeysetCursor.keysetSort(Sort.unsorted(), "filmId"))
+            .containsExactly(Sort.Order.asc("filmId").nullsLast());
+    }
+
+    @Test
+    public void pageable_AfterIsNotNull_StartAfterCursor() {
+        KeysetCursor cursor = new KeysetCursor(
+            Collections.singletonList(Sort.Order.asc("filmId")),
+            Collections.singletonList("15")
+        );
+        SearchCriteria searchCriteria = new SearchCriteria();
+
+        Pageable pageable = KeysetCursor.pageable(searchCriteria, cursor.encode(), 20, 10, null, "filmId");
+
+        Assertions.assertThat(pageable.getOffset()).isEqualTo(0);
+        Assertions.assertThat(pageable.getSort()).containsExactly(Sort.Order.asc("filmId").nullsLast());
+        Assertions.assertThat(searchCriteria.getAfter().getValues()).containsExactly("15");
+    }
+
+    @Test
+    public void nextCursorHeaders_SliceHasNext_ReturnCursorOfLastRow() {
+        Pageable pageable = new OffsetBasedPageRequest(0, 1, KeysetCursor.keysetSort(Sort.by("title"), "filmId"));
+
+        String token = KeysetCursor
+            .nextCursorHeaders(new SliceImpl<>(Collections.singletonList(createRow()), pageable, true))
+            .getFirst(KeysetCursor.NEXT_CURSOR_HEADER);
+
+        Assertions.assertThat(KeysetCursor.decode(token).getValues()).containsExactly("xyz", "15");
+    }
+
+    @Test
+    public void nextCursorHeaders_PageIsFullButLast_ReturnNoCursor() {
+        Pageable pageable = new OffsetBasedPageRequest(0, 1, KeysetCursor.keysetSort(null, "filmId"));
+
+        Assertions
+            .assertThat(
+                KeysetCursor.nextCursorHeaders(new SliceImpl<>(Collections.singletonList(createRow()), pageable, false))
+            )
+            .doesNotContainKey(KeysetCursor.NEXT_CURSOR_HEADER);
+    }
+}
@@ -0,0 +1,224 @@
+package com.fastcode.dvdrental.commons.search;
+
+import com.fastcode.dvdrental.domain.core.film.QFilmEntity;
+import com.fastcode.dvdrental.domain.core.rental.QRentalEntity;
+import com.querydsl.core.BooleanBuilder;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+public class SearchPredicateCompilerTest {
+
+    protected QFilmEntity film = QFilmEntity.filmEntity;
+
+    protected SearchPredicateCompiler compiler;
+
+    @Before
+    public void setUp() {
+        compiler =
+            SearchPredicateCompiler
+                .builder()
+                .field("filmId", film.filmId)
+                .field("rentalRate", film.rentalRate)
+                .field("title", film.title)
+                .fullTextField("fulltext", film.fulltext)
+                .joinColumn("languageId", film.language.languageId)
+                .build();
+    }
+
+    protected SearchCriteria createSearchCriteria(String fieldName, String operator, String searchValue) {
+        SearchCriteria search = new SearchCriteria();
+        search.setType(3);
+        List<SearchFields> fieldsList = new ArrayList<>();
+        SearchFields fields = new SearchFields();
+        fields.setFieldName(fieldName);
+        fields.setOperator(operator);
+        fields.setSearchValue(searchValue);
+        fieldsList.add(fields);
+        search.setFields(fieldsList);
+        return search;
+    }
+
+    @Test
+    public void compile_OperatorIsContains_ReturnLikeIgnoreCase() throws Exception {
+        BooleanBuilder builder = new BooleanBuilder();
+        builder.and(film.title.likeIgnoreCase("%xyz%"));
+
+        Assertions.assertThat(compiler.compile(createSearchCriteria("title", "contains", "xyz"))).isEqualTo(builder);
+    }
+
+    @Test
+    public void compile_OperatorIsSearch_ReturnTrigramMatch() throws Exception {
+        BooleanBuilder builder = new BooleanBuilder();
+        builder.and(SearchFunctions.trigramMatch(film.title, "xyz"));
+
+        Assertions.assertThat(compiler.compile(createSearchCriteria("title", "search", "xyz"))).isEqualTo(builder);
+    }
+
+    @Test
+    public void compile_FieldIsFullTextAndOperatorIsSearch_ReturnFullTextMatch() throws Exception {
+        BooleanBuilder builder = new BooleanBuilder();
+        builder.and(SearchFunctions.fullTextMatch(film.fulltext, "xyz"));
+
+        Assertions.assertThat(compiler.compile(createSearchCriteria("fulltext", "search", "xyz"))).isEqualTo(builder);
+    }
+
+    @Test
+    public void compile_FieldIsFullTextAndOperatorIsContains_ReturnEmptyBuilder() throws Exception {
+        Assertions
+            .assertThat(compiler.compile(createSearchCriteria("fulltext", "contains", "xyz")))
+            .isEqualTo(new BooleanBuilder());
+    }
+
+    @Test
+    public void rank_CriteriaHasSearchOperators_ReturnSumOfRanks() {
+        SearchCriteria search = createSearchCriteria("fulltext", "search", "xyz");
+        search.getFields().addAll(createSearchCriteria("title", "search", "abc").getFields());
+
+        Assertions
+            .assertThat(compiler.rank(search))
+            .isEqualTo(
+                SearchFunctions.fullTextRank(film.fulltext, "xyz").add(SearchFunctions.trigramRank(film.title, "abc"))
+            );
+    }
+
+    @Test
+    public void rank_CriteriaHasNoSearchOperator_ReturnNull() {
+        Assertions.assertThat(compiler.rank(createSearchCriteria("title", "contains", "xyz"))).isNull();
+    }
+
+    @Test
+    public void compile_FieldNameIsEncoded_ReturnBooleanBuilder() throws Exception {
+        BooleanBuilder builder = new BooleanBuilder();
+        builder.and(film.filmId.eq(15));
+
+        Assertions.assertThat(compiler.compile(createSearchCriteria("%20filmId ", "equals", "15"))).isEqualTo(builder);
+    }
+
+    @Test
+    public void compile_OperatorIsRangeWithStartingValueOnly_ReturnGreaterOrEqual() throws Exception {
+        SearchCriteria search = createSearchCriteria("rentalRate", "range", null);
+        search.getFields().get(0).setStartingValue("1.5");
+        BooleanBuilder builder = new BooleanBuilder();
+        builder.and(film.rentalRate.goe(1.5));
+
+        Assertions.assertThat(compiler.compile(search)).isEqualTo(builder);
+    }
+
+    @Test
+    public void compile_OperatorIsRangeOnLocalDate_ReturnBetween() throws Exception {
+        QRentalEntity rental = QRentalEntity.rentalEntity;
+        SearchPredicateCompiler rentalCompiler = SearchPredicateCompiler
+            .builder()
+            .field("rentalDate", rental.rentalDate)
+            .build();
+        SearchCriteria search = createSearchCriteria("rentalDate", "range", null);
+        search.getFields().get(0).setStartingValue("2020-01-01");
+        search.getFields().get(0).setEndingValue("2020-01-31");
+        BooleanBuilder builder = new BooleanBuilder();
+        builder.and(rental.rentalDate.between(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 31)));
+
+        Assertions.assertThat(rentalCompiler.compile(search)).isEqualTo(builder);
+    }
+
+    @Test
+    public void compile_SearchValueIsNotNumeric_ReturnEmptyBooleanBuilder() throws Exception {
+        Assertions
+            .assertThat(compiler.compile(createSearchCriteria("filmId", "equals", "xyz")))
+            .isEqualTo(new BooleanBuilder());
+    }
+
+    @Test
+    public void compile_JoinColumnExists_ReturnBooleanBuilder() throws Exception {
+        SearchCriteria search = new SearchCriteria();
+        Map<String, String> joinColumns = new HashMap<>();
+        joinColumns.put("languageId", "1");
+        joinColumns.put("xyz", "1");
+        search.setJoinColumns(joinColumns);
+        BooleanBuilder builder = new BooleanBuilder();
+        builder.and(film.language.languageId.eq(1));
+
+        Assertions.assertThat(compiler.compile(search)).isEqualTo(builder);
+    }
+
+    @Test
+    public void compile_PropertyDoesNotExist_ThrowException() {
+        Assertions
+            .assertThatThrownBy(() -> compiler.compile(createSearchCriteria("xyz", "equals", "1")))
+            .hasMessage("Wrong URL Format: Property xyz not found!");
+    }
+
+    @Test
+    public void compile_SearchIsRepeated_ReturnIndependentBooleanBuilder() throws Exception {
+        SearchCriteria search = createSearchCriteria("title", "equals", "xyz");
+        BooleanBuilder first = compiler.compile(search);
+        first.and(film.filmId.eq(1));
+        BooleanBuilder builder = new BooleanBuilder();
+        builder.and(film.title.eq("xyz"));
+
+        Assertions.assertThat(compiler.compile(search)).isEqualTo(builder);
+    }
+
+    @Test
+    public void compile_AfterIsNotNull_ReturnKeysetPredicate() throws Exception {
+        SearchCriteria search = createSearchCriteria("title", "equals", "xyz");
+        search.setAfter(
+            new KeysetCursor(Arrays.asList(Sort.Order.asc("rentalRate"), Sort.Order.asc("filmId")), Arrays.asList("1.5", "15"))
+        );
+        BooleanBuilder builder = new BooleanBuilder();
+        builder.and(film.title.eq("xyz"));
+        builder.and(
+            film.rentalRate.goe(1.5).and(film.rentalRate.gt(1.5).or(film.rentalRate.eq(1.5).and(film.filmId.gt(15))))
+        );
+
+        Assertions.assertThat(compiler.compile(search)).isEqualTo(builder);
+    }
+
+    @Test
+    public void compile_AfterIsDescendingOnNullableField_ReturnKeysetPredicate() throws Exception {
+        SearchPredicateCompiler descriptionCompiler = SearchPredicateCompiler
+            .builder()
+            .field("filmId", film.filmId)
+            .field("description", film.description)
+            .build();
+        SearchCriteria search = new SearchCriteria();
+        search.setAfter(
+            new KeysetCursor(Arrays.asList(Sort.Order.desc("description"), Sort.Order.desc("filmId")), Arrays.asList(null, "15"))
+        );
+        BooleanBuilder builder = new BooleanBuilder();
+        builder.and(film.description.isNotNull().or(film.description.isNull().and(film.filmId.lt(15))));
+
+        Assertions.assertThat(descriptionCompiler.compile(search)).isEqualTo(builder);
+    }
+
+    @Test
+    public void compile_AfterRefersToUnknownProperty_ThrowException() {
+        SearchCriteria search = new SearchCriteria();
+        search.setAfter(new KeysetCursor(Arrays.asList(Sort.Order.asc("xyz")), Arrays.asList("1")));
+
+        Assertions.assertThatThrownBy(() -> compiler.compile(search)).hasMessage("Wrong URL Format: Property xyz not found!");
+    }
+
+    @Test
+    public void compile_AfterValueIsNotValid_ThrowException() {
+        SearchCriteria search = new SearchCriteria();
+        search.setAfter(new KeysetCursor(Arrays.asList(Sort.Order.asc("filmId")), Arrays.asList("xyz")));
+
+        Assertions.assertThatThrownBy(() -> compiler.compile(search)).hasMessage("Invalid cursor");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cacheSize_CacheSizeIsLessThanOne_ThrowException() {
+        SearchPredicateCompiler.builder().cacheSize(0);
+    }
+}
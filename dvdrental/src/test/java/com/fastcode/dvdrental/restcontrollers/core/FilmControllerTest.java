@@ -8,6 +8,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fastcode.dvdrental.application.core.film.FilmAppService;
@@ -17,7 +19,9 @@ import com.fastcode.dvdrental.application.core.filmcategory.FilmCategoryAppServi
 import com.fastcode.dvdrental.application.core.inventory.InventoryAppService;
 import com.fastcode.dvdrental.application.core.language.LanguageAppService;
 import com.fastcode.dvdrental.commons.logging.LoggingHelper;
+import com.fastcode.dvdrental.commons.search.KeysetCursor;
 import com.fastcode.dvdrental.commons.search.SearchUtils;
+import com.fastcode.dvdrental.commons.search.TotalCount;
 import com.fastcode.dvdrental.domain.core.address.AddressEntity;
 import com.fastcode.dvdrental.domain.core.address.IAddressRepository;
 import com.fastcode.dvdrental.domain.core.city.CityEntity;
@@ -63,6 +67,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.web.SortHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
@@ -694,6 +699,19 @@ public class FilmControllerTest {
         film_repository.delete(de);
     }
 
+    @Test
+    public void FindByIds_IdsAreValid_ReturnFoundFilmsKeyedById() throws Exception {
+        mvc
+            .perform(
+                post("/film/batch")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("[" + film.getFilmId() + ", 999]")
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$." + film.getFilmId() + ".title").value(film.getTitle()))
+            .andExpect(jsonPath("$.999").doesNotExist());
+    }
+
     @Test
     public void FindAll_SearchIsNotNullAndPropertyIsValid_ReturnStatusOk() throws Exception {
         mvc
@@ -716,6 +734,102 @@ public class FilmControllerTest {
             .hasCause(new Exception("Wrong URL Format: Property filmfilmId not found!"));
     }
 
+    @Test
+    public void FindAll_SearchOperatorIsSearchAndSortIsRank_ReturnMatchesByRelevance() throws Exception {
+        mvc
+            .perform(
+                get("/film?search=fulltext[search]=1;title[search]=1&sort=rank,desc&limit=1&offset=0")
+                    .contentType(MediaType.APPLICATION_JSON)
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].filmId").value(film.getFilmId()))
+            .andExpect(header().doesNotExist(KeysetCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    public void FindAll_SearchOperatorIsSearchAndNothingMatches_ReturnEmptyList() throws Exception {
+        mvc
+            .perform(get("/film?search=fulltext[search]=xyz&limit=10&offset=0").contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    public void FindAll_PageHasNext_ReturnNextCursorHeader() throws Exception {
+        FilmEntity entity = createNewEntity();
+        entity.setVersiono(0L);
+        entity.setLanguage(createLanguageEntity());
+        film_repository.save(entity);
+        List<FilmEntity> films = film_repository.findAll(Sort.by(Sort.Direction.ASC, "filmId"));
+        int limit = films.size() - 1;
+
+        String after = mvc
+            .perform(get("/film?limit=" + limit + "&offset=0").contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(KeysetCursor.NEXT_CURSOR_HEADER))
+            .andReturn()
+            .getResponse()
+            .getHeader(KeysetCursor.NEXT_CURSOR_HEADER);
+
+        mvc
+            .perform(get("/film?limit=" + limit + "&offset=0&after=" + after).contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].filmId").value(films.get(limit).getFilmId()))
+            .andExpect(header().doesNotExist(KeysetCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    public void FindAll_PageIsFullAndLast_ReturnNoNextCursorHeader() throws Exception {
+        long count = film_repository.count();
+
+        mvc
+            .perform(get("/film?limit=" + count + "&offset=0").contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value((int) count))
+            .andExpect(header().doesNotExist(KeysetCursor.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    public void FindAll_WithTotalIsExact_ReturnTotalCountHeader() throws Exception {
+        mvc
+            .perform(get("/film?limit=10&offset=0&withTotal=exact").contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().string(TotalCount.HEADER, String.valueOf(film_repository.count())));
+    }
+
+    @Test
+    public void FindAll_WithTotalIsEstimateAndDatabaseIsNotPostgres_ReturnExactTotalCountHeader() throws Exception {
+        mvc
+            .perform(get("/film?limit=10&offset=0&withTotal=estimate").contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().string(TotalCount.HEADER, String.valueOf(film_repository.count())));
+    }
+
+    @Test
+    public void FindAll_WithTotalIsNotValid_ThrowException() {
+        org.assertj.core.api.Assertions
+            .assertThatThrownBy(
+                () ->
+                    mvc
+                        .perform(get("/film?limit=10&offset=0&withTotal=xyz").contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk())
+            )
+            .hasCause(new Exception("Wrong URL Format: withTotal xyz is not one of exact, estimate!"));
+    }
+
+    @Test
+    public void FindAll_AfterIsNotValid_ThrowException() {
+        org.assertj.core.api.Assertions
+            .assertThatThrownBy(
+                () ->
+                    mvc
+                        .perform(get("/film?limit=10&offset=0&after=xyz").contentType(MediaType.APPLICATION_JSON))
+                        .andExpect(status().isOk())
+            )
+            .hasCause(new IllegalArgumentException("Invalid cursor"));
+    }
+
     @Test
     public void GetFilmActors_searchIsNotEmptyAndPropertyIsNotValid_ThrowException() {
         Map<String, String> joinCol = new HashMap<String, String>();
@@ -8,6 +8,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fastcode.dvdrental.application.core.customer.CustomerAppService;
@@ -50,6 +52,7 @@ import javax.annotation.PostConstruct;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.EntityNotFoundException;
+import javax.sql.DataSource;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.Test;
@@ -65,6 +68,7 @@ import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.core.env.Environment;
 import org.springframework.data.web.SortHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -156,6 +160,9 @@ public class RentalControllerTest {
     @Autowired
     EntityManagerFactory emf;
 
+    @Autowired
+    DataSource dataSource;
+
     static EntityManagerFactory emfs;
 
     static int relationCount = 10;
@@ -522,6 +529,70 @@ public class RentalControllerTest {
             .hasCause(new EntityNotFoundException("Not found"));
     }
 
+    @Test
+    public void CreateAll_OneReferenceDoesNotExist_ReturnPerRowResults() throws Exception {
+        CreateRentalInput rentalInput = createRentalInput();
+        rentalInput.setCustomerId(createCustomerEntity().getCustomerId());
+        rentalInput.setInventoryId(createInventoryEntity().getInventoryId());
+        rentalInput.setStaffId(createStaffEntity().getStaffId());
+
+        CreateRentalInput missingCustomerInput = createRentalInput();
+        missingCustomerInput.setCustomerId(999);
+        missingCustomerInput.setInventoryId(rentalInput.getInventoryId());
+        missingCustomerInput.setStaffId(rentalInput.getStaffId());
+
+        ObjectWriter ow = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .writer()
+            .withDefaultPrettyPrinter();
+
+        String json = ow.writeValueAsString(Arrays.asList(rentalInput, missingCustomerInput));
+
+        mvc
+            .perform(post("/rental/bulk").contentType(MediaType.APPLICATION_JSON).content(json))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.succeeded").value(1))
+            .andExpect(jsonPath("$.failed").value(1))
+            .andExpect(jsonPath("$.rows[0].output.rentalId").exists())
+            .andExpect(jsonPath("$.rows[1].error").value("There does not exist a customer with a id=999"));
+    }
+
+    @Test
+    public void SaveAll_RowIsInsertedWithSequenceDefault_AllocateOtherIds() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        // The default of the column on Postgres, which the test schema does not create
+        jdbcTemplate.execute(
+            "ALTER TABLE rental ALTER COLUMN rental_id SET DEFAULT NEXT VALUE FOR rental_rental_id_seq"
+        );
+        jdbcTemplate.update(
+            "INSERT INTO rental (rental_id, rental_date, versiono) VALUES (DEFAULT, DATE '1995-01-02', 0)"
+        );
+        Integer insertedId = jdbcTemplate.queryForObject(
+            "SELECT rental_id FROM rental WHERE rental_date = DATE '1995-01-02'",
+            Integer.class
+        );
+
+        // Spans more than one block of the sequence
+        List<RentalEntity> rentals = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            RentalEntity rentalEntity = new RentalEntity();
+            rentalEntity.setRentalDate(SearchUtils.stringToLocalDate("1995-01-03"));
+            rentalEntity.setCustomer(rental.getCustomer());
+            rentalEntity.setInventory(rental.getInventory());
+            rentalEntity.setStaff(rental.getStaff());
+            rentals.add(rentalEntity);
+        }
+        List<RentalEntity> saved = rental_repository.saveAll(rentals);
+
+        org.assertj.core.api.Assertions
+            .assertThat(saved)
+            .extracting(RentalEntity::getRentalId)
+            .doesNotContain(insertedId)
+            .doesNotHaveDuplicates();
+        org.assertj.core.api.Assertions.assertThat(rental_repository.findById(insertedId)).isPresent();
+    }
+
     @Test
     public void CreateRental_RentalDoesNotExist_ReturnStatusOk() throws Exception {
         CreateRentalInput rentalInput = createRentalInput();
@@ -734,6 +805,44 @@ public class RentalControllerTest {
             .hasCause(new Exception("Wrong URL Format: Property rentalrentalId not found!"));
     }
 
+    @Test
+    public void Export_FormatIsNdjson_WriteOneLinePerRow() throws Exception {
+        String content = mvc
+            .perform(get("/rental/export?search=rentalId[equals]=" + rental.getRentalId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        org.assertj.core.api.Assertions
+            .assertThat(content.split("\n"))
+            .hasSize(1)
+            .allMatch(line -> line.contains("\"rentalId\":" + rental.getRentalId()));
+    }
+
+    @Test
+    public void Export_FormatIsCsv_WriteHeaderAndRows() throws Exception {
+        String content = mvc
+            .perform(get("/rental/export?format=csv&search=rentalId[equals]=" + rental.getRentalId()))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith("text/csv"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        String[] lines = content.split("\n");
+        org.assertj.core.api.Assertions.assertThat(lines).hasSize(2);
+        org.assertj.core.api.Assertions.assertThat(lines[0].split(",")).contains("rentalId", "customerId", "versiono");
+    }
+
+    @Test
+    public void Export_FormatIsNotValid_ThrowException() {
+        org.assertj.core.api.Assertions
+            .assertThatThrownBy(() -> mvc.perform(get("/rental/export?format=xml")).andExpect(status().isOk()))
+            .hasCause(new Exception("Wrong URL Format: format xml is not one of ndjson, csv!"));
+    }
+
     @Test
     public void GetCustomer_IdIsNotEmptyAndIdDoesNotExist_ReturnNotFound() {
         org.assertj.core.api.Assertions
@@ -0,0 +1,114 @@
+package com.fastcode.dvdrental.security;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fastcode.dvdrental.domain.core.authorization.permission.IPermissionRepository;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.expression.Expression;
+import org.springframework.security.access.expression.ExpressionUtils;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+/**
+ * Compares the {@code @PreAuthorize} check of a controller method on the standard SpEL path, which scans
+ * the granted authority list, against the permission bits path. The user holds the CRUD permissions of
+ * every entity and the checked permission is the last one granted.
+ *
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.fastcode.dvdrental.security.AuthorityCheckBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AuthorityCheckBenchmark {
+
+    private static final String[] ENTITIES = {
+        "ACTOR", "ADDRESS", "CATEGORY", "CITY", "COUNTRY", "CUSTOMER", "FILM", "INVENTORY", "LANGUAGE",
+        "PAYMENT", "RENTAL", "STAFF", "STORE", "USER", "ROLE", "PERMISSION", "USERROLE", "USERPERMISSION",
+        "ROLEPERMISSION",
+    };
+
+    private static final String[] OPERATIONS = { "CREATE", "READ", "UPDATE", "DELETE" };
+
+    private static final String EXPRESSION = "hasAnyAuthority('ROLEPERMISSIONENTITY_DELETE')";
+
+    private DefaultMethodSecurityExpressionHandler spelHandler;
+    private Expression spelExpression;
+    private Authentication spelAuthentication;
+
+    private PermissionExpressionHandler bitSetHandler;
+    private Expression bitSetExpression;
+    private Authentication bitSetAuthentication;
+
+    private MethodInvocation invocation;
+
+    @Setup
+    public void setUp() throws Exception {
+        List<String> names = new ArrayList<>();
+        for (String entity : ENTITIES) {
+            for (String operation : OPERATIONS) {
+                names.add(entity + "ENTITY_" + operation);
+            }
+        }
+        List<GrantedAuthority> authorities = names.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList());
+
+        IPermissionRepository permissionRepository = mock(IPermissionRepository.class);
+        when(permissionRepository.findAllPermissionNames()).thenReturn(names);
+        PermissionIndex permissionIndex = new PermissionIndex(permissionRepository);
+        permissionIndex.load();
+
+        spelHandler = new DefaultMethodSecurityExpressionHandler();
+        spelExpression = spelHandler.getExpressionParser().parseExpression(EXPRESSION);
+        spelAuthentication = new UsernamePasswordAuthenticationToken("admin", null, authorities);
+
+        bitSetHandler = new PermissionExpressionHandler(new BitSetPermissionEvaluator(permissionIndex));
+        bitSetExpression = bitSetHandler.getExpressionParser().parseExpression(EXPRESSION);
+        bitSetAuthentication = new PermissionAuthenticationToken("admin", authorities, permissionIndex.encode(names));
+
+        invocation = new SimpleMethodInvocation(this, Object.class.getMethod("toString"));
+    }
+
+    @Benchmark
+    public boolean spelAuthorityList() {
+        return ExpressionUtils.evaluateAsBoolean(
+            spelExpression,
+            spelHandler.createEvaluationContext(spelAuthentication, invocation)
+        );
+    }
+
+    @Benchmark
+    public boolean permissionBits() {
+        return ExpressionUtils.evaluateAsBoolean(
+            bitSetExpression,
+            bitSetHandler.createEvaluationContext(bitSetAuthentication, invocation)
+        );
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(AuthorityCheckBenchmark.class.getSimpleName()).build()).run();
+    }
+}
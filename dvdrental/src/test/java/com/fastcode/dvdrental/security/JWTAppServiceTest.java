@@ -0,0 +1,84 @@
+package com.fastcode.dvdrental.security;
+
+import com.fastcode.dvdrental.domain.core.authorization.jwtentity.IJwtRepository;
+import com.fastcode.dvdrental.domain.core.authorization.jwtentity.JwtEntity;
+import java.util.Date;
+import java.util.UUID;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(properties = "spring.profiles.active=test")
+public class JWTAppServiceTest {
+
+    @Autowired
+    protected JWTAppService jwtAppService;
+
+    @Autowired
+    protected IJwtRepository jwtRepository;
+
+    protected String prefix;
+
+    @Before
+    public void setUp() {
+        prefix = UUID.randomUUID().toString().substring(0, 8) + "_";
+    }
+
+    protected JwtEntity createJwt(String userName, long expiresIn) {
+        JwtEntity jwt = new JwtEntity();
+        jwt.setUserName(prefix + userName);
+        jwt.setAuthorizationTokenHash(TokenDigests.sha256("Bearer_" + UUID.randomUUID()));
+        jwt.setAuthenticationTokenHash(TokenDigests.sha256("Bearer_" + UUID.randomUUID()));
+        jwt.setExpiresAt(new Date(System.currentTimeMillis() + expiresIn));
+        return jwtRepository.save(jwt);
+    }
+
+    @Test
+    public void deleteAllUserTokens_UserHasTokens_DeleteOnlyThatUsersTokens() {
+        JwtEntity first = createJwt("admin", 60_000);
+        JwtEntity second = createJwt("admin", 60_000);
+        JwtEntity other = createJwt("other", 60_000);
+
+        jwtAppService.deleteAllUserTokens(prefix + "admin");
+
+        Assertions.assertThat(jwtRepository.findById(first.getId())).isEmpty();
+        Assertions.assertThat(jwtRepository.findById(second.getId())).isEmpty();
+        Assertions.assertThat(jwtRepository.findById(other.getId())).isPresent();
+    }
+
+    @Test
+    public void deleteToken_TokenExists_DeleteTokenByDigest() {
+        JwtEntity jwt = new JwtEntity();
+        jwt.setUserName(prefix + "admin");
+        jwt.setAuthorizationTokenHash(TokenDigests.sha256("Bearer_" + prefix));
+        jwt.setExpiresAt(new Date(System.currentTimeMillis() + 60_000));
+        jwt = jwtRepository.save(jwt);
+
+        jwtAppService.deleteToken("Bearer_" + prefix);
+
+        Assertions.assertThat(jwtRepository.findById(jwt.getId())).isEmpty();
+    }
+
+    @Test
+    public void purgeExpiredTokens_TokensHaveExpired_DeleteExpiredTokensInBatches() {
+        JwtEntity first = createJwt("admin", -60_000);
+        JwtEntity second = createJwt("admin", -30_000);
+        JwtEntity third = createJwt("other", -10_000);
+        JwtEntity active = createJwt("other", 60_000);
+
+        Assertions.assertThat(jwtAppService.purgeExpiredTokens(2)).isEqualTo(2);
+        Assertions.assertThat(jwtRepository.findById(first.getId())).isEmpty();
+        Assertions.assertThat(jwtRepository.findById(second.getId())).isEmpty();
+        Assertions.assertThat(jwtRepository.findById(third.getId())).isPresent();
+
+        Assertions.assertThat(jwtAppService.purgeExpiredTokens(2)).isEqualTo(1);
+        Assertions.assertThat(jwtAppService.purgeExpiredTokens(2)).isEqualTo(0);
+        Assertions.assertThat(jwtRepository.findById(third.getId())).isEmpty();
+        Assertions.assertThat(jwtRepository.findById(active.getId())).isPresent();
+    }
+}
@@ -0,0 +1,126 @@
+package com.fastcode.dvdrental.security;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fastcode.dvdrental.domain.core.authorization.jwtentity.IJwtRepository;
+import com.fastcode.dvdrental.domain.core.authorization.jwtentity.JwtEntity;
+import com.fastcode.dvdrental.domain.core.authorization.user.UserEntity;
+import java.util.Collections;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+public class JWTAuthenticationFilterTest {
+
+    @Mock
+    protected AuthenticationManager authenticationManager;
+
+    @Mock
+    protected ApplicationContext context;
+
+    @Mock
+    protected IJwtRepository _jwtRepository;
+
+    @Mock
+    protected TokenSessionCache _tokenSessionCache;
+
+    @Mock
+    protected StatelessTokenService _statelessTokenService;
+
+    protected JWTAuthenticationFilter filter;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(context.getBean(IJwtRepository.class)).thenReturn(_jwtRepository);
+        when(context.getBean(TokenSessionCache.class)).thenReturn(_tokenSessionCache);
+        when(context.getBean(StatelessTokenService.class)).thenReturn(_statelessTokenService);
+        filter = new JWTAuthenticationFilter(authenticationManager, context);
+    }
+
+    protected Authentication createAuthentication(Boolean isEmailConfirmed) {
+        UserEntity user = new UserEntity();
+        user.setId(15L);
+        user.setUserName("admin");
+        user.setPassword("password");
+        user.setIsActive(true);
+        user.setIsEmailConfirmed(isEmailConfirmed);
+        LoginUser loginUser = new LoginUser(user, Collections.singletonList(new SimpleGrantedAuthority("FILMENTITY_READ")));
+        return new UsernamePasswordAuthenticationToken(loginUser, null, loginUser.getAuthorities());
+    }
+
+    @Test
+    public void attemptAuthentication_CredentialsAreGiven_AuthenticateCredentials() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth");
+        request.setContent("{\"userName\":\"admin\",\"password\":\"secret\"}".getBytes());
+        Authentication authentication = createAuthentication(true);
+        when(authenticationManager.authenticate(any())).thenReturn(authentication);
+
+        Assertions.assertThat(filter.attemptAuthentication(request, new MockHttpServletResponse())).isSameAs(authentication);
+
+        ArgumentCaptor<Authentication> credentials = ArgumentCaptor.forClass(Authentication.class);
+        verify(authenticationManager).authenticate(credentials.capture());
+        Assertions.assertThat(credentials.getValue().getPrincipal()).isEqualTo("admin");
+        Assertions.assertThat(credentials.getValue().getCredentials()).isEqualTo("secret");
+    }
+
+    @Test
+    public void successfulAuthentication_EmailIsConfirmed_IssueTokens() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.successfulAuthentication(new MockHttpServletRequest(), response, null, createAuthentication(true));
+
+        String authorizationToken = response.getHeader(SecurityConstants.HEADER_STRING);
+        Assertions.assertThat(authorizationToken).startsWith(SecurityConstants.TOKEN_PREFIX);
+        Assertions.assertThat(response.getContentAsString()).isEqualTo("{\"token\":\"" + authorizationToken + "\"}");
+        Assertions.assertThat(response.getCookie(SecurityConstants.HEADER_STRING_AUTHENTICATION)).isNotNull();
+
+        ArgumentCaptor<JwtEntity> jwt = ArgumentCaptor.forClass(JwtEntity.class);
+        verify(_jwtRepository).save(jwt.capture());
+        Assertions.assertThat(jwt.getValue().getUserName()).isEqualTo("admin");
+        Assertions.assertThat(jwt.getValue().getAuthorizationTokenHash()).isEqualTo(TokenDigests.sha256(authorizationToken));
+    }
+
+    @Test
+    public void successfulAuthentication_StatelessModeIsEnabled_IssueAccessAndRefreshTokens() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        when(_statelessTokenService.isEnabled()).thenReturn(true);
+        when(_statelessTokenService.issueTokens(eq("admin"), any(), any())).thenReturn("Bearer_access");
+
+        filter.successfulAuthentication(new MockHttpServletRequest(), response, null, createAuthentication(true));
+
+        Assertions.assertThat(response.getContentAsString()).isEqualTo("{\"token\":\"Bearer_access\"}");
+        verify(_statelessTokenService).issueTokens(eq("admin"), eq(Collections.singletonList("FILMENTITY_READ")), any());
+        verify(_jwtRepository, never()).save(any(JwtEntity.class));
+    }
+
+    @Test
+    public void successfulAuthentication_EmailIsNotConfirmed_DoNotIssueTokens() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.successfulAuthentication(new MockHttpServletRequest(), response, null, createAuthentication(null));
+
+        Assertions
+            .assertThat(response.getContentAsString())
+            .isEqualTo("{\"message\":\"User email is not confirmed\",\"status\":\"EmailNotConfirmed\"}");
+        Assertions.assertThat(response.getHeader(SecurityConstants.HEADER_STRING)).isNull();
+        verify(_jwtRepository, never()).save(any(JwtEntity.class));
+    }
+}
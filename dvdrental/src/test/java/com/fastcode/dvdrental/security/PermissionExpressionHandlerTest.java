@@ -0,0 +1,113 @@
+package com.fastcode.dvdrental.security;
+
+import static org.mockito.Mockito.when;
+
+import com.fastcode.dvdrental.domain.core.authorization.permission.IPermissionRepository;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.aopalliance.intercept.MethodInvocation;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.expression.Expression;
+import org.springframework.security.access.expression.ExpressionUtils;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+public class PermissionExpressionHandlerTest {
+
+    @Mock
+    protected IPermissionRepository _permissionRepository;
+
+    protected PermissionIndex permissionIndex;
+
+    protected PermissionExpressionHandler expressionHandler;
+
+    protected MethodInvocation invocation;
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        when(_permissionRepository.findAllPermissionNames())
+            .thenReturn(Arrays.asList("FILMENTITY_READ", "FILMENTITY_CREATE", "ACTORENTITY_READ"));
+        permissionIndex = new PermissionIndex(_permissionRepository);
+        permissionIndex.load();
+        expressionHandler = new PermissionExpressionHandler(new BitSetPermissionEvaluator(permissionIndex));
+        invocation = new SimpleMethodInvocation(this, Object.class.getMethod("toString"));
+    }
+
+    protected Authentication createAuthentication(String... scopes) {
+        List<String> names = Arrays.asList(scopes);
+        List<GrantedAuthority> authorities = names.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList());
+        return new PermissionAuthenticationToken("admin", authorities, permissionIndex.encode(names));
+    }
+
+    protected boolean evaluate(String expression, Authentication authentication) {
+        Expression parsed = expressionHandler.getExpressionParser().parseExpression(expression);
+        return ExpressionUtils.evaluateAsBoolean(parsed, expressionHandler.createEvaluationContext(authentication, invocation));
+    }
+
+    @Test
+    public void hasAnyAuthority_PermissionBitIsSet_ReturnTrue() {
+        Authentication authentication = createAuthentication("ACTORENTITY_READ");
+
+        Assertions.assertThat(evaluate("hasAnyAuthority('FILMENTITY_READ', 'ACTORENTITY_READ')", authentication)).isTrue();
+        Assertions.assertThat(evaluate("hasAuthority('ACTORENTITY_READ')", authentication)).isTrue();
+    }
+
+    @Test
+    public void hasAnyAuthority_PermissionBitIsNotSet_ReturnFalse() {
+        Authentication authentication = createAuthentication("ACTORENTITY_READ");
+
+        Assertions.assertThat(evaluate("hasAnyAuthority('FILMENTITY_READ')", authentication)).isFalse();
+        Assertions.assertThat(evaluate("hasAnyAuthority('UNKNOWN')", authentication)).isFalse();
+    }
+
+    @Test
+    public void hasAnyAuthority_ExpressionIsEvaluatedRepeatedly_ReturnSameResult() {
+        Expression parsed = expressionHandler.getExpressionParser().parseExpression("hasAnyAuthority('FILMENTITY_READ')");
+        Authentication granted = createAuthentication("FILMENTITY_READ");
+        Authentication denied = createAuthentication("FILMENTITY_CREATE");
+
+        // the parser compiles the expression after its first evaluations
+        for (int i = 0; i < 200; i++) {
+            Assertions
+                .assertThat(ExpressionUtils.evaluateAsBoolean(parsed, expressionHandler.createEvaluationContext(granted, invocation)))
+                .isTrue();
+            Assertions
+                .assertThat(ExpressionUtils.evaluateAsBoolean(parsed, expressionHandler.createEvaluationContext(denied, invocation)))
+                .isFalse();
+        }
+    }
+
+    @Test
+    public void hasAnyAuthority_AuthenticationHasNoPermissionBits_CheckGrantedAuthorities() {
+        Authentication authentication = new UsernamePasswordAuthenticationToken(
+            "admin",
+            null,
+            Collections.singletonList(new SimpleGrantedAuthority("FILMENTITY_READ"))
+        );
+
+        Assertions.assertThat(evaluate("hasAnyAuthority('FILMENTITY_READ')", authentication)).isTrue();
+        Assertions.assertThat(evaluate("hasAnyAuthority('ACTORENTITY_READ')", authentication)).isFalse();
+    }
+
+    @Test
+    public void hasPermission_PermissionBitIsSet_ReturnTrue() {
+        Authentication authentication = createAuthentication("FILMENTITY_CREATE");
+
+        Assertions.assertThat(evaluate("hasPermission(null, 'FILMENTITY_CREATE')", authentication)).isTrue();
+        Assertions.assertThat(evaluate("hasPermission(null, 'FILMENTITY_READ')", authentication)).isFalse();
+        Assertions.assertThat(evaluate("isAuthenticated() and permitAll", authentication)).isTrue();
+    }
+}
@@ -0,0 +1,60 @@
+package com.fastcode.dvdrental.security;
+
+import static org.mockito.Mockito.when;
+
+import com.fastcode.dvdrental.domain.core.authorization.permission.IPermissionRepository;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+public class PermissionIndexTest {
+
+    @Mock
+    protected IPermissionRepository _permissionRepository;
+
+    protected PermissionIndex permissionIndex;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(_permissionRepository.findAllPermissionNames())
+            .thenReturn(Arrays.asList("FILMENTITY_READ", "FILMENTITY_CREATE", "ACTORENTITY_READ"));
+        permissionIndex = new PermissionIndex(_permissionRepository);
+        permissionIndex.load();
+    }
+
+    @Test
+    public void load_PermissionsExist_InternInOrder() {
+        Assertions.assertThat(permissionIndex.idOf("FILMENTITY_READ")).isEqualTo(0);
+        Assertions.assertThat(permissionIndex.idOf("FILMENTITY_CREATE")).isEqualTo(1);
+        Assertions.assertThat(permissionIndex.idOf("ACTORENTITY_READ")).isEqualTo(2);
+        Assertions.assertThat(permissionIndex.idOf("ACTORENTITY_DELETE")).isEqualTo(PermissionIndex.NOT_INTERNED);
+    }
+
+    @Test
+    public void encode_NameNotInterned_InternNewId() {
+        BitSet bits = permissionIndex.encode(Arrays.asList("FILMENTITY_READ", "ACTORENTITY_DELETE"));
+
+        Assertions.assertThat(permissionIndex.idOf("ACTORENTITY_DELETE")).isEqualTo(3);
+        Assertions.assertThat(bits.cardinality()).isEqualTo(2);
+        Assertions.assertThat(bits.get(0)).isTrue();
+        Assertions.assertThat(bits.get(3)).isTrue();
+    }
+
+    @Test
+    public void hasAny_AnyNameIsSet_ReturnTrue() {
+        BitSet bits = permissionIndex.encode(Collections.singletonList("ACTORENTITY_READ"));
+
+        Assertions.assertThat(permissionIndex.hasAny(bits, "FILMENTITY_READ", "ACTORENTITY_READ")).isTrue();
+        Assertions.assertThat(permissionIndex.hasAny(bits, "FILMENTITY_READ")).isFalse();
+        Assertions.assertThat(permissionIndex.hasAny(bits, "UNKNOWN")).isFalse();
+    }
+}
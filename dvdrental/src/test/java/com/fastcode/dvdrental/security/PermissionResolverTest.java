@@ -0,0 +1,137 @@
+package com.fastcode.dvdrental.security;
+
+import com.fastcode.dvdrental.domain.core.authorization.permission.IPermissionRepository;
+import com.fastcode.dvdrental.domain.core.authorization.permission.PermissionEntity;
+import com.fastcode.dvdrental.domain.core.authorization.role.IRoleRepository;
+import com.fastcode.dvdrental.domain.core.authorization.role.RoleEntity;
+import com.fastcode.dvdrental.domain.core.authorization.rolepermission.IRolepermissionRepository;
+import com.fastcode.dvdrental.domain.core.authorization.rolepermission.RolepermissionEntity;
+import com.fastcode.dvdrental.domain.core.authorization.user.IUserRepository;
+import com.fastcode.dvdrental.domain.core.authorization.user.UserEntity;
+import com.fastcode.dvdrental.domain.core.authorization.userpermission.IUserpermissionRepository;
+import com.fastcode.dvdrental.domain.core.authorization.userpermission.UserpermissionEntity;
+import com.fastcode.dvdrental.domain.core.authorization.userrole.IUserroleRepository;
+import com.fastcode.dvdrental.domain.core.authorization.userrole.UserroleEntity;
+import java.util.UUID;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(properties = "spring.profiles.active=test")
+public class PermissionResolverTest {
+
+    @Autowired
+    protected PermissionResolver permissionResolver;
+
+    @Autowired
+    protected IUserRepository userRepository;
+
+    @Autowired
+    protected IRoleRepository roleRepository;
+
+    @Autowired
+    protected IPermissionRepository permissionRepository;
+
+    @Autowired
+    protected IUserroleRepository userroleRepository;
+
+    @Autowired
+    protected IRolepermissionRepository rolepermissionRepository;
+
+    @Autowired
+    protected IUserpermissionRepository userpermissionRepository;
+
+    protected String prefix;
+
+    protected UserEntity user;
+
+    @Before
+    public void setUp() {
+        prefix = UUID.randomUUID().toString().substring(0, 8) + "_";
+        user = createUser();
+    }
+
+    protected UserEntity createUser() {
+        UserEntity user = new UserEntity();
+        user.setUserName(prefix + UUID.randomUUID().toString().substring(0, 8));
+        user.setFirstName("first");
+        user.setLastName("last");
+        user.setEmailAddress(user.getUserName() + "@example.com");
+        user.setPassword("password");
+        user.setIsActive(true);
+        user.setIsEmailConfirmed(true);
+        return userRepository.save(user);
+    }
+
+    protected PermissionEntity createPermission(String name) {
+        PermissionEntity permission = new PermissionEntity();
+        permission.setName(prefix + name);
+        permission.setDisplayName(name);
+        return permissionRepository.save(permission);
+    }
+
+    protected RoleEntity createRole(PermissionEntity... permissions) {
+        RoleEntity role = new RoleEntity();
+        role.setName(prefix + "ROLE");
+        role.setDisplayName("role");
+        role = roleRepository.save(role);
+        for (PermissionEntity permission : permissions) {
+            RolepermissionEntity rolepermission = new RolepermissionEntity();
+            rolepermission.setRoleId(role.getId());
+            rolepermission.setPermissionId(permission.getId());
+            rolepermissionRepository.save(rolepermission);
+        }
+        return role;
+    }
+
+    protected void assignRole(UserEntity user, RoleEntity role) {
+        UserroleEntity userrole = new UserroleEntity();
+        userrole.setUserId(user.getId());
+        userrole.setRoleId(role.getId());
+        userroleRepository.save(userrole);
+    }
+
+    protected UserpermissionEntity override(UserEntity user, PermissionEntity permission, Boolean revoked) {
+        UserpermissionEntity userpermission = new UserpermissionEntity();
+        userpermission.setUserId(user.getId());
+        userpermission.setPermissionId(permission.getId());
+        userpermission.setRevoked(revoked);
+        return userpermissionRepository.save(userpermission);
+    }
+
+    @Test
+    public void getPermissions_UserHasRolesAndOverrides_ReturnEffectivePermissions() {
+        PermissionEntity read = createPermission("READ");
+        PermissionEntity update = createPermission("UPDATE");
+        PermissionEntity delete = createPermission("DELETE");
+        PermissionEntity create = createPermission("CREATE");
+        PermissionEntity audit = createPermission("AUDIT");
+        assignRole(user, createRole(read, update, delete));
+        override(user, update, true);
+        override(user, create, false);
+        override(user, delete, null);
+        override(createUser(), audit, false);
+
+        Assertions
+            .assertThat(permissionResolver.getPermissions(user.getId()))
+            .containsExactlyInAnyOrder(prefix + "READ", prefix + "DELETE", prefix + "CREATE");
+    }
+
+    @Test
+    public void getPermissions_OverrideChanged_ReturnCachedPermissionsUntilUserIsEvicted() {
+        PermissionEntity read = createPermission("READ");
+        assignRole(user, createRole(read));
+        Assertions.assertThat(permissionResolver.getPermissions(user.getId())).containsExactly(prefix + "READ");
+
+        override(user, read, true);
+        Assertions.assertThat(permissionResolver.getPermissions(user.getId())).containsExactly(prefix + "READ");
+
+        permissionResolver.evictUser(user.getId());
+        Assertions.assertThat(permissionResolver.getPermissions(user.getId())).isEmpty();
+    }
+}
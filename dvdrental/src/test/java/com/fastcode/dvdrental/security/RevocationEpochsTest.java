@@ -0,0 +1,40 @@
+package com.fastcode.dvdrental.security;
+
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+public class RevocationEpochsTest {
+
+    protected RevocationEpochs revocationEpochs;
+
+    @Before
+    public void setUp() {
+        revocationEpochs = new RevocationEpochs();
+    }
+
+    @Test
+    public void isRevoked_UserWasNeverRevoked_ReturnFalse() {
+        Assertions.assertThat(revocationEpochs.isRevoked("admin", System.currentTimeMillis())).isFalse();
+    }
+
+    @Test
+    public void isRevoked_TokenWasIssuedBeforeRevocation_ReturnTrue() {
+        long issuedAt = System.currentTimeMillis() - 1_000;
+
+        revocationEpochs.revoke("admin");
+
+        Assertions.assertThat(revocationEpochs.isRevoked("admin", issuedAt)).isTrue();
+        Assertions.assertThat(revocationEpochs.isRevoked("other", issuedAt)).isFalse();
+    }
+
+    @Test
+    public void isRevoked_TokenWasIssuedAfterRevocation_ReturnFalse() {
+        revocationEpochs.revoke("admin");
+
+        Assertions.assertThat(revocationEpochs.isRevoked("admin", System.currentTimeMillis() + 1_000)).isFalse();
+    }
+}
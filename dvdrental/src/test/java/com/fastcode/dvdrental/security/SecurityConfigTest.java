@@ -0,0 +1,49 @@
+package com.fastcode.dvdrental.security;
+
+import com.fastcode.dvdrental.domain.core.authorization.user.UserEntity;
+import java.util.Collections;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+public class SecurityConfigTest {
+
+    protected DaoAuthenticationProvider authenticationProvider;
+
+    @Before
+    public void setUp() {
+        UserEntity user = new UserEntity();
+        user.setId(15L);
+        user.setUserName("admin");
+        user.setPassword(new BCryptPasswordEncoder().encode("secret"));
+        user.setIsActive(false);
+        authenticationProvider =
+            SecurityConfig.authenticationProvider(userName -> new LoginUser(user, Collections.emptyList()));
+    }
+
+    @Test
+    public void authenticate_UserIsInactiveAndPasswordIsWrong_ThrowBadCredentials() {
+        Assertions
+            .assertThatThrownBy(
+                () -> authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken("admin", "wrong"))
+            )
+            .isInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    public void authenticate_UserIsInactiveAndPasswordMatches_ThrowDisabled() {
+        Assertions
+            .assertThatThrownBy(
+                () -> authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken("admin", "secret"))
+            )
+            .isInstanceOf(DisabledException.class);
+    }
+}
@@ -0,0 +1,174 @@
+package com.fastcode.dvdrental.security;
+
+import com.fastcode.dvdrental.domain.core.authorization.refreshtoken.IRefreshTokenRepository;
+import com.fastcode.dvdrental.domain.core.authorization.user.IUserRepository;
+import com.fastcode.dvdrental.domain.core.authorization.user.UserEntity;
+import io.jsonwebtoken.JwtException;
+import java.util.Collections;
+import java.util.UUID;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.mock.web.MockCookie;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@SpringBootTest(properties = { "spring.profiles.active=test", "fastCode.security.stateless=true" })
+public class StatelessTokenServiceTest {
+
+    @Autowired
+    protected StatelessTokenService statelessTokenService;
+
+    @Autowired
+    protected VerifiedClaimsCache verifiedClaimsCache;
+
+    @Autowired
+    protected RevocationEpochs revocationEpochs;
+
+    @Autowired
+    protected IRefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    protected IUserRepository userRepository;
+
+    @Autowired
+    protected ApplicationContext context;
+
+    protected UserEntity user;
+
+    @Before
+    public void setUp() {
+        user = new UserEntity();
+        user.setUserName(UUID.randomUUID().toString().substring(0, 8));
+        user.setFirstName("first");
+        user.setLastName("last");
+        user.setEmailAddress(user.getUserName() + "@example.com");
+        user.setPassword("password");
+        user.setIsActive(true);
+        user.setIsEmailConfirmed(true);
+        user = userRepository.save(user);
+    }
+
+    protected String refreshToken(MockHttpServletResponse response) {
+        return response.getCookie(SecurityConstants.HEADER_STRING_AUTHENTICATION).getValue();
+    }
+
+    @Test
+    public void issueTokens_UserLogsIn_IssueAccessTokenAndStoreRefreshToken() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        String accessToken = statelessTokenService.issueTokens(
+            user.getUserName(),
+            Collections.singletonList("FILMENTITY_READ"),
+            response
+        );
+
+        Assertions.assertThat(response.getHeader(SecurityConstants.HEADER_STRING)).isEqualTo(accessToken);
+        PermissionAuthenticationToken authentication = verifiedClaimsCache.getAuthentication(accessToken, null);
+        Assertions.assertThat(authentication.getName()).isEqualTo(user.getUserName());
+        Assertions.assertThat(authentication.getIssuedAtMillis()).isPositive();
+        Assertions.assertThat(refreshTokenRepository.existsByTokenHash(TokenDigests.sha256(refreshToken(response)))).isTrue();
+    }
+
+    @Test
+    public void issueTokens_UserLogsIn_SendRefreshTokenOnlyToRefreshPathFromSameSite() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        statelessTokenService.issueTokens(user.getUserName(), Collections.emptyList(), response);
+
+        MockCookie cookie = (MockCookie) response.getCookie(SecurityConstants.HEADER_STRING_AUTHENTICATION);
+        Assertions.assertThat(cookie.getPath()).isEqualTo(SecurityConstants.REFRESH_PATH);
+        Assertions.assertThat(cookie.getSameSite()).isEqualTo("Strict");
+        Assertions.assertThat(cookie.isHttpOnly()).isTrue();
+        Assertions.assertThat(cookie.getSecure()).isTrue();
+    }
+
+    @Test
+    public void logout_AccessTokenIsGiven_DeleteItsRefreshToken() {
+        MockHttpServletResponse login = new MockHttpServletResponse();
+        String accessToken = statelessTokenService.issueTokens(user.getUserName(), Collections.emptyList(), login);
+
+        statelessTokenService.logout(user.getUserName(), accessToken);
+
+        Assertions.assertThat(refreshTokenRepository.existsByTokenHash(TokenDigests.sha256(refreshToken(login)))).isFalse();
+    }
+
+    @Test
+    public void refresh_RefreshTokenIsStored_RotateRefreshToken() {
+        MockHttpServletResponse login = new MockHttpServletResponse();
+        statelessTokenService.issueTokens(user.getUserName(), Collections.emptyList(), login);
+        MockHttpServletResponse refresh = new MockHttpServletResponse();
+
+        String accessToken = statelessTokenService.refresh(refreshToken(login), refresh);
+
+        Assertions.assertThat(accessToken).isEqualTo(refresh.getHeader(SecurityConstants.HEADER_STRING));
+        Assertions.assertThat(refreshToken(refresh)).isNotEqualTo(refreshToken(login));
+        Assertions.assertThat(refreshTokenRepository.existsByTokenHash(TokenDigests.sha256(refreshToken(login)))).isFalse();
+        Assertions.assertThat(refreshTokenRepository.existsByTokenHash(TokenDigests.sha256(refreshToken(refresh)))).isTrue();
+    }
+
+    @Test
+    public void refresh_RefreshTokenWasAlreadyUsed_RevokeUsersTokens() {
+        MockHttpServletResponse login = new MockHttpServletResponse();
+        statelessTokenService.issueTokens(user.getUserName(), Collections.emptyList(), login);
+        MockHttpServletResponse refresh = new MockHttpServletResponse();
+        statelessTokenService.refresh(refreshToken(login), refresh);
+        long issuedAt = System.currentTimeMillis() - 1;
+
+        Assertions
+            .assertThatThrownBy(() -> statelessTokenService.refresh(refreshToken(login), new MockHttpServletResponse()))
+            .isInstanceOf(JwtException.class);
+        Assertions.assertThat(revocationEpochs.isRevoked(user.getUserName(), issuedAt)).isTrue();
+        Assertions.assertThat(refreshTokenRepository.existsByTokenHash(TokenDigests.sha256(refreshToken(refresh)))).isFalse();
+    }
+
+    @Test
+    public void refresh_UserIsNotActive_ThrowException() {
+        MockHttpServletResponse login = new MockHttpServletResponse();
+        statelessTokenService.issueTokens(user.getUserName(), Collections.emptyList(), login);
+        user.setIsActive(false);
+        userRepository.save(user);
+
+        Assertions
+            .assertThatThrownBy(() -> statelessTokenService.refresh(refreshToken(login), new MockHttpServletResponse()))
+            .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    public void refresh_TokenIsAccessToken_ThrowException() {
+        String accessToken = statelessTokenService.issueTokens(
+            user.getUserName(),
+            Collections.emptyList(),
+            new MockHttpServletResponse()
+        );
+
+        Assertions
+            .assertThatThrownBy(() -> statelessTokenService.refresh(accessToken, new MockHttpServletResponse()))
+            .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    public void doFilter_RefreshTokenIsSentAsBearerToken_ReturnUnauthorized() throws Exception {
+        MockHttpServletResponse login = new MockHttpServletResponse();
+        statelessTokenService.issueTokens(user.getUserName(), Collections.emptyList(), login);
+        JWTAuthorizationFilter filter = new JWTAuthorizationFilter(Mockito.mock(AuthenticationManager.class), context);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/film");
+        request.addHeader(SecurityConstants.HEADER_STRING, refreshToken(login));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        Assertions.assertThat(response.getStatus()).isEqualTo(401);
+        Assertions.assertThat(chain.getRequest()).isNull();
+    }
+}
@@ -0,0 +1,129 @@
+package com.fastcode.dvdrental.security;
+
+import com.fastcode.dvdrental.domain.core.authorization.jwtentity.JwtEntity;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+public class TokenSessionCacheTest {
+
+    protected TokenSessionCache tokenSessionCache;
+
+    protected AtomicInteger loads;
+
+    @Before
+    public void setUp() {
+        tokenSessionCache = new TokenSessionCache();
+        loads = new AtomicInteger();
+    }
+
+    protected JwtEntity createJwt(String userName) {
+        JwtEntity jwt = new JwtEntity();
+        jwt.setUserName(userName);
+        jwt.setAuthorizationTokenHash(TokenDigests.sha256(authorizationToken(jwt)));
+        return jwt;
+    }
+
+    protected String authorizationToken(JwtEntity jwt) {
+        return "Bearer_authorization-" + jwt.getUserName();
+    }
+
+    protected String authenticationToken(JwtEntity jwt) {
+        return "Bearer_authentication-" + jwt.getUserName();
+    }
+
+    protected void put(JwtEntity jwt) {
+        tokenSessionCache.put(authorizationToken(jwt), authenticationToken(jwt), jwt.getUserName());
+    }
+
+    protected boolean isActive(JwtEntity jwt, JwtEntity stored) {
+        return isActive(jwt, authenticationToken(jwt), stored);
+    }
+
+    protected boolean isActive(JwtEntity jwt, String authenticationToken, JwtEntity stored) {
+        return tokenSessionCache.isActive(
+            authorizationToken(jwt),
+            authenticationToken,
+            (authorization, authentication) -> {
+                loads.incrementAndGet();
+                return stored;
+            }
+        );
+    }
+
+    @Test
+    public void isActive_SessionWasPutAtLogin_DoNotLoadSession() {
+        JwtEntity jwt = createJwt("admin");
+        put(jwt);
+
+        Assertions.assertThat(isActive(jwt, null)).isTrue();
+        Assertions.assertThat(loads).hasValue(0);
+    }
+
+    @Test
+    public void isActive_SessionIsNotCached_LoadSessionOnce() {
+        JwtEntity jwt = createJwt("admin");
+
+        Assertions.assertThat(isActive(jwt, jwt)).isTrue();
+        Assertions.assertThat(isActive(jwt, jwt)).isTrue();
+        Assertions.assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    public void isActive_TokensDoNotExist_ReturnFalse() {
+        Assertions.assertThat(isActive(createJwt("admin"), null)).isFalse();
+    }
+
+    @Test
+    public void isActive_AuthenticationTokenDoesNotMatch_LoadSession() {
+        JwtEntity jwt = createJwt("admin");
+        put(jwt);
+
+        Assertions.assertThat(isActive(jwt, "Bearer_other", null)).isFalse();
+        Assertions.assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    public void evict_SessionIsCached_LoadSessionAgain() {
+        JwtEntity jwt = createJwt("admin");
+        put(jwt);
+
+        tokenSessionCache.evict(authorizationToken(jwt));
+
+        Assertions.assertThat(isActive(jwt, null)).isFalse();
+    }
+
+    @Test
+    public void evictUser_UserHasSessions_EvictOnlyThatUsersSessions() {
+        JwtEntity admin = createJwt("admin");
+        JwtEntity other = createJwt("other");
+        put(admin);
+        put(other);
+
+        tokenSessionCache.evictUser("admin");
+
+        Assertions.assertThat(isActive(admin, null)).isFalse();
+        Assertions.assertThat(isActive(other, null)).isTrue();
+    }
+
+    @Test
+    public void isActive_SessionIsEvictedWhileLoading_DoNotCacheSession() {
+        JwtEntity jwt = createJwt("admin");
+
+        boolean active = tokenSessionCache.isActive(
+            authorizationToken(jwt),
+            authenticationToken(jwt),
+            (authorizationToken, authenticationToken) -> {
+                tokenSessionCache.evictUser("admin");
+                return jwt;
+            }
+        );
+
+        Assertions.assertThat(active).isTrue();
+        Assertions.assertThat(isActive(jwt, null)).isFalse();
+    }
+}
@@ -0,0 +1,79 @@
+package com.fastcode.dvdrental.security;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fastcode.dvdrental.domain.core.authorization.user.IUserRepository;
+import com.fastcode.dvdrental.domain.core.authorization.user.UserEntity;
+import java.util.Arrays;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+public class UserDetailsServiceImplTest {
+
+    @InjectMocks
+    protected UserDetailsServiceImpl _userDetailsService;
+
+    @Mock
+    protected IUserRepository _userRepository;
+
+    @Mock
+    protected SecurityUtils _securityUtils;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(_userDetailsService);
+    }
+
+    protected UserEntity createUser(Boolean isActive, Boolean isEmailConfirmed) {
+        UserEntity user = new UserEntity();
+        user.setId(15L);
+        user.setUserName("admin");
+        user.setPassword("password");
+        user.setIsActive(isActive);
+        user.setIsEmailConfirmed(isEmailConfirmed);
+        return user;
+    }
+
+    @Test
+    public void loadUserByUsername_UserExists_ReturnLoginUserWithPermissions() {
+        UserEntity user = createUser(true, true);
+        when(_userRepository.findByUserName("admin")).thenReturn(user);
+        when(_securityUtils.getAllPermissionsFromUserAndRole(user))
+            .thenReturn(Arrays.asList("FILMENTITY_READ", "ACTORENTITY_READ"));
+
+        LoginUser loginUser = (LoginUser) _userDetailsService.loadUserByUsername("admin");
+
+        Assertions.assertThat(loginUser.getUserId()).isEqualTo(15L);
+        Assertions.assertThat(loginUser.isEnabled()).isTrue();
+        Assertions.assertThat(loginUser.isEmailConfirmed()).isTrue();
+        Assertions.assertThat(loginUser.getAuthorities()).extracting("authority").containsExactlyInAnyOrder("FILMENTITY_READ", "ACTORENTITY_READ");
+        verify(_userRepository, times(1)).findByUserName("admin");
+    }
+
+    @Test
+    public void loadUserByUsername_UserIsInactive_ReturnDisabledUser() {
+        UserEntity user = createUser(null, false);
+        when(_userRepository.findByUserName("admin")).thenReturn(user);
+        when(_securityUtils.getAllPermissionsFromUserAndRole(user)).thenReturn(Arrays.asList("FILMENTITY_READ"));
+
+        LoginUser loginUser = (LoginUser) _userDetailsService.loadUserByUsername("admin");
+
+        Assertions.assertThat(loginUser.isEnabled()).isFalse();
+        Assertions.assertThat(loginUser.isEmailConfirmed()).isFalse();
+    }
+
+    @Test(expected = UsernameNotFoundException.class)
+    public void loadUserByUsername_UserDoesNotExist_ThrowException() {
+        _userDetailsService.loadUserByUsername("admin");
+    }
+}
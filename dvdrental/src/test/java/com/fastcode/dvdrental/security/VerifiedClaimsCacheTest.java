@@ -0,0 +1,149 @@
+package com.fastcode.dvdrental.security;
+
+import static org.mockito.Mockito.when;
+
+import com.fastcode.dvdrental.domain.core.authorization.permission.IPermissionRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import org.assertj.core.api.Assertions;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+public class VerifiedClaimsCacheTest {
+
+    @Mock
+    protected IPermissionRepository _permissionRepository;
+
+    protected VerifiedClaimsCache verifiedClaimsCache;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(_permissionRepository.findAllPermissionNames()).thenReturn(Collections.singletonList("FILMENTITY_READ"));
+        PermissionIndex permissionIndex = new PermissionIndex(_permissionRepository);
+        permissionIndex.load();
+        verifiedClaimsCache = new VerifiedClaimsCache(permissionIndex);
+    }
+
+    protected String createToken(String userName, long expiresIn, String... scopes) {
+        Claims claims = Jwts.claims();
+        claims.setSubject(userName);
+        claims.setExpiration(new Date(System.currentTimeMillis() + expiresIn));
+        if (scopes.length > 0) {
+            claims.put("scopes", Arrays.asList(scopes));
+        }
+        return (
+            SecurityConstants.TOKEN_PREFIX +
+            Jwts
+                .builder()
+                .setClaims(claims)
+                .signWith(SignatureAlgorithm.HS512, SecurityConstants.SECRET.getBytes())
+                .compact()
+        );
+    }
+
+    @Test
+    public void getAuthentication_TokensAreValid_ReturnAuthenticationWithPermissions() {
+        String authorizationToken = createToken("admin", 60_000, "FILMENTITY_READ", "ACTORENTITY_READ");
+        String authenticationToken = createToken("admin", 60_000);
+
+        PermissionAuthenticationToken authentication = verifiedClaimsCache.getAuthentication(
+            authorizationToken,
+            authenticationToken
+        );
+
+        Assertions.assertThat(authentication.getName()).isEqualTo("admin");
+        Assertions.assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("FILMENTITY_READ", "ACTORENTITY_READ");
+        Assertions.assertThat(authentication.getPermissions().cardinality()).isEqualTo(2);
+    }
+
+    @Test
+    public void getAuthentication_SameTokensAreVerifiedTwice_ReturnNewAuthenticationOfSameClaims() {
+        String authorizationToken = createToken("admin", 60_000, "FILMENTITY_READ");
+        String authenticationToken = createToken("admin", 60_000);
+
+        PermissionAuthenticationToken first = verifiedClaimsCache.getAuthentication(
+            authorizationToken,
+            authenticationToken
+        );
+        PermissionAuthenticationToken second = verifiedClaimsCache.getAuthentication(
+            authorizationToken,
+            authenticationToken
+        );
+
+        Assertions.assertThat(second).isNotSameAs(first);
+        Assertions.assertThat(second.getName()).isEqualTo(first.getName());
+        Assertions.assertThat(second.getAuthorities()).isEqualTo(first.getAuthorities());
+        Assertions.assertThat(second.getPermissions()).isEqualTo(first.getPermissions());
+    }
+
+    @Test(expected = SignatureException.class)
+    public void getAuthentication_SignatureIsIncorrect_ThrowException() {
+        String authorizationToken = createToken("admin", 60_000, "FILMENTITY_READ");
+        String tampered = authorizationToken.substring(0, authorizationToken.length() - 4) + "AAAA";
+
+        verifiedClaimsCache.getAuthentication(tampered, createToken("admin", 60_000));
+    }
+
+    @Test(expected = ExpiredJwtException.class)
+    public void getAuthentication_TokenIsExpired_ThrowException() {
+        verifiedClaimsCache.getAuthentication(createToken("admin", -1_000, "FILMENTITY_READ"), createToken("admin", 60_000));
+    }
+
+    @Test(expected = JwtException.class)
+    public void getAuthentication_TokenHasNoScopes_ThrowException() {
+        verifiedClaimsCache.getAuthentication(createToken("admin", 60_000), createToken("admin", 60_000));
+    }
+
+    @Test
+    public void getAuthentication_TokenIsNotBearer_ReturnNull() {
+        Assertions.assertThat(verifiedClaimsCache.getAuthentication("Basic abc", createToken("admin", 60_000))).isNull();
+    }
+
+    @Test
+    public void setDetails_AuthenticationIsChanged_KeepNextAuthenticationOfTokens() {
+        String authorizationToken = createToken("admin", 60_000, "FILMENTITY_READ");
+        String authenticationToken = createToken("admin", 60_000);
+
+        PermissionAuthenticationToken authentication = verifiedClaimsCache.getAuthentication(
+            authorizationToken,
+            authenticationToken
+        );
+        authentication.setDetails("details");
+        authentication.setAuthenticated(false);
+        authentication.eraseCredentials();
+
+        Assertions.assertThat(authentication.getDetails()).isEqualTo("details");
+        Assertions.assertThat(authentication.isAuthenticated()).isFalse();
+        PermissionAuthenticationToken next = verifiedClaimsCache.getAuthentication(
+            authorizationToken,
+            authenticationToken
+        );
+        Assertions.assertThat(next.getDetails()).isNull();
+        Assertions.assertThat(next.isAuthenticated()).isTrue();
+    }
+
+    @Test
+    public void getPermissions_CopyIsChanged_KeepPermissionsOfAuthentication() {
+        PermissionAuthenticationToken authentication = verifiedClaimsCache.getAuthentication(
+            createToken("admin", 60_000, "FILMENTITY_READ"),
+            createToken("admin", 60_000)
+        );
+
+        authentication.getPermissions().clear();
+
+        Assertions.assertThat(authentication.getPermissions().cardinality()).isEqualTo(1);
+    }
+}